@@ -2,63 +2,180 @@ package eu.deltasource.internship.hotel.controller;
 
 
 import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.domain.BookingHold;
+import eu.deltasource.internship.hotel.domain.WaitlistEntry;
+import eu.deltasource.internship.hotel.dto.GroupBookingDTO;
+import eu.deltasource.internship.hotel.service.BookingHoldService;
 import eu.deltasource.internship.hotel.service.BookingService;
+import eu.deltasource.internship.hotel.service.HotelService;
+import eu.deltasource.internship.hotel.service.IdempotencyService;
 import eu.deltasource.internship.hotel.utility.Date;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
-@RequestMapping("/bookings")
+@RequestMapping({"/bookings", "/hotels/{hotelId}/bookings"})
 public class BookingController {
 
+	private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
 	@Autowired
 	private BookingService bookingService;
 
+	@Autowired
+	private BookingHoldService bookingHoldService;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
 	@PostMapping
-	public Booking save(@RequestBody Booking booking) {
-		return bookingService.save(booking);
+	public Booking save(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody Booking booking,
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+		return idempotencyService.execute(idempotencyKey, IdempotencyService.operation(hotelId, "/bookings"),
+			booking, () -> bookingService(hotelId).save(booking));
 	}
 
 	@PostMapping(value = "/list")
-	public List<Booking> saveAll(@RequestBody List<Booking> bookings) {
-		return bookingService.saveAll(bookings);
+	public List<Booking> saveAll(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody List<Booking> bookings,
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+		return idempotencyService.execute(idempotencyKey, IdempotencyService.operation(hotelId, "/bookings/list"),
+			bookings, () -> bookingService(hotelId).saveAll(bookings));
+	}
+
+	@PostMapping(value = "/group")
+	public List<Booking> saveGroup(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody List<Booking> bookings,
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+		return idempotencyService.execute(idempotencyKey, IdempotencyService.operation(hotelId, "/bookings/group"),
+			bookings, () -> bookingService(hotelId).saveGroup(bookings));
+	}
+
+	@PostMapping(value = "/group/auto")
+	public List<Booking> saveGroup(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody GroupBookingDTO group,
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+		return idempotencyService.execute(idempotencyKey,
+			IdempotencyService.operation(hotelId, "/bookings/group/auto"), group,
+			() -> bookingService(hotelId).saveGroup(group));
+	}
+
+	@PostMapping(value = "/holds")
+	public BookingHold hold(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody Booking booking, @RequestParam(value = "ttlSeconds", required = false) Long ttlSeconds,
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+		return idempotencyService.execute(idempotencyKey, IdempotencyService.operation(hotelId, "/bookings/holds"),
+			booking,
+			() -> bookingHoldService(hotelId).hold(booking, ttlSeconds == null ? null : Duration.ofSeconds(ttlSeconds)));
+	}
+
+	@GetMapping(value = "/holds/{id}")
+	public BookingHold findHoldById(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@PathVariable("id") int id) {
+		return bookingHoldService(hotelId).findById(id);
+	}
+
+	@PostMapping(value = "/holds/{id}/confirm")
+	public Booking confirmHold(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@PathVariable("id") int id) {
+		return bookingHoldService(hotelId).confirm(id);
+	}
+
+	@DeleteMapping(value = "/holds/{id}")
+	public boolean releaseHold(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@PathVariable("id") int id) {
+		return bookingHoldService(hotelId).release(id);
+	}
+
+	@PostMapping(value = "/waitlist")
+	public WaitlistEntry waitlist(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody Booking request,
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+		return idempotencyService.execute(idempotencyKey, IdempotencyService.operation(hotelId, "/bookings/waitlist"),
+			request, () -> bookingService(hotelId).waitlist(request));
+	}
+
+	@GetMapping(value = "/waitlist")
+	public List<WaitlistEntry> findWaitlist(@PathVariable(value = "hotelId", required = false) Integer hotelId) {
+		return bookingService(hotelId).findWaitlist();
+	}
+
+	@GetMapping(value = "/waitlist/{id}")
+	public WaitlistEntry findWaitlistEntryById(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@PathVariable("id") int id) {
+		return bookingService(hotelId).findWaitlistEntryById(id);
+	}
+
+	@DeleteMapping(value = "/waitlist/{id}")
+	public boolean withdrawFromWaitlist(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@PathVariable("id") int id) {
+		return bookingService(hotelId).withdrawFromWaitlist(id);
+	}
+
+	@GetMapping(value = "/overbooked")
+	public Map<LocalDate, Integer> findOverbookedNights(
+			@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+		return bookingService(hotelId).findOverbookedNights(from, to);
 	}
 
 	@GetMapping
-	public List<Booking> findAll() {
-		return bookingService.findAll();
+	public List<Booking> findAll(@PathVariable(value = "hotelId", required = false) Integer hotelId) {
+		return bookingService(hotelId).findAll();
 	}
 
 	@GetMapping(value = "/{id}")
-	public Booking findById(@PathVariable("id") int id) {
-		return bookingService.findById(id);
+	public Booking findById(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@PathVariable("id") int id) {
+		return bookingService(hotelId).findById(id);
 	}
 
 	@PutMapping(value = "/dates/{id}")
-	public void updateBookingByDates(@PathVariable("id") int bookingId, @RequestBody Date dates) {
-		bookingService.updateBookingByDates(bookingId, dates.getFrom(), dates.getTo());
+	public void updateBookingByDates(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@PathVariable("id") int bookingId, @RequestBody Date dates) {
+		bookingService(hotelId).updateBookingByDates(bookingId, dates.getFrom(), dates.getTo());
 	}
 
 	@PutMapping(value = "/room/{id}")
-	public void updateBooking(@PathVariable("id") int bookingId, @RequestBody Booking updatedBooking) {
-		bookingService.updateBooking(bookingId, updatedBooking);
+	public void updateBooking(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@PathVariable("id") int bookingId, @RequestBody Booking updatedBooking) {
+		bookingService(hotelId).updateBooking(bookingId, updatedBooking);
 	}
 
 	@DeleteMapping(value = "/{id}")
-	public boolean deleteById(@PathVariable("id") int id) {
-		return bookingService.deleteById(id);
+	public boolean deleteById(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@PathVariable("id") int id) {
+		return bookingService(hotelId).deleteById(id);
 	}
 
 	@DeleteMapping
-	public boolean delete(@RequestBody Booking booking) {
-		return bookingService.delete(booking);
+	public boolean delete(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody Booking booking) {
+		return bookingService(hotelId).delete(booking);
 	}
 
 	@DeleteMapping(value = "/all")
-	public void deleteAll() {
-		bookingService.deleteAll();
+	public void deleteAll(@PathVariable(value = "hotelId", required = false) Integer hotelId) {
+		bookingService(hotelId).deleteAll();
+	}
+
+	private BookingService bookingService(Integer hotelId) {
+		return hotelId == null ? bookingService : hotelService.findById(hotelId).getBookingService();
+	}
+
+	private BookingHoldService bookingHoldService(Integer hotelId) {
+		return hotelId == null ? bookingHoldService : hotelService.findById(hotelId).getBookingHoldService();
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,32 @@
+package eu.deltasource.internship.hotel.controller;
+
+import eu.deltasource.internship.hotel.dto.CalendarDTO;
+import eu.deltasource.internship.hotel.service.BookingService;
+import eu.deltasource.internship.hotel.service.HotelService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping({"/calendar", "/hotels/{hotelId}/calendar"})
+public class CalendarController {
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@GetMapping
+	public CalendarDTO findCalendar(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(value = "days", defaultValue = "30") int days) {
+		return bookingService(hotelId).findCalendar(from, days);
+	}
+
+	private BookingService bookingService(Integer hotelId) {
+		return hotelId == null ? bookingService : hotelService.findById(hotelId).getBookingService();
+	}
+}
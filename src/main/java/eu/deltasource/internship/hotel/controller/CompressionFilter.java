@@ -0,0 +1,314 @@
+package eu.deltasource.internship.hotel.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses the responses with gzip or deflate, as the Accept-Encoding of the request allows.
+ * <p>
+ * The body is held back until it outgrows the threshold,
+ * so the small responses are sent as they are, with their length.
+ * The bodies of JSON, CBOR, Smile and text are compressed, gzip is preferred.
+ * Event streams and the responses, which are completed asynchronously,
+ * are sent as they are written, without compression.
+ */
+@Component
+public class CompressionFilter extends OncePerRequestFilter {
+
+	static final String GZIP = "gzip";
+	static final String DEFLATE = "deflate";
+
+	private static final List<String> COMPRESSED_TYPES = List.of("application/json", "application/cbor",
+		"application/x-jackson-smile", "text/");
+	private static final String EVENT_STREAM = MediaType.TEXT_EVENT_STREAM_VALUE;
+
+	private boolean enabled = true;
+	private int minSize = 1024;
+
+	@Value("${hotel.compression.enabled:true}")
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	@Value("${hotel.compression.min-size:1024}")
+	public void setMinSize(int minSize) {
+		this.minSize = minSize;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+		throws ServletException, IOException {
+		String encoding = enabled ? encoding(request.getHeader(HttpHeaders.ACCEPT_ENCODING)) : null;
+		String accept = request.getHeader(HttpHeaders.ACCEPT);
+		if (encoding == null || accept != null && accept.contains(EVENT_STREAM)) {
+			chain.doFilter(request, response);
+			return;
+		}
+		response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		CompressingResponse compressingResponse = new CompressingResponse(response, encoding);
+		chain.doFilter(request, compressingResponse);
+		if (request.isAsyncStarted()) {
+			// the body is written after the filter has returned
+			compressingResponse.passThrough();
+		} else {
+			compressingResponse.finish();
+		}
+	}
+
+	/**
+	 * Chooses the encoding of a response
+	 *
+	 * @param acceptEncoding Accept-Encoding header of the request
+	 * @return gzip, deflate or null when the client takes neither
+	 */
+	static String encoding(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return null;
+		}
+		boolean deflate = false;
+		for (String token : acceptEncoding.split(",")) {
+			String[] parts = token.split(";");
+			String name = parts[0].trim().toLowerCase();
+			if (parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?")) {
+				continue;
+			}
+			if (GZIP.equals(name)) {
+				return GZIP;
+			}
+			deflate |= DEFLATE.equals(name);
+		}
+		return deflate ? DEFLATE : null;
+	}
+
+	private class CompressingResponse extends HttpServletResponseWrapper {
+
+		private final String encoding;
+		private ThresholdOutputStream outputStream;
+		private PrintWriter writer;
+		private long contentLength = -1;
+		private boolean passThrough;
+
+		private CompressingResponse(HttpServletResponse response, String encoding) {
+			super(response);
+			this.encoding = encoding;
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() {
+			if (outputStream == null) {
+				outputStream = new ThresholdOutputStream(this);
+			}
+			return outputStream;
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (writer == null) {
+				writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+			}
+			return writer;
+		}
+
+		@Override
+		public void setContentLength(int length) {
+			setContentLengthLong(length);
+		}
+
+		@Override
+		public void setContentLengthLong(long length) {
+			if (passThrough) {
+				super.setContentLengthLong(length);
+			} else {
+				contentLength = length;
+			}
+		}
+
+		@Override
+		public void setHeader(String name, String value) {
+			if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+				setContentLengthLong(Long.parseLong(value));
+			} else {
+				super.setHeader(name, value);
+			}
+		}
+
+		@Override
+		public void addHeader(String name, String value) {
+			if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+				setContentLengthLong(Long.parseLong(value));
+			} else {
+				super.addHeader(name, value);
+			}
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			if (writer != null) {
+				writer.flush();
+			}
+			if (outputStream != null) {
+				outputStream.flush();
+			}
+		}
+
+		private void finish() throws IOException {
+			if (writer != null) {
+				writer.flush();
+			}
+			if (outputStream != null) {
+				outputStream.finish();
+			} else if (contentLength >= 0) {
+				super.setContentLengthLong(contentLength);
+			}
+		}
+
+		/**
+		 * Sends what is held back and everything written from now on as it is
+		 */
+		private void passThrough() throws IOException {
+			passThrough = true;
+			if (contentLength >= 0) {
+				super.setContentLengthLong(contentLength);
+			}
+			if (outputStream != null && outputStream.out == null) {
+				outputStream.open(false, false);
+			}
+		}
+
+		private boolean streaming() {
+			String contentType = getContentType();
+			return passThrough || contentType != null && contentType.startsWith(EVENT_STREAM);
+		}
+
+		private boolean compressible() {
+			String contentType = getContentType();
+			if (contentType == null || containsHeader(HttpHeaders.CONTENT_ENCODING) || streaming()) {
+				return false;
+			}
+			return COMPRESSED_TYPES.stream().anyMatch(contentType::startsWith);
+		}
+	}
+
+	private class ThresholdOutputStream extends ServletOutputStream {
+
+		private final CompressingResponse response;
+		private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		private ServletOutputStream target;
+		private OutputStream out;
+
+		private ThresholdOutputStream(CompressingResponse response) {
+			this.response = response;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[]{(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) throws IOException {
+			if (out == null && response.streaming()) {
+				open(false, false);
+			}
+			if (out != null) {
+				out.write(bytes, offset, length);
+				return;
+			}
+			buffer.write(bytes, offset, length);
+			if (buffer.size() > minSize) {
+				open(response.compressible(), false);
+			}
+		}
+
+		/**
+		 * Only the compressed output is flushed, the held back body
+		 * would otherwise commit the response before the choice is made.
+		 */
+		@Override
+		public void flush() throws IOException {
+			if (out != null) {
+				out.flush();
+			}
+		}
+
+		private void finish() throws IOException {
+			if (out == null) {
+				open(false, true);
+			}
+			if (out instanceof DeflaterOutputStream) {
+				((DeflaterOutputStream) out).finish();
+			}
+			out.flush();
+		}
+
+		/**
+		 * Chooses the output of the body and writes what was held back to it
+		 *
+		 * @param compress true to compress the body
+		 * @param complete true when the whole body was held back, so its length is known
+		 */
+		private void open(boolean compress, boolean complete) throws IOException {
+			HttpServletResponse wrapped = (HttpServletResponse) response.getResponse();
+			if (compress) {
+				wrapped.setHeader(HttpHeaders.CONTENT_ENCODING, response.encoding);
+				target = wrapped.getOutputStream();
+				out = GZIP.equals(response.encoding) ? new GZIPOutputStream(target, true)
+					: new DeflaterOutputStream(target, true);
+			} else {
+				if (response.contentLength >= 0) {
+					wrapped.setContentLengthLong(response.contentLength);
+				} else if (complete) {
+					wrapped.setContentLength(buffer.size());
+				}
+				target = wrapped.getOutputStream();
+				out = target;
+			}
+			buffer.writeTo(out);
+			buffer = null;
+		}
+
+		/**
+		 * The held back body is kept in memory, so a write is always possible until the output is chosen
+		 */
+		@Override
+		public boolean isReady() {
+			return target == null || target.isReady();
+		}
+
+		/**
+		 * A non-blocking writer can not wait for the threshold,
+		 * so the body is sent as it is written, without compression.
+		 */
+		@Override
+		public void setWriteListener(WriteListener listener) {
+			if (out == null) {
+				try {
+					open(false, false);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+			target.setWriteListener(listener);
+		}
+	}
+}
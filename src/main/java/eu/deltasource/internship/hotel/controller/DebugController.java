@@ -0,0 +1,31 @@
+package eu.deltasource.internship.hotel.controller;
+
+import eu.deltasource.internship.hotel.startup.BeanInitTimer;
+import eu.deltasource.internship.hotel.startup.BeanTiming;
+import eu.deltasource.internship.hotel.tracing.Trace;
+import eu.deltasource.internship.hotel.tracing.TraceRecorder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/debug")
+public class DebugController {
+
+	@Autowired
+	private TraceRecorder traceRecorder;
+
+	@Autowired
+	private BeanInitTimer beanInitTimer;
+
+	@GetMapping(value = "/slow-requests")
+	public List<Trace> findSlowRequests(@RequestParam(value = "limit", defaultValue = "20") int limit) {
+		return traceRecorder.findSlowest(limit);
+	}
+
+	@GetMapping(value = "/startup")
+	public List<BeanTiming> findSlowBeans(@RequestParam(value = "limit", defaultValue = "20") int limit) {
+		return beanInitTimer.findSlowest(limit);
+	}
+}
@@ -0,0 +1,63 @@
+package eu.deltasource.internship.hotel.controller;
+
+import eu.deltasource.internship.hotel.domain.ChangeEvent;
+import eu.deltasource.internship.hotel.service.ChangeEventLog;
+import eu.deltasource.internship.hotel.service.ChangeEventLog.Subscription;
+import eu.deltasource.internship.hotel.service.HotelService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+@RestController
+@RequestMapping({"/events", "/hotels/{hotelId}/events"})
+public class EventController {
+
+	private static final long STREAM_TIMEOUT_MILLIS = 30 * 60 * 1000;
+
+	@Autowired
+	private ChangeEventLog eventLog;
+
+	@Autowired
+	private HotelService hotelService;
+
+	/**
+	 * Streams the changes after the given sequence as server-sent events.
+	 * A client, which reconnects, resumes after the last event it has received.
+	 */
+	@GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter subscribe(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestParam(value = "since", required = false) Long since,
+			@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+		ChangeEventLog log = eventLog(hotelId);
+		long start = since != null ? since : lastEventId != null ? lastEventId : log.lastSequence();
+		SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+		Subscription subscription = log.subscribe(start, page -> send(emitter, page));
+		emitter.onCompletion(subscription::close);
+		emitter.onTimeout(subscription::close);
+		emitter.onError(error -> subscription.close());
+		return emitter;
+	}
+
+	private static void send(SseEmitter emitter, ChangeEventLog.Page page) {
+		try {
+			if (page.isResync()) {
+				emitter.send(SseEmitter.event().id(String.valueOf(page.getLastSequence())).name("resync")
+					.data(page.getLastSequence()));
+			}
+			for (ChangeEvent event : page.getEvents()) {
+				emitter.send(SseEmitter.event().id(String.valueOf(event.getSequence())).name("change")
+					.data(event, MediaType.APPLICATION_JSON));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private ChangeEventLog eventLog(Integer hotelId) {
+		return hotelId == null ? eventLog : hotelService.findById(hotelId).getEventLog();
+	}
+}
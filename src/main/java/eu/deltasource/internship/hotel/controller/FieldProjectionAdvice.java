@@ -0,0 +1,44 @@
+package eu.deltasource.internship.hotel.controller;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies the fields parameter of the booking, guest and room endpoints,
+ * e.g. GET /bookings?fields=bookingId,roomId,from,to
+ * writes only the ids and the dates of the bookings.
+ * <p>
+ * The projection holds for JSON and for the binary encodings alike.
+ */
+@ControllerAdvice(assignableTypes = {BookingController.class, GuestController.class, RoomController.class})
+public class FieldProjectionAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+	private static final String FIELDS = "fields";
+
+	@Override
+	protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+		MethodParameter returnType, ServerHttpRequest request, ServerHttpResponse response) {
+		if (!(request instanceof ServletServerHttpRequest)) {
+			return;
+		}
+		String fields = ((ServletServerHttpRequest) request).getServletRequest().getParameter(FIELDS);
+		if (fields == null || fields.isBlank()) {
+			return;
+		}
+		Set<String> names = Arrays.stream(fields.split(","))
+			.map(String::trim)
+			.filter(name -> !name.isEmpty())
+			.collect(Collectors.toSet());
+		bodyContainer.setFilters(FieldProjectionModule.projection(names));
+	}
+}
@@ -0,0 +1,69 @@
+package eu.deltasource.internship.hotel.controller;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerBuilder;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.domain.Guest;
+import eu.deltasource.internship.hotel.domain.Room;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Lets the responses with bookings, guests and rooms carry only some of their fields.
+ * <p>
+ * The serializers of these types look up a property filter by {@link #FILTER_ID}.
+ * The mapper resolves the id to no filter, so every field is written,
+ * unless the filters of a single write, see {@link #projection(Set)}, bring one.
+ * The skipped fields are never read, no map is built in between.
+ */
+@Component
+public class FieldProjectionModule extends SimpleModule {
+
+	/**
+	 * Id of the property filter of the projected types
+	 */
+	public static final String FILTER_ID = "fields";
+
+	private static final Set<Class<?>> PROJECTED_TYPES = Set.of(Booking.class, Guest.class, Room.class);
+
+	public FieldProjectionModule() {
+		super(FieldProjectionModule.class.getSimpleName());
+		setSerializerModifier(new BeanSerializerModifier() {
+			@Override
+			public BeanSerializerBuilder updateBuilder(SerializationConfig config, BeanDescription beanDesc,
+				BeanSerializerBuilder builder) {
+				if (PROJECTED_TYPES.contains(beanDesc.getBeanClass())) {
+					builder.setFilterId(FILTER_ID);
+				}
+				return builder;
+			}
+		});
+	}
+
+	@Override
+	public void setupModule(SetupContext context) {
+		super.setupModule(context);
+		ObjectMapper mapper = context.getOwner();
+		if (mapper.getSerializationConfig().getFilterProvider() == null) {
+			mapper.setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
+		}
+	}
+
+	/**
+	 * Creates the filters of a write, which keeps only the given fields
+	 *
+	 * @param fields names of the fields to write
+	 * @return filters to pass to the writer
+	 */
+	public static FilterProvider projection(Set<String> fields) {
+		return new SimpleFilterProvider().addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+	}
+}
@@ -1,56 +1,93 @@
 package eu.deltasource.internship.hotel.controller;
 
 import eu.deltasource.internship.hotel.domain.Guest;
+import eu.deltasource.internship.hotel.dto.GuestImportDTO;
 import eu.deltasource.internship.hotel.service.GuestService;
+import eu.deltasource.internship.hotel.service.HotelService;
+import eu.deltasource.internship.hotel.service.IdempotencyService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
 @RestController
-@RequestMapping("/guests")
+@RequestMapping({"/guests", "/hotels/{hotelId}/guests"})
 public class GuestController {
 
+	private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
 	@Autowired
 	private GuestService guestService;
 
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
 	@PostMapping(value = "/list")
-	public List<Guest> saveAll(@RequestBody List<Guest> guests) {
-		return guestService.saveAll(guests);
+	public List<Guest> saveAll(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody List<Guest> guests,
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+		return idempotencyService.execute(idempotencyKey, IdempotencyService.operation(hotelId, "/guests/list"),
+			guests, () -> guestService(hotelId).saveAll(guests));
+	}
+
+	@PostMapping(value = "/merge")
+	public GuestImportDTO merge(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody List<Guest> guests) {
+		return guestService(hotelId).merge(guests);
 	}
 
 	@PostMapping
-	public Guest save(@RequestBody Guest guest) {
-		return guestService.save(guest);
+	public Guest save(@PathVariable(value = "hotelId", required = false) Integer hotelId, @RequestBody Guest guest,
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+		return idempotencyService.execute(idempotencyKey, IdempotencyService.operation(hotelId, "/guests"),
+			guest, () -> guestService(hotelId).save(guest));
 	}
 
 	@GetMapping(value = "/{id}")
-	public Guest findById(@PathVariable("id") int id) {
-		return guestService.findById(id);
+	public Guest findById(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@PathVariable("id") int id) {
+		return guestService(hotelId).findById(id);
+	}
+
+	@GetMapping(value = "/search")
+	public List<Guest> search(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestParam("q") String query, @RequestParam(value = "limit", defaultValue = "10") int limit,
+			@RequestParam(value = "fuzzy", defaultValue = "false") boolean fuzzy) {
+		return guestService(hotelId).search(query, limit, fuzzy);
 	}
 
 	@GetMapping
-	public List<Guest> findAll() {
-		return guestService.findAll();
+	public List<Guest> findAll(@PathVariable(value = "hotelId", required = false) Integer hotelId) {
+		return guestService(hotelId).findAll();
 	}
 
 	@PutMapping
-	public Guest updateGuest(@RequestBody Guest guest) {
-		return guestService.update(guest);
+	public Guest updateGuest(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody Guest guest) {
+		return guestService(hotelId).update(guest);
 	}
 
 	@DeleteMapping(value = "/{id}")
-	public boolean deleteById(@PathVariable("id") int id) {
-		return guestService.deleteById(id);
+	public boolean deleteById(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@PathVariable("id") int id) {
+		return guestService(hotelId).deleteById(id);
 	}
 
 	@DeleteMapping(value = "/all")
-	public void deleteAll() {
-		guestService.deleteAll();
+	public void deleteAll(@PathVariable(value = "hotelId", required = false) Integer hotelId) {
+		guestService(hotelId).deleteAll();
 	}
 
 	@DeleteMapping
-	public boolean deleteGuest(@RequestBody Guest guest) {
-		return guestService.delete(guest);
+	public boolean deleteGuest(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody Guest guest) {
+		return guestService(hotelId).delete(guest);
+	}
+
+	private GuestService guestService(Integer hotelId) {
+		return hotelId == null ? guestService : hotelService.findById(hotelId).getGuestService();
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,47 @@
+package eu.deltasource.internship.hotel.controller;
+
+import eu.deltasource.internship.hotel.domain.Hotel;
+import eu.deltasource.internship.hotel.dto.HotelAvailabilityDTO;
+import eu.deltasource.internship.hotel.service.HotelService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/hotels")
+public class HotelController {
+
+	@Autowired
+	private HotelService hotelService;
+
+	@PostMapping
+	public Hotel save(@RequestParam("name") String name) {
+		return hotelService.save(name);
+	}
+
+	@GetMapping
+	public List<Hotel> findAll() {
+		return hotelService.findAll();
+	}
+
+	@GetMapping(value = "/{id}")
+	public Hotel findById(@PathVariable("id") int id) {
+		return hotelService.findById(id);
+	}
+
+	@GetMapping(value = "/availability")
+	public List<HotelAvailabilityDTO> findAvailableRooms(
+			@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(value = "numberOfPeople", defaultValue = "1") int numberOfPeople) {
+		return hotelService.findAvailableRooms(from, to, numberOfPeople);
+	}
+
+	@DeleteMapping(value = "/{id}")
+	public boolean deleteById(@PathVariable("id") int id) {
+		return hotelService.deleteById(id);
+	}
+}
@@ -0,0 +1,39 @@
+package eu.deltasource.internship.hotel.controller;
+
+import eu.deltasource.internship.hotel.domain.CleaningTask;
+import eu.deltasource.internship.hotel.service.HotelService;
+import eu.deltasource.internship.hotel.service.HousekeepingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping({"/housekeeping", "/hotels/{hotelId}/housekeeping"})
+public class HousekeepingController {
+
+	@Autowired
+	private HousekeepingService housekeepingService;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@GetMapping(value = "/plan")
+	public List<CleaningTask> plan(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+		return housekeepingService(hotelId).plan(date);
+	}
+
+	@PostMapping(value = "/run")
+	public CompletableFuture<Integer> run(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+		return housekeepingService(hotelId).run(date);
+	}
+
+	private HousekeepingService housekeepingService(Integer hotelId) {
+		return hotelId == null ? housekeepingService : hotelService.findById(hotelId).getHousekeepingService();
+	}
+}
@@ -0,0 +1,19 @@
+package eu.deltasource.internship.hotel.controller;
+
+import eu.deltasource.internship.hotel.dto.IdempotencyStatsDTO;
+import eu.deltasource.internship.hotel.service.IdempotencyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/idempotency")
+public class IdempotencyController {
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
+	@GetMapping(value = "/stats")
+	public IdempotencyStatsDTO stats() {
+		return idempotencyService.stats();
+	}
+}
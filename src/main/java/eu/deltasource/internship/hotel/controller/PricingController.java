@@ -0,0 +1,33 @@
+package eu.deltasource.internship.hotel.controller;
+
+import eu.deltasource.internship.hotel.dto.QuoteDTO;
+import eu.deltasource.internship.hotel.service.HotelService;
+import eu.deltasource.internship.hotel.service.PricingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping({"/pricing", "/hotels/{hotelId}/pricing"})
+public class PricingController {
+
+	@Autowired
+	private PricingService pricingService;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@GetMapping(value = "/quote")
+	public QuoteDTO quote(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestParam("roomId") int roomId,
+			@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+		return pricingService(hotelId).quote(roomId, from, to);
+	}
+
+	private PricingService pricingService(Integer hotelId) {
+		return hotelId == null ? pricingService : hotelService.findById(hotelId).getPricingService();
+	}
+}
@@ -0,0 +1,21 @@
+package eu.deltasource.internship.hotel.controller;
+
+import eu.deltasource.internship.hotel.service.WarmupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class ReadinessController {
+
+	@Autowired
+	private WarmupService warmupService;
+
+	@GetMapping(value = "/ready")
+	public ResponseEntity<String> ready() {
+		return warmupService.isReady() ? ResponseEntity.ok("READY")
+			: ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("WARMING_UP");
+	}
+}
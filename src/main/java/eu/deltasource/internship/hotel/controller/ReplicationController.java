@@ -0,0 +1,24 @@
+package eu.deltasource.internship.hotel.controller;
+
+import eu.deltasource.internship.hotel.dto.ReplicationStatusDTO;
+import eu.deltasource.internship.hotel.replication.ReplicationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/replication")
+public class ReplicationController {
+
+	@Autowired
+	private ReplicationService replicationService;
+
+	@GetMapping(value = "/status")
+	public ReplicationStatusDTO status() {
+		return replicationService.status();
+	}
+
+	@PostMapping(value = "/promote")
+	public ReplicationStatusDTO promote() {
+		return replicationService.promote();
+	}
+}
@@ -1,57 +1,99 @@
 package eu.deltasource.internship.hotel.controller;
 
 import eu.deltasource.internship.hotel.domain.Room;
+import eu.deltasource.internship.hotel.domain.commodity.BedType;
 import eu.deltasource.internship.hotel.service.RoomService;
+import eu.deltasource.internship.hotel.service.HotelService;
+import eu.deltasource.internship.hotel.service.IdempotencyService;
 import eu.deltasource.internship.hotel.dto.RoomDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
-@RequestMapping("/rooms")
+@RequestMapping({"/rooms", "/hotels/{hotelId}/rooms"})
 public class RoomController {
 
+	private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
 	@Autowired
 	private RoomService roomService;
 
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
 	@PostMapping
-	public Room saveRoom(@RequestBody RoomDTO room) {
-		return roomService.save(roomService.convertDTO(room));
+	public Room saveRoom(@PathVariable(value = "hotelId", required = false) Integer hotelId, @RequestBody Room room,
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+		return idempotencyService.execute(idempotencyKey, IdempotencyService.operation(hotelId, "/rooms"),
+			room, () -> roomService(hotelId).save(room));
 	}
 
 	@PostMapping(value = "/list")
-	public List<Room> saveRooms(@RequestBody List<RoomDTO> rooms) {
-		return roomService.saveAll(roomService.convertDTO(rooms));
+	public List<Room> saveRooms(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody List<Room> rooms,
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+		return idempotencyService.execute(idempotencyKey, IdempotencyService.operation(hotelId, "/rooms/list"),
+			rooms, () -> roomService(hotelId).saveAll(rooms));
 	}
 
 	@GetMapping(value = "/{id}")
-	public Room getRoomById(@PathVariable("id") int id) {
-		return roomService.findById(id);
+	public Room getRoomById(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@PathVariable("id") int id) {
+		return roomService(hotelId).findById(id);
 	}
 
 	@GetMapping
-	public List<Room> findRooms() {
-		return roomService.findAll();
+	public List<Room> findRooms(@PathVariable(value = "hotelId", required = false) Integer hotelId) {
+		return roomService(hotelId).findAll();
+	}
+
+	@GetMapping(value = "/search")
+	public List<Room> searchRooms(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestParam(value = "capacity", required = false) Integer capacity,
+								  @RequestParam(value = "bedType", required = false) BedType bedType) {
+		return roomService(hotelId).search(capacity, bedType);
+	}
+
+	@GetMapping(value = "/available")
+	public List<Room> findAvailableRooms(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(value = "numberOfPeople", defaultValue = "1") int numberOfPeople) {
+		int id = hotelId == null ? HotelService.DEFAULT_HOTEL_ID : hotelId;
+		return hotelService.findById(id).getBookingService().findAvailableRooms(from, to, numberOfPeople);
 	}
 
 	@PutMapping
-	public Room updateRoom(@RequestBody RoomDTO room) {
-		return roomService.updateRoom(roomService.convertDTO(room));
+	public Room updateRoom(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody RoomDTO room) {
+		return roomService(hotelId).updateRoom(roomService(hotelId).convertDTO(room));
 	}
 
 	@DeleteMapping
-	public boolean deleteRoom(@RequestBody RoomDTO room) {
-		return roomService.delete(roomService.convertDTO(room));
+	public boolean deleteRoom(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody RoomDTO room) {
+		return roomService(hotelId).delete(roomService(hotelId).convertDTO(room));
 	}
 
 	@DeleteMapping(value = "/{id}")
-	public boolean deleteRoomById(@PathVariable("id") int id) {
-		return roomService.deleteById(id);
+	public boolean deleteRoomById(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@PathVariable("id") int id) {
+		return roomService(hotelId).deleteById(id);
 	}
 
 	@DeleteMapping(value = "/all")
-	public void deleteAll() {
-		roomService.deleteAll();
+	public void deleteAll(@PathVariable(value = "hotelId", required = false) Integer hotelId) {
+		roomService(hotelId).deleteAll();
+	}
+
+	private RoomService roomService(Integer hotelId) {
+		return hotelId == null ? roomService : hotelService.findById(hotelId).getRoomService();
 	}
-}
\ No newline at end of file
+}
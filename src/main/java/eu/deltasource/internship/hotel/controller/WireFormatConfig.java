@@ -0,0 +1,55 @@
+package eu.deltasource.internship.hotel.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Adds the binary encodings of the endpoints next to JSON,
+ * chosen by the Accept and Content-Type headers.
+ * <p>
+ * CBOR is served as application/cbor and Smile as application/x-jackson-smile.
+ * Both carry the same fields as the JSON, because their mappers are built
+ * from the builder of the JSON mapper with only the factory replaced,
+ * so the room deserializer and the date format apply to them as well.
+ * The converters replace the ones Spring adds by default, which are
+ * built without the application settings.
+ */
+@Configuration
+public class WireFormatConfig {
+
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(cborMapper(builder));
+	}
+
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(smileMapper(builder));
+	}
+
+	/**
+	 * Builds the CBOR mapper
+	 *
+	 * @param builder builder with the settings of the JSON mapper
+	 * @return mapper writing CBOR
+	 */
+	public static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+		return builder.factory(new CBORFactory()).build();
+	}
+
+	/**
+	 * Builds the Smile mapper
+	 *
+	 * @param builder builder with the settings of the JSON mapper
+	 * @return mapper writing Smile
+	 */
+	public static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder builder) {
+		return builder.factory(new SmileFactory()).build();
+	}
+}
@@ -1,13 +1,21 @@
 package eu.deltasource.internship.hotel.domain;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import eu.deltasource.internship.hotel.exception.FailedInitializationException;
+import eu.deltasource.internship.hotel.utility.Today;
 import lombok.Getter;
 
 import java.time.LocalDate;
 
 /**
- * Represents booking for a hotel room
+ * Represents booking for a hotel room.
+ * <p>
+ * Dates are kept as epoch days, the dates are built
+ * only when the booking is read as a whole, e.g. as JSON.
  */
+@JsonPropertyOrder({"bookingId", "guestId", "roomId", "numberOfPeople", "from", "to"})
 @Getter
 public class Booking {
 
@@ -15,9 +23,12 @@ public class Booking {
     private final int guestId;
     private final int roomId;
     private int numberOfPeople;
-    private LocalDate from;
-    private LocalDate to;
+    @JsonIgnore
+    private int fromDay;
+    @JsonIgnore
+    private int toDay;
 
+    @JsonCreator
     public Booking(int bookingId, int guestId, int roomId, int numberOfPeople, LocalDate from, LocalDate to) {
         this.bookingId = bookingId;
         this.guestId = guestId;
@@ -26,28 +37,82 @@ public class Booking {
         setBookingDates(from, to);
     }
 
+    public Booking(int bookingId, int guestId, int roomId, int numberOfPeople, int fromDay, int toDay) {
+        this.bookingId = bookingId;
+        this.guestId = guestId;
+        this.roomId = roomId;
+        this.numberOfPeople = numberOfPeople;
+        setBookingDays(fromDay, toDay);
+    }
+
     /**
      * This constructor should be used
      * only by the repository.
+     * The dates are copied unchecked, a stored booking may already have begun.
      */
     public Booking(Booking booking) {
         this.bookingId = booking.bookingId;
         this.guestId = booking.guestId;
         this.roomId = booking.roomId;
         this.numberOfPeople = booking.numberOfPeople;
-        setBookingDates(booking.from, booking.to);
+        this.fromDay = booking.fromDay;
+        this.toDay = booking.toDay;
+    }
+
+    private Booking(int bookingId, int guestId, int roomId, int numberOfPeople) {
+        this.bookingId = bookingId;
+        this.guestId = guestId;
+        this.roomId = roomId;
+        this.numberOfPeople = numberOfPeople;
+    }
+
+    /**
+     * Rebuilds a booking read from a storage.
+     * The dates are not checked, because stored bookings may be in the past.
+     *
+     * @param bookingId      booking's id
+     * @param guestId        guest's id
+     * @param roomId         room's id
+     * @param numberOfPeople number of people
+     * @param fromDay        first night as an epoch day
+     * @param toDay          day of departure as an epoch day
+     * @return the booking
+     */
+    public static Booking restore(int bookingId, int guestId, int roomId, int numberOfPeople,
+                                  int fromDay, int toDay) {
+        Booking booking = new Booking(bookingId, guestId, roomId, numberOfPeople);
+        booking.fromDay = fromDay;
+        booking.toDay = toDay;
+        return booking;
+    }
+
+    public LocalDate getFrom() {
+        return LocalDate.ofEpochDay(fromDay);
+    }
+
+    public LocalDate getTo() {
+        return LocalDate.ofEpochDay(toDay);
     }
 
     public void setBookingDates(LocalDate from, LocalDate to) {
-        try {
-            if (from.isAfter(to) || to.equals(from) || from.isBefore(LocalDate.now())) {
-                throw new FailedInitializationException("Invalid dates given!");
-            }
-            this.from = from;
-            this.to = to;
-        } catch (NullPointerException npe) {
+        if (from == null || to == null) {
             throw new FailedInitializationException("Date parameters are null!");
         }
+        setBookingDays(Today.toEpochDay(from), Today.toEpochDay(to));
+    }
+
+    /**
+     * Sets the dates as epoch days
+     *
+     * @param fromDay first night
+     * @param toDay   day of departure
+     */
+    public void setBookingDays(int fromDay, int toDay) {
+        if (fromDay >= toDay || fromDay < Today.epochDay()) {
+            throw new FailedInitializationException("Invalid dates given!");
+        }
+        this.fromDay = fromDay;
+        this.toDay = toDay;
     }
 
     @Override
@@ -60,8 +125,8 @@ public class Booking {
 
         Booking booking = (Booking) obj;
 
-        return bookingId == booking.getBookingId() && guestId == booking.getGuestId() && roomId == booking.getRoomId()
-                && from.equals(booking.getFrom()) && to.equals(booking.getTo());
+        return bookingId == booking.bookingId && guestId == booking.guestId && roomId == booking.roomId
+                && fromDay == booking.fromDay && toDay == booking.toDay;
     }
 
     @Override
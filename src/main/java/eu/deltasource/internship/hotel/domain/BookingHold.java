@@ -0,0 +1,56 @@
+package eu.deltasource.internship.hotel.domain;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Represents a temporary reservation of a hotel room,
+ * which expires unless it is confirmed as a booking
+ */
+@Getter
+public class BookingHold {
+
+	private final int holdId;
+	private final int guestId;
+	private final int roomId;
+	private final int numberOfPeople;
+	private final LocalDate from;
+	private final LocalDate to;
+	private final Instant expiresAt;
+
+	public BookingHold(int holdId, Booking booking, Instant expiresAt) {
+		this.holdId = holdId;
+		this.guestId = booking.getGuestId();
+		this.roomId = booking.getRoomId();
+		this.numberOfPeople = booking.getNumberOfPeople();
+		this.from = booking.getFrom();
+		this.to = booking.getTo();
+		this.expiresAt = expiresAt;
+	}
+
+	/**
+	 * Creates the booking, which the hold reserves the room for
+	 *
+	 * @return new booking without id
+	 */
+	public Booking toBooking() {
+		return new Booking(0, guestId, roomId, numberOfPeople, from, to);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (!(obj instanceof BookingHold)) {
+			return false;
+		}
+		return holdId == ((BookingHold) obj).holdId;
+	}
+
+	@Override
+	public int hashCode() {
+		return holdId;
+	}
+}
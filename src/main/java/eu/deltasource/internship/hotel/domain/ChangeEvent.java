@@ -0,0 +1,50 @@
+package eu.deltasource.internship.hotel.domain;
+
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Represents a change of a booking, guest or room
+ * in the event log of a hotel
+ */
+@Getter
+public class ChangeEvent {
+
+	/**
+	 * Kinds of items, which are changed
+	 */
+	public enum Entity {
+		BOOKING, GUEST, ROOM
+	}
+
+	/**
+	 * Kinds of changes
+	 */
+	public enum Action {
+		CREATED, UPDATED, DELETED
+	}
+
+	private final long sequence;
+	private final Entity entity;
+	private final Action action;
+	private final Integer entityId;
+	private final Instant time;
+
+	/**
+	 * This is a constructor
+	 *
+	 * @param sequence position of the event in the log
+	 * @param entity   kind of the changed item
+	 * @param action   kind of the change
+	 * @param entityId id of the changed item, null when all items are deleted
+	 * @param time     time of the change
+	 */
+	public ChangeEvent(long sequence, Entity entity, Action action, Integer entityId, Instant time) {
+		this.sequence = sequence;
+		this.entity = entity;
+		this.action = action;
+		this.entityId = entityId;
+		this.time = time;
+	}
+}
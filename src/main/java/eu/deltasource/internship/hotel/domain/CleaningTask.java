@@ -0,0 +1,36 @@
+package eu.deltasource.internship.hotel.domain;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Represents the cleaning of a room after its guests have left
+ */
+@Getter
+public class CleaningTask {
+
+	private final int roomId;
+	private final LocalDate day;
+	private final LocalDate nextArrival;
+
+	/**
+	 * This is a constructor
+	 *
+	 * @param roomId      id of the room
+	 * @param day         day of the departure
+	 * @param nextArrival day of the next arrival in the room, null if none is booked
+	 */
+	public CleaningTask(int roomId, LocalDate day, LocalDate nextArrival) {
+		this.roomId = roomId;
+		this.day = day;
+		this.nextArrival = nextArrival;
+	}
+
+	/**
+	 * Checks if new guests arrive in the room on the day of the cleaning
+	 */
+	public boolean isSameDayArrival() {
+		return day.equals(nextArrival);
+	}
+}
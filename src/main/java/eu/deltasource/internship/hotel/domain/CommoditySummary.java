@@ -0,0 +1,79 @@
+package eu.deltasource.internship.hotel.domain;
+
+import eu.deltasource.internship.hotel.domain.commodity.AbstractCommodity;
+import eu.deltasource.internship.hotel.domain.commodity.Bed;
+import eu.deltasource.internship.hotel.domain.commodity.BedType;
+import eu.deltasource.internship.hotel.domain.commodity.Shower;
+import eu.deltasource.internship.hotel.domain.commodity.Toilet;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Immutable summary of the commodities in a room,
+ * computed once whenever the commodities change.
+ */
+@Getter
+public final class CommoditySummary {
+
+	private final Map<BedType, Integer> bedCounts;
+	private final int toilets;
+	private final int showers;
+	private final int capacity;
+
+	private CommoditySummary(Map<BedType, Integer> bedCounts, int toilets, int showers, int capacity) {
+		this.bedCounts = Collections.unmodifiableMap(bedCounts);
+		this.toilets = toilets;
+		this.showers = showers;
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Builds the summary of the given commodities,
+	 * null commodities are ignored.
+	 *
+	 * @param commodities room commodities
+	 * @return the summary
+	 */
+	public static CommoditySummary of(Collection<? extends AbstractCommodity> commodities) {
+		Map<BedType, Integer> bedCounts = new EnumMap<>(BedType.class);
+		int toilets = 0;
+		int showers = 0;
+		int capacity = 0;
+		for (AbstractCommodity commodity : commodities) {
+			if (commodity instanceof Bed) {
+				BedType bedType = ((Bed) commodity).getBedType();
+				bedCounts.merge(bedType, 1, Integer::sum);
+				capacity += bedType.getSize();
+			} else if (commodity instanceof Toilet) {
+				toilets++;
+			} else if (commodity instanceof Shower) {
+				showers++;
+			}
+		}
+		return new CommoditySummary(bedCounts, toilets, showers, capacity);
+	}
+
+	/**
+	 * Gets the number of beds of the given type
+	 *
+	 * @param bedType type of the bed
+	 * @return number of beds, 0 if there are none
+	 */
+	public int getBedCount(BedType bedType) {
+		return bedCounts.getOrDefault(bedType, 0);
+	}
+
+	/**
+	 * Checks if the summary contains at least one bed of the given type
+	 *
+	 * @param bedType type of the bed
+	 * @return true if there is such bed
+	 */
+	public boolean hasBedType(BedType bedType) {
+		return bedCounts.containsKey(bedType);
+	}
+}
@@ -1,5 +1,6 @@
 package eu.deltasource.internship.hotel.domain;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import eu.deltasource.internship.hotel.exception.FailedInitializationException;
 import lombok.*;
 
@@ -7,6 +8,7 @@ import lombok.*;
 /**
  * Represents information for a hotel guest
  */
+@JsonPropertyOrder({"guestId", "gender", "firstName", "lastName"})
 @Getter
 public class Guest {
 
@@ -1,21 +1,65 @@
 package eu.deltasource.internship.hotel.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import eu.deltasource.internship.hotel.service.BookingHoldService;
 import eu.deltasource.internship.hotel.service.BookingService;
+import eu.deltasource.internship.hotel.service.ChangeEventLog;
 import eu.deltasource.internship.hotel.service.GuestService;
+import eu.deltasource.internship.hotel.service.HousekeepingService;
+import eu.deltasource.internship.hotel.service.PricingService;
 import eu.deltasource.internship.hotel.service.RoomService;
+import lombok.Getter;
 
 /**
- * Represents a hotel
+ * Represents a hotel - a partition with its own
+ * guests, rooms and bookings
  */
+@Getter
 public class Hotel {
 
+	private final int hotelId;
+	private final String name;
+	@JsonIgnore
 	private final BookingService bookingService;
+	@JsonIgnore
+	private final BookingHoldService bookingHoldService;
+	@JsonIgnore
 	private final GuestService guestService;
+	@JsonIgnore
 	private final RoomService roomService;
+	@JsonIgnore
+	private final ChangeEventLog eventLog;
+	@JsonIgnore
+	private final HousekeepingService housekeepingService;
+	@JsonIgnore
+	private final PricingService pricingService;
 
-	public Hotel(BookingService bookingService, GuestService guestService, RoomService roomService) {
+	public Hotel(int hotelId, String name, BookingService bookingService, BookingHoldService bookingHoldService,
+				 GuestService guestService, RoomService roomService, ChangeEventLog eventLog,
+				 HousekeepingService housekeepingService, PricingService pricingService) {
+		this.hotelId = hotelId;
+		this.name = name;
 		this.bookingService = bookingService;
+		this.bookingHoldService = bookingHoldService;
 		this.guestService = guestService;
 		this.roomService = roomService;
+		this.eventLog = eventLog;
+		this.housekeepingService = housekeepingService;
+		this.pricingService = pricingService;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (!(obj instanceof Hotel)) {
+			return false;
+		}
+		return hotelId == ((Hotel) obj).hotelId;
+	}
+
+	@Override
+	public int hashCode() {
+		return hotelId;
 	}
 }
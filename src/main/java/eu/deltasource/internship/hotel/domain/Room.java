@@ -1,8 +1,9 @@
 package eu.deltasource.internship.hotel.domain;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import eu.deltasource.internship.hotel.domain.commodity.AbstractCommodity;
-import eu.deltasource.internship.hotel.domain.commodity.Bed;
 
 import eu.deltasource.internship.hotel.exception.FailedInitializationException;
 
@@ -15,6 +16,7 @@ import java.util.Set;
 /**
  * Represents a hotel room
  */
+@JsonPropertyOrder({"roomId", "roomCapacity", "commodities"})
 @Getter
 public class Room {
 
@@ -23,7 +25,8 @@ public class Room {
 	private int roomId;
 	private int roomCapacity;
 	private final Set<AbstractCommodity> commodities;
-
+	@JsonIgnore
+	private CommoditySummary summary;
 
 	public Room(int roomId, Set<AbstractCommodity> commodities) {
 		this.roomId = roomId;
@@ -31,8 +34,15 @@ public class Room {
 		updateCommodities(commodities);
 	}
 
+	/**
+	 * Copies the room, the commodity summary is immutable
+	 * and is shared instead of being recomputed.
+	 */
 	public Room(Room room) {
-		this(room.roomId, room.getCommodities());
+		this.roomId = room.roomId;
+		this.commodities = new HashSet<>(room.commodities);
+		this.summary = room.summary;
+		this.roomCapacity = room.roomCapacity;
 	}
 
 	public Set<AbstractCommodity> getCommodities() {
@@ -40,15 +50,12 @@ public class Room {
 	}
 
 	private void roomCapacitySetter() {
-		roomCapacity = 0;
-		for (AbstractCommodity commodity : commodities) {
-			if (commodity instanceof Bed) {
-				roomCapacity += ((Bed) commodity).getSize();
-			}
-		}
-		if (roomCapacity == EMPTY_ROOM) {
+		CommoditySummary newSummary = CommoditySummary.of(commodities);
+		if (newSummary.getCapacity() == EMPTY_ROOM) {
 			throw new FailedInitializationException("Room can not be empty");
 		}
+		summary = newSummary;
+		roomCapacity = newSummary.getCapacity();
 	}
 
 	public void updateCommodities(Set<AbstractCommodity> commodities) {
@@ -0,0 +1,92 @@
+package eu.deltasource.internship.hotel.domain;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Represents a request for dates, which were fully booked when it was made.
+ * The request is booked automatically, once a matching room becomes free.
+ */
+@Getter
+public class WaitlistEntry {
+
+	/**
+	 * Room id of the requests, which accept any room with enough capacity
+	 */
+	public static final int ANY_ROOM = 0;
+
+	private final int waitlistId;
+	private final int guestId;
+	private final int roomId;
+	private final int numberOfPeople;
+	private final LocalDate from;
+	private final LocalDate to;
+	private final int bookingId;
+
+	public WaitlistEntry(int waitlistId, Booking request) {
+		this(waitlistId, request.getGuestId(), request.getRoomId(), request.getNumberOfPeople(),
+			request.getFrom(), request.getTo(), 0);
+	}
+
+	private WaitlistEntry(int waitlistId, int guestId, int roomId, int numberOfPeople, LocalDate from, LocalDate to,
+						  int bookingId) {
+		this.waitlistId = waitlistId;
+		this.guestId = guestId;
+		this.roomId = roomId;
+		this.numberOfPeople = numberOfPeople;
+		this.from = from;
+		this.to = to;
+		this.bookingId = bookingId;
+	}
+
+	/**
+	 * Checks if the request accepts any room with enough capacity
+	 */
+	public boolean isAnyRoom() {
+		return roomId == ANY_ROOM;
+	}
+
+	/**
+	 * Checks if the request is already booked
+	 */
+	public boolean isPromoted() {
+		return bookingId != 0;
+	}
+
+	/**
+	 * Creates the booking, which the request is waiting for
+	 *
+	 * @param roomId the room to book
+	 * @return new booking without id
+	 */
+	public Booking toBooking(int roomId) {
+		return new Booking(0, guestId, roomId, numberOfPeople, from, to);
+	}
+
+	/**
+	 * Creates a copy of the request, which is booked
+	 *
+	 * @param booking the booking created for the request
+	 * @return the promoted request
+	 */
+	public WaitlistEntry promoted(Booking booking) {
+		return new WaitlistEntry(waitlistId, guestId, booking.getRoomId(), numberOfPeople, from, to,
+			booking.getBookingId());
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (!(obj instanceof WaitlistEntry)) {
+			return false;
+		}
+		return waitlistId == ((WaitlistEntry) obj).waitlistId;
+	}
+
+	@Override
+	public int hashCode() {
+		return waitlistId;
+	}
+}
@@ -1,21 +1,35 @@
 package eu.deltasource.internship.hotel.domain.commodity;
 
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import eu.deltasource.internship.hotel.utility.InventoryIdAllocator;
 import lombok.Getter;
 import org.springframework.stereotype.Component;
 
 @Component
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.PROPERTY)
+@JsonSubTypes({
+	@JsonSubTypes.Type(value = Bed.class, name = "Bed"),
+	@JsonSubTypes.Type(value = Toilet.class, name = "Toilet"),
+	@JsonSubTypes.Type(value = Shower.class, name = "Shower")})
 public abstract class AbstractCommodity {
 
 	@Getter
 	protected final int inventoryId;
 
-	private static int inventoryCount;
+	private static final InventoryIdAllocator INVENTORY_IDS = new InventoryIdAllocator();
 
 	public AbstractCommodity() {
-		this.inventoryId = ++inventoryCount;
+		this.inventoryId = INVENTORY_IDS.next();
 	}
 
-	public abstract void prepare();
+	/**
+	 * Prepares the commodity for the next guests
+	 *
+	 * @param roomId id of the room with the commodity
+	 * @param sink   receiver of the done work
+	 */
+	public abstract void prepare(int roomId, PreparationSink sink);
 
 	@Override
 	public boolean equals(Object obj) {
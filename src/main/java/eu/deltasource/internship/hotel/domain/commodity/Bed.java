@@ -1,10 +1,12 @@
 package eu.deltasource.internship.hotel.domain.commodity;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.Getter;
 
 /**
  * Represents bed in a hotel room
  */
+@JsonPropertyOrder({"inventoryId", "bedType", "size"})
 public class Bed extends AbstractCommodity {
 
 	@Getter
@@ -21,7 +23,7 @@ public class Bed extends AbstractCommodity {
     }
 
     @Override
-    public void prepare() {
-        System.out.println("The bed sheets are being replaced!");
+    public void prepare(int roomId, PreparationSink sink) {
+        sink.accept(roomId, this, "The bed sheets are being replaced!");
     }
 }
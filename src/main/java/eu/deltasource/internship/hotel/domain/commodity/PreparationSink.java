@@ -0,0 +1,17 @@
+package eu.deltasource.internship.hotel.domain.commodity;
+
+/**
+ * Receives the housekeeping work done on the commodities of a room
+ */
+@FunctionalInterface
+public interface PreparationSink {
+
+	/**
+	 * Records a task done on a commodity
+	 *
+	 * @param roomId    id of the room with the commodity
+	 * @param commodity the prepared commodity
+	 * @param task      description of the work
+	 */
+	void accept(int roomId, AbstractCommodity commodity, String task);
+}
@@ -10,7 +10,7 @@ public class Shower extends AbstractCommodity {
     }
 
     @Override
-    public void prepare() {
-        System.out.println("The shower is being cleaned!");
+    public void prepare(int roomId, PreparationSink sink) {
+        sink.accept(roomId, this, "The shower is being cleaned!");
     }
 }
@@ -10,7 +10,7 @@ public class Toilet extends AbstractCommodity {
     }
 
     @Override
-    public void prepare() {
-        System.out.println("The toilet is being cleaned!");
+    public void prepare(int roomId, PreparationSink sink) {
+        sink.accept(roomId, this, "The toilet is being cleaned!");
     }
 }
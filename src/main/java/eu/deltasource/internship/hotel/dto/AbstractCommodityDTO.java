@@ -3,6 +3,8 @@ package eu.deltasource.internship.hotel.dto;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import eu.deltasource.internship.hotel.domain.commodity.BedType;
+import eu.deltasource.internship.hotel.utility.InventoryIdAllocator;
 
 /**
  * Transfer object for commodities
@@ -17,9 +19,18 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 public abstract class AbstractCommodityDTO {
 
     protected final int inventoryId;
-    private static int inventoryNumber;
+    private static final InventoryIdAllocator INVENTORY_IDS = new InventoryIdAllocator();
 
     public AbstractCommodityDTO() {
-        inventoryId = ++inventoryNumber;
+        inventoryId = INVENTORY_IDS.next();
+    }
+
+    /**
+     * Gets the bed type of the commodity
+     *
+     * @return the bed type or null if the commodity is not a bed
+     */
+    public BedType getBedType() {
+        return null;
     }
 }
@@ -0,0 +1,31 @@
+package eu.deltasource.internship.hotel.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transfer object for the occupancy of the rooms in a range of days
+ */
+@Getter
+public class CalendarDTO {
+
+	private LocalDate from;
+	private int days;
+	private List<RoomCalendarDTO> rooms;
+
+	/**
+	 * This is a constructor
+	 *
+	 * @param from  first day
+	 * @param days  number of days
+	 * @param rooms occupancy of every room, ordered by room id
+	 */
+	public CalendarDTO(LocalDate from, int days, List<RoomCalendarDTO> rooms) {
+		this.from = from;
+		this.days = days;
+		this.rooms = new ArrayList<>(rooms);
+	}
+}
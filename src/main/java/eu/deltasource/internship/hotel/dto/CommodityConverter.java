@@ -0,0 +1,74 @@
+package eu.deltasource.internship.hotel.dto;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import eu.deltasource.internship.hotel.domain.commodity.AbstractCommodity;
+import eu.deltasource.internship.hotel.domain.commodity.Bed;
+import eu.deltasource.internship.hotel.domain.commodity.BedType;
+import eu.deltasource.internship.hotel.domain.commodity.Shower;
+import eu.deltasource.internship.hotel.domain.commodity.Toilet;
+import eu.deltasource.internship.hotel.exception.InvalidArgumentException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Converts commodity transfer objects and raw type names to commodities.
+ * <p>
+ * The conversion table is keyed by the names declared in
+ * {@link JsonSubTypes} on {@link AbstractCommodityDTO}.
+ */
+public final class CommodityConverter {
+
+	private static final Map<String, Function<BedType, AbstractCommodity>> FACTORIES = Map.of(
+		"Bed", Bed::new,
+		"Toilet", bedType -> new Toilet(),
+		"Shower", bedType -> new Shower());
+
+	private static final Map<Class<?>, String> TYPE_NAMES = readTypeNames();
+
+	private CommodityConverter() {
+	}
+
+	/**
+	 * Converts transfer object to commodity
+	 *
+	 * @param commodity DTO object
+	 * @return model object
+	 */
+	public static AbstractCommodity convert(AbstractCommodityDTO commodity) {
+		if (commodity == null) {
+			throw new InvalidArgumentException("Invalid commodity transfer object!");
+		}
+		return convert(TYPE_NAMES.get(commodity.getClass()), commodity.getBedType());
+	}
+
+	/**
+	 * Creates commodity by its type name
+	 *
+	 * @param typeName name of the commodity type
+	 * @param bedType  bed type, used only for beds
+	 * @return model object
+	 */
+	public static AbstractCommodity convert(String typeName, BedType bedType) {
+		Function<BedType, AbstractCommodity> factory = typeName == null ? null : FACTORIES.get(typeName);
+		if (factory == null) {
+			throw new InvalidArgumentException("Unknown commodity type: " + typeName);
+		}
+		if ("Bed".equals(typeName) && bedType == null) {
+			throw new InvalidArgumentException("Bed type is not set!");
+		}
+		return factory.apply(bedType);
+	}
+
+	private static Map<Class<?>, String> readTypeNames() {
+		Map<Class<?>, String> typeNames = new HashMap<>();
+		for (JsonSubTypes.Type type : AbstractCommodityDTO.class.getAnnotation(JsonSubTypes.class).value()) {
+			if (!FACTORIES.containsKey(type.name())) {
+				throw new IllegalStateException("No commodity factory for type " + type.name());
+			}
+			typeNames.put(type.value(), type.name());
+		}
+		return typeNames;
+	}
+}
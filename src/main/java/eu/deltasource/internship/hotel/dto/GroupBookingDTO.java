@@ -0,0 +1,36 @@
+package eu.deltasource.internship.hotel.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Transfer object for a group booking of any rooms,
+ * which can accommodate the given number of people
+ */
+@Getter
+public class GroupBookingDTO {
+
+	private int guestId;
+	private int numberOfRooms;
+	private int numberOfPeople;
+	private LocalDate from;
+	private LocalDate to;
+
+	/**
+	 * This is a constructor
+	 *
+	 * @param guestId        id of the guest, who books the rooms
+	 * @param numberOfRooms  number of rooms to book
+	 * @param numberOfPeople number of people in each room
+	 * @param from           starting date
+	 * @param to             ending date
+	 */
+	public GroupBookingDTO(int guestId, int numberOfRooms, int numberOfPeople, LocalDate from, LocalDate to) {
+		this.guestId = guestId;
+		this.numberOfRooms = numberOfRooms;
+		this.numberOfPeople = numberOfPeople;
+		this.from = from;
+		this.to = to;
+	}
+}
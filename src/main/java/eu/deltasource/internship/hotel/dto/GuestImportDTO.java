@@ -0,0 +1,27 @@
+package eu.deltasource.internship.hotel.dto;
+
+import lombok.Getter;
+
+/**
+ * Transfer object for the outcome of a guest import
+ */
+@Getter
+public class GuestImportDTO {
+
+	private int inserted;
+	private int updated;
+	private int unchanged;
+
+	/**
+	 * This is a constructor
+	 *
+	 * @param inserted  number of new guests
+	 * @param updated   number of existing guests, whose details were changed
+	 * @param unchanged number of existing guests, which were already up to date
+	 */
+	public GuestImportDTO(int inserted, int updated, int unchanged) {
+		this.inserted = inserted;
+		this.updated = updated;
+		this.unchanged = unchanged;
+	}
+}
@@ -0,0 +1,31 @@
+package eu.deltasource.internship.hotel.dto;
+
+import eu.deltasource.internship.hotel.domain.Room;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transfer object for the available rooms of a hotel
+ */
+@Getter
+public class HotelAvailabilityDTO {
+
+	private int hotelId;
+	private String name;
+	private List<Room> rooms;
+
+	/**
+	 * This is a constructor
+	 *
+	 * @param hotelId hotel's id
+	 * @param name    hotel's name
+	 * @param rooms   the available rooms
+	 */
+	public HotelAvailabilityDTO(int hotelId, String name, List<Room> rooms) {
+		this.hotelId = hotelId;
+		this.name = name;
+		this.rooms = new ArrayList<>(rooms);
+	}
+}
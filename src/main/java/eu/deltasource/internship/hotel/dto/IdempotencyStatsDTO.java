@@ -0,0 +1,38 @@
+package eu.deltasource.internship.hotel.dto;
+
+import lombok.Getter;
+
+/**
+ * Transfer object for the state of the idempotency cache
+ */
+@Getter
+public class IdempotencyStatsDTO {
+
+	private int size;
+	private int capacity;
+	private long hits;
+	private long misses;
+	private double hitRate;
+	private long evictions;
+	private long expirations;
+
+	/**
+	 * This is a constructor
+	 *
+	 * @param size        number of stored responses
+	 * @param capacity    maximum number of stored responses
+	 * @param hits        number of requests answered with a stored response
+	 * @param misses      number of requests, which were executed
+	 * @param evictions   number of responses dropped to stay within the capacity
+	 * @param expirations number of responses dropped after their time to live
+	 */
+	public IdempotencyStatsDTO(int size, int capacity, long hits, long misses, long evictions, long expirations) {
+		this.size = size;
+		this.capacity = capacity;
+		this.hits = hits;
+		this.misses = misses;
+		this.hitRate = hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+		this.evictions = evictions;
+		this.expirations = expirations;
+	}
+}
@@ -0,0 +1,37 @@
+package eu.deltasource.internship.hotel.dto;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Transfer object for the price of a stay
+ */
+@Getter
+public class QuoteDTO {
+
+	private int roomId;
+	private LocalDate from;
+	private LocalDate to;
+	private List<BigDecimal> nightlyRates;
+	private BigDecimal total;
+
+	/**
+	 * This is a constructor
+	 *
+	 * @param roomId       room's id
+	 * @param from         first night of the stay
+	 * @param to           date of departure
+	 * @param nightlyRates rate of every night of the stay
+	 * @param total        price of the whole stay
+	 */
+	public QuoteDTO(int roomId, LocalDate from, LocalDate to, List<BigDecimal> nightlyRates, BigDecimal total) {
+		this.roomId = roomId;
+		this.from = from;
+		this.to = to;
+		this.nightlyRates = nightlyRates;
+		this.total = total;
+	}
+}
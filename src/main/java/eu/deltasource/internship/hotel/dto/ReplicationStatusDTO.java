@@ -0,0 +1,43 @@
+package eu.deltasource.internship.hotel.dto;
+
+import lombok.Getter;
+
+/**
+ * Transfer object for the replication state of an instance
+ */
+@Getter
+public class ReplicationStatusDTO {
+
+	private String role;
+	private boolean connected;
+	private int followers;
+	private long lastSequence;
+	private long appliedChanges;
+	private long lastLagMillis;
+	private long averageLagMillis;
+	private long maxLagMillis;
+
+	/**
+	 * This is a constructor
+	 *
+	 * @param role             role of the instance
+	 * @param connected        whether a follower is connected to its primary
+	 * @param followers        number of followers connected to a primary
+	 * @param lastSequence     the latest change - published on a primary, applied on a follower
+	 * @param appliedChanges   number of live changes applied by a follower
+	 * @param lastLagMillis    replication lag of the latest change applied by a follower
+	 * @param averageLagMillis average replication lag of a follower
+	 * @param maxLagMillis     maximum replication lag of a follower
+	 */
+	public ReplicationStatusDTO(String role, boolean connected, int followers, long lastSequence,
+								long appliedChanges, long lastLagMillis, long averageLagMillis, long maxLagMillis) {
+		this.role = role;
+		this.connected = connected;
+		this.followers = followers;
+		this.lastSequence = lastSequence;
+		this.appliedChanges = appliedChanges;
+		this.lastLagMillis = lastLagMillis;
+		this.averageLagMillis = averageLagMillis;
+		this.maxLagMillis = maxLagMillis;
+	}
+}
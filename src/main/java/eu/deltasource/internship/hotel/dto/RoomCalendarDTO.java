@@ -0,0 +1,28 @@
+package eu.deltasource.internship.hotel.dto;
+
+import lombok.Getter;
+
+/**
+ * Transfer object for the occupancy of a room by day.
+ * <p>
+ * The runs are pairs of a booking id, 0 for free days, and the number
+ * of days in a row with it, e.g. [0, 3, 12, 2, 0, 25] is a room free
+ * for 3 days, booked by booking 12 for 2 days and then free for 25 days.
+ */
+@Getter
+public class RoomCalendarDTO {
+
+	private int roomId;
+	private int[] runs;
+
+	/**
+	 * This is a constructor
+	 *
+	 * @param roomId room's id
+	 * @param runs   run-length encoded occupancy
+	 */
+	public RoomCalendarDTO(int roomId, int[] runs) {
+		this.roomId = roomId;
+		this.runs = runs;
+	}
+}
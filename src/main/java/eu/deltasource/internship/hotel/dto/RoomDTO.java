@@ -1,5 +1,6 @@
 package eu.deltasource.internship.hotel.dto;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import lombok.Getter;
 
@@ -9,6 +10,7 @@ import java.util.Set;
 /**
  * Transfer object for room
  */
+@JsonPropertyOrder({"roomId", "commodities"})
 @Getter
 public class RoomDTO {
 
@@ -0,0 +1,90 @@
+package eu.deltasource.internship.hotel.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import eu.deltasource.internship.hotel.domain.Room;
+import eu.deltasource.internship.hotel.domain.commodity.AbstractCommodity;
+import eu.deltasource.internship.hotel.domain.commodity.BedType;
+import eu.deltasource.internship.hotel.exception.InvalidArgumentException;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Reads the room transfer object JSON directly into a room,
+ * without building the intermediate transfer objects.
+ */
+@JsonComponent
+public class RoomDeserializer extends StdDeserializer<Room> {
+
+	private static final String TYPE_PROPERTY = "@type";
+
+	public RoomDeserializer() {
+		super(Room.class);
+	}
+
+	@Override
+	public Room deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+		if (parser.currentToken() != JsonToken.START_OBJECT) {
+			return (Room) context.handleUnexpectedToken(Room.class, parser);
+		}
+		int roomId = 0;
+		Set<AbstractCommodity> commodities = null;
+		for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+			JsonToken token = parser.nextToken();
+			if ("roomId".equals(field)) {
+				roomId = parser.getValueAsInt();
+			} else if ("commodities".equals(field)) {
+				commodities = readCommodities(parser, token);
+			} else {
+				parser.skipChildren();
+			}
+		}
+		if (commodities == null) {
+			throw new InvalidArgumentException("Invalid room transfer object!");
+		}
+		return new Room(roomId, commodities);
+	}
+
+	private Set<AbstractCommodity> readCommodities(JsonParser parser, JsonToken token) throws IOException {
+		if (token != JsonToken.START_ARRAY) {
+			throw new InvalidArgumentException("Invalid room transfer object!");
+		}
+		Set<AbstractCommodity> commodities = new HashSet<>();
+		for (token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+			if (token != JsonToken.START_OBJECT) {
+				throw new InvalidArgumentException("Invalid room transfer object!");
+			}
+			commodities.add(readCommodity(parser));
+		}
+		return commodities;
+	}
+
+	private AbstractCommodity readCommodity(JsonParser parser) throws IOException {
+		String typeName = null;
+		BedType bedType = null;
+		for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+			JsonToken token = parser.nextToken();
+			if (TYPE_PROPERTY.equals(field)) {
+				typeName = parser.getValueAsString();
+			} else if ("bedType".equals(field) && token == JsonToken.VALUE_STRING) {
+				bedType = readBedType(parser.getText());
+			} else {
+				parser.skipChildren();
+			}
+		}
+		return CommodityConverter.convert(typeName, bedType);
+	}
+
+	private BedType readBedType(String name) {
+		try {
+			return BedType.valueOf(name);
+		} catch (IllegalArgumentException e) {
+			throw new InvalidArgumentException("Unknown bed type: " + name);
+		}
+	}
+}
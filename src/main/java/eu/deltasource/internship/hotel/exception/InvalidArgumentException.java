@@ -1,8 +1,12 @@
 package eu.deltasource.internship.hotel.exception;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
 /**
  * Represents exception when method's argument is invalid
  */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
 public class InvalidArgumentException extends RuntimeException {
     public InvalidArgumentException(String message) {
         super(message);
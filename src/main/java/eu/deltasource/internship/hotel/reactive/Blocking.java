@@ -0,0 +1,27 @@
+package eu.deltasource.internship.hotel.reactive;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Runs the calls, which wait for the repository locks or for the read models
+ * to catch up, off the event loop
+ */
+final class Blocking {
+
+	private static final Scheduler SCHEDULER = Schedulers.elastic();
+
+	private Blocking() {
+	}
+
+	static <T> Mono<T> call(Callable<T> call) {
+		return Mono.fromCallable(call).subscribeOn(SCHEDULER);
+	}
+
+	static Mono<Void> run(Runnable call) {
+		return Mono.<Void>fromRunnable(call).subscribeOn(SCHEDULER);
+	}
+}
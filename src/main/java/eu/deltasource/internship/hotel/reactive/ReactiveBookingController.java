@@ -0,0 +1,83 @@
+package eu.deltasource.internship.hotel.reactive;
+
+import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.service.BookingService;
+import eu.deltasource.internship.hotel.service.HotelService;
+import eu.deltasource.internship.hotel.service.IdempotencyService;
+import eu.deltasource.internship.hotel.utility.Date;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Reactive variant of the basic booking endpoints.
+ * <p>
+ * Reads are answered from the read model of the service on the event loop
+ * and lists are streamed from its snapshot as fast as the client takes them.
+ * Writes wait for the repository and the read model, so they run off the event loop.
+ * Registered by {@link ReactiveServer} only, so it is not a component.
+ */
+@ResponseBody
+@RequestMapping({"/bookings", "/hotels/{hotelId}/bookings"})
+class ReactiveBookingController {
+
+	private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
+	@PostMapping
+	public Mono<Booking> save(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody Booking booking,
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+		return Blocking.call(() -> idempotencyService.execute(idempotencyKey,
+			IdempotencyService.operation(hotelId, "/bookings"), booking, () -> bookingService(hotelId).save(booking)));
+	}
+
+	@PostMapping(value = "/list")
+	public Flux<Booking> saveAll(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody List<Booking> bookings,
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+		return Blocking.call(() -> idempotencyService.execute(idempotencyKey,
+			IdempotencyService.operation(hotelId, "/bookings/list"), bookings,
+			() -> bookingService(hotelId).saveAll(bookings)))
+			.flatMapIterable(saved -> saved);
+	}
+
+	@GetMapping
+	public Flux<Booking> findAll(@PathVariable(value = "hotelId", required = false) Integer hotelId) {
+		return Flux.defer(() -> Flux.fromIterable(bookingService(hotelId).findAll()));
+	}
+
+	@GetMapping(value = "/{id}")
+	public Mono<Booking> findById(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@PathVariable("id") int id) {
+		return Mono.fromCallable(() -> bookingService(hotelId).findById(id));
+	}
+
+	@PutMapping(value = "/dates/{id}")
+	public Mono<Void> updateBookingByDates(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@PathVariable("id") int bookingId, @RequestBody Date dates) {
+		return Blocking.run(() -> bookingService(hotelId).updateBookingByDates(bookingId, dates.getFrom(),
+			dates.getTo()));
+	}
+
+	@DeleteMapping(value = "/{id}")
+	public Mono<Boolean> deleteById(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@PathVariable("id") int id) {
+		return Blocking.call(() -> bookingService(hotelId).deleteById(id));
+	}
+
+	private BookingService bookingService(Integer hotelId) {
+		return hotelId == null ? bookingService : hotelService.findById(hotelId).getBookingService();
+	}
+}
@@ -0,0 +1,83 @@
+package eu.deltasource.internship.hotel.reactive;
+
+import eu.deltasource.internship.hotel.domain.Guest;
+import eu.deltasource.internship.hotel.service.GuestService;
+import eu.deltasource.internship.hotel.service.HotelService;
+import eu.deltasource.internship.hotel.service.IdempotencyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Reactive variant of the basic guest endpoints,
+ * registered by {@link ReactiveServer} only
+ */
+@ResponseBody
+@RequestMapping({"/guests", "/hotels/{hotelId}/guests"})
+class ReactiveGuestController {
+
+	private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+	@Autowired
+	private GuestService guestService;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
+	@PostMapping
+	public Mono<Guest> save(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody Guest guest,
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+		return Blocking.call(() -> idempotencyService.execute(idempotencyKey,
+			IdempotencyService.operation(hotelId, "/guests"), guest, () -> guestService(hotelId).save(guest)));
+	}
+
+	@PostMapping(value = "/list")
+	public Flux<Guest> saveAll(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody List<Guest> guests,
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+		return Blocking.call(() -> idempotencyService.execute(idempotencyKey,
+			IdempotencyService.operation(hotelId, "/guests/list"), guests, () -> guestService(hotelId).saveAll(guests)))
+			.flatMapIterable(saved -> saved);
+	}
+
+	@GetMapping
+	public Flux<Guest> findAll(@PathVariable(value = "hotelId", required = false) Integer hotelId) {
+		return Flux.defer(() -> Flux.fromIterable(guestService(hotelId).findAll()));
+	}
+
+	@GetMapping(value = "/{id}")
+	public Mono<Guest> findById(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@PathVariable("id") int id) {
+		return Mono.fromCallable(() -> guestService(hotelId).findById(id));
+	}
+
+	@GetMapping(value = "/search")
+	public Flux<Guest> search(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestParam("q") String query, @RequestParam(value = "limit", defaultValue = "10") int limit,
+			@RequestParam(value = "fuzzy", defaultValue = "false") boolean fuzzy) {
+		return Blocking.call(() -> guestService(hotelId).search(query, limit, fuzzy)).flatMapIterable(found -> found);
+	}
+
+	@PutMapping
+	public Mono<Guest> updateGuest(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody Guest guest) {
+		return Blocking.call(() -> guestService(hotelId).update(guest));
+	}
+
+	@DeleteMapping(value = "/{id}")
+	public Mono<Boolean> deleteById(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@PathVariable("id") int id) {
+		return Blocking.call(() -> guestService(hotelId).deleteById(id));
+	}
+
+	private GuestService guestService(Integer hotelId) {
+		return hotelId == null ? guestService : hotelService.findById(hotelId).getGuestService();
+	}
+}
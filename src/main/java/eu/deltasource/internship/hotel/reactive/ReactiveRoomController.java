@@ -0,0 +1,89 @@
+package eu.deltasource.internship.hotel.reactive;
+
+import eu.deltasource.internship.hotel.domain.Room;
+import eu.deltasource.internship.hotel.dto.RoomDTO;
+import eu.deltasource.internship.hotel.service.HotelService;
+import eu.deltasource.internship.hotel.service.IdempotencyService;
+import eu.deltasource.internship.hotel.service.RoomService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Reactive variant of the basic room endpoints,
+ * registered by {@link ReactiveServer} only
+ */
+@ResponseBody
+@RequestMapping({"/rooms", "/hotels/{hotelId}/rooms"})
+class ReactiveRoomController {
+
+	private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+	@Autowired
+	private RoomService roomService;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
+	@PostMapping
+	public Mono<Room> saveRoom(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody Room room,
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+		return Blocking.call(() -> idempotencyService.execute(idempotencyKey,
+			IdempotencyService.operation(hotelId, "/rooms"), room, () -> roomService(hotelId).save(room)));
+	}
+
+	@PostMapping(value = "/list")
+	public Flux<Room> saveRooms(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody List<Room> rooms,
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+		return Blocking.call(() -> idempotencyService.execute(idempotencyKey,
+			IdempotencyService.operation(hotelId, "/rooms/list"), rooms, () -> roomService(hotelId).saveAll(rooms)))
+			.flatMapIterable(saved -> saved);
+	}
+
+	@GetMapping
+	public Flux<Room> findRooms(@PathVariable(value = "hotelId", required = false) Integer hotelId) {
+		return Flux.defer(() -> Flux.fromIterable(roomService(hotelId).findAll()));
+	}
+
+	@GetMapping(value = "/{id}")
+	public Mono<Room> getRoomById(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@PathVariable("id") int id) {
+		return Mono.fromCallable(() -> roomService(hotelId).findById(id));
+	}
+
+	@GetMapping(value = "/available")
+	public Flux<Room> findAvailableRooms(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(value = "numberOfPeople", defaultValue = "1") int numberOfPeople) {
+		int id = hotelId == null ? HotelService.DEFAULT_HOTEL_ID : hotelId;
+		return Blocking.call(() -> hotelService.findById(id).getBookingService()
+			.findAvailableRooms(from, to, numberOfPeople)).flatMapIterable(rooms -> rooms);
+	}
+
+	@PutMapping
+	public Mono<Room> updateRoom(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@RequestBody RoomDTO room) {
+		return Blocking.call(() -> roomService(hotelId).updateRoom(roomService(hotelId).convertDTO(room)));
+	}
+
+	@DeleteMapping(value = "/{id}")
+	public Mono<Boolean> deleteRoomById(@PathVariable(value = "hotelId", required = false) Integer hotelId,
+			@PathVariable("id") int id) {
+		return Blocking.call(() -> roomService(hotelId).deleteById(id));
+	}
+
+	private RoomService roomService(Integer hotelId) {
+		return hotelId == null ? roomService : hotelService.findById(hotelId).getRoomService();
+	}
+}
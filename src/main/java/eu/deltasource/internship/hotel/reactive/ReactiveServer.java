@@ -0,0 +1,98 @@
+package eu.deltasource.internship.hotel.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.deltasource.internship.hotel.replication.ReplicationService;
+import eu.deltasource.internship.hotel.service.BookingService;
+import eu.deltasource.internship.hotel.service.GuestService;
+import eu.deltasource.internship.hotel.service.HotelService;
+import eu.deltasource.internship.hotel.service.IdempotencyService;
+import eu.deltasource.internship.hotel.service.RoomService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.List;
+
+/**
+ * Serves the reactive variant of the booking, guest and room endpoints
+ * on its own port, next to the servlet endpoints.
+ * <p>
+ * The reactive controllers live in a context of their own, because WebFlux
+ * can not be configured in a context, which inherits the Spring MVC config,
+ * and the services of the application are shared with it. They are served
+ * by Reactor Netty, which does not tie a thread to a request or to a slow
+ * client. The server is started when hotel.reactive.port is set, 0 picks a free port.
+ */
+@Component
+public class ReactiveServer implements SmartLifecycle {
+
+	private static final int DISABLED = -1;
+	private static final List<Class<?>> SHARED_BEANS = List.of(BookingService.class, GuestService.class,
+		RoomService.class, HotelService.class, IdempotencyService.class, ReplicationService.class,
+		ObjectMapper.class);
+
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	private int port = DISABLED;
+	private AnnotationConfigApplicationContext context;
+	private DisposableServer server;
+
+	/**
+	 * Sets the port of the reactive endpoints
+	 *
+	 * @param port the port, 0 for any free port, -1 to not start the server
+	 */
+	@Value("${hotel.reactive.port:" + DISABLED + "}")
+	public void setPort(int port) {
+		this.port = port;
+	}
+
+	/**
+	 * Gets the port the reactive endpoints are served on
+	 *
+	 * @return the port or -1 when the server is not running
+	 */
+	public synchronized int getPort() {
+		return server == null ? DISABLED : server.port();
+	}
+
+	@Override
+	public synchronized void start() {
+		if (port < 0 || server != null) {
+			return;
+		}
+		context = new AnnotationConfigApplicationContext();
+		for (Class<?> type : SHARED_BEANS) {
+			context.getBeanFactory().registerSingleton(type.getName(), applicationContext.getBean(type));
+		}
+		context.register(ReactiveWebConfig.class, ReactiveBookingController.class, ReactiveGuestController.class,
+			ReactiveRoomController.class);
+		context.refresh();
+		HttpHandler handler = WebHttpHandlerBuilder.applicationContext(context).build();
+		server = HttpServer.create().port(port).handle(new ReactorHttpHandlerAdapter(handler)).bindNow();
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (server != null) {
+			server.disposeNow();
+			server = null;
+			context.close();
+			context = null;
+		}
+	}
+
+	@Override
+	public synchronized boolean isRunning() {
+		return server != null;
+	}
+}
@@ -0,0 +1,57 @@
+package eu.deltasource.internship.hotel.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.deltasource.internship.hotel.replication.ReplicationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.web.reactive.config.EnableWebFlux;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.WebFilter;
+import reactor.core.publisher.Mono;
+
+/**
+ * Configuration of the reactive child context.
+ * <p>
+ * It is registered by {@link ReactiveServer} only, so it is not a component
+ * and the application context does not pick it up.
+ */
+@EnableWebFlux
+class ReactiveWebConfig implements WebFluxConfigurer {
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ReplicationService replicationService;
+
+	/**
+	 * Uses the object mapper of the application, so the JSON is the same
+	 * as the servlet endpoints', and streams JSON arrays
+	 */
+	@Override
+	public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+		configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+		configurer.defaultCodecs().jackson2JsonEncoder(new StreamingJsonEncoder(objectMapper));
+	}
+
+	/**
+	 * Rejects the writes sent to a follower, like the write interceptor
+	 * of the servlet endpoints
+	 */
+	@Bean
+	public WebFilter replicaWriteFilter() {
+		return (exchange, chain) -> {
+			HttpMethod method = exchange.getRequest().getMethod();
+			if (!replicationService.isReadOnly() || method == HttpMethod.GET || method == HttpMethod.HEAD) {
+				return chain.filter(exchange);
+			}
+			return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+				"This instance is a read-only follower!"));
+		};
+	}
+}
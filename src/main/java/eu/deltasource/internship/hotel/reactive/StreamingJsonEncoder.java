@@ -0,0 +1,73 @@
+package eu.deltasource.internship.hotel.reactive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON encoder, which writes a stream of items as a JSON array
+ * a batch of items at a time.
+ * <p>
+ * The default encoder collects all items of a stream before writing
+ * the array, so a large list is held in memory as a whole. This one
+ * encodes the next batch only when the client has taken the previous ones.
+ * A batch is written as one buffer, so a large list does not cost
+ * a write for every item. Single values and the streaming media types
+ * are left to the default encoder.
+ */
+class StreamingJsonEncoder extends Jackson2JsonEncoder {
+
+	static final int BATCH_SIZE = 64;
+
+	private static final byte START_ARRAY = '[';
+	private static final byte SEPARATOR = ',';
+	private static final byte END_ARRAY = ']';
+
+	StreamingJsonEncoder(ObjectMapper objectMapper) {
+		super(objectMapper);
+	}
+
+	@Override
+	public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+		ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+		if (inputStream instanceof Mono || isStreaming(mimeType)) {
+			return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+		}
+		ObjectWriter writer = getObjectMapper().writerFor(getObjectMapper().constructType(elementType.getType()));
+		Flux<DataBuffer> batches = Flux.from(inputStream).buffer(BATCH_SIZE).index()
+			.map(batch -> bufferFactory.wrap(encodeBatch(writer, batch.getT2(), batch.getT1() == 0)));
+		return batches.switchIfEmpty(Mono.fromSupplier(() -> bufferFactory.wrap(new byte[]{START_ARRAY})))
+			.concatWith(Mono.fromSupplier(() -> bufferFactory.wrap(new byte[]{END_ARRAY})));
+	}
+
+	private static byte[] encodeBatch(ObjectWriter writer, List<?> items, boolean first) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (Object item : items) {
+			out.write(first ? START_ARRAY : SEPARATOR);
+			first = false;
+			try {
+				out.writeBytes(writer.writeValueAsBytes(item));
+			} catch (JsonProcessingException e) {
+				throw new EncodingException("JSON encoding error: " + e.getOriginalMessage(), e);
+			}
+		}
+		return out.toByteArray();
+	}
+
+	private boolean isStreaming(MimeType mimeType) {
+		return mimeType != null && getStreamingMediaTypes().stream().anyMatch(mimeType::isCompatibleWith);
+	}
+}
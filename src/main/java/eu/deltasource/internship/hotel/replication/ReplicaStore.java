@@ -0,0 +1,197 @@
+package eu.deltasource.internship.hotel.replication;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.domain.ChangeEvent;
+import eu.deltasource.internship.hotel.domain.Guest;
+import eu.deltasource.internship.hotel.domain.Room;
+import eu.deltasource.internship.hotel.exception.InvalidArgumentException;
+import eu.deltasource.internship.hotel.exception.ItemNotFoundException;
+import eu.deltasource.internship.hotel.repository.BookingRepository;
+import eu.deltasource.internship.hotel.repository.GuestRepository;
+import eu.deltasource.internship.hotel.repository.RoomRepository;
+import eu.deltasource.internship.hotel.service.ChangeEventLog;
+import eu.deltasource.internship.hotel.utility.Today;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The replicated repositories of one instance.
+ * <p>
+ * On the primary it turns change events into records with the current state
+ * of the changed items. On a follower it applies the records and publishes
+ * them to the local event log, so the read models and subscribers follow too.
+ */
+class ReplicaStore {
+
+	private final GuestRepository guestRepository;
+	private final RoomRepository roomRepository;
+	private final BookingRepository bookingRepository;
+	private final ChangeEventLog eventLog;
+	private final ObjectMapper objectMapper;
+
+	ReplicaStore(GuestRepository guestRepository, RoomRepository roomRepository,
+				 BookingRepository bookingRepository, ChangeEventLog eventLog, ObjectMapper objectMapper) {
+		this.guestRepository = guestRepository;
+		this.roomRepository = roomRepository;
+		this.bookingRepository = bookingRepository;
+		this.eventLog = eventLog;
+		this.objectMapper = objectMapper;
+	}
+
+	ChangeEventLog getEventLog() {
+		return eventLog;
+	}
+
+	ObjectMapper getObjectMapper() {
+		return objectMapper;
+	}
+
+	/**
+	 * Builds the record, which brings a follower to the state after the event
+	 */
+	ReplicationRecord toRecord(ChangeEvent event) {
+		long timeMillis = event.getTime().toEpochMilli();
+		Object item = event.getEntityId() == null ? null : load(event.getEntity(), event.getEntityId());
+		if (item == null) {
+			return new ReplicationRecord(ReplicationRecord.Type.DELETE, event.getSequence(), timeMillis,
+				event.getEntity(), event.getEntityId(), null);
+		}
+		return new ReplicationRecord(ReplicationRecord.Type.UPSERT, event.getSequence(), timeMillis,
+			event.getEntity(), event.getEntityId(), objectMapper.valueToTree(item));
+	}
+
+	/**
+	 * Builds the records of a full copy of the repositories
+	 *
+	 * @param sequence sequence of the last event contained in the copy
+	 */
+	List<ReplicationRecord> snapshot(long sequence) {
+		long timeMillis = System.currentTimeMillis();
+		List<ReplicationRecord> records = new ArrayList<>();
+		records.add(new ReplicationRecord(ReplicationRecord.Type.RESET, sequence, timeMillis, null, null, null));
+		for (Guest guest : guestRepository.findAll()) {
+			records.add(upsert(sequence, timeMillis, ChangeEvent.Entity.GUEST, guest.getGuestId(), new Guest(guest)));
+		}
+		for (Room room : roomRepository.findAll()) {
+			records.add(upsert(sequence, timeMillis, ChangeEvent.Entity.ROOM, room.getRoomId(), new Room(room)));
+		}
+		for (Booking booking : bookingRepository.findAll()) {
+			records.add(upsert(sequence, timeMillis, ChangeEvent.Entity.BOOKING, booking.getBookingId(), booking));
+		}
+		return records;
+	}
+
+	/**
+	 * Applies a record received from the primary
+	 */
+	void apply(ReplicationRecord record) {
+		switch (record.getType()) {
+			case RESET:
+				guestRepository.deleteAll();
+				roomRepository.deleteAll();
+				bookingRepository.deleteAll();
+				for (ChangeEvent.Entity entity : ChangeEvent.Entity.values()) {
+					eventLog.publish(entity, ChangeEvent.Action.DELETED, null);
+				}
+				break;
+			case UPSERT:
+				boolean existed = restore(record);
+				eventLog.publish(record.getEntity(), existed ? ChangeEvent.Action.UPDATED : ChangeEvent.Action.CREATED,
+					record.getEntityId());
+				break;
+			case DELETE:
+				delete(record.getEntity(), record.getEntityId());
+				eventLog.publish(record.getEntity(), ChangeEvent.Action.DELETED, record.getEntityId());
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown record type " + record.getType());
+		}
+	}
+
+	private ReplicationRecord upsert(long sequence, long timeMillis, ChangeEvent.Entity entity, int id, Object item) {
+		return new ReplicationRecord(ReplicationRecord.Type.UPSERT, sequence, timeMillis, entity, id,
+			objectMapper.valueToTree(item));
+	}
+
+	private Object load(ChangeEvent.Entity entity, int id) {
+		try {
+			switch (entity) {
+				case GUEST:
+					return guestRepository.findById(id);
+				case ROOM:
+					return roomRepository.findById(id);
+				default:
+					return bookingRepository.findById(id);
+			}
+		} catch (ItemNotFoundException e) {
+			return null;
+		}
+	}
+
+	private boolean restore(ReplicationRecord record) {
+		try {
+			switch (record.getEntity()) {
+				case GUEST:
+					boolean guestExisted = guestRepository.existsById(record.getEntityId());
+					guestRepository.restore(objectMapper.treeToValue(record.getItem(), Guest.class));
+					return guestExisted;
+				case ROOM:
+					boolean roomExisted = roomRepository.existsById(record.getEntityId());
+					roomRepository.restore(objectMapper.treeToValue(record.getItem(), Room.class));
+					return roomExisted;
+				default:
+					boolean bookingExisted = bookingRepository.existsById(record.getEntityId());
+					bookingRepository.restore(toBooking(record.getItem()));
+					return bookingExisted;
+			}
+		} catch (JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Reads a replicated booking without checking its dates,
+	 * the primary may hold bookings which have already begun
+	 */
+	private Booking toBooking(JsonNode item) throws JsonProcessingException {
+		LocalDate from = objectMapper.treeToValue(item.get("from"), LocalDate.class);
+		LocalDate to = objectMapper.treeToValue(item.get("to"), LocalDate.class);
+		if (from == null || to == null) {
+			throw new InvalidArgumentException("A replicated booking has no dates!");
+		}
+		return Booking.restore(item.path("bookingId").asInt(), item.path("guestId").asInt(),
+			item.path("roomId").asInt(), item.path("numberOfPeople").asInt(), Today.toEpochDay(from),
+			Today.toEpochDay(to));
+	}
+
+	private void delete(ChangeEvent.Entity entity, Integer id) {
+		switch (entity) {
+			case GUEST:
+				if (id == null) {
+					guestRepository.deleteAll();
+				} else {
+					guestRepository.deleteById(id);
+				}
+				break;
+			case ROOM:
+				if (id == null) {
+					roomRepository.deleteAll();
+				} else {
+					roomRepository.deleteById(id);
+				}
+				break;
+			default:
+				if (id == null) {
+					bookingRepository.deleteAll();
+				} else {
+					bookingRepository.deleteById(id);
+				}
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package eu.deltasource.internship.hotel.replication;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Rejects the writes sent to a follower, which only serves reads
+ */
+@Component
+public class ReplicaWriteInterceptor implements HandlerInterceptor {
+
+	@Autowired
+	private ReplicationService replicationService;
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+		throws IOException {
+		if (!replicationService.isReadOnly() || HttpMethod.GET.matches(request.getMethod())
+			|| HttpMethod.HEAD.matches(request.getMethod())) {
+			return true;
+		}
+		response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "This instance is a read-only follower!");
+		return false;
+	}
+}
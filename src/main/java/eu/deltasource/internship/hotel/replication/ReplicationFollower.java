@@ -0,0 +1,155 @@
+package eu.deltasource.internship.hotel.replication;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows a primary and applies its records to the local repositories.
+ * <p>
+ * A lost connection is retried, the follower then continues after
+ * the last change it has applied.
+ */
+class ReplicationFollower {
+
+	private static final long RECONNECT_DELAY_MILLIS = 1000;
+
+	private final ReplicaStore store;
+	private final String host;
+	private final int port;
+	private volatile boolean running;
+	private volatile boolean connected;
+	private volatile String primaryId = "-";
+	private volatile long lastAppliedSequence;
+	private volatile long lastLagMillis;
+	private volatile long maxLagMillis;
+	private volatile long appliedCount;
+	private volatile long lagSumMillis;
+	private volatile long snapshotSequence;
+	private volatile Socket socket;
+	private Thread thread;
+
+	/**
+	 * This is a constructor
+	 *
+	 * @param store the local repositories
+	 * @param host  host of the primary
+	 * @param port  replication port of the primary
+	 */
+	ReplicationFollower(ReplicaStore store, String host, int port) {
+		this.store = store;
+		this.host = host;
+		this.port = port;
+	}
+
+	synchronized void start() {
+		running = true;
+		thread = new Thread(this::follow, "replication-follower");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops following the primary, the applied changes are kept
+	 */
+	synchronized void stop() {
+		running = false;
+		Socket current = socket;
+		if (current != null) {
+			try {
+				current.close();
+			} catch (IOException e) {
+				// already closed
+			}
+		}
+		if (thread != null) {
+			thread.interrupt();
+			try {
+				thread.join(TimeUnit.SECONDS.toMillis(5));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	boolean isConnected() {
+		return connected;
+	}
+
+	long getLastAppliedSequence() {
+		return lastAppliedSequence;
+	}
+
+	long getLastLagMillis() {
+		return lastLagMillis;
+	}
+
+	long getMaxLagMillis() {
+		return maxLagMillis;
+	}
+
+	long getAppliedCount() {
+		return appliedCount;
+	}
+
+	/**
+	 * Gets the average time between a change on the primary and its application here
+	 */
+	long getAverageLagMillis() {
+		long count = appliedCount;
+		return count == 0 ? 0 : lagSumMillis / count;
+	}
+
+	private void follow() {
+		while (running) {
+			try (Socket current = new Socket(host, port)) {
+				socket = current;
+				current.setTcpNoDelay(true);
+				OutputStream out = current.getOutputStream();
+				out.write((primaryId + " " + lastAppliedSequence + "\n").getBytes(StandardCharsets.UTF_8));
+				out.flush();
+				BufferedReader in = new BufferedReader(new InputStreamReader(current.getInputStream(),
+					StandardCharsets.UTF_8));
+				String line = in.readLine();
+				if (line != null) {
+					primaryId = line.trim();
+					connected = true;
+				}
+				while (running && line != null && (line = in.readLine()) != null) {
+					apply(store.getObjectMapper().readValue(line, ReplicationRecord.class));
+				}
+			} catch (IOException e) {
+				// the primary is not reachable, retry below
+			} finally {
+				connected = false;
+				socket = null;
+			}
+			if (running) {
+				try {
+					Thread.sleep(RECONNECT_DELAY_MILLIS);
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		}
+	}
+
+	private void apply(ReplicationRecord record) {
+		store.apply(record);
+		lastAppliedSequence = record.getSequence();
+		if (record.getType() == ReplicationRecord.Type.RESET) {
+			snapshotSequence = record.getSequence();
+		} else if (record.getSequence() > snapshotSequence) {
+			// only live changes count, the snapshot is as old as the data
+			long lag = Math.max(0, System.currentTimeMillis() - record.getTimeMillis());
+			lastLagMillis = lag;
+			maxLagMillis = Math.max(maxLagMillis, lag);
+			lagSumMillis += lag;
+			appliedCount++;
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package eu.deltasource.internship.hotel.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.deltasource.internship.hotel.domain.ChangeEvent;
+import eu.deltasource.internship.hotel.service.ChangeEventLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ships the changes of the repositories to the connected followers.
+ * <p>
+ * A follower sends the id of the primary it has followed and the sequence
+ * of the last change it has applied. It receives the id of this primary and
+ * then newline-delimited JSON records from that change on. A follower, which
+ * is new, has followed another primary or is too far behind the event log,
+ * first receives a full snapshot.
+ * Every follower reads the event log through its own subscription, so a
+ * slow follower never blocks the writers.
+ */
+class ReplicationPrimary {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReplicationPrimary.class);
+
+	private final ReplicaStore store;
+	private final int port;
+	private final String instanceId = UUID.randomUUID().toString();
+	private final Set<Socket> followers = ConcurrentHashMap.newKeySet();
+	private ServerSocket serverSocket;
+
+	/**
+	 * This is a constructor
+	 *
+	 * @param store the replicated repositories
+	 * @param port  local port, which the followers connect to, 0 for any free port
+	 */
+	ReplicationPrimary(ReplicaStore store, int port) {
+		this.store = store;
+		this.port = port;
+	}
+
+	/**
+	 * Starts accepting followers
+	 *
+	 * @return the port, which the followers connect to
+	 */
+	synchronized int start() throws IOException {
+		serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		Thread acceptor = new Thread(this::accept, "replication-primary");
+		acceptor.setDaemon(true);
+		acceptor.start();
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Disconnects all followers and stops accepting new ones
+	 */
+	synchronized void stop() {
+		closeQuietly(serverSocket);
+		for (Socket follower : followers) {
+			closeQuietly(follower);
+		}
+	}
+
+	int followerCount() {
+		return followers.size();
+	}
+
+	private void accept() {
+		while (!serverSocket.isClosed()) {
+			try {
+				Socket socket = serverSocket.accept();
+				Thread session = new Thread(() -> serve(socket), "replication-session-" + socket.getPort());
+				session.setDaemon(true);
+				session.start();
+			} catch (IOException e) {
+				// the server socket is closed
+			}
+		}
+	}
+
+	private void serve(Socket socket) {
+		followers.add(socket);
+		ChangeEventLog.Subscription subscription = null;
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+			StandardCharsets.UTF_8))) {
+			socket.setTcpNoDelay(true);
+			String hello = in.readLine();
+			if (hello == null) {
+				return;
+			}
+			String[] followed = hello.trim().split(" ");
+			long since = followed.length == 2 && followed[0].equals(instanceId) ? Long.parseLong(followed[1]) : 0;
+			Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+			out.write(instanceId + "\n");
+			ChangeEventLog eventLog = store.getEventLog();
+			if (since <= 0 || eventLog.read(since, 0).isResync()) {
+				since = sendSnapshot(out);
+			}
+			subscription = eventLog.subscribe(since, page -> ship(page, out, socket));
+			// the follower sends nothing more, the read ends when it disconnects
+			while (in.readLine() != null) {
+				continue;
+			}
+		} catch (IOException | NumberFormatException e) {
+			// the follower is gone or does not speak the protocol
+		} catch (RuntimeException e) {
+			LOGGER.warn("Dropped the follower {}, its changes could not be sent", socket.getRemoteSocketAddress(), e);
+		} finally {
+			if (subscription != null) {
+				subscription.close();
+			}
+			followers.remove(socket);
+			closeQuietly(socket);
+		}
+	}
+
+	private long sendSnapshot(Writer out) throws IOException {
+		long sequence = store.getEventLog().lastSequence();
+		write(out, store.snapshot(sequence));
+		return sequence;
+	}
+
+	private void ship(ChangeEventLog.Page page, Writer out, Socket socket) {
+		try {
+			if (page.isResync()) {
+				sendSnapshot(out);
+				return;
+			}
+			for (ChangeEvent event : page.getEvents()) {
+				writeLine(out, store.toRecord(event));
+			}
+			out.flush();
+		} catch (IOException e) {
+			// ends the session, the follower reconnects
+			closeQuietly(socket);
+			throw new UncheckedIOException(e);
+		} catch (RuntimeException e) {
+			LOGGER.warn("Dropped the follower {}, a change could not be sent", socket.getRemoteSocketAddress(), e);
+			// the follower reconnects and resyncs instead of waiting for changes, which never come
+			closeQuietly(socket);
+			throw e;
+		}
+	}
+
+	private void write(Writer out, List<ReplicationRecord> records) throws IOException {
+		for (ReplicationRecord record : records) {
+			writeLine(out, record);
+		}
+		out.flush();
+	}
+
+	private void writeLine(Writer out, ReplicationRecord record) throws IOException {
+		ObjectMapper objectMapper = store.getObjectMapper();
+		out.write(objectMapper.writeValueAsString(record));
+		out.write('\n');
+	}
+
+	private static void closeQuietly(AutoCloseable closeable) {
+		if (closeable == null) {
+			return;
+		}
+		try {
+			closeable.close();
+		} catch (Exception e) {
+			// nothing left to do
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package eu.deltasource.internship.hotel.replication;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import eu.deltasource.internship.hotel.domain.ChangeEvent;
+import lombok.Getter;
+
+/**
+ * Represents one line of the replication stream sent by the primary
+ */
+@Getter
+public class ReplicationRecord {
+
+	/**
+	 * Kinds of records
+	 */
+	public enum Type {
+		/**
+		 * The follower drops all items, a snapshot follows
+		 */
+		RESET,
+		/**
+		 * The follower saves the item, replacing the one with the same id
+		 */
+		UPSERT,
+		/**
+		 * The follower deletes the item, or all items of the entity when the id is null
+		 */
+		DELETE
+	}
+
+	private final Type type;
+	private final long sequence;
+	private final long timeMillis;
+	private final ChangeEvent.Entity entity;
+	private final Integer entityId;
+	private final JsonNode item;
+
+	/**
+	 * This is a constructor
+	 *
+	 * @param type       kind of the record
+	 * @param sequence   sequence of the change in the log of the primary
+	 * @param timeMillis time of the change on the primary
+	 * @param entity     kind of the changed item
+	 * @param entityId   id of the changed item
+	 * @param item       the current state of the item for upserts
+	 */
+	@JsonCreator
+	public ReplicationRecord(@JsonProperty("type") Type type, @JsonProperty("sequence") long sequence,
+							 @JsonProperty("timeMillis") long timeMillis,
+							 @JsonProperty("entity") ChangeEvent.Entity entity,
+							 @JsonProperty("entityId") Integer entityId, @JsonProperty("item") JsonNode item) {
+		this.type = type;
+		this.sequence = sequence;
+		this.timeMillis = timeMillis;
+		this.entity = entity;
+		this.entityId = entityId;
+		this.item = item;
+	}
+}
@@ -0,0 +1,165 @@
+package eu.deltasource.internship.hotel.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.deltasource.internship.hotel.dto.ReplicationStatusDTO;
+import eu.deltasource.internship.hotel.exception.FailedInitializationException;
+import eu.deltasource.internship.hotel.exception.InvalidArgumentException;
+import eu.deltasource.internship.hotel.repository.BookingRepository;
+import eu.deltasource.internship.hotel.repository.GuestRepository;
+import eu.deltasource.internship.hotel.repository.RoomRepository;
+import eu.deltasource.internship.hotel.service.ChangeEventLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+
+/**
+ * Represents services for replicating the repositories of the default hotel
+ * to other instances on the same machine.
+ * <p>
+ * The role is set with {@code hotel.replication.role}:
+ * <ul>
+ * <li>{@code standalone} - no replication, the default</li>
+ * <li>{@code primary} - accepts followers on {@code hotel.replication.port}</li>
+ * <li>{@code follower} - follows {@code hotel.replication.primary} (host:port) and serves only reads,
+ * once promoted it accepts followers on {@code hotel.replication.port}</li>
+ * </ul>
+ * The replication starts with the application, also when the beans are created lazily.
+ */
+@Service
+@Lazy(false)
+public class ReplicationService {
+
+	/**
+	 * Roles of an instance
+	 */
+	public enum Role {
+		STANDALONE, PRIMARY, FOLLOWER
+	}
+
+	private final ReplicaStore store;
+	private final int port;
+	private final String primaryHost;
+	private final int primaryPort;
+	private volatile Role role;
+	private ReplicationPrimary primary;
+	private ReplicationFollower follower;
+	private int boundPort;
+
+	/**
+	 * This is a constructor
+	 *
+	 * @param guestRepository   the guest repository
+	 * @param roomRepository    the room repository
+	 * @param bookingRepository the booking repository
+	 * @param eventLog          the change event log
+	 * @param objectMapper      the mapper of the records
+	 * @param role              the role of this instance
+	 * @param port              the port, which followers connect to
+	 * @param primary           host:port of the primary to follow
+	 */
+	@Autowired
+	public ReplicationService(GuestRepository guestRepository, RoomRepository roomRepository,
+							  BookingRepository bookingRepository, ChangeEventLog eventLog, ObjectMapper objectMapper,
+							  @Value("${hotel.replication.role:standalone}") String role,
+							  @Value("${hotel.replication.port:7070}") int port,
+							  @Value("${hotel.replication.primary:localhost:7070}") String primary) {
+		this.store = new ReplicaStore(guestRepository, roomRepository, bookingRepository, eventLog, objectMapper);
+		this.port = port;
+		try {
+			this.role = Role.valueOf(role.toUpperCase(Locale.ROOT));
+			int separator = primary.lastIndexOf(':');
+			this.primaryHost = primary.substring(0, separator);
+			this.primaryPort = Integer.parseInt(primary.substring(separator + 1));
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new FailedInitializationException("Invalid replication settings: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Starts the replication of the configured role
+	 */
+	@PostConstruct
+	public synchronized void start() {
+		if (role == Role.PRIMARY) {
+			startPrimary();
+		} else if (role == Role.FOLLOWER) {
+			follower = new ReplicationFollower(store, primaryHost, primaryPort);
+			follower.start();
+		}
+	}
+
+	/**
+	 * Stops the replication
+	 */
+	@PreDestroy
+	public synchronized void stop() {
+		if (primary != null) {
+			primary.stop();
+		}
+		if (follower != null) {
+			follower.stop();
+		}
+	}
+
+	/**
+	 * Checks if this instance only serves reads
+	 */
+	public boolean isReadOnly() {
+		return role == Role.FOLLOWER;
+	}
+
+	/**
+	 * Gets the port, which followers connect to, once this instance is a primary
+	 */
+	public synchronized int getPort() {
+		return boundPort;
+	}
+
+	/**
+	 * Gets the replication state of this instance
+	 *
+	 * @return the role, connection and lag of this instance
+	 */
+	public synchronized ReplicationStatusDTO status() {
+		if (role == Role.FOLLOWER) {
+			return new ReplicationStatusDTO(role.name(), follower.isConnected(), 0, follower.getLastAppliedSequence(),
+				follower.getAppliedCount(), follower.getLastLagMillis(), follower.getAverageLagMillis(),
+				follower.getMaxLagMillis());
+		}
+		int followers = primary == null ? 0 : primary.followerCount();
+		return new ReplicationStatusDTO(role.name(), false, followers, store.getEventLog().lastSequence(),
+			0, 0, 0, 0);
+	}
+
+	/**
+	 * Stops following the primary and makes this instance a primary,
+	 * which accepts writes and followers
+	 *
+	 * @return the new replication state
+	 */
+	public synchronized ReplicationStatusDTO promote() {
+		if (role != Role.FOLLOWER) {
+			throw new InvalidArgumentException("Only a follower can be promoted!");
+		}
+		follower.stop();
+		role = Role.PRIMARY;
+		startPrimary();
+		return status();
+	}
+
+	private void startPrimary() {
+		primary = new ReplicationPrimary(store, port);
+		try {
+			boundPort = primary.start();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Can not accept followers on port " + port, e);
+		}
+	}
+}
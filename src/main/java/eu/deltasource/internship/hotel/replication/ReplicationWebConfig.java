@@ -0,0 +1,22 @@
+package eu.deltasource.internship.hotel.replication;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the write guard of followers for all endpoints
+ * except the replication ones
+ */
+@Configuration
+public class ReplicationWebConfig implements WebMvcConfigurer {
+
+	@Autowired
+	private ReplicaWriteInterceptor replicaWriteInterceptor;
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(replicaWriteInterceptor).excludePathPatterns("/replication/**");
+	}
+}
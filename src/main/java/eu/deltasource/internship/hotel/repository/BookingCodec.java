@@ -0,0 +1,41 @@
+package eu.deltasource.internship.hotel.repository;
+
+import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.repository.storage.SlotCodec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Writes a booking as its six int fields
+ */
+class BookingCodec implements SlotCodec<Booking> {
+
+	private static final int BOOKING_ID = 0;
+	private static final int GUEST_ID = 4;
+	private static final int ROOM_ID = 8;
+	private static final int NUMBER_OF_PEOPLE = 12;
+	private static final int FROM_DAY = 16;
+	private static final int TO_DAY = 20;
+
+	@Override
+	public int slotBytes() {
+		return 6 * Integer.BYTES;
+	}
+
+	@Override
+	public void write(Booking booking, ByteBuffer buffer, int offset) {
+		buffer.putInt(offset + BOOKING_ID, booking.getBookingId());
+		buffer.putInt(offset + GUEST_ID, booking.getGuestId());
+		buffer.putInt(offset + ROOM_ID, booking.getRoomId());
+		buffer.putInt(offset + NUMBER_OF_PEOPLE, booking.getNumberOfPeople());
+		buffer.putInt(offset + FROM_DAY, booking.getFromDay());
+		buffer.putInt(offset + TO_DAY, booking.getToDay());
+	}
+
+	@Override
+	public Booking read(ByteBuffer buffer, int offset) {
+		return Booking.restore(buffer.getInt(offset + BOOKING_ID), buffer.getInt(offset + GUEST_ID),
+			buffer.getInt(offset + ROOM_ID), buffer.getInt(offset + NUMBER_OF_PEOPLE),
+			buffer.getInt(offset + FROM_DAY), buffer.getInt(offset + TO_DAY));
+	}
+}
@@ -0,0 +1,111 @@
+package eu.deltasource.internship.hotel.repository;
+
+import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.domain.BookingHold;
+import eu.deltasource.internship.hotel.exception.BookingOverlappingException;
+import eu.deltasource.internship.hotel.exception.ItemNotFoundException;
+import eu.deltasource.internship.hotel.utility.Today;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Represents repository for booking holds.
+ * <p>
+ * Holds are removed by an expiry thread, so all operations are synchronized.
+ */
+@Repository
+public class BookingHoldRepository {
+
+	private final Map<Integer, BookingHold> holdsById;
+	private final DateRangeIndex roomDates;
+	private int lastId;
+
+	/**
+	 * Default constructor, which initializes the repository
+	 * as an empty HashMap.
+	 */
+	public BookingHoldRepository() {
+		holdsById = new HashMap<>();
+		roomDates = new DateRangeIndex();
+	}
+
+	/**
+	 * Saves a hold for the given booking,
+	 * if no other hold overlaps its dates
+	 *
+	 * @param booking   the booking to hold the room for
+	 * @param expiresAt expiry time of the hold
+	 * @return the saved hold
+	 */
+	public synchronized BookingHold save(Booking booking, Instant expiresAt) {
+		if (existsOverlapping(booking.getRoomId(), booking.getFromDay(), booking.getToDay())) {
+			throw new BookingOverlappingException("The room is already held for this period!");
+		}
+		BookingHold hold = new BookingHold(++lastId, booking, expiresAt);
+		holdsById.put(hold.getHoldId(), hold);
+		roomDates.add(hold.getRoomId(), hold.getHoldId(), booking.getFromDay(), booking.getToDay());
+		return hold;
+	}
+
+	/**
+	 * Puts a removed hold back under its own id,
+	 * the caller makes sure that its dates are still free
+	 *
+	 * @param hold the removed hold
+	 */
+	public synchronized void restore(BookingHold hold) {
+		holdsById.put(hold.getHoldId(), hold);
+		roomDates.add(hold.getRoomId(), hold.getHoldId(), Today.toEpochDay(hold.getFrom()),
+			Today.toEpochDay(hold.getTo()));
+	}
+
+	public synchronized boolean existsById(int id) {
+		return holdsById.containsKey(id);
+	}
+
+	public synchronized BookingHold findById(int id) {
+		BookingHold hold = holdsById.get(id);
+		if (hold == null) {
+			throw new ItemNotFoundException("A hold with id: " + id + " was not found!");
+		}
+		return hold;
+	}
+
+	/**
+	 * Checks if the room has a hold which overlaps the given epoch days
+	 */
+	public synchronized boolean existsOverlapping(int roomId, int from, int to) {
+		return roomDates.overlaps(roomId, from, to);
+	}
+
+	/**
+	 * Removes the hold with the given id
+	 *
+	 * @return the removed hold or null if there is no such hold
+	 */
+	public synchronized BookingHold deleteById(int id) {
+		BookingHold hold = holdsById.remove(id);
+		if (hold != null) {
+			roomDates.remove(hold.getRoomId(), hold.getHoldId(), Today.toEpochDay(hold.getFrom()));
+		}
+		return hold;
+	}
+
+	/**
+	 * Deletes all holds in the repository
+	 */
+	public synchronized void deleteAll() {
+		holdsById.clear();
+		roomDates.clear();
+	}
+
+	/**
+	 * Returns the number of holds in the repository
+	 */
+	public synchronized int count() {
+		return holdsById.size();
+	}
+}
@@ -1,36 +1,72 @@
 package eu.deltasource.internship.hotel.repository;
 
 import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.domain.CleaningTask;
 import eu.deltasource.internship.hotel.exception.ItemNotFoundException;
+import eu.deltasource.internship.hotel.repository.storage.StorageEngine;
+import eu.deltasource.internship.hotel.repository.storage.StorageEngines;
+import eu.deltasource.internship.hotel.utility.Today;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 /**
- * Represents repository for bookings
+ * Represents repository for bookings.
+ * <p>
+ * Bookings are created concurrently, so all operations are synchronized.
+ * The bookings are kept in the storage engine set by hotel.storage.bookings,
+ * which can also keep them outside of the heap.
  */
 @Repository
 public class BookingRepository {
 
-	private final List<Booking> repository;
+	private final StorageEngine<Booking> storage;
+	private final DateRangeIndex roomDates;
+	private final Map<Integer, Set<Integer>> bookingIdsByDeparture;
+	private final NavigableMap<Integer, Integer> overbookedNights;
+	private final OccupancyCalendar calendar;
 
 	/**
 	 * Default constructor, which initializes the repository
-	 * as an empty ArrayList.
+	 * with an empty indexed storage engine together with its indexes.
 	 */
 	public BookingRepository() {
-		repository = new ArrayList<>();
+		this(StorageEngines.INDEXED);
 	}
 
 	/**
-	 * Returns an unmodifiable list of all items
+	 * This is a constructor
+	 *
+	 * @param engine name of the storage engine, "list", "indexed" or "off-heap"
+	 */
+	@Autowired
+	public BookingRepository(@Value("${hotel.storage.bookings:" + StorageEngines.INDEXED + "}") String engine) {
+		storage = StorageEngines.create(engine, Booking::getBookingId, new BookingCodec());
+		roomDates = new DateRangeIndex();
+		bookingIdsByDeparture = new HashMap<>();
+		overbookedNights = new TreeMap<>();
+		calendar = new OccupancyCalendar(roomDates);
+	}
+
+	/**
+	 * Returns an unmodifiable snapshot of all items
 	 * currently in the repository.
 	 */
-	public List<Booking> findAll() {
-		return Collections.unmodifiableList(repository);
+	public synchronized List<Booking> findAll() {
+		return Collections.unmodifiableList(storage.findAll());
 	}
 
 	/**
@@ -39,61 +75,222 @@ public class BookingRepository {
 	 * <p>
 	 * Check this always, before using operations with id's.
 	 */
-	public boolean existsById(int id) {
-		for (Booking item : repository) {
-			if (item.getBookingId() == id)
-				return true;
-		}
-		return false;
+	public synchronized boolean existsById(int id) {
+		return storage.contains(id);
 	}
 
 	/**
 	 * Returns an item from the repository
 	 */
-	public Booking findById(int id) {
-		for (Booking item : repository) {
-			if (item.getBookingId() == id)
-				return new Booking(item);
+	public synchronized Booking findById(int id) {
+		Booking item = storage.get(id);
+		if (item == null) {
+			throw new ItemNotFoundException("A booking with id: " + id + " was not found!");
 		}
-		throw new ItemNotFoundException("A booking with id: " + id + " was not found!");
+		return new Booking(item);
 	}
 
-	private int idGenerator() {
-		if (count() == 0) {
-			return count() + 1;
+	/**
+	 * Checks if the room has a booking which overlaps the given epoch days
+	 */
+	public synchronized boolean existsOverlapping(int roomId, int from, int to) {
+		return roomDates.overlaps(roomId, from, to);
+	}
+
+	/**
+	 * Returns copies of all bookings for the room,
+	 * which overlap the given dates
+	 */
+	public synchronized List<Booking> findOverlapping(int roomId, LocalDate from, LocalDate to) {
+		List<Booking> bookings = new ArrayList<>();
+		for (int bookingId : roomDates.findOverlapping(roomId, Today.toEpochDay(from), Today.toEpochDay(to))) {
+			bookings.add(new Booking(storage.get(bookingId)));
+		}
+		return bookings;
+	}
+
+	/**
+	 * Gets the occupancy of the rooms in the given epoch days, run-length encoded.
+	 * The runs of a room are pairs of a booking id, 0 for free days,
+	 * and the number of days in a row with it.
+	 *
+	 * @param roomIds ids of the rooms
+	 * @param from    first epoch day
+	 * @param to      first epoch day after the days
+	 * @return runs of every room in the order of the ids
+	 */
+	public synchronized int[][] findOccupancy(List<Integer> roomIds, int from, int to) {
+		return calendar.findRuns(roomIds, from, to);
+	}
+
+	/**
+	 * Finds the rooms, which are left on the given day,
+	 * together with the next arrival in each of them
+	 *
+	 * @return cleaning tasks ordered by room id
+	 */
+	public synchronized List<CleaningTask> findTurnovers(LocalDate day) {
+		List<CleaningTask> tasks = new ArrayList<>();
+		int departure = Today.toEpochDay(day);
+		Set<Integer> bookingIds = bookingIdsByDeparture.get(departure);
+		if (bookingIds == null) {
+			return tasks;
+		}
+		Set<Integer> roomIds = new TreeSet<>();
+		for (int bookingId : bookingIds) {
+			roomIds.add(storage.get(bookingId).getRoomId());
+		}
+		for (int roomId : roomIds) {
+			Integer nextArrival = roomDates.findNextStart(roomId, departure);
+			tasks.add(new CleaningTask(roomId, day, nextArrival == null ? null : LocalDate.ofEpochDay(nextArrival)));
+		}
+		return tasks;
+	}
+
+	/**
+	 * Gets the number of overbooked rooms for every night in the given range,
+	 * which has any
+	 *
+	 * @param from first night
+	 * @param to   first date after the nights
+	 * @return overbooked rooms by night
+	 */
+	public synchronized Map<LocalDate, Integer> findOverbookedNights(LocalDate from, LocalDate to) {
+		Map<LocalDate, Integer> nights = new TreeMap<>();
+		for (Map.Entry<Integer, Integer> night
+			: overbookedNights.subMap(Today.toEpochDay(from), true, Today.toEpochDay(to), false).entrySet()) {
+			nights.put(LocalDate.ofEpochDay(night.getKey()), night.getValue());
+		}
+		return nights;
+	}
+
+	/**
+	 * Saves the item, even though its room is booked for some of its nights,
+	 * as long as no such night would exceed the given number of overbooked rooms
+	 *
+	 * @param item          the item
+	 * @param limitPerNight maximum number of overbooked rooms in a night
+	 * @return copy of the saved item or null if the limit would be exceeded
+	 */
+	public synchronized Booking saveOverbooked(Booking item, int limitPerNight) {
+		for (int night = item.getFromDay(); night < item.getToDay(); night++) {
+			if (roomDates.overlaps(item.getRoomId(), night, night + 1)
+				&& overbookedNights.getOrDefault(night, 0) >= limitPerNight) {
+				return null;
+			}
+		}
+		return save(item);
+	}
+
+	private void index(Booking booking) {
+		countOverbookedNights(booking, 1);
+		calendar.invalidate(booking.getFromDay(), booking.getToDay());
+		roomDates.add(booking.getRoomId(), booking.getBookingId(), booking.getFromDay(), booking.getToDay());
+		bookingIdsByDeparture.computeIfAbsent(booking.getToDay(), day -> new LinkedHashSet<>())
+			.add(booking.getBookingId());
+	}
+
+	private void unindex(Booking booking) {
+		roomDates.remove(booking.getRoomId(), booking.getBookingId(), booking.getFromDay());
+		calendar.invalidate(booking.getFromDay(), booking.getToDay());
+		Set<Integer> bookingIds = bookingIdsByDeparture.get(booking.getToDay());
+		if (bookingIds != null) {
+			bookingIds.remove(booking.getBookingId());
+			if (bookingIds.isEmpty()) {
+				bookingIdsByDeparture.remove(booking.getToDay());
+			}
 		}
-		return repository.get(count() - 1).getBookingId() + 1;
+		countOverbookedNights(booking, -1);
+	}
+
+	/**
+	 * Counts the nights of the booking, in which its room has another booking.
+	 * Called before a booking is indexed and after it is unindexed, a room with
+	 * n bookings in a night is then counted as overbooked n - 1 times.
+	 */
+	private void countOverbookedNights(Booking booking, int delta) {
+		if (!roomDates.overlaps(booking.getRoomId(), booking.getFromDay(), booking.getToDay())) {
+			return;
+		}
+		for (int night = booking.getFromDay(); night < booking.getToDay(); night++) {
+			if (roomDates.overlaps(booking.getRoomId(), night, night + 1)) {
+				overbookedNights.merge(night, delta, Integer::sum);
+				overbookedNights.remove(night, 0);
+			}
+		}
+	}
+
+	private int idGenerator() {
+		return storage.lastId() + 1;
 	}
 
-	public void save(Booking item) {
+	/**
+	 * Saves the item with a newly generated id
+	 *
+	 * @return copy of the saved item
+	 */
+	public synchronized Booking save(Booking item) {
 		Booking newBooking = new Booking(idGenerator(), item.getGuestId(), item.getRoomId(),
-			item.getNumberOfPeople(), item.getFrom(), item.getTo());
-		repository.add(newBooking);
+			item.getNumberOfPeople(), item.getFromDay(), item.getToDay());
+		storage.put(newBooking);
+		index(newBooking);
+		return new Booking(newBooking);
 	}
 
 	/**
-	 * Saves the list of items in the repository
+	 * Saves the list of items in the repository at once
+	 *
+	 * @return copies of the saved items
 	 */
-	public void saveAll(List<Booking> items) {
-		items.forEach(
-			this::save);
+	public synchronized List<Booking> saveAll(List<Booking> items) {
+		List<Booking> saved = new ArrayList<>();
+		for (Booking item : items) {
+			saved.add(save(item));
+		}
+		return saved;
 	}
 
 	/**
 	 * Saves all given items in the repository
 	 */
-	public void saveAll(Booking... items) {
-		saveAll(Arrays.asList(items));
+	public List<Booking> saveAll(Booking... items) {
+		return saveAll(Arrays.asList(items));
 	}
 
-	public Booking updateDates(Booking item) {
-		for (Booking booking : repository) {
-			if (booking.getBookingId() == item.getBookingId()) {
-				booking.setBookingDates(item.getFrom(), item.getTo());
-				return new Booking(booking);
-			}
+	/**
+	 * Saves a copy of the item under its own id, replacing
+	 * the item with the same id if there is one.
+	 * <p>
+	 * Used to apply the changes replicated from another repository.
+	 *
+	 * @return copy of the saved item
+	 */
+	public synchronized Booking restore(Booking item) {
+		Booking booking = new Booking(item);
+		Booking previous = storage.get(booking.getBookingId());
+		if (previous != null) {
+			unindex(previous);
+		}
+		storage.put(booking);
+		index(booking);
+		return new Booking(booking);
+	}
+
+	public synchronized Booking updateDates(Booking item) {
+		Booking booking = storage.get(item.getBookingId());
+		if (booking == null) {
+			throw new ItemNotFoundException("Booking not found in repository!");
 		}
-		throw new ItemNotFoundException("Booking not found in repository!");
+		unindex(booking);
+		Booking updated = booking;
+		try {
+			updated = new Booking(booking.getBookingId(), booking.getGuestId(), booking.getRoomId(),
+				booking.getNumberOfPeople(), item.getFromDay(), item.getToDay());
+		} finally {
+			storage.put(updated);
+			index(updated);
+		}
+		return new Booking(updated);
 	}
 
 	/**
@@ -103,30 +300,36 @@ public class BookingRepository {
 	 * Returns true if an exact match is and deleted,
 	 * returns false if there's no match and the list is unchanged.
 	 */
-	public boolean delete(Booking item) {
-		return repository.remove(item);
+	public synchronized boolean delete(Booking item) {
+		Booking booking = storage.get(item.getBookingId());
+		if (booking == null || !booking.equals(item)) {
+			return false;
+		}
+		storage.remove(booking.getBookingId());
+		unindex(booking);
+		return true;
 	}
 
-	public boolean deleteById(int id) {
-		for (Booking booking : repository) {
-			if (booking.getBookingId() == id) {
-				return delete(booking);
-			}
-		}
-		return false;
+	public synchronized boolean deleteById(int id) {
+		Booking booking = storage.get(id);
+		return booking != null && delete(booking);
 	}
 
 	/**
 	 * Deletes all items in the repository
 	 */
-	public void deleteAll() {
-		repository.clear();
+	public synchronized void deleteAll() {
+		storage.clear();
+		roomDates.clear();
+		bookingIdsByDeparture.clear();
+		overbookedNights.clear();
+		calendar.clear();
 	}
 
 	/**
 	 * Returns the number of items left in the repository
 	 */
-	public int count() {
-		return repository.size();
+	public synchronized int count() {
+		return storage.size();
 	}
 }
@@ -0,0 +1,175 @@
+package eu.deltasource.internship.hotel.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Index of the date ranges reserved in each room.
+ * <p>
+ * Dates are epoch days. Ranges are half-open - the end date is free for a new range.
+ * Ranges of a room are ordered by their start date, so overlap checks
+ * only look at the ranges which start less than the longest range
+ * currently stored for the room before the checked start.
+ */
+class DateRangeIndex {
+
+	private final Map<Integer, RoomRanges> rooms = new HashMap<>();
+
+	/**
+	 * Adds a range for the room
+	 *
+	 * @param roomId room's id
+	 * @param id     id of the range owner
+	 * @param from   first reserved date
+	 * @param to     first free date
+	 */
+	void add(int roomId, int id, int from, int to) {
+		rooms.computeIfAbsent(roomId, room -> new RoomRanges()).add(id, from, to);
+	}
+
+	/**
+	 * Removes a range from the room
+	 *
+	 * @param roomId room's id
+	 * @param id     id of the range owner
+	 * @param from   first reserved date of the range
+	 */
+	void remove(int roomId, int id, int from) {
+		RoomRanges ranges = rooms.get(roomId);
+		if (ranges != null && ranges.remove(id, from)) {
+			rooms.remove(roomId);
+		}
+	}
+
+	/**
+	 * Checks if any range in the room overlaps the given dates
+	 */
+	boolean overlaps(int roomId, int from, int to) {
+		RoomRanges ranges = rooms.get(roomId);
+		return ranges != null && !ranges.findOverlapping(from, to, true).isEmpty();
+	}
+
+	/**
+	 * Finds the ids of all ranges in the room, which overlap the given dates
+	 */
+	List<Integer> findOverlapping(int roomId, int from, int to) {
+		RoomRanges ranges = rooms.get(roomId);
+		return ranges == null ? new ArrayList<>() : ranges.findOverlapping(from, to, false);
+	}
+
+	/**
+	 * Finds the first start of a range in the room on or after the given date
+	 *
+	 * @return the start day or null, when no range starts that late
+	 */
+	Integer findNextStart(int roomId, int date) {
+		RoomRanges ranges = rooms.get(roomId);
+		return ranges == null ? null : ranges.rangesByStart.ceilingKey(date);
+	}
+
+	/**
+	 * Gets the ids of the rooms with any range
+	 */
+	Set<Integer> roomIds() {
+		return rooms.keySet();
+	}
+
+	/**
+	 * Visits the ranges in the room, which overlap the given dates,
+	 * ordered by their start date
+	 */
+	void forEachOverlapping(int roomId, int from, int to, RangeVisitor visitor) {
+		RoomRanges ranges = rooms.get(roomId);
+		if (ranges != null) {
+			ranges.forEachOverlapping(from, to, visitor);
+		}
+	}
+
+	void clear() {
+		rooms.clear();
+	}
+
+	/**
+	 * Receives the ranges of a room
+	 */
+	interface RangeVisitor {
+
+		/**
+		 * @param id   id of the range owner
+		 * @param from first reserved date
+		 * @param to   first free date
+		 */
+		void visit(int id, int from, int to);
+	}
+
+	private static final class RoomRanges {
+
+		private final NavigableMap<Integer, Map<Integer, Integer>> rangesByStart = new TreeMap<>();
+		// number of ranges by length, so the longest range shrinks again when it is removed
+		private final NavigableMap<Integer, Integer> rangeLengths = new TreeMap<>();
+		private int longestRange;
+
+		private void add(int id, int from, int to) {
+			Integer previousTo = rangesByStart.computeIfAbsent(from, date -> new HashMap<>()).put(id, to);
+			if (previousTo != null) {
+				removeLength(previousTo - from);
+			}
+			rangeLengths.merge(to - from, 1, Integer::sum);
+			longestRange = rangeLengths.lastKey();
+		}
+
+		/**
+		 * Returns true when the room has no ranges left
+		 */
+		private boolean remove(int id, int from) {
+			Map<Integer, Integer> ranges = rangesByStart.get(from);
+			if (ranges != null) {
+				Integer to = ranges.remove(id);
+				if (ranges.isEmpty()) {
+					rangesByStart.remove(from);
+				}
+				if (to != null) {
+					removeLength(to - from);
+					longestRange = rangeLengths.isEmpty() ? 0 : rangeLengths.lastKey();
+				}
+			}
+			return rangesByStart.isEmpty();
+		}
+
+		private void removeLength(int length) {
+			rangeLengths.computeIfPresent(length, (key, count) -> count == 1 ? null : count - 1);
+		}
+
+		private void forEachOverlapping(int from, int to, RangeVisitor visitor) {
+			for (Map.Entry<Integer, Map<Integer, Integer>> start
+				: rangesByStart.subMap(from - longestRange, false, to, false).entrySet()) {
+				for (Map.Entry<Integer, Integer> range : start.getValue().entrySet()) {
+					if (range.getValue() > from) {
+						visitor.visit(range.getKey(), start.getKey(), range.getValue());
+					}
+				}
+			}
+		}
+
+		private List<Integer> findOverlapping(int from, int to, boolean firstOnly) {
+			List<Integer> ids = new ArrayList<>();
+			int earliestStart = from - longestRange;
+			for (Map<Integer, Integer> ranges : rangesByStart.subMap(earliestStart, false, to, false).values()) {
+				for (Map.Entry<Integer, Integer> range : ranges.entrySet()) {
+					if (range.getValue() > from) {
+						ids.add(range.getKey());
+						if (firstOnly) {
+							return ids;
+						}
+					}
+				}
+			}
+			return ids;
+		}
+	}
+}
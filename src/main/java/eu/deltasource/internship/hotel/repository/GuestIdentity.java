@@ -0,0 +1,62 @@
+package eu.deltasource.internship.hotel.repository;
+
+import eu.deltasource.internship.hotel.domain.Guest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized identity of a guest, used to recognize the same guest
+ * in repeated imports.
+ * <p>
+ * The identity is made of the guest fields listed in {@link #FIELDS},
+ * folded to lower case without diacritics and extra spaces. A new field
+ * takes part in the identity once it is added to the list.
+ */
+final class GuestIdentity {
+
+	private static final List<Function<Guest, String>> FIELDS = List.of(
+		Guest::getFirstName,
+		Guest::getLastName,
+		guest -> guest.getGender().name());
+
+	private static final Pattern SPACES = Pattern.compile("\\s+");
+
+	private final String[] values;
+	private final int hash;
+
+	private GuestIdentity(String[] values) {
+		this.values = values;
+		this.hash = Arrays.hashCode(values);
+	}
+
+	/**
+	 * Builds the identity of the guest
+	 */
+	static GuestIdentity of(Guest guest) {
+		String[] values = new String[FIELDS.size()];
+		for (int i = 0; i < values.length; i++) {
+			String value = FIELDS.get(i).apply(guest);
+			values[i] = value == null ? "" : SPACES.matcher(GuestNameIndex.normalize(value).trim()).replaceAll(" ");
+		}
+		return new GuestIdentity(values);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (!(obj instanceof GuestIdentity)) {
+			return false;
+		}
+		GuestIdentity other = (GuestIdentity) obj;
+		return hash == other.hash && Arrays.equals(values, other.values);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+}
@@ -0,0 +1,205 @@
+package eu.deltasource.internship.hotel.repository;
+
+import java.text.Normalizer;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix tree over the normalized tokens of guest names.
+ * <p>
+ * Names are folded to lower case without diacritics and split into words.
+ * A lookup walks the prefix and collects guest ids from the subtree in
+ * alphabetical order until enough ids are found, so its cost depends on
+ * the prefix and the number of results, not on the number of guests.
+ */
+class GuestNameIndex {
+
+	private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	private final Node root = new Node();
+
+	/**
+	 * Adds the names of a guest to the index
+	 */
+	void add(int guestId, String... names) {
+		for (String token : tokens(names)) {
+			Node node = root;
+			for (int i = 0; i < token.length(); i++) {
+				node = node.children.computeIfAbsent(token.charAt(i), character -> new Node());
+			}
+			node.guestIds.add(guestId);
+		}
+	}
+
+	/**
+	 * Removes the names of a guest from the index
+	 */
+	void remove(int guestId, String... names) {
+		for (String token : tokens(names)) {
+			remove(root, token, 0, guestId);
+		}
+	}
+
+	/**
+	 * Finds the ids of the guests with a name token, which starts
+	 * with the given normalized prefix
+	 *
+	 * @param prefix normalized prefix
+	 * @param limit  maximum number of ids
+	 * @param fuzzy  whether prefixes with one edit are matched too
+	 * @return ids of the matching guests, exact prefix matches first
+	 */
+	Set<Integer> findByPrefix(String prefix, int limit, boolean fuzzy) {
+		Set<Node> matches = new LinkedHashSet<>();
+		Node exact = find(prefix);
+		if (exact != null) {
+			matches.add(exact);
+		}
+		if (fuzzy) {
+			findWithOneEdit(root, prefix, 0, true, matches);
+		}
+		Set<Integer> guestIds = new LinkedHashSet<>();
+		for (Node node : matches) {
+			if (!collect(node, limit, guestIds)) {
+				break;
+			}
+		}
+		return guestIds;
+	}
+
+	void clear() {
+		root.children.clear();
+		root.guestIds.clear();
+	}
+
+	/**
+	 * Folds the text to lower case without diacritics
+	 */
+	static String normalize(String text) {
+		String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+		return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Splits the normalized texts into distinct words
+	 */
+	static Set<String> tokens(String... texts) {
+		Set<String> tokens = new LinkedHashSet<>();
+		for (String text : texts) {
+			if (text == null) {
+				continue;
+			}
+			for (String token : SEPARATORS.split(normalize(text))) {
+				if (!token.isEmpty()) {
+					tokens.add(token);
+				}
+			}
+		}
+		return tokens;
+	}
+
+	/**
+	 * Checks if the token starts with the prefix,
+	 * allowing one edit when the match is fuzzy
+	 */
+	static boolean startsWith(String token, String prefix, boolean fuzzy) {
+		if (token.startsWith(prefix)) {
+			return true;
+		}
+		if (!fuzzy) {
+			return false;
+		}
+		int mismatch = 0;
+		while (mismatch < prefix.length() && mismatch < token.length()
+			&& token.charAt(mismatch) == prefix.charAt(mismatch)) {
+			mismatch++;
+		}
+		// a single edit can always be placed at the first mismatch
+		String afterMismatch = prefix.substring(mismatch + 1);
+		return token.startsWith(afterMismatch, mismatch + 1)
+			|| token.startsWith(afterMismatch, mismatch)
+			|| token.startsWith(prefix.substring(mismatch), mismatch + 1);
+	}
+
+	private Node find(String prefix) {
+		Node node = root;
+		for (int i = 0; i < prefix.length() && node != null; i++) {
+			node = node.children.get(prefix.charAt(i));
+		}
+		return node;
+	}
+
+	private void findWithOneEdit(Node node, String prefix, int position, boolean editLeft, Set<Node> matches) {
+		if (position == prefix.length()) {
+			matches.add(node);
+			return;
+		}
+		char expected = prefix.charAt(position);
+		Node next = node.children.get(expected);
+		if (next != null) {
+			findWithOneEdit(next, prefix, position + 1, editLeft, matches);
+		}
+		if (!editLeft) {
+			return;
+		}
+		// the query has an extra character
+		findWithOneEdit(node, prefix, position + 1, false, matches);
+		for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+			if (child.getKey() != expected) {
+				// the query has a wrong character
+				findWithOneEdit(child.getValue(), prefix, position + 1, false, matches);
+			}
+			// the query misses a character
+			findWithOneEdit(child.getValue(), prefix, position, false, matches);
+		}
+	}
+
+	/**
+	 * Collects ids from the subtree in alphabetical order
+	 *
+	 * @return false when the limit is reached
+	 */
+	private boolean collect(Node node, int limit, Set<Integer> guestIds) {
+		for (int guestId : node.guestIds) {
+			guestIds.add(guestId);
+			if (guestIds.size() >= limit) {
+				return false;
+			}
+		}
+		for (Node child : node.children.values()) {
+			if (!collect(child, limit, guestIds)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Removes the id and prunes the emptied nodes
+	 *
+	 * @return true when the node is empty
+	 */
+	private boolean remove(Node node, String token, int position, int guestId) {
+		if (position == token.length()) {
+			node.guestIds.remove(guestId);
+		} else {
+			Node child = node.children.get(token.charAt(position));
+			if (child != null && remove(child, token, position + 1, guestId)) {
+				node.children.remove(token.charAt(position));
+			}
+		}
+		return node.guestIds.isEmpty() && node.children.isEmpty();
+	}
+
+	private static final class Node {
+
+		private final Map<Character, Node> children = new TreeMap<>();
+		private final Set<Integer> guestIds = new HashSet<>();
+	}
+}
@@ -1,36 +1,66 @@
 package eu.deltasource.internship.hotel.repository;
 
+import eu.deltasource.internship.hotel.domain.ChangeEvent;
 import eu.deltasource.internship.hotel.domain.Guest;
+import eu.deltasource.internship.hotel.dto.GuestImportDTO;
 import eu.deltasource.internship.hotel.exception.ItemNotFoundException;
+import eu.deltasource.internship.hotel.repository.storage.StorageEngine;
+import eu.deltasource.internship.hotel.repository.storage.StorageEngines;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
 
 /**
- * Represents repository for guests
+ * Represents repository for guests.
+ * <p>
+ * The repository is shared between request threads, so all operations are synchronized.
+ * Guest names are kept in a prefix index for searching and guest identities
+ * in a hash index for merging imports. The guests themselves are kept
+ * in the storage engine set by hotel.storage.guests.
  */
 @Repository
 public class GuestRepository {
 
-	private final List<Guest> repository;
+	private final StorageEngine<Guest> storage;
+	private final GuestNameIndex nameIndex;
+	private final Map<GuestIdentity, Set<Integer>> guestIdsByIdentity;
 
 	/**
 	 * Default constructor, which initializes the repository
-	 * as an empty ArrayList.
+	 * with an empty list storage engine.
 	 */
 	public GuestRepository() {
-		repository = new ArrayList<>();
+		this(StorageEngines.LIST);
 	}
 
 	/**
-	 * Returns an unmodifiable list of all items
+	 * This is a constructor
+	 *
+	 * @param engine name of the storage engine, "list" or "indexed"
+	 */
+	@Autowired
+	public GuestRepository(@Value("${hotel.storage.guests:" + StorageEngines.LIST + "}") String engine) {
+		storage = StorageEngines.create(engine, Guest::getGuestId);
+		nameIndex = new GuestNameIndex();
+		guestIdsByIdentity = new HashMap<>();
+	}
+
+	/**
+	 * Returns an unmodifiable snapshot of all items
 	 * currently in the repository.
 	 */
-	public List<Guest> findAll() {
-		return Collections.unmodifiableList(repository);
+	public synchronized List<Guest> findAll() {
+		return Collections.unmodifiableList(storage.findAll());
 	}
 
 	/**
@@ -39,61 +69,81 @@ public class GuestRepository {
 	 * <p>
 	 * Check this always, before using operations with id's.
 	 */
-	public boolean existsById(int id) {
-		for (Guest item : repository) {
-			if (item.getGuestId() == id)
-				return true;
-		}
-		return false;
+	public synchronized boolean existsById(int id) {
+		return storage.contains(id);
 	}
 
 	/**
 	 * Returns a copy of the item from the repository
 	 * with the given Id.
 	 */
-	public Guest findById(int id) {
-		for (Guest item : repository) {
-			if (item.getGuestId() == id)
-				return new Guest(item);
+	public synchronized Guest findById(int id) {
+		Guest item = storage.get(id);
+		if (item != null) {
+			return new Guest(item);
 		}
 		throw new ItemNotFoundException("A Guest with id: " + id + " was not found!");
 	}
 
 	private int idGenerator() {
-		if (count() == 0) {
-			return count() + 1;
-		}
-		return repository.get(count() - 1).getGuestId() + 1;
+		return storage.lastId() + 1;
 	}
 
-	public void save(Guest item) {
+	/**
+	 * Saves the item with a newly generated id
+	 *
+	 * @return copy of the saved item
+	 */
+	public synchronized Guest save(Guest item) {
 		Guest newGuest = new Guest(idGenerator(), item.getFirstName(), item.getLastName(), item.getGender());
-		repository.add(newGuest);
+		storage.put(newGuest);
+		index(newGuest);
+		return new Guest(newGuest);
 	}
 
 	/**
 	 * Saves the list of items in the repository
+	 *
+	 * @return copies of the saved items
 	 */
-	public void saveAll(List<Guest> items) {
-		items.forEach(
-			this::save);
+	public synchronized List<Guest> saveAll(List<Guest> items) {
+		List<Guest> saved = new ArrayList<>();
+		for (Guest item : items) {
+			saved.add(save(item));
+		}
+		return saved;
 	}
 
 	/**
 	 * Saves all given items in the repository
 	 */
 
-	public void saveAll(Guest... items) {
-		saveAll(Arrays.asList(items));
+	public List<Guest> saveAll(Guest... items) {
+		return saveAll(Arrays.asList(items));
 	}
 
-	public Guest updateGuest(Guest item) {
-		for (Guest guest : repository) {
-			if (guest.getGuestId() == item.getGuestId()) {
-				guest.changeGender(item.getGender());
-				guest.changeFirstAndLastNames(item.getFirstName(), item.getLastName());
-				return new Guest(guest);
-			}
+	/**
+	 * Saves a copy of the item under its own id, replacing
+	 * the item with the same id if there is one.
+	 * <p>
+	 * Used to apply the changes replicated from another repository.
+	 *
+	 * @return copy of the saved item
+	 */
+	public synchronized Guest restore(Guest item) {
+		if (storage.contains(item.getGuestId())) {
+			return updateGuest(item);
+		}
+		Guest guest = new Guest(item);
+		storage.put(guest);
+		index(guest);
+		return new Guest(guest);
+	}
+
+	public synchronized Guest updateGuest(Guest item) {
+		Guest guest = storage.update(item.getGuestId(), stored -> change(stored, item));
+		if (guest != null) {
+			return new Guest(guest);
 		}
 		throw new ItemNotFoundException("Guest not found in repository!");
 	}
@@ -105,30 +155,149 @@ public class GuestRepository {
 	 * Returns true if an exact match is and deleted,
 	 * returns false if there's no match and the list is unchanged.
 	 */
-	public boolean delete(Guest item) {
-		return repository.remove(item);
+	public synchronized boolean delete(Guest item) {
+		Guest guest = storage.remove(item.getGuestId());
+		if (guest == null) {
+			return false;
+		}
+		unindex(guest);
+		return true;
 	}
 
-	public boolean deleteById(int id) {
-		for (Guest guest : repository) {
-			if (guest.getGuestId() == id) {
-				return delete(guest);
+	public synchronized boolean deleteById(int id) {
+		Guest guest = storage.get(id);
+		return guest != null && delete(guest);
+	}
+
+	/**
+	 * Merges the items into the repository in a single pass.
+	 * <p>
+	 * An item with the identity of an existing guest updates that guest
+	 * when their details differ, any other item is saved as a new guest.
+	 *
+	 * @param items   the imported items
+	 * @param changes receives the action and id of every inserted or updated guest
+	 * @return the number of inserted, updated and unchanged guests
+	 */
+	public synchronized GuestImportDTO merge(List<Guest> items, BiConsumer<ChangeEvent.Action, Integer> changes) {
+		int inserted = 0;
+		int updated = 0;
+		int unchanged = 0;
+		for (Guest item : items) {
+			Set<Integer> guestIds = guestIdsByIdentity.get(GuestIdentity.of(item));
+			if (guestIds == null) {
+				changes.accept(ChangeEvent.Action.CREATED, save(item).getGuestId());
+				inserted++;
+				continue;
+			}
+			Guest guest = storage.get(guestIds.iterator().next());
+			if (guest.getGender() == item.getGender() && guest.getFirstName().equals(item.getFirstName())
+				&& guest.getLastName().equals(item.getLastName())) {
+				unchanged++;
+			} else {
+				storage.update(guest.getGuestId(), stored -> change(stored, item));
+				changes.accept(ChangeEvent.Action.UPDATED, guest.getGuestId());
+				updated++;
 			}
 		}
-		return false;
+		return new GuestImportDTO(inserted, updated, unchanged);
+	}
+
+	/**
+	 * Searches guests, whose names contain a word starting
+	 * with every word of the query, ignoring case and diacritics
+	 *
+	 * @param query words to search for
+	 * @param limit maximum number of guests
+	 * @param fuzzy whether words with one edit are matched too
+	 * @return copies of the found guests, exact prefix matches first
+	 */
+	public synchronized List<Guest> search(String query, int limit, boolean fuzzy) {
+		List<String> words = new ArrayList<>(GuestNameIndex.tokens(query));
+		List<Guest> found = new ArrayList<>();
+		if (words.isEmpty() || limit <= 0) {
+			return found;
+		}
+		// the first word selects the candidates, the others only filter them
+		int candidateLimit = limit;
+		while (true) {
+			Set<Integer> candidates = nameIndex.findByPrefix(words.get(0), candidateLimit, fuzzy);
+			found.clear();
+			for (int guestId : candidates) {
+				Guest guest = storage.get(guestId);
+				if (matchesAll(guest, words, fuzzy)) {
+					found.add(new Guest(guest));
+					if (found.size() == limit) {
+						return found;
+					}
+				}
+			}
+			if (candidates.size() < candidateLimit) {
+				return found;
+			}
+			candidateLimit *= 2;
+		}
 	}
 
 	/**
 	 * Deletes all items in the repository
 	 */
-	public void deleteAll() {
-		repository.clear();
+	public synchronized void deleteAll() {
+		storage.clear();
+		nameIndex.clear();
+		guestIdsByIdentity.clear();
 	}
 
 	/**
 	 * Returns the number of items left in the repository
 	 */
-	public int count() {
-		return repository.size();
+	public synchronized int count() {
+		return storage.size();
+	}
+
+	private Guest change(Guest guest, Guest item) {
+		unindex(guest);
+		try {
+			guest.changeGender(item.getGender());
+			guest.changeFirstAndLastNames(item.getFirstName(), item.getLastName());
+		} finally {
+			index(guest);
+		}
+		return guest;
+	}
+
+	private void index(Guest guest) {
+		nameIndex.add(guest.getGuestId(), guest.getFirstName(), guest.getLastName());
+		guestIdsByIdentity.computeIfAbsent(GuestIdentity.of(guest), identity -> new LinkedHashSet<>())
+			.add(guest.getGuestId());
+	}
+
+	private void unindex(Guest guest) {
+		nameIndex.remove(guest.getGuestId(), guest.getFirstName(), guest.getLastName());
+		GuestIdentity identity = GuestIdentity.of(guest);
+		Set<Integer> guestIds = guestIdsByIdentity.get(identity);
+		if (guestIds != null) {
+			guestIds.remove(guest.getGuestId());
+			if (guestIds.isEmpty()) {
+				guestIdsByIdentity.remove(identity);
+			}
+		}
+	}
+
+	private static boolean matchesAll(Guest guest, List<String> words, boolean fuzzy) {
+		Set<String> nameTokens = GuestNameIndex.tokens(guest.getFirstName(), guest.getLastName());
+		for (String word : words.subList(1, words.size())) {
+			boolean matched = false;
+			for (String token : nameTokens) {
+				if (GuestNameIndex.startsWith(token, word, fuzzy)) {
+					matched = true;
+					break;
+				}
+			}
+			if (!matched) {
+				return false;
+			}
+		}
+		return true;
 	}
 }
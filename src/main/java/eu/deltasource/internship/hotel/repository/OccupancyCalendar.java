@@ -0,0 +1,166 @@
+package eu.deltasource.internship.hotel.repository;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Occupancy of the rooms by day, run-length encoded.
+ * <p>
+ * The occupancy of a room is an array of pairs - a booking id, 0 for free days,
+ * followed by the number of days in a row with it. A grid for a whole month
+ * is built from the date index when it is first asked for and is kept until
+ * a booking in that month changes. A room booked twice in a night,
+ * when overbooking is allowed, shows the booking starting first.
+ */
+class OccupancyCalendar {
+
+	static final int FREE = 0;
+
+	private static final int[] NO_RUNS = new int[0];
+
+	private final DateRangeIndex roomDates;
+	private final Map<Integer, Map<Integer, int[]>> monthsByStart = new HashMap<>();
+
+	OccupancyCalendar(DateRangeIndex roomDates) {
+		this.roomDates = roomDates;
+	}
+
+	/**
+	 * Gets the occupancy of the rooms in the given days
+	 *
+	 * @param roomIds ids of the rooms
+	 * @param from    first epoch day
+	 * @param to      first epoch day after the days
+	 * @return runs of every room in the order of the ids
+	 */
+	int[][] findRuns(List<Integer> roomIds, int from, int to) {
+		Runs[] rows = new Runs[roomIds.size()];
+		for (int i = 0; i < rows.length; i++) {
+			rows[i] = new Runs();
+		}
+		for (int monthStart = monthStart(from); monthStart < to; monthStart = nextMonthStart(monthStart)) {
+			int monthEnd = nextMonthStart(monthStart);
+			Map<Integer, int[]> month = month(monthStart, monthEnd);
+			int sliceFrom = Math.max(from, monthStart);
+			int sliceTo = Math.min(to, monthEnd);
+			for (int i = 0; i < rows.length; i++) {
+				int[] monthRuns = month.get(roomIds.get(i));
+				if (monthRuns == null) {
+					rows[i].add(FREE, sliceTo - sliceFrom);
+				} else {
+					rows[i].addSlice(monthRuns, sliceFrom - monthStart, sliceTo - monthStart);
+				}
+			}
+		}
+		int[][] runs = new int[rows.length][];
+		for (int i = 0; i < rows.length; i++) {
+			runs[i] = rows[i].toArray();
+		}
+		return runs;
+	}
+
+	/**
+	 * Drops the grids of the months with any of the given days
+	 *
+	 * @param from first epoch day
+	 * @param to   first epoch day after the days
+	 */
+	void invalidate(int from, int to) {
+		if (monthsByStart.isEmpty()) {
+			return;
+		}
+		for (int monthStart = monthStart(from); monthStart < to; monthStart = nextMonthStart(monthStart)) {
+			monthsByStart.remove(monthStart);
+		}
+	}
+
+	void clear() {
+		monthsByStart.clear();
+	}
+
+	private Map<Integer, int[]> month(int monthStart, int monthEnd) {
+		Map<Integer, int[]> month = monthsByStart.get(monthStart);
+		if (month == null) {
+			month = buildMonth(monthStart, monthEnd);
+			monthsByStart.put(monthStart, month);
+		}
+		return month;
+	}
+
+	private Map<Integer, int[]> buildMonth(int monthStart, int monthEnd) {
+		Map<Integer, int[]> month = new HashMap<>();
+		for (int roomId : roomDates.roomIds()) {
+			Runs runs = new Runs();
+			int[] cursor = {monthStart};
+			roomDates.forEachOverlapping(roomId, monthStart, monthEnd, (id, from, to) -> {
+				int start = Math.max(from, cursor[0]);
+				int end = Math.min(to, monthEnd);
+				if (start < end) {
+					runs.add(FREE, start - cursor[0]);
+					runs.add(id, end - start);
+					cursor[0] = end;
+				}
+			});
+			if (cursor[0] > monthStart) {
+				runs.add(FREE, monthEnd - cursor[0]);
+				month.put(roomId, runs.toArray());
+			}
+		}
+		return month;
+	}
+
+	private static int monthStart(int day) {
+		return (int) LocalDate.ofEpochDay(day).withDayOfMonth(1).toEpochDay();
+	}
+
+	private static int nextMonthStart(int monthStart) {
+		return monthStart + LocalDate.ofEpochDay(monthStart).lengthOfMonth();
+	}
+
+	/**
+	 * Builds the runs of a room, joining the neighbour runs of the same booking
+	 */
+	private static final class Runs {
+
+		private int[] pairs = NO_RUNS;
+		private int size;
+
+		private void add(int id, int days) {
+			if (days <= 0) {
+				return;
+			}
+			if (size > 0 && pairs[size - 2] == id) {
+				pairs[size - 1] += days;
+				return;
+			}
+			if (size == pairs.length) {
+				pairs = Arrays.copyOf(pairs, Math.max(8, size * 2));
+			}
+			pairs[size++] = id;
+			pairs[size++] = days;
+		}
+
+		/**
+		 * Adds the part of the runs between the given days
+		 *
+		 * @param runs runs starting at day 0
+		 * @param from first day of the part
+		 * @param to   first day after the part
+		 */
+		private void addSlice(int[] runs, int from, int to) {
+			int day = 0;
+			for (int i = 0; i < runs.length && day < to; i += 2) {
+				int end = day + runs[i + 1];
+				add(runs[i], Math.min(end, to) - Math.max(day, from));
+				day = end;
+			}
+		}
+
+		private int[] toArray() {
+			return Arrays.copyOf(pairs, size);
+		}
+	}
+}
@@ -1,33 +1,56 @@
 package eu.deltasource.internship.hotel.repository;
 
+import eu.deltasource.internship.hotel.domain.CommoditySummary;
 import eu.deltasource.internship.hotel.domain.Room;
+import eu.deltasource.internship.hotel.domain.commodity.BedType;
 import eu.deltasource.internship.hotel.exception.ItemNotFoundException;
+import eu.deltasource.internship.hotel.repository.storage.StorageEngine;
+import eu.deltasource.internship.hotel.repository.storage.StorageEngines;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
 
 /**
- * Represents repository for rooms
+ * Represents repository for rooms.
+ * <p>
+ * The repository is shared between request threads, so all operations are synchronized.
+ * The rooms are kept in the storage engine set by hotel.storage.rooms.
  */
 @Repository
 public class RoomRepository {
 
-	private final List<Room> repository;
+	private final StorageEngine<Room> storage;
+	private final NavigableMap<Integer, Set<Integer>> roomIdsByCapacity;
+	private final Map<BedType, Set<Integer>> roomIdsByBedType;
 
 	/**
 	 * Default constructor, which initializes the repository
-	 * as an empty ArrayList.
+	 * with an empty list storage engine together with its indexes.
 	 */
 	public RoomRepository() {
-		repository = new ArrayList<>();
+		this(StorageEngines.LIST);
 	}
 
 	/**
-	 * Returns an unmodifiable list of all items
+	 * This is a constructor
+	 *
+	 * @param engine name of the storage engine, "list" or "indexed"
+	 */
+	@Autowired
+	public RoomRepository(@Value("${hotel.storage.rooms:" + StorageEngines.LIST + "}") String engine) {
+		storage = StorageEngines.create(engine, Room::getRoomId);
+		roomIdsByCapacity = new TreeMap<>();
+		roomIdsByBedType = new EnumMap<>(BedType.class);
+	}
+
+	/**
+	 * Returns an unmodifiable snapshot of all items
 	 * currently in the repository.
 	 */
-	public List<Room> findAll() {
-		return Collections.unmodifiableList(repository);
+	public synchronized List<Room> findAll() {
+		return Collections.unmodifiableList(storage.findAll());
 	}
 
 	/**
@@ -36,61 +59,182 @@ public class RoomRepository {
 	 * <p>
 	 * Check this always, before using operations with id's.
 	 */
-	public boolean existsById(int id) {
-		for (Room item : repository) {
-			if (item.getRoomId() == id)
-				return true;
-		}
-		return false;
+	public synchronized boolean existsById(int id) {
+		return storage.contains(id);
 	}
 
 	/**
 	 * Returns a copy of the item from the repository
 	 * with the given Id.
 	 */
-	public Room findById(int id) {
-		for (Room item : repository) {
-			if (item.getRoomId() == id)
-				return new Room(item);
+	public synchronized Room findById(int id) {
+		Room item = storage.get(id);
+		if (item == null) {
+			throw new ItemNotFoundException("A Room with id: " + id + " was not found!");
 		}
-		throw new ItemNotFoundException("A Room with id: " + id + " was not found!");
+		return new Room(item);
 	}
 
-	private int idGenerator() {
-		if (count() == 0) {
-			return count() + 1;
+	/**
+	 * Returns the capacity of the room with the given id
+	 * without copying the room.
+	 */
+	public synchronized int findCapacityById(int id) {
+		return findSummaryById(id).getCapacity();
+	}
+
+	/**
+	 * Returns the commodity summary of the room with the given id
+	 * without copying the room.
+	 */
+	public synchronized CommoditySummary findSummaryById(int id) {
+		Room item = storage.get(id);
+		if (item == null) {
+			throw new ItemNotFoundException("A Room with id: " + id + " was not found!");
+		}
+		return item.getSummary();
+	}
+
+	/**
+	 * Returns copies of all rooms which can accommodate
+	 * at least the given number of people, ordered by capacity.
+	 */
+	public synchronized List<Room> findByMinimumCapacity(int capacity) {
+		List<Room> rooms = new ArrayList<>();
+		for (Set<Integer> roomIds : roomIdsByCapacity.tailMap(capacity, true).values()) {
+			copyRooms(roomIds, rooms);
+		}
+		return rooms;
+	}
+
+	/**
+	 * Returns the ids of all rooms which can accommodate
+	 * at least the given number of people, ordered by capacity.
+	 */
+	public synchronized List<Integer> findIdsByMinimumCapacity(int capacity) {
+		List<Integer> roomIds = new ArrayList<>();
+		for (Set<Integer> ids : roomIdsByCapacity.tailMap(capacity, true).values()) {
+			roomIds.addAll(ids);
+		}
+		return roomIds;
+	}
+
+	/**
+	 * Returns copies of all rooms with at least one bed of the given type
+	 */
+	public synchronized List<Room> findByBedType(BedType bedType) {
+		List<Room> rooms = new ArrayList<>();
+		copyRooms(roomIdsByBedType.getOrDefault(bedType, Collections.emptySet()), rooms);
+		return rooms;
+	}
+
+	private void copyRooms(Set<Integer> roomIds, List<Room> rooms) {
+		for (int roomId : roomIds) {
+			rooms.add(new Room(storage.get(roomId)));
 		}
-		return repository.get(count() - 1).getRoomId() + 1;
 	}
 
-	public void save(Room item) {
+	private void index(Room room) {
+		CommoditySummary summary = room.getSummary();
+		roomIdsByCapacity.computeIfAbsent(summary.getCapacity(), capacity -> new TreeSet<>())
+			.add(room.getRoomId());
+		for (BedType bedType : summary.getBedCounts().keySet()) {
+			roomIdsByBedType.computeIfAbsent(bedType, type -> new TreeSet<>()).add(room.getRoomId());
+		}
+	}
+
+	private void unindex(Room room) {
+		CommoditySummary summary = room.getSummary();
+		removeFromIndex(roomIdsByCapacity, summary.getCapacity(), room.getRoomId());
+		for (BedType bedType : summary.getBedCounts().keySet()) {
+			removeFromIndex(roomIdsByBedType, bedType, room.getRoomId());
+		}
+	}
+
+	private static <K> void removeFromIndex(Map<K, Set<Integer>> index, K key, int roomId) {
+		Set<Integer> roomIds = index.get(key);
+		if (roomIds != null) {
+			roomIds.remove(roomId);
+			if (roomIds.isEmpty()) {
+				index.remove(key);
+			}
+		}
+	}
+
+	private int idGenerator() {
+		return storage.lastId() + 1;
+	}
+
+	/**
+	 * Saves the item with a newly generated id
+	 *
+	 * @return copy of the saved item
+	 */
+	public synchronized Room save(Room item) {
 		Room newRoom = new Room(idGenerator(), item.getCommodities());
-		repository.add(newRoom);
+		storage.put(newRoom);
+		index(newRoom);
+		return new Room(newRoom);
 	}
 
 	/**
 	 * Saves the list of items in the repository
+	 *
+	 * @return copies of the saved items
 	 */
-	public void saveAll(List<Room> items) {
-		items.forEach(
-			this::save);
+	public synchronized List<Room> saveAll(List<Room> items) {
+		List<Room> saved = new ArrayList<>();
+		for (Room item : items) {
+			saved.add(save(item));
+		}
+		return saved;
 	}
 
 	/**
 	 * Saves all given items in the repository
+	 *
+	 * @return copies of the saved items
 	 */
-	public void saveAll(Room... items) {
-		saveAll(Arrays.asList(items));
+	public List<Room> saveAll(Room... items) {
+		return saveAll(Arrays.asList(items));
 	}
 
-	public Room updateRoom(Room item) {
-		for (Room room : repository) {
-			if (room.getRoomId() == item.getRoomId()) {
-				room.updateCommodities(item.getCommodities());
-				return new Room(room);
-			}
+	/**
+	 * Saves a copy of the item under its own id, replacing
+	 * the item with the same id if there is one.
+	 * <p>
+	 * Used to apply the changes replicated from another repository.
+	 *
+	 * @return copy of the saved item
+	 */
+	public synchronized Room restore(Room item) {
+		if (storage.contains(item.getRoomId())) {
+			return updateRoom(item);
+		}
+		Room room = new Room(item);
+		storage.put(room);
+		index(room);
+		return new Room(room);
+	}
+
+	/**
+	 * Replaces the commodities of the stored room.
+	 * <p>
+	 * The new room is built first, so invalid commodities
+	 * leave the stored room and its indexes as they are.
+	 *
+	 * @return copy of the updated item
+	 */
+	public synchronized Room updateRoom(Room item) {
+		Room stored = storage.get(item.getRoomId());
+		if (stored == null) {
+			throw new ItemNotFoundException("Room not found in repository!");
 		}
-		throw new ItemNotFoundException("Room not found in repository!");
+		Room room = new Room(item.getRoomId(), item.getCommodities());
+		storage.update(room.getRoomId(), current -> room);
+		unindex(stored);
+		index(room);
+		return new Room(room);
 	}
 
 	/**
@@ -100,30 +244,34 @@ public class RoomRepository {
 	 * Returns true if an exact match is and deleted,
 	 * returns false if there's no match and the list is unchanged.
 	 */
-	public boolean delete(Room item) {
-		return repository.remove(item);
+	public synchronized boolean delete(Room item) {
+		Room room = storage.get(item.getRoomId());
+		if (room == null || !room.equals(item)) {
+			return false;
+		}
+		storage.remove(room.getRoomId());
+		unindex(room);
+		return true;
 	}
 
-	public boolean deleteById(int id) {
-		for (Room room : repository) {
-			if (room.getRoomId() == id) {
-				return delete(room);
-			}
-		}
-		return false;
+	public synchronized boolean deleteById(int id) {
+		Room room = storage.get(id);
+		return room != null && delete(room);
 	}
 
 	/**
 	 * Deletes all items in the repository
 	 */
-	public void deleteAll() {
-		repository.clear();
+	public synchronized void deleteAll() {
+		storage.clear();
+		roomIdsByCapacity.clear();
+		roomIdsByBedType.clear();
 	}
 
 	/**
 	 * Returns the number of items left in the repository
 	 */
-	public int count() {
-		return repository.size();
+	public synchronized int count() {
+		return storage.size();
 	}
 }
@@ -0,0 +1,176 @@
+package eu.deltasource.internship.hotel.repository;
+
+import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.domain.WaitlistEntry;
+import eu.deltasource.internship.hotel.exception.ItemNotFoundException;
+import eu.deltasource.internship.hotel.utility.Today;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Represents repository for the waitlist of bookings.
+ * <p>
+ * Waiting requests are kept in two interval indexes - requests for a room
+ * by the room's id and requests for any room by their number of people.
+ * When dates of a room become free, only the requests overlapping those dates
+ * are looked up, so the waitlist is never scanned as a whole.
+ * Requests are served in the order they were made.
+ */
+@Repository
+public class WaitlistRepository {
+
+	private final NavigableMap<Integer, WaitlistEntry> entriesById;
+	private final DateRangeIndex roomDates;
+	private final DateRangeIndex capacityDates;
+	private final Set<Integer> waitingIds;
+	private int lastId;
+
+	/**
+	 * Default constructor, which initializes the repository
+	 * as an empty TreeMap together with its indexes.
+	 */
+	public WaitlistRepository() {
+		entriesById = new TreeMap<>();
+		roomDates = new DateRangeIndex();
+		capacityDates = new DateRangeIndex();
+		waitingIds = new HashSet<>();
+	}
+
+	/**
+	 * Returns all requests ordered by id
+	 */
+	public synchronized List<WaitlistEntry> findAll() {
+		return new ArrayList<>(entriesById.values());
+	}
+
+	public synchronized WaitlistEntry findById(int id) {
+		WaitlistEntry entry = entriesById.get(id);
+		if (entry == null) {
+			throw new ItemNotFoundException("A waitlist entry with id: " + id + " was not found!");
+		}
+		return entry;
+	}
+
+	public synchronized boolean existsById(int id) {
+		return entriesById.containsKey(id);
+	}
+
+	/**
+	 * Finds the waiting requests, which the room can serve
+	 * and which overlap the given dates
+	 *
+	 * @param roomId   room's id
+	 * @param capacity number of people the room accommodates
+	 * @param from     first epoch day, which became free
+	 * @param to       first epoch day after the free days
+	 * @return the requests in the order they were made
+	 */
+	public synchronized List<WaitlistEntry> findCandidates(int roomId, int capacity, int from, int to) {
+		Set<Integer> ids = new TreeSet<>(roomDates.findOverlapping(roomId, from, to));
+		for (int numberOfPeople = 1; numberOfPeople <= capacity; numberOfPeople++) {
+			ids.addAll(capacityDates.findOverlapping(numberOfPeople, from, to));
+		}
+		List<WaitlistEntry> candidates = new ArrayList<>();
+		for (int id : ids) {
+			candidates.add(entriesById.get(id));
+		}
+		return candidates;
+	}
+
+	/**
+	 * Saves a waiting request with a newly generated id
+	 *
+	 * @return the saved request
+	 */
+	public synchronized WaitlistEntry save(Booking request) {
+		WaitlistEntry entry = new WaitlistEntry(++lastId, request);
+		entriesById.put(entry.getWaitlistId(), entry);
+		index(entry);
+		return entry;
+	}
+
+	/**
+	 * Takes a waiting request out of the indexes,
+	 * so it can be booked by one thread only
+	 *
+	 * @return true if the request was still waiting
+	 */
+	public synchronized boolean claim(int id) {
+		if (!waitingIds.contains(id)) {
+			return false;
+		}
+		unindex(entriesById.get(id));
+		return true;
+	}
+
+	/**
+	 * Records the booking made for a claimed request
+	 *
+	 * @return the promoted request
+	 */
+	public synchronized WaitlistEntry promote(int id, Booking booking) {
+		WaitlistEntry promoted = findById(id).promoted(booking);
+		entriesById.put(id, promoted);
+		return promoted;
+	}
+
+	/**
+	 * Removes the request with the given id
+	 *
+	 * @return true if the request is successfully removed
+	 */
+	public synchronized boolean deleteById(int id) {
+		WaitlistEntry entry = entriesById.remove(id);
+		if (entry == null) {
+			return false;
+		}
+		if (waitingIds.contains(id)) {
+			unindex(entry);
+		}
+		return true;
+	}
+
+	/**
+	 * Deletes all requests in the repository
+	 */
+	public synchronized void deleteAll() {
+		entriesById.clear();
+		roomDates.clear();
+		capacityDates.clear();
+		waitingIds.clear();
+	}
+
+	/**
+	 * Returns the number of requests in the repository
+	 */
+	public synchronized int count() {
+		return entriesById.size();
+	}
+
+	private void index(WaitlistEntry entry) {
+		waitingIds.add(entry.getWaitlistId());
+		if (entry.isAnyRoom()) {
+			capacityDates.add(entry.getNumberOfPeople(), entry.getWaitlistId(), Today.toEpochDay(entry.getFrom()),
+				Today.toEpochDay(entry.getTo()));
+		} else {
+			roomDates.add(entry.getRoomId(), entry.getWaitlistId(), Today.toEpochDay(entry.getFrom()),
+				Today.toEpochDay(entry.getTo()));
+		}
+	}
+
+	private void unindex(WaitlistEntry entry) {
+		waitingIds.remove(entry.getWaitlistId());
+		if (entry.isAnyRoom()) {
+			capacityDates.remove(entry.getNumberOfPeople(), entry.getWaitlistId(), Today.toEpochDay(entry.getFrom()));
+		} else {
+			roomDates.remove(entry.getRoomId(), entry.getWaitlistId(), Today.toEpochDay(entry.getFrom()));
+		}
+	}
+}
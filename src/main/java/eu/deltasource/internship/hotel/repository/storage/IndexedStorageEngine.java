@@ -0,0 +1,97 @@
+package eu.deltasource.internship.hotel.repository.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps the items in a hash map by id for lookups
+ * and in a tree map ordered by id for scans.
+ * <p>
+ * Every change costs a tree update, so inserts and removes
+ * take logarithmic time wherever the id is.
+ *
+ * @param <T> type of the items
+ */
+class IndexedStorageEngine<T> implements StorageEngine<T> {
+
+	private final ToIntFunction<T> idOf;
+	private final Map<Integer, T> itemsById = new HashMap<>();
+	private final NavigableMap<Integer, T> orderedItems = new TreeMap<>();
+
+	IndexedStorageEngine(ToIntFunction<T> idOf) {
+		this.idOf = idOf;
+	}
+
+	@Override
+	public T get(int id) {
+		return itemsById.get(id);
+	}
+
+	@Override
+	public boolean contains(int id) {
+		return itemsById.containsKey(id);
+	}
+
+	@Override
+	public void put(T item) {
+		int id = idOf.applyAsInt(item);
+		itemsById.put(id, item);
+		orderedItems.put(id, item);
+	}
+
+	@Override
+	public T update(int id, UnaryOperator<T> change) {
+		T item = itemsById.get(id);
+		if (item == null) {
+			return null;
+		}
+		T changed = change.apply(item);
+		if (changed != item) {
+			itemsById.put(id, changed);
+			orderedItems.put(id, changed);
+		}
+		return changed;
+	}
+
+	@Override
+	public T remove(int id) {
+		T item = itemsById.remove(id);
+		if (item != null) {
+			orderedItems.remove(id);
+		}
+		return item;
+	}
+
+	@Override
+	public List<T> range(int fromId, int toId) {
+		return fromId < toId ? new ArrayList<>(orderedItems.subMap(fromId, toId).values()) : new ArrayList<>();
+	}
+
+	@Override
+	public void forEach(Consumer<? super T> action) {
+		orderedItems.values().forEach(action);
+	}
+
+	@Override
+	public int lastId() {
+		return orderedItems.isEmpty() ? 0 : orderedItems.lastKey();
+	}
+
+	@Override
+	public int size() {
+		return itemsById.size();
+	}
+
+	@Override
+	public void clear() {
+		itemsById.clear();
+		orderedItems.clear();
+	}
+}
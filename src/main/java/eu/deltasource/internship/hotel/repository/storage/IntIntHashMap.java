@@ -0,0 +1,135 @@
+package eu.deltasource.internship.hotel.repository.storage;
+
+import java.util.Arrays;
+
+/**
+ * Map from int keys to int values kept in two int arrays.
+ * <p>
+ * Keys are placed by open addressing with linear probing and removed
+ * by shifting the following keys back, so no tombstones are left.
+ * The map holds no object per entry, which keeps large maps cheap
+ * for the garbage collector. Integer.MIN_VALUE can not be a key.
+ */
+final class IntIntHashMap {
+
+	private static final int EMPTY = Integer.MIN_VALUE;
+	private static final int MIN_CAPACITY = 16;
+
+	private int[] keys;
+	private int[] values;
+	private int size;
+	private int mask;
+
+	IntIntHashMap() {
+		allocate(MIN_CAPACITY);
+	}
+
+	/**
+	 * Gets the value of the key
+	 *
+	 * @param missing value returned, when the key is not in the map
+	 */
+	int get(int key, int missing) {
+		int index = indexOf(key);
+		return keys[index] == key ? values[index] : missing;
+	}
+
+	void put(int key, int value) {
+		if (key == EMPTY) {
+			throw new IllegalArgumentException("Invalid key: " + key);
+		}
+		int index = indexOf(key);
+		if (keys[index] != key) {
+			keys[index] = key;
+			if (++size > keys.length / 2) {
+				resize(keys.length * 2);
+				index = indexOf(key);
+			}
+		}
+		values[index] = value;
+	}
+
+	/**
+	 * Removes the key
+	 *
+	 * @param missing value returned, when the key is not in the map
+	 * @return the removed value
+	 */
+	int remove(int key, int missing) {
+		int index = indexOf(key);
+		if (keys[index] != key) {
+			return missing;
+		}
+		int value = values[index];
+		size--;
+		// moves back the keys, which were placed after the removed one
+		int gap = index;
+		for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+			int home = hash(keys[next]);
+			if (((next - home) & mask) >= ((next - gap) & mask)) {
+				keys[gap] = keys[next];
+				values[gap] = values[next];
+				gap = next;
+			}
+		}
+		keys[gap] = EMPTY;
+		return value;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Gets all keys in no particular order
+	 */
+	int[] keys() {
+		int[] found = new int[size];
+		int count = 0;
+		for (int key : keys) {
+			if (key != EMPTY) {
+				found[count++] = key;
+			}
+		}
+		return found;
+	}
+
+	void clear() {
+		allocate(MIN_CAPACITY);
+	}
+
+	private int indexOf(int key) {
+		int index = hash(key);
+		while (keys[index] != EMPTY && keys[index] != key) {
+			index = (index + 1) & mask;
+		}
+		return index;
+	}
+
+	private int hash(int key) {
+		int mixed = key * 0x9E3779B9;
+		return (mixed ^ (mixed >>> 16)) & mask;
+	}
+
+	private void resize(int capacity) {
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY) {
+				int index = indexOf(oldKeys[i]);
+				keys[index] = oldKeys[i];
+				values[index] = oldValues[i];
+				size++;
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		Arrays.fill(keys, EMPTY);
+		values = new int[capacity];
+		mask = capacity - 1;
+		size = 0;
+	}
+}
@@ -0,0 +1,113 @@
+package eu.deltasource.internship.hotel.repository.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps the items in a list ordered by id together with a map by id.
+ * <p>
+ * This is the storage the repositories started with and the reference
+ * for the other engines. Items with a new greatest id are appended,
+ * any other insert or remove shifts the list.
+ *
+ * @param <T> type of the items
+ */
+class ListStorageEngine<T> implements StorageEngine<T> {
+
+	private final ToIntFunction<T> idOf;
+	private final List<T> items = new ArrayList<>();
+	private final Map<Integer, T> itemsById = new HashMap<>();
+
+	ListStorageEngine(ToIntFunction<T> idOf) {
+		this.idOf = idOf;
+	}
+
+	@Override
+	public T get(int id) {
+		return itemsById.get(id);
+	}
+
+	@Override
+	public boolean contains(int id) {
+		return itemsById.containsKey(id);
+	}
+
+	@Override
+	public void put(T item) {
+		int id = idOf.applyAsInt(item);
+		if (items.isEmpty() || id > lastId()) {
+			items.add(item);
+		} else {
+			int index = RepositoryLists.indexOf(items, idOf, id);
+			if (index >= 0) {
+				items.set(index, item);
+			} else {
+				items.add(-index - 1, item);
+			}
+		}
+		itemsById.put(id, item);
+	}
+
+	@Override
+	public T update(int id, UnaryOperator<T> change) {
+		T item = itemsById.get(id);
+		if (item == null) {
+			return null;
+		}
+		T changed = change.apply(item);
+		if (changed != item) {
+			items.set(RepositoryLists.indexOf(items, idOf, id), changed);
+			itemsById.put(id, changed);
+		}
+		return changed;
+	}
+
+	@Override
+	public T remove(int id) {
+		T item = itemsById.remove(id);
+		if (item != null) {
+			items.remove(RepositoryLists.indexOf(items, idOf, id));
+		}
+		return item;
+	}
+
+	@Override
+	public List<T> range(int fromId, int toId) {
+		int from = RepositoryLists.indexOf(items, idOf, fromId);
+		int to = RepositoryLists.indexOf(items, idOf, toId);
+		from = from < 0 ? -from - 1 : from;
+		to = to < 0 ? -to - 1 : to;
+		return from < to ? new ArrayList<>(items.subList(from, to)) : new ArrayList<>();
+	}
+
+	@Override
+	public void forEach(Consumer<? super T> action) {
+		items.forEach(action);
+	}
+
+	@Override
+	public List<T> findAll() {
+		return new ArrayList<>(items);
+	}
+
+	@Override
+	public int lastId() {
+		return items.isEmpty() ? 0 : idOf.applyAsInt(items.get(items.size() - 1));
+	}
+
+	@Override
+	public int size() {
+		return items.size();
+	}
+
+	@Override
+	public void clear() {
+		items.clear();
+		itemsById.clear();
+	}
+}
@@ -0,0 +1,170 @@
+package eu.deltasource.internship.hotel.repository.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps the items outside of the heap, in fixed width slots of direct buffers.
+ * <p>
+ * The slots are allocated in segments of 64K slots, which are never moved,
+ * and the slots of the removed items are reused through a free list linked
+ * through the slots themselves. The slot of every item is found by an int map,
+ * so the heap holds a few arrays instead of objects per item and the garbage
+ * collector has nothing to trace for the stored items. Every read decodes
+ * a new item, scans sort the ids first.
+ *
+ * @param <T> type of the items
+ */
+class OffHeapStorageEngine<T> implements StorageEngine<T> {
+
+	private static final int SEGMENT_SHIFT = 16;
+	private static final int SEGMENT_SLOTS = 1 << SEGMENT_SHIFT;
+	private static final int NO_SLOT = -1;
+
+	private final ToIntFunction<T> idOf;
+	private final SlotCodec<T> codec;
+	private final int slotBytes;
+	private final List<ByteBuffer> segments = new ArrayList<>();
+	private final IntIntHashMap slotsById = new IntIntHashMap();
+	private int allocatedSlots;
+	// a free slot keeps the next free slot in its first int
+	private int firstFreeSlot = NO_SLOT;
+	private int lastId;
+
+	OffHeapStorageEngine(ToIntFunction<T> idOf, SlotCodec<T> codec) {
+		if (codec.slotBytes() < Integer.BYTES) {
+			throw new IllegalArgumentException("A slot must fit an int!");
+		}
+		this.idOf = idOf;
+		this.codec = codec;
+		this.slotBytes = codec.slotBytes();
+	}
+
+	@Override
+	public T get(int id) {
+		int slot = slotsById.get(id, NO_SLOT);
+		return slot == NO_SLOT ? null : read(slot);
+	}
+
+	@Override
+	public boolean contains(int id) {
+		return slotsById.get(id, NO_SLOT) != NO_SLOT;
+	}
+
+	@Override
+	public void put(T item) {
+		int id = idOf.applyAsInt(item);
+		int slot = slotsById.get(id, NO_SLOT);
+		if (slot == NO_SLOT) {
+			slot = allocate();
+			slotsById.put(id, slot);
+		}
+		codec.write(item, segment(slot), offset(slot));
+		lastId = Math.max(lastId, id);
+	}
+
+	@Override
+	public T update(int id, UnaryOperator<T> change) {
+		int slot = slotsById.get(id, NO_SLOT);
+		if (slot == NO_SLOT) {
+			return null;
+		}
+		T changed = change.apply(read(slot));
+		if (idOf.applyAsInt(changed) != id) {
+			throw new IllegalArgumentException("An update can not change the id!");
+		}
+		codec.write(changed, segment(slot), offset(slot));
+		return changed;
+	}
+
+	@Override
+	public T remove(int id) {
+		int slot = slotsById.remove(id, NO_SLOT);
+		if (slot == NO_SLOT) {
+			return null;
+		}
+		T item = read(slot);
+		segment(slot).putInt(offset(slot), firstFreeSlot);
+		firstFreeSlot = slot;
+		if (id == lastId) {
+			lastId = 0;
+			for (int key : slotsById.keys()) {
+				lastId = Math.max(lastId, key);
+			}
+		}
+		return item;
+	}
+
+	@Override
+	public List<T> range(int fromId, int toId) {
+		List<T> items = new ArrayList<>();
+		for (int id : sortedIds()) {
+			if (id >= fromId && id < toId) {
+				items.add(read(slotsById.get(id, NO_SLOT)));
+			}
+		}
+		return items;
+	}
+
+	@Override
+	public void forEach(Consumer<? super T> action) {
+		for (int id : sortedIds()) {
+			action.accept(read(slotsById.get(id, NO_SLOT)));
+		}
+	}
+
+	@Override
+	public int lastId() {
+		return lastId;
+	}
+
+	@Override
+	public int size() {
+		return slotsById.size();
+	}
+
+	@Override
+	public void clear() {
+		segments.clear();
+		slotsById.clear();
+		allocatedSlots = 0;
+		firstFreeSlot = NO_SLOT;
+		lastId = 0;
+	}
+
+	private int[] sortedIds() {
+		int[] ids = slotsById.keys();
+		Arrays.sort(ids);
+		return ids;
+	}
+
+	private int allocate() {
+		if (firstFreeSlot != NO_SLOT) {
+			int slot = firstFreeSlot;
+			firstFreeSlot = segment(slot).getInt(offset(slot));
+			return slot;
+		}
+		if (allocatedSlots == segments.size() * SEGMENT_SLOTS) {
+			segments.add(ByteBuffer.allocateDirect(SEGMENT_SLOTS * slotBytes).order(ByteOrder.nativeOrder()));
+		}
+		return allocatedSlots++;
+	}
+
+	private T read(int slot) {
+		return codec.read(segment(slot), offset(slot));
+	}
+
+	private ByteBuffer segment(int slot) {
+		return segments.get(slot >>> SEGMENT_SHIFT);
+	}
+
+	private int offset(int slot) {
+		return (slot & (SEGMENT_SLOTS - 1)) * slotBytes;
+	}
+}
@@ -0,0 +1,35 @@
+package eu.deltasource.internship.hotel.repository.storage;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Helpers for the item lists of the repositories, which are ordered by id
+ */
+final class RepositoryLists {
+
+	private RepositoryLists() {
+	}
+
+	/**
+	 * Finds the position of the item with the given id
+	 *
+	 * @return the position of the item, or the position where it belongs as (-position - 1)
+	 */
+	static <T> int indexOf(List<T> items, ToIntFunction<T> idOf, int id) {
+		int low = 0;
+		int high = items.size() - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int middleId = idOf.applyAsInt(items.get(middle));
+			if (middleId < id) {
+				low = middle + 1;
+			} else if (middleId > id) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+		return -low - 1;
+	}
+}
@@ -0,0 +1,20 @@
+package eu.deltasource.internship.hotel.repository.storage;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Writes items of one type into fixed width slots of a buffer and reads them back
+ *
+ * @param <T> type of the items
+ */
+public interface SlotCodec<T> {
+
+	/**
+	 * Gets the width of a slot, at least the width of an int
+	 */
+	int slotBytes();
+
+	void write(T item, ByteBuffer buffer, int offset);
+
+	T read(ByteBuffer buffer, int offset);
+}
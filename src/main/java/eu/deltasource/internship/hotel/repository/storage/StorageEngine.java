@@ -0,0 +1,92 @@
+package eu.deltasource.internship.hotel.repository.storage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Storage of the items of a repository, keyed by their int ids.
+ * <p>
+ * An engine keeps only the items, the repository keeps its own indexes
+ * and synchronizes all calls, so engines are not thread safe.
+ * The items returned by an engine must be changed only through
+ * {@link #update(int, UnaryOperator)}.
+ *
+ * @param <T> type of the items
+ */
+public interface StorageEngine<T> {
+
+	/**
+	 * Finds the item with the given id
+	 *
+	 * @return the item or null
+	 */
+	T get(int id);
+
+	boolean contains(int id);
+
+	/**
+	 * Adds the item or replaces the item with the same id
+	 */
+	void put(T item);
+
+	/**
+	 * Adds or replaces all given items
+	 */
+	default void putAll(Collection<? extends T> items) {
+		for (T item : items) {
+			put(item);
+		}
+	}
+
+	/**
+	 * Replaces the item with the result of the change.
+	 * The change may return the given item changed in place,
+	 * but it must not change its id. When the change throws,
+	 * the engine keeps the stored item.
+	 *
+	 * @param id     id of the item
+	 * @param change computes the new item from the stored one
+	 * @return the new item or null, when there is no item with the id
+	 */
+	T update(int id, UnaryOperator<T> change);
+
+	/**
+	 * Removes the item with the given id
+	 *
+	 * @return the removed item or null
+	 */
+	T remove(int id);
+
+	/**
+	 * Gets the items with ids from the first id up to, not including, the second
+	 *
+	 * @return the items ordered by id
+	 */
+	List<T> range(int fromId, int toId);
+
+	/**
+	 * Passes every item to the action in the order of ids
+	 */
+	void forEach(Consumer<? super T> action);
+
+	/**
+	 * Gets all items ordered by id
+	 */
+	default List<T> findAll() {
+		List<T> items = new ArrayList<>(size());
+		forEach(items::add);
+		return items;
+	}
+
+	/**
+	 * Gets the greatest id, or 0 when the engine is empty
+	 */
+	int lastId();
+
+	int size();
+
+	void clear();
+}
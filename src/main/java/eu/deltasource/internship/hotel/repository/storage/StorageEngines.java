@@ -0,0 +1,60 @@
+package eu.deltasource.internship.hotel.repository.storage;
+
+import eu.deltasource.internship.hotel.exception.FailedInitializationException;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Creates the storage engines by their names
+ */
+public final class StorageEngines {
+
+	/**
+	 * Items in a list ordered by id with a map by id, the reference engine
+	 */
+	public static final String LIST = "list";
+	/**
+	 * Items in a hash map by id and a tree map ordered by id
+	 */
+	public static final String INDEXED = "indexed";
+	/**
+	 * Items in fixed width slots outside of the heap
+	 */
+	public static final String OFF_HEAP = "off-heap";
+
+	private StorageEngines() {
+	}
+
+	/**
+	 * Creates an engine, which keeps the items on the heap
+	 *
+	 * @param kind name of the engine
+	 * @param idOf gets the id of an item
+	 * @return the empty engine
+	 */
+	public static <T> StorageEngine<T> create(String kind, ToIntFunction<T> idOf) {
+		return create(kind, idOf, null);
+	}
+
+	/**
+	 * Creates an engine
+	 *
+	 * @param kind  name of the engine
+	 * @param idOf  gets the id of an item
+	 * @param codec writes the items into slots, null when the items can not be kept off the heap
+	 * @return the empty engine
+	 */
+	public static <T> StorageEngine<T> create(String kind, ToIntFunction<T> idOf, SlotCodec<T> codec) {
+		if (LIST.equals(kind)) {
+			return new ListStorageEngine<>(idOf);
+		} else if (INDEXED.equals(kind)) {
+			return new IndexedStorageEngine<>(idOf);
+		} else if (OFF_HEAP.equals(kind)) {
+			if (codec == null) {
+				throw new FailedInitializationException("These items can not be stored off the heap!");
+			}
+			return new OffHeapStorageEngine<>(idOf, codec);
+		}
+		throw new FailedInitializationException("Unknown storage engine: " + kind);
+	}
+}
@@ -0,0 +1,228 @@
+package eu.deltasource.internship.hotel.service;
+
+import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.domain.BookingHold;
+import eu.deltasource.internship.hotel.exception.InvalidArgumentException;
+import eu.deltasource.internship.hotel.exception.ItemNotFoundException;
+import eu.deltasource.internship.hotel.repository.BookingHoldRepository;
+import eu.deltasource.internship.hotel.utility.HashedTimerWheel;
+import eu.deltasource.internship.hotel.utility.HashedTimerWheel.Timeout;
+import eu.deltasource.internship.hotel.utility.Today;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents services for temporary booking holds.
+ * <p>
+ * Every hold is scheduled in a hashed timer wheel, which is advanced
+ * once per tick by a background thread and expires only the due holds.
+ */
+@Service
+public class BookingHoldService {
+
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+    public static final Duration MAX_TTL = Duration.ofHours(1);
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SLOTS = 512;
+
+    private final BookingService bookingService;
+    private final BookingHoldRepository holdRepository;
+    private final Clock clock;
+    private final HashedTimerWheel<Integer> expiryWheel;
+    private final Map<Integer, Timeout<Integer>> timeouts;
+    private ScheduledExecutorService ticker;
+    private ScheduledFuture<?> expiryTask;
+
+    /**
+     * This is a constructor
+     *
+     * @param bookingService the booking service
+     * @param holdRepository the booking hold repository
+     */
+    @Autowired
+    public BookingHoldService(BookingService bookingService, BookingHoldRepository holdRepository) {
+        this(bookingService, holdRepository, Clock.systemUTC());
+    }
+
+    /**
+     * This is a constructor
+     *
+     * @param bookingService the booking service
+     * @param holdRepository the booking hold repository
+     * @param clock          the clock used for expiry
+     */
+    public BookingHoldService(BookingService bookingService, BookingHoldRepository holdRepository, Clock clock) {
+        this.bookingService = bookingService;
+        this.holdRepository = holdRepository;
+        this.clock = clock;
+        this.expiryWheel = new HashedTimerWheel<>(TICK_MILLIS, WHEEL_SLOTS, clock.millis());
+        this.timeouts = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Starts the background expiry of holds
+     */
+    @PostConstruct
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        start(ticker);
+    }
+
+    /**
+     * Starts the background expiry of holds on a shared scheduler
+     *
+     * @param scheduler the scheduler, which advances the expiry wheel
+     */
+    public void start(ScheduledExecutorService scheduler) {
+        expiryTask = scheduler.scheduleAtFixedRate(this::expireHolds, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background expiry of holds
+     */
+    @PreDestroy
+    public void stop() {
+        if (expiryTask != null) {
+            expiryTask.cancel(false);
+        }
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Holds a room for the given booking
+     *
+     * @param booking the booking to hold the room for
+     * @param ttl     how long the hold is kept, null for the default
+     * @return the new hold
+     */
+    public BookingHold hold(Booking booking, Duration ttl) {
+        Duration holdTtl = ttl == null ? DEFAULT_TTL : ttl;
+        if (holdTtl.isNegative() || holdTtl.isZero() || holdTtl.compareTo(MAX_TTL) > 0) {
+            throw new InvalidArgumentException("Invalid hold duration!");
+        }
+        bookingService.validateBookingDetails(booking);
+        Instant expiresAt = clock.instant().plus(holdTtl);
+        BookingHold hold = bookingService.withRoomsLocked(Collections.singleton(booking.getRoomId()), () -> {
+            bookingService.validateDatesAreFree(booking.getRoomId(), booking.getFromDay(), booking.getToDay());
+            return holdRepository.save(booking, expiresAt);
+        });
+        timeouts.put(hold.getHoldId(), expiryWheel.schedule(hold.getHoldId(), expiresAt.toEpochMilli()));
+        if (!holdRepository.existsById(hold.getHoldId())) {
+            // expired before its timeout was registered
+            timeouts.remove(hold.getHoldId());
+        }
+        return hold;
+    }
+
+    /**
+     * Searches hold by id
+     *
+     * @param id hold's id
+     * @return the found hold
+     */
+    public BookingHold findById(int id) {
+        if (!holdRepository.existsById(id)) {
+            throw new ItemNotFoundException("Hold with id " + id + " does not exist!");
+        }
+        return holdRepository.findById(id);
+    }
+
+    /**
+     * Converts the hold to a booking and releases it.
+     * The hold is kept, when the booking can not be created.
+     *
+     * @param id hold's id
+     * @return the new booking
+     */
+    public Booking confirm(int id) {
+        BookingHold hold = findById(id);
+        return bookingService.withRoomsLocked(Collections.singleton(hold.getRoomId()), () -> {
+            BookingHold removed = remove(id);
+            if (removed == null) {
+                throw new ItemNotFoundException("Hold with id " + id + " does not exist or has expired!");
+            }
+            try {
+                return bookingService.save(removed.toBooking());
+            } catch (RuntimeException e) {
+                // the room is still locked, so nothing has taken the dates of the hold
+                holdRepository.restore(removed);
+                timeouts.put(id, expiryWheel.schedule(id, removed.getExpiresAt().toEpochMilli()));
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Releases the hold without booking
+     *
+     * @param id hold's id
+     * @return true if the hold is successfully released
+     */
+    public boolean release(int id) {
+        BookingHold hold = remove(id);
+        if (hold == null) {
+            throw new ItemNotFoundException("Hold with id " + id + " does not exist or has expired!");
+        }
+        bookingService.promoteWaitlisted(hold.getRoomId(), Today.toEpochDay(hold.getFrom()),
+                Today.toEpochDay(hold.getTo()));
+        return true;
+    }
+
+    /**
+     * Removes all holds, which have expired until now
+     *
+     * @return number of expired holds
+     */
+    public int expireHolds() {
+        List<BookingHold> expired = new ArrayList<>();
+        int count = expiryWheel.advance(clock.millis(), holdId -> {
+            timeouts.remove(holdId);
+            BookingHold hold = holdRepository.deleteById(holdId);
+            if (hold != null) {
+                expired.add(hold);
+            }
+        });
+        for (BookingHold hold : expired) {
+            bookingService.promoteWaitlisted(hold.getRoomId(), Today.toEpochDay(hold.getFrom()),
+                    Today.toEpochDay(hold.getTo()));
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of active holds
+     */
+    public int count() {
+        return holdRepository.count();
+    }
+
+    private BookingHold remove(int id) {
+        Timeout<Integer> timeout = timeouts.remove(id);
+        if (timeout != null) {
+            expiryWheel.cancel(timeout);
+        }
+        return holdRepository.deleteById(id);
+    }
+}
@@ -1,25 +1,50 @@
 package eu.deltasource.internship.hotel.service;
 
 import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.domain.ChangeEvent;
+import eu.deltasource.internship.hotel.domain.CleaningTask;
 import eu.deltasource.internship.hotel.domain.Room;
+import eu.deltasource.internship.hotel.domain.WaitlistEntry;
+import eu.deltasource.internship.hotel.dto.CalendarDTO;
+import eu.deltasource.internship.hotel.dto.GroupBookingDTO;
+import eu.deltasource.internship.hotel.dto.RoomCalendarDTO;
 import eu.deltasource.internship.hotel.exception.*;
+import eu.deltasource.internship.hotel.repository.BookingHoldRepository;
 import eu.deltasource.internship.hotel.repository.BookingRepository;
+import eu.deltasource.internship.hotel.repository.WaitlistRepository;
+import eu.deltasource.internship.hotel.tracing.Span;
+import eu.deltasource.internship.hotel.tracing.Tracing;
+import eu.deltasource.internship.hotel.utility.Today;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
+import java.util.function.Supplier;
 
 /**
- * Represents services for a booking
+ * Represents services for a booking.
+ * <p>
+ * Requests for booked dates can be put on a waitlist. Whenever dates of a room
+ * become free, the waiting requests overlapping them are booked in the order
+ * they were made. A limited number of rooms per night can be overbooked.
  */
 @Service
 public class BookingService {
 
+    private static final int MAX_ASSIGN_ATTEMPTS = 5;
+    private static final int MAX_CALENDAR_DAYS = 366;
+
+    private final RoomLocks roomLocks = new RoomLocks();
     private final BookingRepository bookingRepository;
+    private final BookingHoldRepository holdRepository;
+    private final WaitlistRepository waitlistRepository;
     private final RoomService roomService;
     private final GuestService guestService;
+    private final ChangeEventLog eventLog;
+    private final ReadModel<Booking> readModel;
+    private volatile int overbookingPerNight;
 
     /**
      * This is a constructor
@@ -28,11 +53,76 @@ public class BookingService {
      * @param roomService       the room service
      * @param guestService      the guest service
      */
-    @Autowired
     public BookingService(BookingRepository bookingRepository, RoomService roomService, GuestService guestService) {
+        this(bookingRepository, new BookingHoldRepository(), roomService, guestService);
+    }
+
+    /**
+     * This is a constructor
+     *
+     * @param bookingRepository the booking repository
+     * @param holdRepository    the booking hold repository
+     * @param roomService       the room service
+     * @param guestService      the guest service
+     */
+    public BookingService(BookingRepository bookingRepository, BookingHoldRepository holdRepository,
+                          RoomService roomService, GuestService guestService) {
+        this(bookingRepository, holdRepository, roomService, guestService, new ChangeEventLog());
+    }
+
+    /**
+     * This is a constructor
+     *
+     * @param bookingRepository the booking repository
+     * @param holdRepository    the booking hold repository
+     * @param roomService       the room service
+     * @param guestService      the guest service
+     * @param eventLog          the log, which the changes are published to
+     */
+    public BookingService(BookingRepository bookingRepository, BookingHoldRepository holdRepository,
+                          RoomService roomService, GuestService guestService, ChangeEventLog eventLog) {
+        this(bookingRepository, holdRepository, new WaitlistRepository(), roomService, guestService, eventLog);
+    }
+
+    /**
+     * This is a constructor
+     *
+     * @param bookingRepository  the booking repository
+     * @param holdRepository     the booking hold repository
+     * @param waitlistRepository the waitlist repository
+     * @param roomService        the room service
+     * @param guestService       the guest service
+     * @param eventLog           the log, which the changes are published to
+     */
+    @Autowired
+    public BookingService(BookingRepository bookingRepository, BookingHoldRepository holdRepository,
+                          WaitlistRepository waitlistRepository, RoomService roomService,
+                          GuestService guestService, ChangeEventLog eventLog) {
         this.bookingRepository = bookingRepository;
+        this.holdRepository = holdRepository;
+        this.waitlistRepository = waitlistRepository;
         this.roomService = roomService;
         this.guestService = guestService;
+        this.eventLog = eventLog;
+        this.readModel = new ReadModel<>(ChangeEvent.Entity.BOOKING, eventLog, bookingRepository::findById,
+                bookingRepository::findAll, Booking::getBookingId, Booking::new);
+    }
+
+    public int getOverbookingPerNight() {
+        return overbookingPerNight;
+    }
+
+    /**
+     * Sets how many rooms may be booked twice in the same night
+     *
+     * @param overbookingPerNight maximum number of overbooked rooms per night, 0 disables overbooking
+     */
+    @Value("${hotel.booking.overbooking-per-night:0}")
+    public void setOverbookingPerNight(int overbookingPerNight) {
+        if (overbookingPerNight < 0) {
+            throw new InvalidArgumentException("Invalid overbooking limit!");
+        }
+        this.overbookingPerNight = overbookingPerNight;
     }
 
     /**
@@ -41,7 +131,7 @@ public class BookingService {
      * @return list of all existing bookings
      */
     public List<Booking> findAll() {
-        return bookingRepository.findAll();
+        return readModel.findAll();
     }
 
     /**
@@ -51,10 +141,54 @@ public class BookingService {
      * @return copy of the found booking object
      */
     public Booking findById(int id) {
-        if (!bookingRepository.existsById(id)) {
+        Booking booking = readModel.findById(id);
+        if (booking == null) {
             throw new ItemNotFoundException("There are no bookings with such id!");
         }
-        return bookingRepository.findById(id);
+        return booking;
+    }
+
+    /**
+     * Finds the rooms, which are left on the given day,
+     * together with the next arrival in each of them
+     *
+     * @param day day of the departures
+     * @return cleaning tasks ordered by room id
+     */
+    public List<CleaningTask> findTurnovers(LocalDate day) {
+        if (day == null) {
+            throw new InvalidArgumentException("Invalid date!");
+        }
+        return bookingRepository.findTurnovers(day);
+    }
+
+    /**
+     * Searches the rooms, which can accommodate the given number
+     * of people and are neither booked nor held for the given dates
+     *
+     * @param from           starting date
+     * @param to             ending date
+     * @param numberOfPeople number of people
+     * @return list of the available rooms, smallest rooms first
+     */
+    public List<Room> findAvailableRooms(LocalDate from, LocalDate to, int numberOfPeople) {
+        validateDates(from, to);
+        if (numberOfPeople <= 0) {
+            throw new InvalidArgumentException("Invalid number of people");
+        }
+        int fromDay = Today.toEpochDay(from);
+        int toDay = Today.toEpochDay(to);
+        List<Room> rooms = new ArrayList<>();
+        for (int roomId : roomService.findIdsByMinimumCapacity(numberOfPeople)) {
+            if (!areDatesOverlapped(fromDay, toDay, roomId)) {
+                try {
+                    rooms.add(roomService.findById(roomId));
+                } catch (ItemNotFoundException e) {
+                    // the room was deleted meanwhile
+                }
+            }
+        }
+        return rooms;
     }
 
     /**
@@ -64,23 +198,95 @@ public class BookingService {
      * @return the new added booking
      */
     public Booking save(Booking booking) {
-        validateBooking(booking);
-        bookingRepository.save(booking);
-        return findById(bookingRepository.count());
+        bookingNullCheck(booking);
+        Booking saved;
+        try (Span span = Tracing.span("booking.lockedSave")) {
+            saved = withRoomsLocked(Collections.singleton(booking.getRoomId()), () -> saveLocked(booking));
+        }
+        try (Span span = Tracing.span("readModel.catchUp")) {
+            readModel.catchUp();
+        }
+        return saved;
+    }
+
+    /**
+     * Validates and stores a booking and publishes its creation,
+     * the room of the booking must be locked by the caller
+     *
+     * @param booking the new booking
+     * @return the new added booking
+     */
+    private Booking saveLocked(Booking booking) {
+        validateBookingDetails(booking);
+        boolean overlapped;
+        try (Span overlapScan = Tracing.span("booking.overlapScan")) {
+            overlapped = areDatesOverlapped(booking.getFromDay(), booking.getToDay(), booking.getRoomId());
+        }
+        Booking newBooking;
+        try (Span repositorySave = Tracing.span("bookingRepository.save")) {
+            if (!overlapped) {
+                newBooking = bookingRepository.save(booking);
+            } else if ((newBooking = overbook(booking)) == null) {
+                throw new BookingOverlappingException("The booking can not be created because dates are overlapped");
+            }
+        }
+        publish(ChangeEvent.Action.CREATED, newBooking.getBookingId());
+        return newBooking;
     }
 
     /**
-     * Creates a list of bookings
+     * Creates a list of bookings - either all of them or none
      *
      * @param bookings the list of bookings
      * @return list of all existing bookings
      */
     public List<Booking> saveAll(List<Booking> bookings) {
-        validateBookings(bookings);
-        bookingRepository.saveAll(bookings);
+        saveGroup(bookings);
         return findAll();
     }
 
+    /**
+     * Creates a group of bookings atomically - either all of them or none.
+     * Only the rooms of the group are locked while the bookings are saved.
+     *
+     * @param bookings the bookings of the group
+     * @return the new added bookings
+     */
+    public List<Booking> saveGroup(List<Booking> bookings) {
+        validateBookings(bookings);
+        validateGroupDates(bookings);
+        List<Booking> saved = trySaveGroup(bookings, new HashSet<>());
+        if (saved == null) {
+            throw new BookingOverlappingException("The group can not be booked because dates are overlapped");
+        }
+        readModel.catchUp();
+        return saved;
+    }
+
+    /**
+     * Books any rooms, which can accommodate the requested number
+     * of people and are free for the requested dates
+     *
+     * @param group the group booking request
+     * @return the new added bookings
+     */
+    public List<Booking> saveGroup(GroupBookingDTO group) {
+        validateGroup(group);
+        Set<Integer> takenRooms = new HashSet<>();
+        for (int attempt = 0; attempt < MAX_ASSIGN_ATTEMPTS; attempt++) {
+            List<Booking> bookings = assignRooms(group, takenRooms);
+            if (bookings.size() < group.getNumberOfRooms()) {
+                break;
+            }
+            List<Booking> saved = trySaveGroup(bookings, takenRooms);
+            if (saved != null) {
+                readModel.catchUp();
+                return saved;
+            }
+        }
+        throw new BookingOverlappingException("There are not enough free rooms for the group");
+    }
+
     /**
      * Creates one or several bookings
      *
@@ -97,12 +303,28 @@ public class BookingService {
      * @param newBooking the new booking
      */
     public void updateBooking(int bookingId, Booking newBooking) {
-        if (!bookingRepository.existsById(bookingId)) {
-            throw new ItemNotFoundException("Booking with id " + bookingId + " does not exist!");
+        Booking booking = loadById(bookingId);
+        validateBookingDetails(newBooking);
+        try {
+            withRoomsLocked(Arrays.asList(booking.getRoomId(), newBooking.getRoomId()), () -> {
+                if (bookingRepository.deleteById(bookingId)) {
+                    publish(ChangeEvent.Action.DELETED, bookingId);
+                }
+                try {
+                    return saveLocked(newBooking);
+                } catch (RuntimeException e) {
+                    // the new booking was not stored and the rooms are still locked,
+                    // so nothing has taken the old dates
+                    bookingRepository.restore(booking);
+                    publish(ChangeEvent.Action.CREATED, bookingId);
+                    throw e;
+                }
+            });
+        } finally {
+            readModel.catchUp();
         }
-        deleteById(bookingId);
-
-        save(newBooking);
+        // the waitlist may take the old dates only after the new booking is saved
+        promoteWaitlisted(booking.getRoomId(), booking.getFromDay(), booking.getToDay());
     }
 
     /**
@@ -115,13 +337,23 @@ public class BookingService {
      **/
     public Booking updateBookingByDates(int bookingId, LocalDate from, LocalDate to) {
         validateDates(from, to);
-        Booking booking = findById(bookingId);
+        Booking previous = loadById(bookingId);
+        int roomId = previous.getRoomId();
 
-        if (areUpdateDatesOverlapped(from, to, booking.getRoomId(), bookingId)) {
-            throw new BookingOverlappingException("Overlapping dates");
-        }
-        booking.setBookingDates(from, to);
-        return bookingRepository.updateDates(booking);
+        Booking updated = withRoomsLocked(Collections.singleton(roomId), () -> {
+            Booking booking = loadById(bookingId);
+            if (areUpdateDatesOverlapped(Today.toEpochDay(from), Today.toEpochDay(to), booking.getRoomId(),
+                    bookingId)) {
+                throw new BookingOverlappingException("Overlapping dates");
+            }
+            booking.setBookingDates(from, to);
+            Booking updatedBooking = bookingRepository.updateDates(booking);
+            publish(ChangeEvent.Action.UPDATED, bookingId);
+            return updatedBooking;
+        });
+        readModel.catchUp();
+        promoteWaitlisted(roomId, previous.getFromDay(), previous.getToDay());
+        return updated;
     }
 
     /**
@@ -132,7 +364,8 @@ public class BookingService {
      */
     public boolean delete(Booking booking) {
         bookingNullCheck(booking);
-        return bookingRepository.delete(findById(booking.getBookingId()));
+        Booking deleted = loadById(booking.getBookingId());
+        return freed(deleted, published(bookingRepository.delete(deleted), booking.getBookingId()));
     }
 
     /**
@@ -145,7 +378,154 @@ public class BookingService {
         if (!bookingRepository.existsById(id)) {
             throw new ItemNotFoundException("Booking with id " + id + " does not exist!");
         }
-        return bookingRepository.deleteById(id);
+        Booking deleted = bookingRepository.findById(id);
+        return freed(deleted, published(bookingRepository.deleteById(id), id));
+    }
+
+    /**
+     * Puts a request for booked dates on the waitlist. The request is booked
+     * right away, if its dates are free. A request for room id 0 waits
+     * for any room, which can accommodate its number of people.
+     *
+     * @param request the requested booking
+     * @return the waiting request, promoted if it is already booked
+     */
+    public WaitlistEntry waitlist(Booking request) {
+        bookingNullCheck(request);
+        validateDays(request.getFromDay(), request.getToDay());
+        validateGuest(request.getGuestId());
+        List<Integer> roomIds;
+        if (request.getRoomId() == WaitlistEntry.ANY_ROOM) {
+            roomIds = roomService.findIdsByMinimumCapacity(request.getNumberOfPeople());
+            if (request.getNumberOfPeople() <= 0 || roomIds.isEmpty()) {
+                throw new InvalidArgumentException("No room can accommodate this number of people");
+            }
+        } else {
+            validateRoom(request.getRoomId(), request.getNumberOfPeople());
+            roomIds = Collections.singletonList(request.getRoomId());
+        }
+        WaitlistEntry entry = waitlistRepository.save(request);
+        for (int roomId : roomIds) {
+            if (!areDatesOverlapped(request.getFromDay(), request.getToDay(), roomId)) {
+                promoteWaitlisted(roomId, request.getFromDay(), request.getToDay());
+                if (!waitlistRepository.existsById(entry.getWaitlistId())
+                        || waitlistRepository.findById(entry.getWaitlistId()).isPromoted()) {
+                    break;
+                }
+            }
+        }
+        return findWaitlistEntryById(entry.getWaitlistId());
+    }
+
+    /**
+     * Gets all waiting and promoted requests
+     *
+     * @return the requests in the order they were made
+     */
+    public List<WaitlistEntry> findWaitlist() {
+        return waitlistRepository.findAll();
+    }
+
+    /**
+     * Searches waitlist entry by id
+     *
+     * @param id entry's id
+     * @return the found entry
+     */
+    public WaitlistEntry findWaitlistEntryById(int id) {
+        if (!waitlistRepository.existsById(id)) {
+            throw new ItemNotFoundException("Waitlist entry with id " + id + " does not exist!");
+        }
+        return waitlistRepository.findById(id);
+    }
+
+    /**
+     * Removes a request from the waitlist, its booking is kept if it is already promoted
+     *
+     * @param id entry's id
+     * @return true if the entry is successfully removed
+     */
+    public boolean withdrawFromWaitlist(int id) {
+        if (!waitlistRepository.deleteById(id)) {
+            throw new ItemNotFoundException("Waitlist entry with id " + id + " does not exist!");
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of overbooked rooms in every night of the given range, which has any
+     *
+     * @param from first night
+     * @param to   first date after the nights
+     * @return overbooked rooms by night
+     */
+    public Map<LocalDate, Integer> findOverbookedNights(LocalDate from, LocalDate to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidArgumentException("Invalid dates");
+        }
+        return bookingRepository.findOverbookedNights(from, to);
+    }
+
+    /**
+     * Gets the occupancy of every room in the given days,
+     * run-length encoded with the ids of the bookings
+     *
+     * @param from first day
+     * @param days number of days, at most a year
+     * @return occupancy of the rooms ordered by room id
+     */
+    public CalendarDTO findCalendar(LocalDate from, int days) {
+        if (from == null || days <= 0 || days > MAX_CALENDAR_DAYS) {
+            throw new InvalidArgumentException("Invalid calendar range");
+        }
+        List<Integer> roomIds = new ArrayList<>();
+        for (Room room : roomService.findAll()) {
+            roomIds.add(room.getRoomId());
+        }
+        int fromDay = Today.toEpochDay(from);
+        int[][] runs = bookingRepository.findOccupancy(roomIds, fromDay, Today.toEpochDay(from.plusDays(days)));
+        List<RoomCalendarDTO> rooms = new ArrayList<>(roomIds.size());
+        for (int i = 0; i < runs.length; i++) {
+            rooms.add(new RoomCalendarDTO(roomIds.get(i), runs[i]));
+        }
+        return new CalendarDTO(from, days, rooms);
+    }
+
+    /**
+     * Books the waiting requests, which the room can serve in the given dates
+     *
+     * @param roomId room's id
+     * @param from   first epoch day, which became free
+     * @param to     first epoch day after the free days
+     */
+    void promoteWaitlisted(int roomId, int from, int to) {
+        int capacity;
+        try {
+            capacity = roomService.findCapacityById(roomId);
+        } catch (ItemNotFoundException e) {
+            return;
+        }
+        boolean promoted = withRoomsLocked(Collections.singleton(roomId), () -> {
+            boolean booked = false;
+            for (WaitlistEntry entry : waitlistRepository.findCandidates(roomId, capacity, from, to)) {
+                int entryFrom = Today.toEpochDay(entry.getFrom());
+                if (entryFrom < Today.epochDay() || !guestService.existsById(entry.getGuestId())) {
+                    // the request can never be booked anymore
+                    waitlistRepository.deleteById(entry.getWaitlistId());
+                } else if (entry.getNumberOfPeople() <= capacity
+                        && !areDatesOverlapped(entryFrom, Today.toEpochDay(entry.getTo()), roomId)
+                        && waitlistRepository.claim(entry.getWaitlistId())) {
+                    Booking booking = bookingRepository.save(entry.toBooking(roomId));
+                    waitlistRepository.promote(entry.getWaitlistId(), booking);
+                    publish(ChangeEvent.Action.CREATED, booking.getBookingId());
+                    booked = true;
+                }
+            }
+            return booked;
+        });
+        if (promoted) {
+            readModel.catchUp();
+        }
     }
 
     /**
@@ -153,42 +533,126 @@ public class BookingService {
      */
     public void deleteAll() {
         bookingRepository.deleteAll();
+        publish(ChangeEvent.Action.DELETED, null);
+        readModel.catchUp();
     }
 
     private void validateUpdateBooking(Booking booking, int bookingId) {
-        if (booking.getGuestId() != findById(bookingId).getGuestId()) {
+        if (booking.getGuestId() != loadById(bookingId).getGuestId()) {
             throw new InvalidArgumentException("You are not allowed to change guest id");
         }
-        if (areUpdateDatesOverlapped(booking.getFrom(), booking.getTo(), booking.getRoomId(), bookingId)) {
+        if (areUpdateDatesOverlapped(booking.getFromDay(), booking.getToDay(), booking.getRoomId(), bookingId)) {
             throw new BookingOverlappingException("The room is already booked for this period!");
         }
     }
 
-    private boolean areUpdateDatesOverlapped(LocalDate from, LocalDate to, int roomId, int bookingId) {
-        Booking bookingToBeUpdated = findById(bookingId);
-        if (areDatesInTheSameRange(bookingToBeUpdated.getFrom(), bookingToBeUpdated.getTo(), from, to))
+    private boolean areUpdateDatesOverlapped(int from, int to, int roomId, int bookingId) {
+        Booking bookingToBeUpdated = loadById(bookingId);
+        if (areDatesInTheSameRange(bookingToBeUpdated.getFromDay(), bookingToBeUpdated.getToDay(), from, to))
             return false;
 
-        return areDatesOverlapped(bookingToBeUpdated.getFrom(), bookingToBeUpdated.getTo(), roomId);
+        return areDatesOverlapped(bookingToBeUpdated.getFromDay(), bookingToBeUpdated.getToDay(), roomId);
+    }
+
+    /**
+     * Runs the action while holding the locks of the given rooms,
+     * so no other booking or hold can be created for them meanwhile
+     */
+    <T> T withRoomsLocked(Collection<Integer> roomIds, Supplier<T> action) {
+        return roomLocks.withRooms(roomIds, action);
+    }
+
+    /**
+     * Checks that the dates are not taken by another booking or hold,
+     * call this while holding the lock of the room
+     */
+    void validateDatesAreFree(int roomId, int from, int to) {
+        if (areDatesOverlapped(from, to, roomId)) {
+            throw new BookingOverlappingException("The room is already booked for this period!");
+        }
+    }
+
+    private List<Booking> trySaveGroup(List<Booking> bookings, Set<Integer> takenRooms) {
+        Set<Integer> roomIds = new HashSet<>();
+        for (Booking booking : bookings) {
+            roomIds.add(booking.getRoomId());
+        }
+        return withRoomsLocked(roomIds, () -> {
+            boolean overlapped = false;
+            for (Booking booking : bookings) {
+                if (areDatesOverlapped(booking.getFromDay(), booking.getToDay(), booking.getRoomId())) {
+                    takenRooms.add(booking.getRoomId());
+                    overlapped = true;
+                }
+            }
+            if (overlapped) {
+                return null;
+            }
+            List<Booking> saved = bookingRepository.saveAll(bookings);
+            for (Booking booking : saved) {
+                publish(ChangeEvent.Action.CREATED, booking.getBookingId());
+            }
+            return saved;
+        });
+    }
+
+    private List<Booking> assignRooms(GroupBookingDTO group, Set<Integer> takenRooms) {
+        List<Booking> bookings = new ArrayList<>();
+        int fromDay = Today.toEpochDay(group.getFrom());
+        int toDay = Today.toEpochDay(group.getTo());
+        for (int roomId : roomService.findIdsByMinimumCapacity(group.getNumberOfPeople())) {
+            if (bookings.size() == group.getNumberOfRooms()) {
+                break;
+            }
+            if (!takenRooms.contains(roomId) && !areDatesOverlapped(fromDay, toDay, roomId)) {
+                bookings.add(new Booking(0, group.getGuestId(), roomId, group.getNumberOfPeople(), fromDay, toDay));
+            }
+        }
+        return bookings;
+    }
+
+    private void validateGroup(GroupBookingDTO group) {
+        if (group == null || group.getNumberOfRooms() <= 0 || group.getNumberOfPeople() <= 0) {
+            throw new InvalidArgumentException("Invalid group booking");
+        }
+        validateDates(group.getFrom(), group.getTo());
+        validateGuest(group.getGuestId());
+    }
+
+    private void validateGroupDates(List<Booking> bookings) {
+        List<Booking> sorted = new ArrayList<>(bookings);
+        sorted.sort(Comparator.comparingInt(Booking::getRoomId).thenComparingInt(Booking::getFromDay));
+        for (int i = 1; i < sorted.size(); i++) {
+            Booking previous = sorted.get(i - 1);
+            Booking current = sorted.get(i);
+            if (previous.getRoomId() == current.getRoomId() && previous.getToDay() > current.getFromDay()) {
+                throw new BookingOverlappingException("The group contains overlapping bookings");
+            }
+        }
     }
 
     private void validateBookings(List<Booking> bookings) {
-        if (bookings.isEmpty()) {
+        if (bookings == null || bookings.isEmpty()) {
             throw new InvalidArgumentException("Empty list of bookings");
         }
         for (Booking booking : bookings) {
-            validateBooking(booking);
+            validateBookingDetails(booking);
         }
     }
 
-    private void validateBooking(Booking booking) {
-        bookingNullCheck(booking);
-        validateDates(booking.getFrom(), booking.getTo());
-        validateGuest(booking.getGuestId());
-        validateRoom(booking.getRoomId(), booking.getNumberOfPeople());
-
-        if (areDatesOverlapped(booking.getFrom(), booking.getTo(), booking.getRoomId())) {
-            throw new BookingOverlappingException("The booking can not be created because dates are overlapped");
+    /**
+     * Validates everything but the availability of the dates
+     */
+    void validateBookingDetails(Booking booking) {
+        try (Span span = Tracing.span("booking.validate")) {
+            bookingNullCheck(booking);
+            validateDays(booking.getFromDay(), booking.getToDay());
+            try (Span guest = Tracing.span("guestService.existsById")) {
+                validateGuest(booking.getGuestId());
+            }
+            try (Span room = Tracing.span("roomService.findCapacityById")) {
+                validateRoom(booking.getRoomId(), booking.getNumberOfPeople());
+            }
         }
     }
 
@@ -199,39 +663,77 @@ public class BookingService {
     }
 
     private void validateGuest(int guestId) {
-        guestService.findById(guestId);
+        if (!guestService.existsById(guestId)) {
+            throw new ItemNotFoundException("Guest with id " + guestId + " does not exist!");
+        }
     }
 
     private void validateRoom(int roomId, int numberOfPeople) {
-        Room foundExistingRoom = roomService.findById(roomId);
-        if (foundExistingRoom.getRoomCapacity() < numberOfPeople) {
+        if (roomService.findCapacityById(roomId) < numberOfPeople) {
             throw new InvalidArgumentException("The room does not have enough capacity");
         }
     }
 
     private void validateDates(LocalDate from, LocalDate to) {
-        if (from == null || to == null || from.isAfter(to) || from.equals(to) || from.isBefore(LocalDate.now())) {
+        if (from == null || to == null) {
             throw new InvalidArgumentException("Invalid dates");
         }
+        validateDays(Today.toEpochDay(from), Today.toEpochDay(to));
     }
 
-    private boolean areDatesOverlapped(LocalDate from, LocalDate to, int roomId) {
-        for (Booking book : findAll()) {
-            if (book.getRoomId() == roomId && checkOverlapping(book.getFrom(), book.getTo(), from, to)) {
-                return true;
-            }
+    private void validateDays(int from, int to) {
+        if (from >= to || from < Today.epochDay()) {
+            throw new InvalidArgumentException("Invalid dates");
+        }
+    }
+
+    private boolean areDatesOverlapped(int from, int to, int roomId) {
+        return bookingRepository.existsOverlapping(roomId, from, to)
+                || holdRepository.existsOverlapping(roomId, from, to);
+    }
+
+    private boolean areDatesInTheSameRange(int bookedFrom, int bookedTo, int fromUpdated, int toUpdated) {
+        return bookedFrom >= fromUpdated && bookedTo >= toUpdated;
+    }
+
+    /**
+     * Books a room for dates, in which it is already booked,
+     * if the overbooking limit of those nights allows it
+     *
+     * @return the new booking or null
+     */
+    private Booking overbook(Booking booking) {
+        int limit = overbookingPerNight;
+        if (limit == 0 || holdRepository.existsOverlapping(booking.getRoomId(), booking.getFromDay(),
+                booking.getToDay())) {
+            return null;
+        }
+        return bookingRepository.saveOverbooked(booking, limit);
+    }
+
+    private boolean freed(Booking booking, boolean deleted) {
+        if (deleted) {
+            promoteWaitlisted(booking.getRoomId(), booking.getFromDay(), booking.getToDay());
+        }
+        return deleted;
+    }
+
+    private boolean published(boolean deleted, int id) {
+        if (deleted) {
+            publish(ChangeEvent.Action.DELETED, id);
+            readModel.catchUp();
         }
-        return false;
+        return deleted;
     }
 
-    private boolean checkOverlapping(LocalDate bookedFrom, LocalDate bookedTo, LocalDate from, LocalDate to) {
-        return !(bookedFrom.isAfter(to) || (bookedFrom.isEqual(to)) ||
-                (bookedTo.isBefore(from) || bookedTo.isEqual(from)));
+    private Booking loadById(int id) {
+        if (!bookingRepository.existsById(id)) {
+            throw new ItemNotFoundException("There are no bookings with such id!");
+        }
+        return bookingRepository.findById(id);
     }
 
-    private boolean areDatesInTheSameRange(LocalDate bookedFrom, LocalDate bookedTo,
-                                           LocalDate fromUpdated, LocalDate toUpdated) {
-        return ((bookedFrom.isAfter(fromUpdated) || bookedFrom.isEqual(fromUpdated)) &&
-                (bookedTo.isAfter(toUpdated) || bookedTo.isEqual(toUpdated)));
+    private void publish(ChangeEvent.Action action, Integer id) {
+        eventLog.publish(ChangeEvent.Entity.BOOKING, action, id);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,233 @@
+package eu.deltasource.internship.hotel.service;
+
+import eu.deltasource.internship.hotel.domain.ChangeEvent;
+import eu.deltasource.internship.hotel.exception.InvalidArgumentException;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Represents the log of changes made in a hotel.
+ * <p>
+ * The log is a ring buffer of the latest events, numbered by sequence.
+ * Writers only store the event and wake the subscribers, which read
+ * the log on their own threads, so a slow subscriber never blocks
+ * a writer. A subscriber, which falls behind by more than the buffer,
+ * is told to resync and continues from the latest event.
+ */
+@Service
+public class ChangeEventLog {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeEventLog.class);
+
+    private static final int BATCH_SIZE = 256;
+
+    private final ChangeEvent[] events;
+    private final Set<Subscription> subscriptions;
+    private final ExecutorService deliveryExecutor;
+    private long lastSequence;
+
+    /**
+     * This is a constructor
+     */
+    @Autowired
+    public ChangeEventLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * This is a constructor
+     *
+     * @param capacity number of the latest events, which are kept
+     */
+    public ChangeEventLog(int capacity) {
+        if (capacity < 1) {
+            throw new InvalidArgumentException("Invalid event log capacity!");
+        }
+        events = new ChangeEvent[capacity];
+        subscriptions = ConcurrentHashMap.newKeySet();
+        AtomicInteger count = new AtomicInteger();
+        deliveryExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "change-event-delivery-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Appends an event to the log and wakes the subscribers
+     *
+     * @param entity   kind of the changed item
+     * @param action   kind of the change
+     * @param entityId id of the changed item, null when all items are deleted
+     * @return the new event
+     */
+    public ChangeEvent publish(ChangeEvent.Entity entity, ChangeEvent.Action action, Integer entityId) {
+        ChangeEvent event;
+        synchronized (this) {
+            event = new ChangeEvent(++lastSequence, entity, action, entityId, Instant.now());
+            events[(int) (event.getSequence() % events.length)] = event;
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.wake();
+        }
+        return event;
+    }
+
+    /**
+     * Reads the events after the given sequence
+     *
+     * @param since sequence of the last event already seen, 0 for the start of the log
+     * @param limit maximum number of events
+     * @return the events or a resync signal, when events after the sequence are no longer kept
+     */
+    public synchronized Page read(long since, int limit) {
+        long firstKept = Math.max(1, lastSequence - events.length + 1);
+        List<ChangeEvent> page = new ArrayList<>();
+        if (since + 1 < firstKept || since > lastSequence) {
+            return new Page(page, true, lastSequence);
+        }
+        for (long sequence = since + 1; sequence <= lastSequence && page.size() < limit; sequence++) {
+            page.add(events[(int) (sequence % events.length)]);
+        }
+        return new Page(page, false, lastSequence);
+    }
+
+    /**
+     * Gets the sequence of the latest event
+     */
+    public synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Subscribes to the events after the given sequence.
+     * The sink is called on a delivery thread, a sink which throws
+     * an exception is unsubscribed.
+     *
+     * @param since sequence of the last event already seen
+     * @param sink  receiver of the pages of events
+     * @return the new subscription
+     */
+    public Subscription subscribe(long since, Consumer<Page> sink) {
+        Subscription subscription = new Subscription(since, sink);
+        subscriptions.add(subscription);
+        subscription.wake();
+        return subscription;
+    }
+
+    /**
+     * Gets the number of active subscriptions
+     */
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Closes all subscriptions and stops the delivery threads
+     */
+    @PreDestroy
+    public void stop() {
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+        deliveryExecutor.shutdownNow();
+    }
+
+    /**
+     * Represents a batch of events read from the log
+     */
+    @Getter
+    public static final class Page {
+
+        private final List<ChangeEvent> events;
+        private final boolean resync;
+        private final long lastSequence;
+
+        private Page(List<ChangeEvent> events, boolean resync, long lastSequence) {
+            this.events = events;
+            this.resync = resync;
+            this.lastSequence = lastSequence;
+        }
+    }
+
+    /**
+     * Represents a subscriber reading the log from its own position
+     */
+    public final class Subscription {
+
+        private final Consumer<Page> sink;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+        private long cursor;
+
+        private Subscription(long since, Consumer<Page> sink) {
+            this.cursor = since;
+            this.sink = sink;
+        }
+
+        /**
+         * Stops the delivery of events
+         */
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+        }
+
+        private void wake() {
+            if (closed || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                deliveryExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                close();
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!closed) {
+                    Page page = read(cursor, BATCH_SIZE);
+                    if (page.getEvents().isEmpty() && !page.isResync()) {
+                        break;
+                    }
+                    sink.accept(page);
+                    cursor = page.isResync() ? page.getLastSequence()
+                        : page.getEvents().get(page.getEvents().size() - 1).getSequence();
+                }
+            } catch (UncheckedIOException e) {
+                // the receiver of the events is gone
+                LOGGER.debug("Closed a subscription, its receiver is gone", e);
+                close();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Closed a subscription at {}, its receiver failed", cursor, e);
+                close();
+            } finally {
+                scheduled.set(false);
+            }
+            if (!closed && cursor < lastSequence()) {
+                // an event was published after the last read
+                wake();
+            }
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package eu.deltasource.internship.hotel.service;
 
 
+import eu.deltasource.internship.hotel.domain.ChangeEvent;
 import eu.deltasource.internship.hotel.domain.Guest;
+import eu.deltasource.internship.hotel.dto.GuestImportDTO;
 
 import eu.deltasource.internship.hotel.exception.InvalidArgumentException;
 import eu.deltasource.internship.hotel.exception.ItemNotFoundException;
@@ -19,16 +21,33 @@ import java.util.List;
 @Service
 public class GuestService {
 
+    public static final int MAX_SEARCH_LIMIT = 100;
+
     private final GuestRepository guestRepository;
+    private final ChangeEventLog eventLog;
+    private final ReadModel<Guest> readModel;
 
     /**
      * This is a constructor
      *
      * @param guestRepository the guest repository
      */
-    @Autowired
     public GuestService(GuestRepository guestRepository) {
+        this(guestRepository, new ChangeEventLog());
+    }
+
+    /**
+     * This is a constructor
+     *
+     * @param guestRepository the guest repository
+     * @param eventLog        the log, which the changes are published to
+     */
+    @Autowired
+    public GuestService(GuestRepository guestRepository, ChangeEventLog eventLog) {
         this.guestRepository = guestRepository;
+        this.eventLog = eventLog;
+        this.readModel = new ReadModel<>(ChangeEvent.Entity.GUEST, eventLog, guestRepository::findById,
+                guestRepository::findAll, Guest::getGuestId, Guest::new);
     }
 
     /**
@@ -37,7 +56,7 @@ public class GuestService {
      * @return list of all existing guests
      */
     public List<Guest> findAll() {
-        return guestRepository.findAll();
+        return readModel.findAll();
     }
 
     /**
@@ -47,10 +66,40 @@ public class GuestService {
      * @return copy the found guest object
      **/
     public Guest findById(int id) {
-        if (!guestRepository.existsById(id)) {
+        Guest guest = readModel.findById(id);
+        if (guest == null) {
             throw new ItemNotFoundException("Guest with id " + id + " does not exist!");
         }
-        return guestRepository.findById(id);
+        return guest;
+    }
+
+    /**
+     * Checks if a guest with the given id exists
+     *
+     * @param id guest's id
+     * @return true if the guest exists
+     */
+    public boolean existsById(int id) {
+        return guestRepository.existsById(id);
+    }
+
+    /**
+     * Searches guests by the beginning of their names,
+     * ignoring case and diacritics
+     *
+     * @param query the beginning of the first or last name
+     * @param limit maximum number of guests
+     * @param fuzzy whether names with one wrong, missing or extra letter are matched too
+     * @return list of the found guests
+     */
+    public List<Guest> search(String query, int limit, boolean fuzzy) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new InvalidArgumentException("Invalid search query!");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new InvalidArgumentException("Invalid search limit!");
+        }
+        return guestRepository.search(query, limit, fuzzy);
     }
 
     /**
@@ -61,8 +110,10 @@ public class GuestService {
      */
     public Guest save(Guest guest) {
         validateGuest(guest);
-        guestRepository.save(guest);
-        return findById(guestRepository.count());
+        Guest saved = guestRepository.save(guest);
+        publish(ChangeEvent.Action.CREATED, saved.getGuestId());
+        readModel.catchUp();
+        return saved;
     }
 
     /**
@@ -73,7 +124,7 @@ public class GuestService {
      */
     public List<Guest> saveAll(List<Guest> guests) {
         validateGuestList(guests);
-        guestRepository.saveAll(guests);
+        publishCreated(guestRepository.saveAll(guests));
         return findAll();
     }
 
@@ -85,10 +136,25 @@ public class GuestService {
      */
     public List<Guest> saveAll(Guest... guests) {
         validateGuestList(Arrays.asList(guests));
-        guestRepository.saveAll(guests);
+        publishCreated(guestRepository.saveAll(guests));
         return findAll();
     }
 
+    /**
+     * Imports a list of guests without creating duplicates.
+     * A guest with the same names and gender as an existing one,
+     * ignoring case and diacritics, updates the existing guest.
+     *
+     * @param guests the list of guests
+     * @return the number of inserted, updated and unchanged guests
+     */
+    public GuestImportDTO merge(List<Guest> guests) {
+        validateGuestList(guests);
+        GuestImportDTO result = guestRepository.merge(guests, this::publish);
+        readModel.catchUp();
+        return result;
+    }
+
     /**
      * Updates an existing guest
      *
@@ -97,8 +163,11 @@ public class GuestService {
      */
     public Guest update(Guest guest) {
         validateGuest(guest);
-        findById(guest.getGuestId());
-        return guestRepository.updateGuest(guest);
+        loadById(guest.getGuestId());
+        Guest updated = guestRepository.updateGuest(guest);
+        publish(ChangeEvent.Action.UPDATED, updated.getGuestId());
+        readModel.catchUp();
+        return updated;
     }
 
     /**
@@ -111,7 +180,7 @@ public class GuestService {
         if (!guestRepository.existsById(id)) {
             throw new ItemNotFoundException("Guest with id " + id + " does not exist!");
         }
-        return guestRepository.deleteById(id);
+        return published(guestRepository.deleteById(id), id);
     }
 
     /**
@@ -122,7 +191,7 @@ public class GuestService {
      */
     public boolean delete(Guest guest) {
         validateGuest(guest);
-        return guestRepository.delete(findById(guest.getGuestId()));
+        return published(guestRepository.delete(loadById(guest.getGuestId())), guest.getGuestId());
     }
 
     /**
@@ -130,6 +199,34 @@ public class GuestService {
      */
     public void deleteAll() {
         guestRepository.deleteAll();
+        publish(ChangeEvent.Action.DELETED, null);
+        readModel.catchUp();
+    }
+
+    private void publishCreated(List<Guest> guests) {
+        for (Guest guest : guests) {
+            publish(ChangeEvent.Action.CREATED, guest.getGuestId());
+        }
+        readModel.catchUp();
+    }
+
+    private boolean published(boolean deleted, int id) {
+        if (deleted) {
+            publish(ChangeEvent.Action.DELETED, id);
+            readModel.catchUp();
+        }
+        return deleted;
+    }
+
+    private Guest loadById(int id) {
+        if (!guestRepository.existsById(id)) {
+            throw new ItemNotFoundException("Guest with id " + id + " does not exist!");
+        }
+        return guestRepository.findById(id);
+    }
+
+    private void publish(ChangeEvent.Action action, Integer id) {
+        eventLog.publish(ChangeEvent.Entity.GUEST, action, id);
     }
 
     private void validateGuestList(List<Guest> guests) {
@@ -0,0 +1,236 @@
+package eu.deltasource.internship.hotel.service;
+
+import eu.deltasource.internship.hotel.domain.Hotel;
+import eu.deltasource.internship.hotel.dto.HotelAvailabilityDTO;
+import eu.deltasource.internship.hotel.exception.InvalidArgumentException;
+import eu.deltasource.internship.hotel.exception.ItemNotFoundException;
+import eu.deltasource.internship.hotel.repository.BookingHoldRepository;
+import eu.deltasource.internship.hotel.repository.BookingRepository;
+import eu.deltasource.internship.hotel.repository.GuestRepository;
+import eu.deltasource.internship.hotel.repository.RoomRepository;
+import eu.deltasource.internship.hotel.repository.storage.StorageEngines;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents services for hotels.
+ * <p>
+ * Every hotel is a partition with its own repositories and room locks,
+ * so operations on different hotels never wait for each other.
+ * The application's own services form the default hotel.
+ */
+@Service
+public class HotelService {
+
+    public static final int DEFAULT_HOTEL_ID = 1;
+
+    private final Map<Integer, Hotel> hotels;
+    private final AtomicInteger lastId;
+    private final ExecutorService searchExecutor;
+    private final ScheduledExecutorService holdExpiryScheduler;
+    private final ExecutorService housekeepingWorkers;
+    private volatile String bookingEngine = StorageEngines.INDEXED;
+    private volatile String guestEngine = StorageEngines.LIST;
+    private volatile String roomEngine = StorageEngines.LIST;
+
+    /**
+     * This is a constructor
+     *
+     * @param bookingService     the booking service of the default hotel
+     * @param bookingHoldService the booking hold service of the default hotel
+     * @param guestService       the guest service of the default hotel
+     * @param roomService        the room service of the default hotel
+     * @param eventLog            the change event log of the default hotel
+     * @param housekeepingService the housekeeping service of the default hotel
+     * @param pricingService      the pricing service of the default hotel
+     */
+    @Autowired
+    public HotelService(BookingService bookingService, BookingHoldService bookingHoldService,
+                        GuestService guestService, RoomService roomService, ChangeEventLog eventLog,
+                        HousekeepingService housekeepingService, PricingService pricingService) {
+        hotels = new ConcurrentSkipListMap<>();
+        lastId = new AtomicInteger(DEFAULT_HOTEL_ID);
+        searchExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                daemonThreads("hotel-search"));
+        holdExpiryScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("hotel-hold-expiry"));
+        housekeepingWorkers = HousekeepingService.newWorkerPool("hotel-housekeeping");
+        hotels.put(DEFAULT_HOTEL_ID, new Hotel(DEFAULT_HOTEL_ID, "Default", bookingService, bookingHoldService,
+                guestService, roomService, eventLog, housekeepingService, pricingService));
+    }
+
+    /**
+     * Sets the storage engine of the bookings of the hotels created from now on
+     *
+     * @param bookingEngine "list", "indexed" or "off-heap"
+     */
+    @Value("${hotel.storage.bookings:" + StorageEngines.INDEXED + "}")
+    public void setBookingEngine(String bookingEngine) {
+        this.bookingEngine = bookingEngine;
+    }
+
+    /**
+     * Sets the storage engine of the guests of the hotels created from now on
+     *
+     * @param guestEngine "list" or "indexed"
+     */
+    @Value("${hotel.storage.guests:" + StorageEngines.LIST + "}")
+    public void setGuestEngine(String guestEngine) {
+        this.guestEngine = guestEngine;
+    }
+
+    /**
+     * Sets the storage engine of the rooms of the hotels created from now on
+     *
+     * @param roomEngine "list" or "indexed"
+     */
+    @Value("${hotel.storage.rooms:" + StorageEngines.LIST + "}")
+    public void setRoomEngine(String roomEngine) {
+        this.roomEngine = roomEngine;
+    }
+
+    /**
+     * Gets a list of all hotels
+     *
+     * @return list of all existing hotels
+     */
+    public List<Hotel> findAll() {
+        return new ArrayList<>(hotels.values());
+    }
+
+    /**
+     * Searches hotel by id
+     *
+     * @param id hotel's id
+     * @return the found hotel
+     */
+    public Hotel findById(int id) {
+        Hotel hotel = hotels.get(id);
+        if (hotel == null) {
+            throw new ItemNotFoundException("Hotel with id " + id + " does not exist!");
+        }
+        return hotel;
+    }
+
+    /**
+     * Creates a hotel with empty repositories
+     *
+     * @param name hotel's name
+     * @return the new added hotel
+     */
+    public Hotel save(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new InvalidArgumentException("Invalid hotel name!");
+        }
+        ChangeEventLog eventLog = new ChangeEventLog();
+        RoomRepository roomRepository = new RoomRepository(roomEngine);
+        BookingRepository bookingRepository = new BookingRepository(bookingEngine);
+        RoomService roomService = new RoomService(roomRepository, eventLog);
+        GuestService guestService = new GuestService(new GuestRepository(guestEngine), eventLog);
+        BookingHoldRepository holdRepository = new BookingHoldRepository();
+        BookingService bookingService = new BookingService(bookingRepository, holdRepository,
+                roomService, guestService, eventLog);
+        bookingService.setOverbookingPerNight(findById(DEFAULT_HOTEL_ID).getBookingService().getOverbookingPerNight());
+        BookingHoldService bookingHoldService = new BookingHoldService(bookingService, holdRepository);
+        bookingHoldService.start(holdExpiryScheduler);
+        HousekeepingService housekeepingService = new HousekeepingService(bookingService, roomService,
+                findById(DEFAULT_HOTEL_ID).getHousekeepingService().getSink());
+        housekeepingService.start(housekeepingWorkers);
+
+        PricingService pricingService = new PricingService(bookingRepository, roomRepository, eventLog);
+
+        Hotel hotel = new Hotel(lastId.incrementAndGet(), name, bookingService, bookingHoldService,
+                guestService, roomService, eventLog, housekeepingService, pricingService);
+        hotels.put(hotel.getHotelId(), hotel);
+        return hotel;
+    }
+
+    /**
+     * Deletes a hotel with all its data
+     *
+     * @param id hotel's id
+     * @return true if the hotel is successfully deleted
+     */
+    public boolean deleteById(int id) {
+        if (id == DEFAULT_HOTEL_ID) {
+            throw new InvalidArgumentException("The default hotel can not be deleted!");
+        }
+        Hotel hotel = hotels.remove(id);
+        if (hotel == null) {
+            throw new ItemNotFoundException("Hotel with id " + id + " does not exist!");
+        }
+        hotel.getBookingHoldService().stop();
+        hotel.getEventLog().stop();
+        return true;
+    }
+
+    /**
+     * Searches the available rooms of all hotels,
+     * the hotels are searched in parallel
+     *
+     * @param from           starting date
+     * @param to             ending date
+     * @param numberOfPeople number of people
+     * @return the available rooms of every hotel, which has any
+     */
+    public List<HotelAvailabilityDTO> findAvailableRooms(LocalDate from, LocalDate to, int numberOfPeople) {
+        List<CompletableFuture<HotelAvailabilityDTO>> searches = new ArrayList<>();
+        for (Hotel hotel : hotels.values()) {
+            searches.add(CompletableFuture.supplyAsync(() -> new HotelAvailabilityDTO(hotel.getHotelId(),
+                    hotel.getName(), hotel.getBookingService().findAvailableRooms(from, to, numberOfPeople)),
+                    searchExecutor));
+        }
+        List<HotelAvailabilityDTO> availability = new ArrayList<>();
+        for (CompletableFuture<HotelAvailabilityDTO> search : searches) {
+            HotelAvailabilityDTO hotelAvailability = join(search);
+            if (!hotelAvailability.getRooms().isEmpty()) {
+                availability.add(hotelAvailability);
+            }
+        }
+        return availability;
+    }
+
+    /**
+     * Stops the background threads of all hotels
+     */
+    @PreDestroy
+    public void stop() {
+        searchExecutor.shutdownNow();
+        holdExpiryScheduler.shutdownNow();
+        housekeepingWorkers.shutdownNow();
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,176 @@
+package eu.deltasource.internship.hotel.service;
+
+import eu.deltasource.internship.hotel.domain.CleaningTask;
+import eu.deltasource.internship.hotel.domain.Room;
+import eu.deltasource.internship.hotel.domain.commodity.AbstractCommodity;
+import eu.deltasource.internship.hotel.domain.commodity.PreparationSink;
+import eu.deltasource.internship.hotel.exception.ItemNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents services for cleaning the rooms after checkouts.
+ * <p>
+ * The plan of a day is read from the departure index of the bookings.
+ * Rooms with the nearest next arrival are cleaned first, the plan is
+ * split into batches, which run on a bounded pool of workers.
+ */
+@Service
+public class HousekeepingService {
+
+    public static final int BATCH_SIZE = 50;
+
+    private static final int MAX_WORKERS = 4;
+    private static final int MAX_QUEUED_BATCHES = 64;
+
+    private static final Comparator<CleaningTask> PRIORITY = Comparator
+            .comparing(CleaningTask::getNextArrival, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingInt(CleaningTask::getRoomId);
+
+    private final BookingService bookingService;
+    private final RoomService roomService;
+    private final PreparationSink sink;
+    private ExecutorService ownWorkers;
+    private ExecutorService workers;
+
+    /**
+     * This is a constructor
+     *
+     * @param bookingService the booking service
+     * @param roomService    the room service
+     * @param sink           the receiver of the done work
+     */
+    @Autowired
+    public HousekeepingService(BookingService bookingService, RoomService roomService, PreparationSink sink) {
+        this.bookingService = bookingService;
+        this.roomService = roomService;
+        this.sink = sink;
+    }
+
+    /**
+     * Starts the workers
+     */
+    @PostConstruct
+    public void start() {
+        ownWorkers = newWorkerPool("housekeeping");
+        start(ownWorkers);
+    }
+
+    /**
+     * Starts the housekeeping on a shared pool of workers
+     *
+     * @param workers the workers, which run the batches
+     */
+    public void start(ExecutorService workers) {
+        this.workers = workers;
+    }
+
+    /**
+     * Stops the own workers
+     */
+    @PreDestroy
+    public void stop() {
+        if (ownWorkers != null) {
+            ownWorkers.shutdownNow();
+        }
+    }
+
+    /**
+     * Gets the receiver of the done work
+     */
+    public PreparationSink getSink() {
+        return sink;
+    }
+
+    /**
+     * Plans the cleaning of the rooms, which are left on the given day
+     *
+     * @param day day of the departures
+     * @return cleaning tasks, the most urgent first
+     */
+    public List<CleaningTask> plan(LocalDate day) {
+        List<CleaningTask> tasks = bookingService.findTurnovers(day);
+        tasks.sort(PRIORITY);
+        return tasks;
+    }
+
+    /**
+     * Splits the plan of the day into batches, the most urgent first
+     *
+     * @param day day of the departures
+     * @return batches of at most {@link #BATCH_SIZE} tasks
+     */
+    public List<List<CleaningTask>> planBatches(LocalDate day) {
+        List<CleaningTask> tasks = plan(day);
+        List<List<CleaningTask>> batches = new ArrayList<>();
+        for (int from = 0; from < tasks.size(); from += BATCH_SIZE) {
+            batches.add(tasks.subList(from, Math.min(from + BATCH_SIZE, tasks.size())));
+        }
+        return batches;
+    }
+
+    /**
+     * Cleans the rooms, which are left on the given day.
+     * When all workers are busy, the caller runs the next batch itself.
+     *
+     * @param day day of the departures
+     * @return number of cleaned rooms, once all batches are done
+     */
+    public CompletableFuture<Integer> run(LocalDate day) {
+        if (workers == null) {
+            throw new IllegalStateException("The housekeeping is not started!");
+        }
+        List<CompletableFuture<Integer>> batches = new ArrayList<>();
+        for (List<CleaningTask> batch : planBatches(day)) {
+            batches.add(CompletableFuture.supplyAsync(() -> clean(batch), workers));
+        }
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0]))
+                .thenApply(done -> batches.stream().mapToInt(CompletableFuture::join).sum());
+    }
+
+    private int clean(List<CleaningTask> batch) {
+        int cleaned = 0;
+        for (CleaningTask task : batch) {
+            Room room;
+            try {
+                room = roomService.findById(task.getRoomId());
+            } catch (ItemNotFoundException e) {
+                continue;
+            }
+            for (AbstractCommodity commodity : room.getCommodities()) {
+                commodity.prepare(room.getRoomId(), sink);
+            }
+            cleaned++;
+        }
+        return cleaned;
+    }
+
+    /**
+     * Creates a bounded pool of workers, a full pool makes the caller run the batch
+     *
+     * @param name prefix of the names of the threads
+     */
+    static ExecutorService newWorkerPool(String name) {
+        int size = Math.min(MAX_WORKERS, Runtime.getRuntime().availableProcessors());
+        AtomicInteger count = new AtomicInteger();
+        return new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_BATCHES), runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
@@ -0,0 +1,255 @@
+package eu.deltasource.internship.hotel.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import eu.deltasource.internship.hotel.dto.IdempotencyStatsDTO;
+import eu.deltasource.internship.hotel.exception.IdempotencyKeyReusedException;
+import eu.deltasource.internship.hotel.exception.InvalidArgumentException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Represents services for idempotent requests.
+ * <p>
+ * A client sends the same key with every retry of a request. The response
+ * of the first successful execution is stored under the key, so retries are
+ * answered from the cache without executing the request again. Retries, which
+ * arrive while the first execution is still running, wait for its outcome.
+ * Failures are not stored, so a retry after a failure executes the request again.
+ * A fingerprint of the request body is stored with the key, a key sent again
+ * with a different body is rejected instead of being answered with the response
+ * to another request.
+ * <p>
+ * Responses are kept for a fixed time and in insertion order, so the oldest
+ * response is both the next to expire and the next to be evicted when the
+ * cache is full. Responses still being executed are never dropped, so their
+ * retries keep waiting for them instead of executing the request again.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final ObjectWriter FINGERPRINT_WRITER = Jackson2ObjectMapperBuilder.json()
+            .featuresToEnable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY,
+                    SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build().writer();
+
+    private final int capacity;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<String, Entry> entries;
+    private final Queue<Entry> insertionOrder;
+    private final AtomicInteger queued;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    private final LongAdder expirations;
+
+    /**
+     * This is a constructor
+     *
+     * @param capacity   maximum number of stored responses
+     * @param ttlSeconds time in seconds, for which a response is stored
+     */
+    @Autowired
+    public IdempotencyService(@Value("${hotel.idempotency.capacity:10000}") int capacity,
+                              @Value("${hotel.idempotency.ttl-seconds:86400}") long ttlSeconds) {
+        this(capacity, Duration.ofSeconds(ttlSeconds), Clock.systemUTC());
+    }
+
+    /**
+     * This is a constructor
+     *
+     * @param capacity maximum number of stored responses
+     * @param ttl      time, for which a response is stored
+     * @param clock    the clock used for expiry
+     */
+    public IdempotencyService(int capacity, Duration ttl, Clock clock) {
+        if (capacity <= 0 || ttl.isNegative() || ttl.isZero()) {
+            throw new InvalidArgumentException("Invalid idempotency cache settings!");
+        }
+        this.capacity = capacity;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.entries = new ConcurrentHashMap<>();
+        this.insertionOrder = new ConcurrentLinkedQueue<>();
+        this.queued = new AtomicInteger();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+        this.expirations = new LongAdder();
+    }
+
+    /**
+     * Executes a request without a body once per key
+     *
+     * @param key       the key sent by the client, null when the request is not idempotent
+     * @param operation the endpoint of the request, keys of different endpoints never collide
+     * @param request   executes the request
+     * @param <T>       type of the response
+     * @return the response of the first successful execution with this key
+     */
+    public <T> T execute(String key, String operation, Supplier<T> request) {
+        return execute(key, operation, null, request);
+    }
+
+    /**
+     * Executes a request once per key
+     *
+     * @param key       the key sent by the client, null when the request is not idempotent
+     * @param operation the endpoint of the request, keys of different endpoints never collide
+     * @param body      the body of the request, a retry must send the same body
+     * @param request   executes the request
+     * @param <T>       type of the response
+     * @return the response of the first successful execution with this key
+     * @throws IdempotencyKeyReusedException when the key was sent with a different body
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, String operation, Object body, Supplier<T> request) {
+        if (key == null) {
+            return request.get();
+        }
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidArgumentException("Invalid idempotency key!");
+        }
+        String cacheKey = operation + " " + key;
+        long now = clock.millis();
+        Entry created = new Entry(cacheKey, now + ttlMillis, fingerprint(body));
+        while (true) {
+            Entry entry = entries.putIfAbsent(cacheKey, created);
+            if (entry == null) {
+                misses.increment();
+                insertionOrder.add(created);
+                queued.incrementAndGet();
+                trim(now);
+                return run(created, request);
+            }
+            if (entry.expiresAt <= now && entry.response.isDone()) {
+                if (entries.remove(cacheKey, entry)) {
+                    expirations.increment();
+                }
+                continue;
+            }
+            if (!MessageDigest.isEqual(entry.fingerprint, created.fingerprint)) {
+                throw new IdempotencyKeyReusedException("The idempotency key was already used with another request!");
+            }
+            hits.increment();
+            return (T) join(entry.response);
+        }
+    }
+
+    /**
+     * Gets the size, hit rate and evictions of the cache
+     */
+    public IdempotencyStatsDTO stats() {
+        return new IdempotencyStatsDTO(entries.size(), capacity, hits.sum(), misses.sum(), evictions.sum(),
+                expirations.sum());
+    }
+
+    /**
+     * Names the endpoint of a request, the default hotel has a single name for both of its paths
+     *
+     * @param hotelId  hotel's id or null for the default hotel
+     * @param endpoint path of the endpoint within the hotel
+     * @return name of the endpoint
+     */
+    public static String operation(Integer hotelId, String endpoint) {
+        return (hotelId == null ? HotelService.DEFAULT_HOTEL_ID : hotelId) + endpoint;
+    }
+
+    private <T> T run(Entry entry, Supplier<T> request) {
+        try {
+            T response = request.get();
+            entry.response.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            entries.remove(entry.key, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the expired responses and the oldest ones above the capacity,
+     * the requests still being executed are skipped
+     */
+    private void trim(long now) {
+        Iterator<Entry> iterator = insertionOrder.iterator();
+        while (iterator.hasNext()) {
+            Entry oldest = iterator.next();
+            if (queued.get() <= capacity && oldest.expiresAt > now) {
+                // the later entries expire even later
+                return;
+            }
+            if (!oldest.response.isDone() || !oldest.trimmed.compareAndSet(false, true)) {
+                continue;
+            }
+            iterator.remove();
+            queued.decrementAndGet();
+            if (entries.remove(oldest.key, oldest)) {
+                if (oldest.expiresAt <= now) {
+                    expirations.increment();
+                } else {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    private static byte[] fingerprint(Object body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(FINGERPRINT_WRITER.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new InvalidArgumentException("The request can not be fingerprinted!");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static final class Entry {
+
+        private final String key;
+        private final long expiresAt;
+        private final byte[] fingerprint;
+        private final CompletableFuture<Object> response = new CompletableFuture<>();
+        private final AtomicBoolean trimmed = new AtomicBoolean();
+
+        private Entry(String key, long expiresAt, byte[] fingerprint) {
+            this.key = key;
+            this.expiresAt = expiresAt;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package eu.deltasource.internship.hotel.service;
+
+import eu.deltasource.internship.hotel.domain.commodity.AbstractCommodity;
+import eu.deltasource.internship.hotel.domain.commodity.PreparationSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default receiver of the housekeeping work, which writes it to the log.
+ * Declare another {@link PreparationSink} bean to send the work elsewhere.
+ */
+@Component
+public class LoggingPreparationSink implements PreparationSink {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoggingPreparationSink.class);
+
+    @Override
+    public void accept(int roomId, AbstractCommodity commodity, String task) {
+        LOGGER.info("Room {}, commodity {}: {}", roomId, commodity.getInventoryId(), task);
+    }
+}
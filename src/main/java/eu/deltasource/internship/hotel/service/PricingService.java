@@ -0,0 +1,287 @@
+package eu.deltasource.internship.hotel.service;
+
+import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.domain.ChangeEvent;
+import eu.deltasource.internship.hotel.domain.CommoditySummary;
+import eu.deltasource.internship.hotel.domain.Room;
+import eu.deltasource.internship.hotel.domain.commodity.BedType;
+import eu.deltasource.internship.hotel.dto.QuoteDTO;
+import eu.deltasource.internship.hotel.exception.InvalidArgumentException;
+import eu.deltasource.internship.hotel.exception.ItemNotFoundException;
+import eu.deltasource.internship.hotel.repository.BookingRepository;
+import eu.deltasource.internship.hotel.repository.RoomRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Represents services for the prices of stays.
+ * <p>
+ * The nightly rate of a room is its base rate, given by its beds and
+ * bathroom, raised by the occupancy of the hotel in that night. Base rates
+ * and the occupancy rate of every booked night are kept in a rate table,
+ * which is updated from the change events on a delivery thread of the event
+ * log - a change of a booking touches only the nights of that booking.
+ * A quote reads one entry per night and never takes a lock, so its cost
+ * does not depend on the number of bookings or on concurrent writers.
+ */
+@Service
+public class PricingService {
+
+    /**
+     * Base rate of the beds in cents per night
+     */
+    public static final Map<BedType, Long> BED_RATES = Collections.unmodifiableMap(bedRates());
+    public static final long SHOWER_RATE = 1000;
+    public static final long TOILET_RATE = 500;
+
+    /**
+     * Surcharge in basis points, when all rooms are booked for a night
+     */
+    public static final int FULL_OCCUPANCY_SURCHARGE = 5000;
+
+    private static final int BASIS_POINTS = 10000;
+    private static final long CATCH_UP_TIMEOUT_MILLIS = 5000;
+
+    private final BookingRepository bookingRepository;
+    private final RoomRepository roomRepository;
+    private final ChangeEventLog eventLog;
+    private final Map<Integer, Stay> stays = new HashMap<>();
+    private volatile RateTable rateTable;
+    private volatile long sequence;
+
+    /**
+     * This is a constructor
+     *
+     * @param bookingRepository the booking repository
+     * @param roomRepository    the room repository
+     * @param eventLog          the log of the changes
+     */
+    @Autowired
+    public PricingService(BookingRepository bookingRepository, RoomRepository roomRepository,
+                          ChangeEventLog eventLog) {
+        this.bookingRepository = bookingRepository;
+        this.roomRepository = roomRepository;
+        this.eventLog = eventLog;
+        long start = eventLog.lastSequence();
+        rebuild();
+        publish(start);
+        eventLog.subscribe(start, this::apply);
+    }
+
+    /**
+     * Prices a stay in a room
+     *
+     * @param roomId room's id
+     * @param from   first night of the stay
+     * @param to     date of departure
+     * @return the rate of every night and the total price
+     */
+    public QuoteDTO quote(int roomId, LocalDate from, LocalDate to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidArgumentException("Invalid dates");
+        }
+        RateTable table = rateTable;
+        Long baseRate = table.baseRates.get(roomId);
+        if (baseRate == null) {
+            throw new ItemNotFoundException("Room with id " + roomId + " does not exist!");
+        }
+        List<BigDecimal> nightlyRates = new ArrayList<>();
+        long total = 0;
+        for (LocalDate night = from; night.isBefore(to); night = night.plusDays(1)) {
+            long rate = rate(baseRate, table.multipliers.getOrDefault(night, BASIS_POINTS));
+            nightlyRates.add(BigDecimal.valueOf(rate, 2));
+            total += rate;
+        }
+        return new QuoteDTO(roomId, from, to, nightlyRates, BigDecimal.valueOf(total, 2));
+    }
+
+    /**
+     * Gets the base rate of a room from its commodities
+     *
+     * @param room the room
+     * @return rate in cents per night
+     */
+    public static long baseRate(Room room) {
+        CommoditySummary summary = room.getSummary();
+        long rate = summary.getShowers() * SHOWER_RATE + summary.getToilets() * TOILET_RATE;
+        for (Map.Entry<BedType, Integer> beds : summary.getBedCounts().entrySet()) {
+            rate += BED_RATES.get(beds.getKey()) * beds.getValue();
+        }
+        return rate;
+    }
+
+    /**
+     * Waits until the rate table contains all changes published so far
+     */
+    void catchUp() {
+        long target = eventLog.lastSequence();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CATCH_UP_TIMEOUT_MILLIS);
+        synchronized (this) {
+            long remaining;
+            while (sequence < target && (remaining = deadline - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void apply(ChangeEventLog.Page page) {
+        if (page.isResync()) {
+            rebuild();
+            publish(page.getLastSequence());
+            return;
+        }
+        for (ChangeEvent event : page.getEvents()) {
+            if (event.getEntity() == ChangeEvent.Entity.GUEST) {
+                continue;
+            }
+            if (event.getEntityId() == null) {
+                rebuild();
+            } else if (event.getEntity() == ChangeEvent.Entity.BOOKING) {
+                updateBooking(event.getEntityId());
+            } else {
+                updateRoom(event.getEntityId());
+            }
+        }
+        publish(page.getEvents().get(page.getEvents().size() - 1).getSequence());
+    }
+
+    private void updateBooking(int bookingId) {
+        Stay previous = stays.remove(bookingId);
+        if (previous != null) {
+            book(rateTable, previous, -1);
+        }
+        Booking current = load(() -> bookingRepository.findById(bookingId));
+        if (current != null) {
+            Stay stay = new Stay(current);
+            stays.put(bookingId, stay);
+            book(rateTable, stay, 1);
+        }
+    }
+
+    private void updateRoom(int roomId) {
+        RateTable table = rateTable;
+        Room room = load(() -> roomRepository.findById(roomId));
+        if (room == null) {
+            table.baseRates.remove(roomId);
+        } else {
+            table.baseRates.put(roomId, baseRate(room));
+        }
+        if (table.roomCount != table.baseRates.size()) {
+            // the occupancy of every booked night changes with the number of rooms
+            table.roomCount = table.baseRates.size();
+            for (Map.Entry<LocalDate, Integer> night : table.bookedRooms.entrySet()) {
+                table.multipliers.put(night.getKey(), multiplier(night.getValue(), table.roomCount));
+            }
+        }
+    }
+
+    private void rebuild() {
+        RateTable table = new RateTable();
+        for (Room room : roomRepository.findAll()) {
+            table.baseRates.put(room.getRoomId(), baseRate(room));
+        }
+        table.roomCount = table.baseRates.size();
+        stays.clear();
+        for (Booking booking : bookingRepository.findAll()) {
+            Stay stay = new Stay(booking);
+            stays.put(booking.getBookingId(), stay);
+            book(table, stay, 1);
+        }
+        rateTable = table;
+    }
+
+    /**
+     * Adds or removes the stay from the occupancy of its nights
+     */
+    private static void book(RateTable table, Stay stay, int delta) {
+        for (LocalDate night = stay.from; night.isBefore(stay.to); night = night.plusDays(1)) {
+            int booked = table.bookedRooms.merge(night, delta, Integer::sum);
+            if (booked <= 0) {
+                table.bookedRooms.remove(night);
+                table.multipliers.remove(night);
+            } else {
+                table.multipliers.put(night, multiplier(booked, table.roomCount));
+            }
+        }
+    }
+
+    /**
+     * Gets the multiplier of the nightly rates in basis points
+     */
+    private static int multiplier(int bookedRooms, int roomCount) {
+        if (roomCount == 0) {
+            return BASIS_POINTS + FULL_OCCUPANCY_SURCHARGE;
+        }
+        return BASIS_POINTS + FULL_OCCUPANCY_SURCHARGE * Math.min(bookedRooms, roomCount) / roomCount;
+    }
+
+    private static long rate(long baseRate, int multiplier) {
+        return (baseRate * multiplier + BASIS_POINTS / 2) / BASIS_POINTS;
+    }
+
+    private static <T> T load(Supplier<T> loader) {
+        try {
+            return loader.get();
+        } catch (ItemNotFoundException e) {
+            return null;
+        }
+    }
+
+    private void publish(long appliedSequence) {
+        sequence = appliedSequence;
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    private static Map<BedType, Long> bedRates() {
+        Map<BedType, Long> rates = new EnumMap<>(BedType.class);
+        rates.put(BedType.SINGLE, 4000L);
+        rates.put(BedType.DOUBLE, 6000L);
+        rates.put(BedType.KING_SIZE, 8000L);
+        return rates;
+    }
+
+    /**
+     * Base rates of the rooms and occupancy multipliers of the booked nights.
+     * Written by the delivery thread only, read by any number of quotes.
+     */
+    private static final class RateTable {
+
+        private final Map<Integer, Long> baseRates = new ConcurrentHashMap<>();
+        private final Map<LocalDate, Integer> bookedRooms = new HashMap<>();
+        private final Map<LocalDate, Integer> multipliers = new ConcurrentHashMap<>();
+        private int roomCount;
+    }
+
+    /**
+     * Dates of a booking as they were last priced
+     */
+    private static final class Stay {
+
+        private final LocalDate from;
+        private final LocalDate to;
+
+        private Stay(Booking booking) {
+            this.from = booking.getFrom();
+            this.to = booking.getTo();
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package eu.deltasource.internship.hotel.service;
+
+import eu.deltasource.internship.hotel.domain.ChangeEvent;
+import eu.deltasource.internship.hotel.exception.ItemNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Immutable view of the items of one kind, which serves the reads.
+ * <p>
+ * The view is rebuilt from the change events of the items on a delivery
+ * thread of the event log. The events read at once are applied to the last
+ * snapshot and published as a new one, so reads never take the repository
+ * lock and never wait for writers. The items are kept in chunks of adjacent
+ * ids, a new snapshot copies only the chunks with changed items and shares
+ * the others, so publishing costs as much as the change, not the whole view.
+ * Writers wait for the view to catch up with their changes, so a client
+ * reads its own writes. The wait is bounded, a write is never failed by
+ * a late view, and a batch of changes, which can not be applied, makes the
+ * view reload all items instead of stopping to follow the log.
+ *
+ * @param <T> type of the items
+ */
+class ReadModel<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReadModel.class);
+
+    private static final long CATCH_UP_TIMEOUT_MILLIS = 5000;
+    private static final int CHUNK_BITS = 6;
+
+    private final ChangeEvent.Entity entity;
+    private final ChangeEventLog eventLog;
+    private final IntFunction<T> loader;
+    private final Supplier<List<T>> fullLoader;
+    private final ToIntFunction<T> idOf;
+    private final UnaryOperator<T> copier;
+    private final NavigableMap<Integer, T> changes = new TreeMap<>();
+    private Snapshot<T> working;
+    private volatile Snapshot<T> snapshot;
+
+    /**
+     * This is a constructor
+     *
+     * @param entity     kind of the items
+     * @param eventLog   the log of the changes
+     * @param loader     reads the current item with the given id
+     * @param fullLoader reads all current items
+     * @param idOf       gets the id of an item
+     * @param copier     copies an item
+     */
+    ReadModel(ChangeEvent.Entity entity, ChangeEventLog eventLog, IntFunction<T> loader,
+              Supplier<List<T>> fullLoader, ToIntFunction<T> idOf, UnaryOperator<T> copier) {
+        this.entity = entity;
+        this.eventLog = eventLog;
+        this.loader = loader;
+        this.fullLoader = fullLoader;
+        this.idOf = idOf;
+        this.copier = copier;
+        long sequence = eventLog.lastSequence();
+        reload();
+        publish(sequence);
+        eventLog.subscribe(sequence, this::apply);
+    }
+
+    /**
+     * Gets all items ordered by id.
+     * The items are shared between readers and must not be changed.
+     */
+    List<T> findAll() {
+        return snapshot;
+    }
+
+    /**
+     * Gets a copy of the item with the given id
+     *
+     * @return the found item or null
+     */
+    T findById(int id) {
+        T item = snapshot.find(id);
+        return item == null ? null : copier.apply(item);
+    }
+
+    boolean existsById(int id) {
+        return snapshot.find(id) != null;
+    }
+
+    /**
+     * Waits until the view contains all changes published so far,
+     * gives up with a warning when it does not catch up in time
+     */
+    void catchUp() {
+        long sequence = eventLog.lastSequence();
+        if (snapshot.sequence >= sequence) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CATCH_UP_TIMEOUT_MILLIS);
+        synchronized (this) {
+            while (snapshot.sequence < sequence) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    // the change is stored already, only its visibility is late
+                    LOGGER.warn("The {} view is at {}, it did not reach {} in {} ms", entity, snapshot.sequence,
+                        sequence, CATCH_UP_TIMEOUT_MILLIS);
+                    return;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void apply(ChangeEventLog.Page page) {
+        try {
+            applyChanges(page);
+        } catch (RuntimeException e) {
+            LOGGER.error("The {} view could not apply the changes up to {}, it is reloaded", entity,
+                page.getLastSequence(), e);
+            try {
+                reload();
+                publish(page.getLastSequence());
+            } catch (RuntimeException reloadFailure) {
+                // the next change tries again
+                changes.clear();
+                LOGGER.error("The {} view could not be reloaded", entity, reloadFailure);
+            }
+        }
+    }
+
+    private void applyChanges(ChangeEventLog.Page page) {
+        long sequence = page.getLastSequence();
+        if (page.isResync()) {
+            reload();
+        } else {
+            for (ChangeEvent event : page.getEvents()) {
+                if (event.getEntity() != entity) {
+                    continue;
+                }
+                if (event.getEntityId() == null) {
+                    reload();
+                } else {
+                    changes.put(event.getEntityId(), load(event.getEntityId()));
+                }
+            }
+            sequence = page.getEvents().get(page.getEvents().size() - 1).getSequence();
+        }
+        // every page is published, so a steady stream of writes can not hold the view back
+        publish(sequence);
+    }
+
+    private T load(int id) {
+        try {
+            return loader.apply(id);
+        } catch (ItemNotFoundException e) {
+            return null;
+        }
+    }
+
+    private void reload() {
+        changes.clear();
+        TreeMap<Integer, T> items = new TreeMap<>();
+        for (T item : fullLoader.get()) {
+            items.put(idOf.applyAsInt(item), copier.apply(item));
+        }
+        working = Snapshot.of(items, idOf);
+    }
+
+    private void publish(long sequence) {
+        working = working.with(changes, idOf, sequence);
+        changes.clear();
+        snapshot = working;
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Immutable list of the items, kept in chunks of adjacent ids
+     */
+    private static final class Snapshot<T> extends AbstractList<T> implements RandomAccess {
+
+        private final int[] keys;
+        private final Object[][] chunks;
+        private final int[] ends;
+        private final ToIntFunction<T> idOf;
+        private final long sequence;
+
+        private Snapshot(int[] keys, Object[][] chunks, ToIntFunction<T> idOf, long sequence) {
+            this.keys = keys;
+            this.chunks = chunks;
+            this.idOf = idOf;
+            this.sequence = sequence;
+            ends = new int[chunks.length];
+            int end = 0;
+            for (int i = 0; i < chunks.length; i++) {
+                end += chunks[i].length;
+                ends[i] = end;
+            }
+        }
+
+        private static <T> Snapshot<T> of(NavigableMap<Integer, T> items, ToIntFunction<T> idOf) {
+            return new Snapshot<T>(new int[0], new Object[0][], idOf, 0).with(items, idOf, 0);
+        }
+
+        /**
+         * Builds the snapshot with the given changes, which shares the unchanged chunks with this one
+         *
+         * @param changes the changed items by id, null for a removed item
+         */
+        private Snapshot<T> with(NavigableMap<Integer, T> changes, ToIntFunction<T> idOf, long sequence) {
+            if (changes.isEmpty()) {
+                return new Snapshot<>(keys, chunks, idOf, sequence);
+            }
+            int[] newKeys = new int[keys.length + changes.size()];
+            Object[][] newChunks = new Object[newKeys.length][];
+            int count = 0;
+            int index = 0;
+            Iterator<Map.Entry<Integer, T>> changed = changes.entrySet().iterator();
+            Map.Entry<Integer, T> change = changed.next();
+            while (change != null) {
+                int key = change.getKey() >> CHUNK_BITS;
+                while (index < keys.length && keys[index] < key) {
+                    newKeys[count] = keys[index];
+                    newChunks[count++] = chunks[index++];
+                }
+                Object[] chunk = index < keys.length && keys[index] == key ? chunks[index++] : new Object[0];
+                List<Object> merged = new ArrayList<>(chunk.length + 1);
+                int position = 0;
+                while (change != null && change.getKey() >> CHUNK_BITS == key) {
+                    int id = change.getKey();
+                    while (position < chunk.length && id(chunk[position]) < id) {
+                        merged.add(chunk[position++]);
+                    }
+                    if (position < chunk.length && id(chunk[position]) == id) {
+                        position++;
+                    }
+                    if (change.getValue() != null) {
+                        merged.add(change.getValue());
+                    }
+                    change = changed.hasNext() ? changed.next() : null;
+                }
+                merged.addAll(Arrays.asList(chunk).subList(position, chunk.length));
+                if (!merged.isEmpty()) {
+                    newKeys[count] = key;
+                    newChunks[count++] = merged.toArray();
+                }
+            }
+            while (index < keys.length) {
+                newKeys[count] = keys[index];
+                newChunks[count++] = chunks[index++];
+            }
+            return new Snapshot<>(Arrays.copyOf(newKeys, count), Arrays.copyOf(newChunks, count), idOf, sequence);
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+            }
+            int chunk = Arrays.binarySearch(ends, index + 1);
+            chunk = chunk < 0 ? -chunk - 1 : chunk;
+            return item(chunks[chunk][index - (chunk == 0 ? 0 : ends[chunk - 1])]);
+        }
+
+        @Override
+        public int size() {
+            return ends.length == 0 ? 0 : ends[ends.length - 1];
+        }
+
+        private T find(int id) {
+            int chunk = Arrays.binarySearch(keys, id >> CHUNK_BITS);
+            if (chunk < 0) {
+                return null;
+            }
+            Object[] items = chunks[chunk];
+            int low = 0;
+            int high = items.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int itemId = id(items[middle]);
+                if (itemId < id) {
+                    low = middle + 1;
+                } else if (itemId > id) {
+                    high = middle - 1;
+                } else {
+                    return item(items[middle]);
+                }
+            }
+            return null;
+        }
+
+        private int id(Object item) {
+            return idOf.applyAsInt(item(item));
+        }
+
+        @SuppressWarnings("unchecked")
+        private T item(Object item) {
+            return (T) item;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package eu.deltasource.internship.hotel.service;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Per room locks for changes of the room's bookings.
+ * <p>
+ * Rooms are always locked in ascending id order,
+ * so operations over several rooms can not deadlock.
+ */
+class RoomLocks {
+
+    private final Map<Integer, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the action while holding the locks of all given rooms
+     *
+     * @param roomIds ids of the rooms
+     * @param action  the action
+     * @param <T>     type of the result
+     * @return result of the action
+     */
+    <T> T withRooms(Collection<Integer> roomIds, Supplier<T> action) {
+        Deque<ReentrantLock> acquired = new ArrayDeque<>();
+        try {
+            for (int roomId : new TreeSet<>(roomIds)) {
+                ReentrantLock lock = locks.computeIfAbsent(roomId, id -> new ReentrantLock());
+                lock.lock();
+                acquired.push(lock);
+            }
+            return action.get();
+        } finally {
+            while (!acquired.isEmpty()) {
+                acquired.pop().unlock();
+            }
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package eu.deltasource.internship.hotel.service;
 
+import eu.deltasource.internship.hotel.domain.ChangeEvent;
 import eu.deltasource.internship.hotel.domain.Room;
 import eu.deltasource.internship.hotel.domain.commodity.AbstractCommodity;
-import eu.deltasource.internship.hotel.domain.commodity.Bed;
-import eu.deltasource.internship.hotel.domain.commodity.Shower;
-import eu.deltasource.internship.hotel.domain.commodity.Toilet;
-import eu.deltasource.internship.hotel.dto.*;
+import eu.deltasource.internship.hotel.domain.commodity.BedType;
+import eu.deltasource.internship.hotel.dto.AbstractCommodityDTO;
+import eu.deltasource.internship.hotel.dto.CommodityConverter;
 import eu.deltasource.internship.hotel.exception.InvalidArgumentException;
 import eu.deltasource.internship.hotel.exception.ItemNotFoundException;
 import eu.deltasource.internship.hotel.repository.RoomRepository;
@@ -23,15 +23,30 @@ import java.util.*;
 public class RoomService {
 
     private final RoomRepository roomRepository;
+    private final ChangeEventLog eventLog;
+    private final ReadModel<Room> readModel;
 
     /**
      * This is a constructor
      *
      * @param roomRepository room repository
      */
-    @Autowired
     public RoomService(RoomRepository roomRepository) {
+        this(roomRepository, new ChangeEventLog());
+    }
+
+    /**
+     * This is a constructor
+     *
+     * @param roomRepository room repository
+     * @param eventLog       the log, which the changes are published to
+     */
+    @Autowired
+    public RoomService(RoomRepository roomRepository, ChangeEventLog eventLog) {
         this.roomRepository = roomRepository;
+        this.eventLog = eventLog;
+        this.readModel = new ReadModel<>(ChangeEvent.Entity.ROOM, eventLog, roomRepository::findById,
+                roomRepository::findAll, Room::getRoomId, Room::new);
     }
 
     /**
@@ -40,7 +55,7 @@ public class RoomService {
      * @return list of all existing rooms
      */
     public List<Room> findAll() {
-        return roomRepository.findAll();
+        return readModel.findAll();
     }
 
     /**
@@ -50,10 +65,70 @@ public class RoomService {
      * @return copy of the found room object
      */
     public Room findById(int id) {
+        Room room = readModel.findById(id);
+        if (room == null) {
+            throw new ItemNotFoundException("Room with id " + id + " does not exist!");
+        }
+        return room;
+    }
+
+    /**
+     * Checks if a room with the given id exists
+     *
+     * @param id room's id
+     * @return true if the room exists
+     */
+    public boolean existsById(int id) {
+        return roomRepository.existsById(id);
+    }
+
+    /**
+     * Gets the capacity of a room without copying it
+     *
+     * @param id room's id
+     * @return the capacity of the room
+     */
+    public int findCapacityById(int id) {
         if (!roomRepository.existsById(id)) {
             throw new ItemNotFoundException("Room with id " + id + " does not exist!");
         }
-        return roomRepository.findById(id);
+        return roomRepository.findCapacityById(id);
+    }
+
+    /**
+     * Gets the ids of all rooms, which can accommodate
+     * at least the given number of people, smallest rooms first
+     *
+     * @param capacity minimum number of people
+     * @return list of room ids
+     */
+    public List<Integer> findIdsByMinimumCapacity(int capacity) {
+        return roomRepository.findIdsByMinimumCapacity(capacity);
+    }
+
+    /**
+     * Searches rooms by minimum capacity and bed type,
+     * both criteria are optional
+     *
+     * @param capacity minimum number of people or null
+     * @param bedType  required bed type or null
+     * @return list of the matching rooms
+     */
+    public List<Room> search(Integer capacity, BedType bedType) {
+        if (capacity != null && capacity < 0) {
+            throw new InvalidArgumentException("Invalid capacity!");
+        }
+        if (capacity == null && bedType == null) {
+            return findAll();
+        }
+        if (bedType == null) {
+            return roomRepository.findByMinimumCapacity(capacity);
+        }
+        List<Room> rooms = roomRepository.findByBedType(bedType);
+        if (capacity != null) {
+            rooms.removeIf(room -> room.getRoomCapacity() < capacity);
+        }
+        return rooms;
     }
 
     /**
@@ -64,8 +139,10 @@ public class RoomService {
      */
     public Room save(Room room) {
         validateRoom(room);
-        roomRepository.save(room);
-        return findById(roomRepository.count());
+        Room saved = roomRepository.save(room);
+        publish(ChangeEvent.Action.CREATED, saved.getRoomId());
+        readModel.catchUp();
+        return saved;
     }
 
     /**
@@ -76,7 +153,7 @@ public class RoomService {
      */
     public List<Room> saveAll(List<Room> rooms) {
         validateRoomList(rooms);
-        roomRepository.saveAll(rooms);
+        publishCreated(roomRepository.saveAll(rooms));
         return findAll();
     }
 
@@ -88,7 +165,7 @@ public class RoomService {
      */
     public List<Room> saveAll(Room... rooms) {
         validateRoomList(Arrays.asList(rooms));
-        roomRepository.saveAll(rooms);
+        publishCreated(roomRepository.saveAll(rooms));
         return findAll();
     }
 
@@ -100,8 +177,11 @@ public class RoomService {
      */
     public Room updateRoom(Room room) {
         validateRoom(room);
-        findById(room.getRoomId());
-        return roomRepository.updateRoom(room);
+        loadById(room.getRoomId());
+        Room updated = roomRepository.updateRoom(room);
+        publish(ChangeEvent.Action.UPDATED, updated.getRoomId());
+        readModel.catchUp();
+        return updated;
     }
 
     /**
@@ -114,7 +194,7 @@ public class RoomService {
         if (!roomRepository.existsById(id)) {
             throw new ItemNotFoundException("Room with id " + id + " does not exist!");
         }
-        return roomRepository.deleteById(id);
+        return published(roomRepository.deleteById(id), id);
     }
 
     /**
@@ -125,7 +205,7 @@ public class RoomService {
      */
     public boolean delete(Room room) {
         validateRoom(room);
-        return roomRepository.delete(findById(room.getRoomId()));
+        return published(roomRepository.delete(loadById(room.getRoomId())), room.getRoomId());
     }
 
     /**
@@ -133,6 +213,8 @@ public class RoomService {
      */
     public void deleteAll() {
         roomRepository.deleteAll();
+        publish(ChangeEvent.Action.DELETED, null);
+        readModel.catchUp();
     }
 
     /**
@@ -162,14 +244,7 @@ public class RoomService {
         int roomId = room.getRoomId();
         Set<AbstractCommodity> roomCommodities = new HashSet<>();
         for (AbstractCommodityDTO commodityDTO : room.getCommodities()) {
-            if (commodityDTO instanceof BedDTO) {
-                Bed bed = new Bed(((BedDTO) commodityDTO).getBedType());
-                roomCommodities.add(bed);
-            } else if (commodityDTO instanceof ToiletDTO) {
-                roomCommodities.add(new Toilet());
-            } else {
-                roomCommodities.add(new Shower());
-            }
+            roomCommodities.add(CommodityConverter.convert(commodityDTO));
         }
         return new Room(roomId, roomCommodities);
     }
@@ -189,4 +264,30 @@ public class RoomService {
             throw new InvalidArgumentException("Invalid room !");
         }
     }
-}
\ No newline at end of file
+
+    private void publishCreated(List<Room> rooms) {
+        for (Room room : rooms) {
+            publish(ChangeEvent.Action.CREATED, room.getRoomId());
+        }
+        readModel.catchUp();
+    }
+
+    private boolean published(boolean deleted, int id) {
+        if (deleted) {
+            publish(ChangeEvent.Action.DELETED, id);
+            readModel.catchUp();
+        }
+        return deleted;
+    }
+
+    private Room loadById(int id) {
+        if (!roomRepository.existsById(id)) {
+            throw new ItemNotFoundException("Room with id " + id + " does not exist!");
+        }
+        return roomRepository.findById(id);
+    }
+
+    private void publish(ChangeEvent.Action action, Integer id) {
+        eventLog.publish(ChangeEvent.Entity.ROOM, action, id);
+    }
+}
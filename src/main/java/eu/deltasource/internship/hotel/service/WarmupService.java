@@ -0,0 +1,260 @@
+package eu.deltasource.internship.hotel.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.domain.Gender;
+import eu.deltasource.internship.hotel.domain.Guest;
+import eu.deltasource.internship.hotel.domain.Room;
+import eu.deltasource.internship.hotel.domain.commodity.Bed;
+import eu.deltasource.internship.hotel.domain.commodity.BedType;
+import eu.deltasource.internship.hotel.domain.commodity.Shower;
+import eu.deltasource.internship.hotel.domain.commodity.Toilet;
+import eu.deltasource.internship.hotel.exception.FailedInitializationException;
+import eu.deltasource.internship.hotel.repository.BookingHoldRepository;
+import eu.deltasource.internship.hotel.repository.BookingRepository;
+import eu.deltasource.internship.hotel.repository.GuestRepository;
+import eu.deltasource.internship.hotel.repository.RoomRepository;
+import eu.deltasource.internship.hotel.tracing.TraceRecorder;
+import eu.deltasource.internship.hotel.utility.Today;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.servlet.context.ServletWebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the warmup of the application before it reports itself ready.
+ * <p>
+ * Right after a start the booking service and the JSON serialization run
+ * interpreted, until the JIT compiler has seen them called often enough.
+ * When hotel.warmup.enabled is set, the start is followed by a number of
+ * iterations over a synthetic hotel, which is never registered: bookings are
+ * saved, read, searched and deleted, and the bookings, guests and rooms are
+ * written and read by the application's JSON mapper. Meanwhile the read
+ * endpoints of the default hotel are called over the loopback, so the
+ * servlet container, the filters and the dispatching are compiled as well,
+ * those requests are never traced. The application is ready,
+ * see GET /ready, when the warmup has finished or was not enabled.
+ */
+@Service
+public class WarmupService implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WarmupService.class);
+
+    private static final int ROOMS = 50;
+    private static final int GUESTS = 100;
+    private static final int WEEKS = 26;
+    private static final int ITERATIONS_PER_REQUEST = 4;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final TypeReference<List<Room>> ROOM_LIST = new TypeReference<List<Room>>() {
+    };
+    private static final TypeReference<List<Guest>> GUEST_LIST = new TypeReference<List<Guest>>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final TraceRecorder traceRecorder;
+    private boolean enabled;
+    private int iterations = 20000;
+    private long maxNanos = TimeUnit.SECONDS.toNanos(60);
+    private volatile int port = -1;
+    private volatile boolean ready;
+
+    /**
+     * This is a constructor
+     *
+     * @param objectMapper  the mapper of the request and response bodies
+     * @param traceRecorder the recorder of the request traces
+     */
+    @Autowired
+    public WarmupService(ObjectMapper objectMapper, TraceRecorder traceRecorder) {
+        this.objectMapper = objectMapper;
+        this.traceRecorder = traceRecorder;
+    }
+
+    @Value("${hotel.warmup.enabled:false}")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Value("${hotel.warmup.iterations:20000}")
+    public void setIterations(int iterations) {
+        if (iterations < 0) {
+            throw new FailedInitializationException("The warmup iterations can not be negative!");
+        }
+        this.iterations = iterations;
+    }
+
+    @Value("${hotel.warmup.max-seconds:60}")
+    public void setMaxSeconds(int maxSeconds) {
+        if (maxSeconds < 0) {
+            throw new FailedInitializationException("The warmup time limit can not be negative!");
+        }
+        this.maxNanos = TimeUnit.SECONDS.toNanos(maxSeconds);
+    }
+
+    @EventListener
+    public void onWebServerInitialized(ServletWebServerInitializedEvent event) {
+        port = event.getWebServer().getPort();
+    }
+
+    /**
+     * Warms up the application, if enabled, and marks it ready
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            long start = System.nanoTime();
+            int done = warmUp(iterations, start + maxNanos);
+            LOGGER.info("Warmed up with {} iterations in {} ms", done,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        ready = true;
+    }
+
+    /**
+     * Checks if the application has finished starting and warming up
+     *
+     * @return true when requests are served at full speed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Exercises the services and the mapper on a synthetic hotel
+     *
+     * @param iterations    number of bookings to save and delete
+     * @param deadlineNanos the value of {@link System#nanoTime()} to stop at
+     * @return the number of iterations done
+     */
+    int warmUp(int iterations, long deadlineNanos) {
+        ChangeEventLog eventLog = new ChangeEventLog();
+        try {
+            RoomService roomService = new RoomService(new RoomRepository(), eventLog);
+            GuestService guestService = new GuestService(new GuestRepository(), eventLog);
+            BookingService bookingService = new BookingService(new BookingRepository(),
+                    new BookingHoldRepository(), roomService, guestService, eventLog);
+            int firstDay = Today.epochDay() + 1;
+            seed(roomService, guestService, bookingService, firstDay);
+            List<URI> endpoints = port < 0 ? List.of() : endpoints(firstDay);
+            HttpClient client = endpoints.isEmpty() ? null : HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1).connectTimeout(REQUEST_TIMEOUT).build();
+            int done = 0;
+            while (done < iterations && System.nanoTime() - deadlineNanos < 0) {
+                exercise(roomService, guestService, bookingService, firstDay, done);
+                if (client != null && done % ITERATIONS_PER_REQUEST == 0
+                        && !get(client, endpoints.get(done / ITERATIONS_PER_REQUEST % endpoints.size()))) {
+                    client = null;
+                }
+                done++;
+            }
+            return done;
+        } finally {
+            eventLog.stop();
+        }
+    }
+
+    private List<URI> endpoints(int firstDay) {
+        URI server = URI.create("http://localhost:" + port);
+        String from = LocalDate.ofEpochDay(firstDay).toString();
+        String to = LocalDate.ofEpochDay(firstDay + 2).toString();
+        return List.of(server.resolve("/rooms"), server.resolve("/guests"), server.resolve("/bookings"),
+                server.resolve("/rooms/available?from=" + from + "&to=" + to + "&numberOfPeople=2"),
+                server.resolve("/calendar?from=" + from + "&days=30"), server.resolve("/hotels"));
+    }
+
+    private boolean get(HttpClient client, URI endpoint) {
+        try {
+            client.send(HttpRequest.newBuilder(endpoint).timeout(REQUEST_TIMEOUT)
+                            .header(TraceRecorder.UNTRACED_HEADER, traceRecorder.getUntracedToken()).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            return true;
+        } catch (IOException e) {
+            LOGGER.warn("The endpoints are not warmed up, {} can not be called", endpoint, e);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void seed(RoomService roomService, GuestService guestService, BookingService bookingService,
+                      int firstDay) {
+        for (int i = 1; i <= GUESTS; i++) {
+            guestService.save(new Guest(i, "Guest" + i, "Warmup" + i % 10, i % 2 == 0 ? Gender.MALE : Gender.FEMALE));
+        }
+        for (int roomId = 1; roomId <= ROOMS; roomId++) {
+            roomService.save(new Room(roomId, Set.of(new Bed(roomId % 3 == 0 ? BedType.SINGLE : BedType.DOUBLE),
+                    new Toilet(), new Shower())));
+            // a stay of 3 nights every week leaves 4 free days between the stays
+            for (int week = 0; week < WEEKS; week++) {
+                int from = firstDay + week * 7;
+                bookingService.save(new Booking(0, 1 + roomId % GUESTS, roomId, 1, from, from + 3));
+            }
+        }
+    }
+
+    private void exercise(RoomService roomService, GuestService guestService, BookingService bookingService,
+                          int firstDay, int iteration) {
+        int roomId = 1 + iteration % ROOMS;
+        int guestId = 1 + iteration % GUESTS;
+        int from = firstDay + (iteration / ROOMS % WEEKS) * 7 + 4;
+        Booking booking = bookingService.save(new Booking(0, guestId, roomId, 1, from, from + 2));
+        read(write(bookingService.findById(booking.getBookingId())), Booking.class);
+        read(write(guestService.findById(guestId)), Guest.class);
+        read(write(roomService.findById(roomId)), Room.class);
+        if (iteration % 8 == 0) {
+            bookingService.findAvailableRooms(LocalDate.ofEpochDay(from), LocalDate.ofEpochDay(from + 2), 2);
+            guestService.search("Warmup" + iteration % 10, 10, false);
+        }
+        if (iteration % 64 == 0) {
+            write(bookingService.findCalendar(LocalDate.ofEpochDay(firstDay), 30));
+            read(write(roomService.findAll()), ROOM_LIST);
+            read(write(guestService.findAll()), GUEST_LIST);
+            write(bookingService.findAll());
+        }
+        bookingService.deleteById(booking.getBookingId());
+    }
+
+    private byte[] write(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("The warmup data can not be written", e);
+        }
+    }
+
+    private void read(byte[] json, Class<?> type) {
+        try {
+            objectMapper.readValue(json, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("The warmup data can not be read", e);
+        }
+    }
+
+    private void read(byte[] json, TypeReference<?> type) {
+        try {
+            objectMapper.readValue(json, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("The warmup data can not be read", e);
+        }
+    }
+}
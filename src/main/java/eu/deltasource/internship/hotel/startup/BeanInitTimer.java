@@ -0,0 +1,102 @@
+package eu.deltasource.internship.hotel.startup;
+
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the creation of every bean.
+ * <p>
+ * A bean is timed from before its instantiation until after its initialization.
+ * The beans created meanwhile are its dependencies, their time is subtracted
+ * from its own time. The post processors, which were created before this one,
+ * are not timed.
+ */
+@Component
+public class BeanInitTimer implements InstantiationAwareBeanPostProcessor, PriorityOrdered {
+
+	private final ThreadLocal<Deque<Creation>> creations = ThreadLocal.withInitial(ArrayDeque::new);
+	private final Map<String, BeanTiming> timings = new ConcurrentHashMap<>();
+
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE;
+	}
+
+	@Override
+	public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+		creations.get().push(new Creation(beanName, System.nanoTime()));
+		return null;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		long end = System.nanoTime();
+		Deque<Creation> started = creations.get();
+		if (started.stream().noneMatch(creation -> creation.beanName.equals(beanName))) {
+			// an object made by a factory bean or a bean, which was not instantiated by the factory
+			return bean;
+		}
+		Creation creation = started.pop();
+		while (!creation.beanName.equals(beanName)) {
+			// a creation, which failed or was short-circuited
+			creation = started.pop();
+		}
+		long total = end - creation.start;
+		if (!started.isEmpty()) {
+			started.peek().dependencies += total;
+		}
+		timings.put(beanName, new BeanTiming(beanName, bean.getClass().getName(),
+			TimeUnit.NANOSECONDS.toMicros(total), TimeUnit.NANOSECONDS.toMicros(total - creation.dependencies)));
+		return bean;
+	}
+
+	/**
+	 * Gets the beans, which took the longest to create
+	 *
+	 * @param limit maximum number of beans
+	 * @return the timings, the longest own time first
+	 */
+	public List<BeanTiming> findSlowest(int limit) {
+		List<BeanTiming> slowest = new ArrayList<>(timings.values());
+		slowest.sort(Comparator.comparingLong(BeanTiming::getOwnMicros).reversed()
+			.thenComparing(BeanTiming::getBeanName));
+		return slowest.subList(0, Math.min(Math.max(limit, 0), slowest.size()));
+	}
+
+	/**
+	 * Gets the number of created beans
+	 */
+	public int getCount() {
+		return timings.size();
+	}
+
+	/**
+	 * Gets the sum of the own times of all created beans
+	 */
+	public long getTotalMicros() {
+		return timings.values().stream().mapToLong(BeanTiming::getOwnMicros).sum();
+	}
+
+	private static final class Creation {
+
+		private final String beanName;
+		private final long start;
+		private long dependencies;
+
+		private Creation(String beanName, long start) {
+			this.beanName = beanName;
+			this.start = start;
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package eu.deltasource.internship.hotel.startup;
+
+import lombok.Getter;
+
+/**
+ * Represents the time it took to create a bean.
+ * <p>
+ * The total time includes the creation of the beans it depends on,
+ * which were not created yet, the own time does not.
+ */
+@Getter
+public class BeanTiming {
+
+	private final String beanName;
+	private final String type;
+	private final long totalMicros;
+	private final long ownMicros;
+
+	/**
+	 * This is a constructor
+	 *
+	 * @param beanName    name of the bean
+	 * @param type        class of the created bean
+	 * @param totalMicros time from the instantiation until the end of the initialization
+	 * @param ownMicros   the total time without the creation of its dependencies
+	 */
+	public BeanTiming(String beanName, String type, long totalMicros, long ownMicros) {
+		this.beanName = beanName;
+		this.type = type;
+		this.totalMicros = totalMicros;
+		this.ownMicros = ownMicros;
+	}
+}
@@ -0,0 +1,70 @@
+package eu.deltasource.internship.hotel.startup;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+
+/**
+ * Defers the creation of the beans to their first use, when hotel.startup.lazy is set.
+ * <p>
+ * The controllers, the services and most of the auto-configured beans are then
+ * created by the first request, which needs them. The infrastructure beans stay
+ * eager, as do the beans whose callbacks only run for beans created at startup,
+ * and the beans, which have to run from the start, marked with {@code @Lazy(false)}.
+ */
+@Component
+public class LazyInitialization implements BeanFactoryPostProcessor, EnvironmentAware {
+
+	private boolean enabled;
+
+	@Override
+	public void setEnvironment(Environment environment) {
+		enabled = environment.getProperty("hotel.startup.lazy", Boolean.class, false);
+	}
+
+	@Override
+	public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+		if (!enabled) {
+			return;
+		}
+		for (String beanName : beanFactory.getBeanDefinitionNames()) {
+			BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+			if (isDeferrable(definition, beanFactory.getBeanClassLoader())) {
+				definition.setLazyInit(true);
+			}
+		}
+	}
+
+	static boolean isDeferrable(BeanDefinition definition, ClassLoader classLoader) {
+		if (definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE || !definition.isSingleton()) {
+			return false;
+		}
+		String typeName = definition.getBeanClassName();
+		if (definition instanceof AnnotatedBeanDefinition) {
+			AnnotatedBeanDefinition annotated = (AnnotatedBeanDefinition) definition;
+			MethodMetadata factoryMethod = annotated.getFactoryMethodMetadata();
+			AnnotatedTypeMetadata metadata = factoryMethod == null ? annotated.getMetadata() : factoryMethod;
+			if (factoryMethod != null) {
+				typeName = factoryMethod.getReturnTypeName();
+			}
+			Map<String, Object> lazy = metadata.getAnnotationAttributes(Lazy.class.getName());
+			if (lazy != null && !(Boolean) lazy.get("value")) {
+				return false;
+			}
+		}
+		// the afterSingletonsInstantiated callback is only called for beans created at startup
+		return typeName == null || !ClassUtils.isPresent(typeName, classLoader)
+			|| !SmartInitializingSingleton.class.isAssignableFrom(ClassUtils.resolveClassName(typeName, classLoader));
+	}
+}
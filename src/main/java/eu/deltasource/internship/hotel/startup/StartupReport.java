@@ -0,0 +1,93 @@
+package eu.deltasource.internship.hotel.startup;
+
+import eu.deltasource.internship.hotel.exception.FailedInitializationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reports the startup once the application is ready.
+ * <p>
+ * The time since the start of the JVM and the slowest beans are logged.
+ * When hotel.startup.report-file is set, the creation times of all beans
+ * are written to that file as CSV, the slowest first, to be compared
+ * between builds. When hotel.startup.exit is set, the application stops
+ * right after the report, which makes a training run for the class data
+ * sharing archive.
+ */
+@Component
+public class StartupReport {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StartupReport.class);
+
+	private static final int LOGGED_BEANS = 5;
+
+	private final BeanInitTimer beanInitTimer;
+	private Path file;
+	private boolean exit;
+
+	/**
+	 * This is a constructor
+	 *
+	 * @param beanInitTimer the timer of the bean creations
+	 */
+	@Autowired
+	public StartupReport(BeanInitTimer beanInitTimer) {
+		this.beanInitTimer = beanInitTimer;
+	}
+
+	@Value("${hotel.startup.report-file:}")
+	public void setFile(String file) {
+		this.file = file.isEmpty() ? null : Paths.get(file);
+	}
+
+	@Value("${hotel.startup.exit:false}")
+	public void setExit(boolean exit) {
+		this.exit = exit;
+	}
+
+	@EventListener
+	public void onApplicationReady(ApplicationReadyEvent event) {
+		long readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+		LOGGER.info("Ready {} ms after the start of the JVM, {} beans created in {} ms, the slowest: {}",
+			readyMillis, beanInitTimer.getCount(), beanInitTimer.getTotalMicros() / 1000,
+			beanInitTimer.findSlowest(LOGGED_BEANS).stream()
+				.map(timing -> timing.getBeanName() + " " + timing.getOwnMicros() / 1000 + " ms")
+				.collect(Collectors.joining(", ")));
+		if (file != null) {
+			write(readyMillis);
+		}
+		if (exit) {
+			System.exit(SpringApplication.exit(event.getApplicationContext()));
+		}
+	}
+
+	private void write(long readyMillis) {
+		List<BeanTiming> timings = beanInitTimer.findSlowest(Integer.MAX_VALUE);
+		try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8.name())) {
+			out.printf("# ready %d ms after the start of the JVM, %d beans%n", readyMillis, timings.size());
+			out.println("bean,type,own_us,total_us");
+			for (BeanTiming timing : timings) {
+				out.printf("%s,%s,%d,%d%n", timing.getBeanName(), timing.getType(), timing.getOwnMicros(),
+					timing.getTotalMicros());
+			}
+		} catch (IOException e) {
+			throw new FailedInitializationException("Can not write the startup report " + file + "!");
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package eu.deltasource.internship.hotel.tracing;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+
+/**
+ * Represents a timed phase of a traced request.
+ * <p>
+ * A span is closed by the code which opened it, usually in a try-with-resources block.
+ * The spans of requests, which are not sampled, are all the same no-op span.
+ */
+public class Span implements AutoCloseable {
+
+	static final Span NOOP = new Span(null, null, -1, -1, 0);
+
+	@JsonIgnore
+	private final Trace trace;
+	@Getter
+	private String name;
+	@Getter
+	private final int index;
+	@Getter
+	private final int parentIndex;
+	@JsonIgnore
+	@Getter
+	private final long startNanos;
+	@JsonIgnore
+	@Getter
+	private long endNanos = -1;
+
+	Span(Trace trace, String name, int index, int parentIndex, long startNanos) {
+		this.trace = trace;
+		this.name = name;
+		this.index = index;
+		this.parentIndex = parentIndex;
+		this.startNanos = startNanos;
+	}
+
+	/**
+	 * Gets the start of the span in microseconds after the start of the request
+	 */
+	public long getOffsetMicros() {
+		return trace == null ? 0 : (startNanos - trace.getStartNanos()) / 1000;
+	}
+
+	/**
+	 * Gets the duration of the span in microseconds
+	 */
+	public long getDurationMicros() {
+		return endNanos < 0 ? 0 : (endNanos - startNanos) / 1000;
+	}
+
+	/**
+	 * Ends the span, together with any of its children left open
+	 */
+	@Override
+	public void close() {
+		if (trace != null && endNanos < 0) {
+			trace.end(this, System.nanoTime());
+		}
+	}
+
+	void rename(String name) {
+		this.name = name;
+	}
+
+	void end(long nanos) {
+		endNanos = nanos;
+	}
+
+	boolean isOpen() {
+		return endNanos < 0;
+	}
+}
@@ -0,0 +1,91 @@
+package eu.deltasource.internship.hotel.tracing;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Represents the spans of a sampled request.
+ * <p>
+ * A trace is only touched by the thread serving the request.
+ * The first span is the request itself, the other spans are its phases,
+ * nested by the order in which they are opened and closed.
+ */
+public class Trace {
+
+	@Getter
+	private final String traceId;
+	@Getter
+	private final Instant start;
+	@JsonIgnore
+	@Getter
+	private final long startNanos;
+	private final List<Span> spans = new ArrayList<>();
+	private Span current;
+	@Getter
+	private int status;
+
+	Trace(String name) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		traceId = String.format("%016x%016x", random.nextLong(), random.nextLong());
+		start = Instant.now();
+		startNanos = System.nanoTime();
+		current = new Span(this, name, 0, -1, startNanos);
+		spans.add(current);
+	}
+
+	/**
+	 * Gets the name of the request
+	 */
+	public String getName() {
+		return spans.get(0).getName();
+	}
+
+	/**
+	 * Gets the duration of the request in microseconds
+	 */
+	public long getDurationMicros() {
+		return spans.get(0).getDurationMicros();
+	}
+
+	/**
+	 * Gets the spans ordered by their start
+	 */
+	public List<Span> getSpans() {
+		return Collections.unmodifiableList(spans);
+	}
+
+	Span open(String name) {
+		if (current == null) {
+			return Span.NOOP;
+		}
+		Span span = new Span(this, name, spans.size(), current.getIndex(), System.nanoTime());
+		spans.add(span);
+		current = span;
+		return span;
+	}
+
+	void end(Span span, long nanos) {
+		while (current != null && current.isOpen()) {
+			Span ended = current;
+			ended.end(nanos);
+			current = ended.getParentIndex() < 0 ? null : spans.get(ended.getParentIndex());
+			if (ended == span) {
+				break;
+			}
+		}
+	}
+
+	void finish(int status, String name) {
+		this.status = status;
+		if (name != null) {
+			spans.get(0).rename(name);
+		}
+		spans.get(0).close();
+	}
+}
@@ -0,0 +1,250 @@
+package eu.deltasource.internship.hotel.tracing;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import eu.deltasource.internship.hotel.exception.FailedInitializationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples the requests to trace and keeps the latest traces.
+ * <p>
+ * A share of the requests, set by hotel.tracing.sample-rate, is traced.
+ * The latest traces are kept for the list of the slowest recent requests.
+ * When hotel.tracing.file is set, every trace is also appended to that file
+ * as a line of OTLP JSON, the file format of the OpenTelemetry collector.
+ * The traces are written by a background thread, a full queue drops traces
+ * instead of slowing down the requests. The requests, which the application
+ * makes to itself, are kept out of the traces by the token of this recorder.
+ */
+@Component
+public class TraceRecorder {
+
+	public static final String UNTRACED_HEADER = "X-Hotel-Untraced";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TraceRecorder.class);
+
+	private static final int QUEUE_CAPACITY = 4096;
+	private static final int SPAN_KIND_INTERNAL = 1;
+	private static final int SPAN_KIND_SERVER = 2;
+
+	private final JsonFactory jsonFactory = new JsonFactory();
+	private final BlockingQueue<Trace> exportQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+	private final AtomicLong dropped = new AtomicLong();
+	private final String untracedToken = UUID.randomUUID().toString();
+	private double sampleRate = 0.1;
+	private Trace[] recent = new Trace[1024];
+	private long recorded;
+	private Thread exporter;
+
+	@Value("${hotel.tracing.sample-rate:0.1}")
+	public void setSampleRate(double sampleRate) {
+		if (sampleRate < 0 || sampleRate > 1) {
+			throw new FailedInitializationException("The sample rate must be between 0 and 1!");
+		}
+		this.sampleRate = sampleRate;
+	}
+
+	@Value("${hotel.tracing.recent:1024}")
+	public synchronized void setRecent(int recent) {
+		if (recent < 1) {
+			throw new FailedInitializationException("At least one recent trace must be kept!");
+		}
+		this.recent = new Trace[recent];
+		recorded = 0;
+	}
+
+	@Value("${hotel.tracing.file:}")
+	public void setFile(String file) {
+		if (file.isEmpty()) {
+			return;
+		}
+		Path path = Paths.get(file);
+		OutputStream out;
+		try {
+			out = new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND));
+		} catch (IOException e) {
+			throw new FailedInitializationException("Can not open the trace file " + path + "!");
+		}
+		exporter = new Thread(() -> export(out), "trace-exporter");
+		exporter.setDaemon(true);
+		exporter.start();
+	}
+
+	/**
+	 * Decides if the next request is traced
+	 */
+	public boolean sample() {
+		return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+	}
+
+	/**
+	 * Decides if the next request is traced, the requests made by the application
+	 * itself, which carry the token of this recorder, never are
+	 *
+	 * @param untracedToken value of the {@link #UNTRACED_HEADER}, null when the request has none
+	 */
+	public boolean sample(String untracedToken) {
+		return !this.untracedToken.equals(untracedToken) && sample();
+	}
+
+	/**
+	 * Gets the value of the {@link #UNTRACED_HEADER}, which keeps a request out of the traces
+	 */
+	public String getUntracedToken() {
+		return untracedToken;
+	}
+
+	/**
+	 * Keeps a finished trace and queues it for the file
+	 *
+	 * @param trace the finished trace
+	 */
+	public void record(Trace trace) {
+		synchronized (this) {
+			recent[(int) (recorded++ % recent.length)] = trace;
+		}
+		if (exporter != null && !exportQueue.offer(trace)) {
+			dropped.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Gets the slowest of the recent traces
+	 *
+	 * @param limit maximum number of traces
+	 * @return traces, slowest first
+	 */
+	public List<Trace> findSlowest(int limit) {
+		Trace[] traces;
+		synchronized (this) {
+			traces = Arrays.copyOf(recent, (int) Math.min(recorded, recent.length));
+		}
+		List<Trace> slowest = new ArrayList<>(Arrays.asList(traces));
+		slowest.removeIf(Objects::isNull);
+		slowest.sort(Comparator.comparingLong(Trace::getDurationMicros).reversed());
+		return slowest.subList(0, Math.min(Math.max(limit, 0), slowest.size()));
+	}
+
+	/**
+	 * Gets the number of traces, which were not written because the queue was full
+	 */
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (exporter != null) {
+			exporter.interrupt();
+		}
+	}
+
+	private void export(OutputStream out) {
+		try (OutputStream file = out) {
+			while (!Thread.currentThread().isInterrupted()) {
+				Trace trace = exportQueue.poll(1, TimeUnit.SECONDS);
+				if (trace == null) {
+					file.flush();
+					continue;
+				}
+				write(trace, file);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException e) {
+			LOGGER.error("Traces are no longer written", e);
+		}
+	}
+
+	/**
+	 * Writes a trace as a line of an OTLP JSON export request
+	 */
+	void write(Trace trace, OutputStream out) throws IOException {
+		JsonGenerator json = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+		json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		json.writeStartObject();
+		json.writeArrayFieldStart("resourceSpans");
+		json.writeStartObject();
+		json.writeObjectFieldStart("resource");
+		json.writeArrayFieldStart("attributes");
+		writeAttribute(json, "service.name", "stringValue", "hotel");
+		json.writeEndArray();
+		json.writeEndObject();
+		json.writeArrayFieldStart("scopeSpans");
+		json.writeStartObject();
+		json.writeObjectFieldStart("scope");
+		json.writeStringField("name", Tracing.class.getPackage().getName());
+		json.writeEndObject();
+		json.writeArrayFieldStart("spans");
+		long epochNanos = trace.getStart().getEpochSecond() * 1_000_000_000L + trace.getStart().getNano();
+		for (Span span : trace.getSpans()) {
+			long start = epochNanos + span.getStartNanos() - trace.getStartNanos();
+			long end = epochNanos + Math.max(span.getEndNanos(), span.getStartNanos()) - trace.getStartNanos();
+			json.writeStartObject();
+			json.writeStringField("traceId", trace.getTraceId());
+			json.writeStringField("spanId", spanId(trace, span.getIndex()));
+			if (span.getParentIndex() >= 0) {
+				json.writeStringField("parentSpanId", spanId(trace, span.getParentIndex()));
+			}
+			json.writeStringField("name", span.getName());
+			json.writeNumberField("kind", span.getIndex() == 0 ? SPAN_KIND_SERVER : SPAN_KIND_INTERNAL);
+			// 64 bit numbers are strings in OTLP JSON
+			json.writeStringField("startTimeUnixNano", Long.toString(start));
+			json.writeStringField("endTimeUnixNano", Long.toString(end));
+			if (span.getIndex() == 0) {
+				json.writeArrayFieldStart("attributes");
+				writeAttribute(json, "http.status_code", "intValue", Integer.toString(trace.getStatus()));
+				json.writeEndArray();
+			}
+			json.writeEndObject();
+		}
+		json.writeEndArray();
+		json.writeEndObject();
+		json.writeEndArray();
+		json.writeEndObject();
+		json.writeEndArray();
+		json.writeEndObject();
+		json.flush();
+		out.write('\n');
+	}
+
+	private static void writeAttribute(JsonGenerator json, String key, String type, String value)
+		throws IOException {
+		json.writeStartObject();
+		json.writeStringField("key", key);
+		json.writeObjectFieldStart("value");
+		json.writeStringField(type, value);
+		json.writeEndObject();
+		json.writeEndObject();
+	}
+
+	private static String spanId(Trace trace, int index) {
+		// unique within the trace, derived from the trace id
+		return String.format("%016x", Long.parseUnsignedLong(trace.getTraceId().substring(16), 16) + index);
+	}
+}
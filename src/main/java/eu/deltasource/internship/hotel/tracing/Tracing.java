@@ -0,0 +1,55 @@
+package eu.deltasource.internship.hotel.tracing;
+
+/**
+ * Opens the spans of the request served by the current thread.
+ * <p>
+ * Only the sampled requests have a trace, for the others, and for code
+ * running outside of a request, a span is a shared no-op object,
+ * so the cost of a span is a thread-local read.
+ */
+public final class Tracing {
+
+	private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+	private Tracing() {
+	}
+
+	/**
+	 * Opens a span in the trace of the current thread
+	 *
+	 * @param name name of the phase
+	 * @return the span to close at the end of the phase
+	 */
+	public static Span span(String name) {
+		Trace trace = CURRENT.get();
+		return trace == null ? Span.NOOP : trace.open(name);
+	}
+
+	/**
+	 * Starts the trace of a request on the current thread
+	 *
+	 * @param name name of the request
+	 * @return the new trace
+	 */
+	public static Trace begin(String name) {
+		Trace trace = new Trace(name);
+		CURRENT.set(trace);
+		return trace;
+	}
+
+	/**
+	 * Ends the trace of the current thread
+	 *
+	 * @param status status of the response
+	 * @param name   final name of the request, null to keep the name it began with
+	 * @return the ended trace or null when the thread had none
+	 */
+	public static Trace end(int status, String name) {
+		Trace trace = CURRENT.get();
+		if (trace != null) {
+			CURRENT.remove();
+			trace.finish(status, name);
+		}
+		return trace;
+	}
+}
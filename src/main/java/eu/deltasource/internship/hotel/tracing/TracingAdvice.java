@@ -0,0 +1,94 @@
+package eu.deltasource.internship.hotel.tracing;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Type;
+
+/**
+ * Splits a traced request into its phases: the controller, which includes
+ * the binding of the body, and the writing of the response.
+ * <p>
+ * The spans are kept in the request attributes between the callbacks,
+ * the spans still open are ended together with the request.
+ */
+@ControllerAdvice
+public class TracingAdvice extends RequestBodyAdviceAdapter implements ResponseBodyAdvice<Object>, HandlerInterceptor {
+
+	private static final String HANDLER_SPAN = TracingAdvice.class.getName() + ".handler";
+	private static final String READ_SPAN = TracingAdvice.class.getName() + ".read";
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (handler instanceof HandlerMethod) {
+			HandlerMethod method = (HandlerMethod) handler;
+			request.setAttribute(HANDLER_SPAN,
+				Tracing.span(method.getBeanType().getSimpleName() + "." + method.getMethod().getName()));
+		}
+		return true;
+	}
+
+	@Override
+	public boolean supports(MethodParameter methodParameter, Type targetType,
+		Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+		Class<? extends HttpMessageConverter<?>> converterType) {
+		RequestContextHolder.currentRequestAttributes()
+			.setAttribute(READ_SPAN, Tracing.span("request.read"), RequestAttributes.SCOPE_REQUEST);
+		return inputMessage;
+	}
+
+	@Override
+	public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+		Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+		end(READ_SPAN);
+		return body;
+	}
+
+	@Override
+	public Object handleEmptyBody(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+		Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+		end(READ_SPAN);
+		return body;
+	}
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+		Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+		ServerHttpResponse response) {
+		end(HANDLER_SPAN);
+		// ended with the request, once the body is written
+		Tracing.span("response.write");
+		return body;
+	}
+
+	private static void end(String attribute) {
+		Object span = RequestContextHolder.currentRequestAttributes()
+			.getAttribute(attribute, RequestAttributes.SCOPE_REQUEST);
+		if (span instanceof Span) {
+			((Span) span).close();
+		}
+	}
+}
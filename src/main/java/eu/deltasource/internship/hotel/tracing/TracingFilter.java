@@ -0,0 +1,44 @@
+package eu.deltasource.internship.hotel.tracing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Traces the sampled requests from the moment they arrive
+ * until their response is written
+ */
+@Component
+public class TracingFilter extends OncePerRequestFilter {
+
+	@Autowired
+	private TraceRecorder traceRecorder;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+		throws ServletException, IOException {
+		if (!traceRecorder.sample(request.getHeader(TraceRecorder.UNTRACED_HEADER))) {
+			chain.doFilter(request, response);
+			return;
+		}
+		Tracing.begin(request.getMethod() + " " + request.getRequestURI());
+		boolean failed = true;
+		try {
+			chain.doFilter(request, response);
+			failed = false;
+		} finally {
+			Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+			Trace trace = Tracing.end(failed ? HttpStatus.INTERNAL_SERVER_ERROR.value() : response.getStatus(),
+				pattern == null ? null : request.getMethod() + " " + pattern);
+			traceRecorder.record(trace);
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package eu.deltasource.internship.hotel.tracing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the start of the controller span for all endpoints
+ */
+@Configuration
+public class TracingWebConfig implements WebMvcConfigurer {
+
+	@Autowired
+	private TracingAdvice tracingAdvice;
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(tracingAdvice);
+	}
+}
@@ -0,0 +1,175 @@
+package eu.deltasource.internship.hotel.utility;
+
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel - schedules items for expiry in constant time.
+ * <p>
+ * Time is split into ticks of fixed length, each tick is hashed
+ * into one of the wheel slots. Advancing the wheel visits only the
+ * slots of the elapsed ticks, so expiry never scans all scheduled items.
+ * Time is passed in explicitly, which keeps the wheel independent of
+ * the thread that drives it.
+ *
+ * @param <T> type of the scheduled items
+ */
+public class HashedTimerWheel<T> {
+
+	private final long tickMillis;
+	private final long startMillis;
+	private final int mask;
+	private final Timeout<T>[] slots;
+	private long currentTick;
+	private int size;
+
+	/**
+	 * This is a constructor
+	 *
+	 * @param tickMillis  length of a tick in milliseconds
+	 * @param slotCount   number of slots, rounded up to a power of two
+	 * @param startMillis the time the wheel starts at
+	 */
+	@SuppressWarnings("unchecked")
+	public HashedTimerWheel(long tickMillis, int slotCount, long startMillis) {
+		if (tickMillis <= 0 || slotCount <= 0) {
+			throw new IllegalArgumentException("Invalid timer wheel parameters");
+		}
+		int slotsPowerOfTwo = Integer.highestOneBit(slotCount - 1) << 1;
+		this.tickMillis = tickMillis;
+		this.startMillis = startMillis;
+		this.mask = Math.max(slotsPowerOfTwo, 1) - 1;
+		this.slots = new Timeout[mask + 1];
+	}
+
+	/**
+	 * Schedules an item
+	 *
+	 * @param item           the item
+	 * @param deadlineMillis the time the item expires at
+	 * @return handle which can be used to cancel the timeout
+	 */
+	public synchronized Timeout<T> schedule(T item, long deadlineMillis) {
+		long deadlineTick = Math.max(ceilDiv(deadlineMillis - startMillis, tickMillis), currentTick);
+		Timeout<T> timeout = new Timeout<>(item, deadlineMillis);
+		timeout.rounds = (deadlineTick - currentTick) / slots.length;
+		timeout.slot = (int) (deadlineTick & mask);
+		link(timeout);
+		size++;
+		return timeout;
+	}
+
+	/**
+	 * Cancels a scheduled timeout
+	 *
+	 * @param timeout the timeout
+	 * @return true if the timeout was pending and is now cancelled
+	 */
+	public synchronized boolean cancel(Timeout<T> timeout) {
+		if (timeout == null || timeout.slot < 0) {
+			return false;
+		}
+		unlink(timeout);
+		size--;
+		return true;
+	}
+
+	/**
+	 * Expires every item with a deadline before the given time
+	 *
+	 * @param nowMillis current time
+	 * @param onExpiry  called for each expired item
+	 * @return number of expired items
+	 */
+	public int advance(long nowMillis, Consumer<? super T> onExpiry) {
+		Timeout<T> expired = collectExpired(nowMillis);
+		int count = 0;
+		for (; expired != null; expired = expired.next) {
+			onExpiry.accept(expired.item);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the number of pending timeouts
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	private synchronized Timeout<T> collectExpired(long nowMillis) {
+		long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+		Timeout<T> expired = null;
+		for (; currentTick <= targetTick; currentTick++) {
+			Timeout<T> timeout = slots[(int) (currentTick & mask)];
+			while (timeout != null) {
+				Timeout<T> next = timeout.next;
+				if (timeout.rounds == 0) {
+					unlink(timeout);
+					size--;
+					timeout.next = expired;
+					expired = timeout;
+				} else {
+					timeout.rounds--;
+				}
+				timeout = next;
+			}
+		}
+		return expired;
+	}
+
+	private void link(Timeout<T> timeout) {
+		Timeout<T> head = slots[timeout.slot];
+		timeout.next = head;
+		if (head != null) {
+			head.previous = timeout;
+		}
+		slots[timeout.slot] = timeout;
+	}
+
+	private void unlink(Timeout<T> timeout) {
+		if (timeout.previous == null) {
+			slots[timeout.slot] = timeout.next;
+		} else {
+			timeout.previous.next = timeout.next;
+		}
+		if (timeout.next != null) {
+			timeout.next.previous = timeout.previous;
+		}
+		timeout.previous = null;
+		timeout.next = null;
+		timeout.slot = -1;
+	}
+
+	private static long ceilDiv(long dividend, long divisor) {
+		return -Math.floorDiv(-dividend, divisor);
+	}
+
+	/**
+	 * Handle of a scheduled item
+	 *
+	 * @param <T> type of the item
+	 */
+	public static final class Timeout<T> {
+
+		private final T item;
+		private final long deadlineMillis;
+		private long rounds;
+		private int slot;
+		private Timeout<T> previous;
+		private Timeout<T> next;
+
+		private Timeout(T item, long deadlineMillis) {
+			this.item = item;
+			this.deadlineMillis = deadlineMillis;
+		}
+
+		public T getItem() {
+			return item;
+		}
+
+		public long getDeadlineMillis() {
+			return deadlineMillis;
+		}
+	}
+}
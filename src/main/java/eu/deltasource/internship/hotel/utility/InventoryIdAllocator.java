@@ -0,0 +1,20 @@
+package eu.deltasource.internship.hotel.utility;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe generator of inventory ids
+ */
+public class InventoryIdAllocator {
+
+	private final AtomicInteger lastId = new AtomicInteger();
+
+	/**
+	 * Allocates the next inventory id
+	 *
+	 * @return unique positive id
+	 */
+	public int next() {
+		return lastId.incrementAndGet();
+	}
+}
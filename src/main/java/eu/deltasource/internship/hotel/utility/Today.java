@@ -0,0 +1,103 @@
+package eu.deltasource.internship.hotel.utility;
+
+import eu.deltasource.internship.hotel.exception.InvalidArgumentException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * The current date as an epoch day.
+ * <p>
+ * The day is cached together with the bounds of the day in milliseconds,
+ * so a check against today reads the clock once and compares two longs
+ * instead of building a LocalDate. The day ticks over at midnight in
+ * the zone of the clock. The clock can be replaced, so tests can run
+ * on a fixed date.
+ */
+public final class Today {
+
+	private static volatile Today current = new Today(Clock.systemDefaultZone());
+
+	private final Clock clock;
+	private volatile Day day;
+
+	private Today(Clock clock) {
+		this.clock = clock;
+	}
+
+	/**
+	 * Gets today as the number of days since 1970-01-01
+	 */
+	public static int epochDay() {
+		return current.get();
+	}
+
+	/**
+	 * Gets today as a date
+	 */
+	public static LocalDate date() {
+		return LocalDate.ofEpochDay(epochDay());
+	}
+
+	/**
+	 * Makes today follow the given clock
+	 *
+	 * @param clock the clock
+	 */
+	public static void useClock(Clock clock) {
+		current = new Today(clock);
+	}
+
+	/**
+	 * Makes today follow the system clock in the default zone
+	 */
+	public static void useSystemClock() {
+		useClock(Clock.systemDefaultZone());
+	}
+
+	/**
+	 * Converts a date to an epoch day
+	 *
+	 * @param date the date
+	 * @return days since 1970-01-01
+	 * @throws InvalidArgumentException if the date is too far from 1970-01-01 to fit an int
+	 */
+	public static int toEpochDay(LocalDate date) {
+		long epochDay = date.toEpochDay();
+		if (epochDay < Integer.MIN_VALUE || epochDay > Integer.MAX_VALUE) {
+			throw new InvalidArgumentException("Invalid dates");
+		}
+		return (int) epochDay;
+	}
+
+	private int get() {
+		Day cached = day;
+		long now = clock.millis();
+		if (cached == null || now >= cached.endMillis || now < cached.startMillis) {
+			cached = Day.of(now, clock.getZone());
+			day = cached;
+		}
+		return cached.epochDay;
+	}
+
+	private static final class Day {
+
+		private final int epochDay;
+		private final long startMillis;
+		private final long endMillis;
+
+		private Day(int epochDay, long startMillis, long endMillis) {
+			this.epochDay = epochDay;
+			this.startMillis = startMillis;
+			this.endMillis = endMillis;
+		}
+
+		private static Day of(long millis, ZoneId zone) {
+			LocalDate date = Instant.ofEpochMilli(millis).atZone(zone).toLocalDate();
+			return new Day(toEpochDay(date), date.atStartOfDay(zone).toInstant().toEpochMilli(),
+				date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package eu.deltasource.internship.hotel.benchmark;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.repository.BookingRepository;
+import eu.deltasource.internship.hotel.repository.storage.StorageEngines;
+import eu.deltasource.internship.hotel.utility.Today;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the garbage collection of the indexed and the off-heap booking storage engines.
+ * <p>
+ * Every engine is measured in its own JVM. The JVM loads a booking repository
+ * with the given number of bookings and then runs a sustained mix of reads,
+ * new bookings, cancellations and overlap searches, while the pauses of the
+ * collector are recorded. Run with:
+ * <pre>
+ * java -cp ... eu.deltasource.internship.hotel.benchmark.BookingStoreGcReport [bookings] [seconds] [jvm options]
+ * </pre>
+ */
+public class BookingStoreGcReport {
+
+    private static final int BOOKINGS_PER_ROOM = 50;
+    private static final int MAX_NIGHTS = 7;
+    private static final String RESULT = "RESULT";
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].startsWith("--store=")) {
+            measure(args[0].substring("--store=".length()), Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+            return;
+        }
+        String bookings = args.length > 0 ? args[0] : "2000000";
+        String seconds = args.length > 1 ? args[1] : "30";
+        String jvmOptions = args.length > 2 ? args[2] : "-Xmx2g -XX:+UseG1GC";
+        System.out.printf("%d bookings, %s s of sustained work, %s%n", Integer.parseInt(bookings),
+            seconds, jvmOptions);
+        System.out.printf("%-9s %10s %12s %12s %9s %11s %13s %12s%n", "Store", "Load s", "Heap MB",
+            "Off-heap MB", "GCs", "GC time ms", "Max pause ms", "Ops/s");
+        for (String store : new String[]{StorageEngines.INDEXED, StorageEngines.OFF_HEAP}) {
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(List.of(jvmOptions.trim().split("\\s+")));
+            command.addAll(List.of("-cp", System.getProperty("java.class.path"),
+                BookingStoreGcReport.class.getName(), "--store=" + store, bookings, seconds));
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = output.readLine()) != null) {
+                    System.out.println(line.startsWith(RESULT) ? line.substring(RESULT.length() + 1) : line);
+                }
+            }
+            process.waitFor();
+        }
+    }
+
+    private static void measure(String store, int bookings, int seconds) {
+        Random random = new Random(42);
+        int rooms = Math.max(1, bookings / BOOKINGS_PER_ROOM);
+        int firstDay = Today.epochDay() + 1;
+        int[] nextFreeDays = new int[rooms + 1];
+        BookingRepository repository = new BookingRepository(store);
+
+        long loadStart = System.nanoTime();
+        int lastId = 0;
+        for (int i = 0; i < bookings; i++) {
+            lastId = book(repository, 1 + i % rooms, firstDay, nextFreeDays, random);
+        }
+        double loadSeconds = (System.nanoTime() - loadStart) / 1e9;
+        System.gc();
+        long heapBytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        long directBytes = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+            .filter(pool -> pool.getName().equals("direct")).mapToLong(BufferPoolMXBean::getMemoryUsed).sum();
+
+        AtomicLong pauses = new AtomicLong();
+        AtomicLong pauseMillis = new AtomicLong();
+        AtomicLong maxPauseMillis = new AtomicLong();
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) collector).addNotificationListener((notification, handback) -> {
+                GarbageCollectionNotificationInfo info =
+                    GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                if (info.getGcName().contains("Concurrent")) {
+                    return;
+                }
+                long duration = info.getGcInfo().getDuration();
+                pauses.incrementAndGet();
+                pauseMillis.addAndGet(duration);
+                maxPauseMillis.accumulateAndGet(duration, Math::max);
+            }, notification -> notification.getType()
+                .equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION), null);
+        }
+
+        long operations = 0;
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (System.nanoTime() < end) {
+            for (int i = 0; i < 1000; i++, operations++) {
+                int choice = random.nextInt(10);
+                int roomId = 1 + random.nextInt(rooms);
+                if (choice < 4) {
+                    int id = 1 + random.nextInt(lastId);
+                    if (repository.existsById(id)) {
+                        repository.findById(id);
+                    }
+                } else if (choice < 6) {
+                    lastId = Math.max(lastId, book(repository, roomId, firstDay, nextFreeDays, random));
+                } else if (choice < 8) {
+                    repository.deleteById(1 + random.nextInt(lastId));
+                } else {
+                    LocalDate from = LocalDate.ofEpochDay(firstDay + random.nextInt(nextFreeDays[roomId] + 1));
+                    repository.findOverlapping(roomId, from, from.plusDays(1 + random.nextInt(MAX_NIGHTS)));
+                }
+            }
+        }
+        System.out.printf("%s %-9s %10.1f %12.1f %12.1f %9d %11d %13d %12.0f%n", RESULT, store, loadSeconds,
+            heapBytes / 1048576.0, directBytes / 1048576.0, pauses.get(), pauseMillis.get(),
+            maxPauseMillis.get(), operations / (double) seconds);
+    }
+
+    private static int book(BookingRepository repository, int roomId, int firstDay, int[] nextFreeDays,
+                            Random random) {
+        int nights = 1 + random.nextInt(MAX_NIGHTS);
+        int from = firstDay + nextFreeDays[roomId];
+        nextFreeDays[roomId] += nights;
+        return repository.save(new Booking(0, 1 + random.nextInt(1000), roomId, 1, from, from + nights))
+            .getBookingId();
+    }
+}
@@ -0,0 +1,95 @@
+package eu.deltasource.internship.hotel.benchmark;
+
+import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.domain.Room;
+import eu.deltasource.internship.hotel.domain.commodity.AbstractCommodity;
+import eu.deltasource.internship.hotel.domain.commodity.Bed;
+import eu.deltasource.internship.hotel.domain.commodity.BedType;
+import eu.deltasource.internship.hotel.dto.CalendarDTO;
+import eu.deltasource.internship.hotel.repository.BookingRepository;
+import eu.deltasource.internship.hotel.repository.GuestRepository;
+import eu.deltasource.internship.hotel.repository.RoomRepository;
+import eu.deltasource.internship.hotel.service.BookingService;
+import eu.deltasource.internship.hotel.service.GuestService;
+import eu.deltasource.internship.hotel.service.RoomService;
+import eu.deltasource.internship.hotel.utility.Today;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures GET /calendar for 1000 rooms and 90 days,
+ * with the month grids cached and right after a booking change
+ * in every month of the range, which rebuilds all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalendarBenchmark {
+
+    private static final int DAYS = 90;
+
+    @Param({"1000"})
+    private int rooms;
+
+    private BookingRepository bookingRepository;
+    private BookingService bookingService;
+    private LocalDate from;
+    private List<Booking> changes;
+
+    @Setup
+    public void setUp() {
+        RoomService roomService = new RoomService(new RoomRepository());
+        bookingRepository = new BookingRepository();
+        bookingService = new BookingService(bookingRepository, roomService, new GuestService(new GuestRepository()));
+        int firstDay = Today.epochDay() + 1;
+        from = LocalDate.ofEpochDay(firstDay);
+        Random random = new Random(42);
+        for (int roomId = 1; roomId <= rooms; roomId++) {
+            Set<AbstractCommodity> commodities = Set.of(new Bed(BedType.DOUBLE));
+            roomService.save(new Room(roomId, commodities));
+            // stays of 1 to 7 nights with gaps of up to 3 days, over 4 months
+            for (int day = firstDay + random.nextInt(4); day < firstDay + 120; ) {
+                int nights = 1 + random.nextInt(7);
+                bookingRepository.save(new Booking(0, 1, roomId, 1, day, day + nights));
+                day += nights + random.nextInt(4);
+            }
+        }
+        changes = new ArrayList<>();
+        for (int day = firstDay; day < firstDay + DAYS; day += 28) {
+            changes.add(new Booking(0, 1, rooms + 1, 1, day, day + 1));
+        }
+    }
+
+    @Benchmark
+    public CalendarDTO afterChange(ChangedMonths changedMonths) {
+        return bookingService.findCalendar(from, DAYS);
+    }
+
+    @Benchmark
+    public CalendarDTO cached() {
+        return bookingService.findCalendar(from, DAYS);
+    }
+
+    /**
+     * Saves and deletes a booking in every month of the range before each call
+     */
+    @State(Scope.Benchmark)
+    public static class ChangedMonths {
+
+        @Setup(Level.Invocation)
+        public void change(CalendarBenchmark benchmark) {
+            for (Booking change : benchmark.changes) {
+                benchmark.bookingRepository.deleteById(benchmark.bookingRepository.save(change).getBookingId());
+            }
+        }
+    }
+}
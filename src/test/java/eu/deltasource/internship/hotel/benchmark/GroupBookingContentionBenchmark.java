@@ -0,0 +1,106 @@
+package eu.deltasource.internship.hotel.benchmark;
+
+import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.domain.Gender;
+import eu.deltasource.internship.hotel.domain.Guest;
+import eu.deltasource.internship.hotel.domain.Room;
+import eu.deltasource.internship.hotel.domain.commodity.Bed;
+import eu.deltasource.internship.hotel.domain.commodity.BedType;
+import eu.deltasource.internship.hotel.exception.BookingOverlappingException;
+import eu.deltasource.internship.hotel.repository.BookingRepository;
+import eu.deltasource.internship.hotel.repository.GuestRepository;
+import eu.deltasource.internship.hotel.repository.RoomRepository;
+import eu.deltasource.internship.hotel.service.BookingService;
+import eu.deltasource.internship.hotel.service.GuestService;
+import eu.deltasource.internship.hotel.service.RoomService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures group bookings of 20-50 rooms running concurrently
+ * with single bookings over the same rooms.
+ * <p>
+ * Every operation books random dates, so some of them fail with
+ * overlapping dates - the counters report how many succeeded.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GroupBookingContentionBenchmark {
+
+    private static final int DATE_RANGE_DAYS = 3650;
+
+    @Param("500")
+    private int rooms;
+
+    private BookingService bookingService;
+    private LocalDate firstDate;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        RoomService roomService = new RoomService(new RoomRepository());
+        GuestService guestService = new GuestService(new GuestRepository());
+        bookingService = new BookingService(new BookingRepository(), roomService, guestService);
+        guestService.save(new Guest(1, "John", "Miller", Gender.MALE));
+        for (int i = 0; i < rooms; i++) {
+            roomService.save(new Room(i + 1, Collections.singleton(new Bed(BedType.DOUBLE))));
+        }
+        firstDate = LocalDate.now().plusDays(1);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcome {
+        public long booked;
+        public long overlapped;
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public void groupBooking(Outcome outcome, Blackhole blackhole) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int groupSize = random.nextInt(20, 51);
+        LocalDate from = randomDate(random);
+        List<Booking> group = new ArrayList<>(groupSize);
+        int firstRoom = random.nextInt(rooms - groupSize) + 1;
+        for (int roomId = firstRoom; roomId < firstRoom + groupSize; roomId++) {
+            group.add(new Booking(0, 1, roomId, 2, from, from.plusDays(random.nextInt(1, 8))));
+        }
+        try {
+            blackhole.consume(bookingService.saveGroup(group));
+            outcome.booked++;
+        } catch (BookingOverlappingException e) {
+            outcome.overlapped++;
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(6)
+    public void singleBooking(Outcome outcome, Blackhole blackhole) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate from = randomDate(random);
+        Booking booking = new Booking(0, 1, random.nextInt(rooms) + 1, 2, from, from.plusDays(random.nextInt(1, 8)));
+        try {
+            blackhole.consume(bookingService.save(booking));
+            outcome.booked++;
+        } catch (BookingOverlappingException e) {
+            outcome.overlapped++;
+        }
+    }
+
+    private LocalDate randomDate(ThreadLocalRandom random) {
+        return firstDate.plusDays(random.nextInt(DATE_RANGE_DAYS));
+    }
+}
@@ -0,0 +1,81 @@
+package eu.deltasource.internship.hotel.benchmark;
+
+import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.domain.CleaningTask;
+import eu.deltasource.internship.hotel.domain.Gender;
+import eu.deltasource.internship.hotel.domain.Guest;
+import eu.deltasource.internship.hotel.domain.Room;
+import eu.deltasource.internship.hotel.domain.commodity.Bed;
+import eu.deltasource.internship.hotel.domain.commodity.BedType;
+import eu.deltasource.internship.hotel.repository.BookingRepository;
+import eu.deltasource.internship.hotel.repository.GuestRepository;
+import eu.deltasource.internship.hotel.repository.RoomRepository;
+import eu.deltasource.internship.hotel.service.BookingService;
+import eu.deltasource.internship.hotel.service.GuestService;
+import eu.deltasource.internship.hotel.service.HousekeepingService;
+import eu.deltasource.internship.hotel.service.RoomService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures planning the cleaning of one day in a hotel,
+ * where every room is booked back to back for a year.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HousekeepingPlanBenchmark {
+
+    private static final int DAYS = 365;
+
+    @Param("5000")
+    private int rooms;
+
+    private HousekeepingService housekeepingService;
+    private LocalDate day;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RoomService roomService = new RoomService(new RoomRepository());
+        GuestService guestService = new GuestService(new GuestRepository());
+        BookingRepository bookingRepository = new BookingRepository();
+        BookingService bookingService = new BookingService(bookingRepository, roomService, guestService);
+        housekeepingService = new HousekeepingService(bookingService, roomService, (roomId, commodity, task) -> {
+        });
+        guestService.save(new Guest(1, "John", "Miller", Gender.MALE));
+        List<Room> newRooms = new ArrayList<>();
+        for (int i = 0; i < rooms; i++) {
+            newRooms.add(new Room(0, Collections.singleton(new Bed(BedType.DOUBLE))));
+        }
+        roomService.saveAll(newRooms);
+
+        // back to back stays of 1-7 nights, saved directly to skip the validation
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        Random random = new Random(42);
+        List<Booking> bookings = new ArrayList<>();
+        for (int roomId = 1; roomId <= rooms; roomId++) {
+            LocalDate from = firstDay;
+            while (from.isBefore(firstDay.plusDays(DAYS))) {
+                LocalDate to = from.plusDays(1 + random.nextInt(7));
+                bookings.add(new Booking(0, 1, roomId, 1, from, to));
+                from = to;
+            }
+        }
+        bookingRepository.saveAll(bookings);
+        day = firstDay.plusDays(DAYS / 2);
+    }
+
+    @Benchmark
+    public List<CleaningTask> planDay() {
+        return housekeepingService.plan(day);
+    }
+}
@@ -0,0 +1,80 @@
+package eu.deltasource.internship.hotel.benchmark;
+
+import eu.deltasource.internship.hotel.utility.Today;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the date validation and overlap scan of a room with dates
+ * kept as LocalDate objects, checked against LocalDate.now(),
+ * and with dates kept as epoch days, checked against the cached today.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OverlapCheckBenchmark {
+
+    private static final int DAYS = 3650;
+    private static final int NIGHTS = 7;
+
+    @Param({"10", "500"})
+    private int bookings;
+
+    private LocalDate[] froms;
+    private LocalDate[] tos;
+    private int[] fromDays;
+    private int[] toDays;
+    private LocalDate firstDay;
+
+    @Setup
+    public void setUp() {
+        froms = new LocalDate[bookings];
+        tos = new LocalDate[bookings];
+        fromDays = new int[bookings];
+        toDays = new int[bookings];
+        firstDay = LocalDate.now().plusDays(1);
+        int step = DAYS / bookings;
+        for (int i = 0; i < bookings; i++) {
+            froms[i] = firstDay.plusDays(i * step);
+            tos[i] = froms[i].plusDays(Math.min(NIGHTS, step));
+            fromDays[i] = Today.toEpochDay(froms[i]);
+            toDays[i] = Today.toEpochDay(tos[i]);
+        }
+    }
+
+    @Benchmark
+    public boolean localDates() {
+        LocalDate from = firstDay.plusDays(ThreadLocalRandom.current().nextInt(DAYS));
+        LocalDate to = from.plusDays(NIGHTS);
+        if (from.isAfter(to) || from.equals(to) || from.isBefore(LocalDate.now())) {
+            return false;
+        }
+        for (int i = 0; i < bookings; i++) {
+            if (froms[i].isBefore(to) && tos[i].isAfter(from)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Benchmark
+    public boolean epochDays() {
+        int from = fromDays[0] + ThreadLocalRandom.current().nextInt(DAYS);
+        int to = from + NIGHTS;
+        if (from >= to || from < Today.epochDay()) {
+            return false;
+        }
+        for (int i = 0; i < bookings; i++) {
+            if (fromDays[i] < to && toDays[i] > from) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,100 @@
+package eu.deltasource.internship.hotel.benchmark;
+
+import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.domain.Gender;
+import eu.deltasource.internship.hotel.domain.Guest;
+import eu.deltasource.internship.hotel.domain.Room;
+import eu.deltasource.internship.hotel.domain.commodity.Bed;
+import eu.deltasource.internship.hotel.domain.commodity.BedType;
+import eu.deltasource.internship.hotel.domain.commodity.Shower;
+import eu.deltasource.internship.hotel.dto.QuoteDTO;
+import eu.deltasource.internship.hotel.repository.BookingHoldRepository;
+import eu.deltasource.internship.hotel.repository.BookingRepository;
+import eu.deltasource.internship.hotel.repository.GuestRepository;
+import eu.deltasource.internship.hotel.repository.RoomRepository;
+import eu.deltasource.internship.hotel.service.BookingService;
+import eu.deltasource.internship.hotel.service.ChangeEventLog;
+import eu.deltasource.internship.hotel.service.GuestService;
+import eu.deltasource.internship.hotel.service.PricingService;
+import eu.deltasource.internship.hotel.service.RoomService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures quotes of week long stays, while another thread keeps
+ * booking and cancelling rooms. The quote latency should not depend
+ * on the number of bookings nor on the concurrent writer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PricingQuoteBenchmark {
+
+    private static final int DAYS = 365;
+    private static final int NIGHTS = 7;
+
+    @Param({"100", "2000"})
+    private int rooms;
+
+    private ChangeEventLog eventLog;
+    private BookingService bookingService;
+    private PricingService pricingService;
+    private LocalDate firstDay;
+
+    @Setup
+    public void setUp() {
+        eventLog = new ChangeEventLog();
+        RoomRepository roomRepository = new RoomRepository();
+        BookingRepository bookingRepository = new BookingRepository();
+        RoomService roomService = new RoomService(roomRepository, eventLog);
+        GuestService guestService = new GuestService(new GuestRepository(), eventLog);
+        bookingService = new BookingService(bookingRepository, new BookingHoldRepository(), roomService,
+                guestService, eventLog);
+        guestService.save(new Guest(1, "John", "Miller", Gender.MALE));
+        for (int roomId = 1; roomId <= rooms; roomId++) {
+            roomService.save(new Room(roomId, new HashSet<>(Arrays.asList(new Bed(BedType.DOUBLE), new Shower()))));
+        }
+        firstDay = LocalDate.now().plusDays(1);
+        // every room is booked every other week
+        for (int roomId = 1; roomId <= rooms; roomId++) {
+            for (int day = roomId % 14; day + NIGHTS < DAYS; day += 2 * NIGHTS) {
+                bookingService.save(new Booking(0, 1, roomId, 1, firstDay.plusDays(day),
+                        firstDay.plusDays(day + NIGHTS)));
+            }
+        }
+        pricingService = new PricingService(bookingRepository, roomRepository, eventLog);
+    }
+
+    @TearDown
+    public void tearDown() {
+        eventLog.stop();
+    }
+
+    @Benchmark
+    @Group("search")
+    @GroupThreads(3)
+    public QuoteDTO quote() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate from = firstDay.plusDays(random.nextInt(DAYS - NIGHTS));
+        return pricingService.quote(1 + random.nextInt(rooms), from, from.plusDays(NIGHTS));
+    }
+
+    @Benchmark
+    @Group("search")
+    @GroupThreads(1)
+    public boolean bookAndCancel() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate from = firstDay.plusDays(DAYS + random.nextInt(DAYS));
+        Booking booking = bookingService.save(new Booking(0, 1, 1 + random.nextInt(rooms), 1, from,
+                from.plusDays(1 + random.nextInt(NIGHTS))));
+        return bookingService.deleteById(booking.getBookingId());
+    }
+}
@@ -0,0 +1,71 @@
+package eu.deltasource.internship.hotel.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import eu.deltasource.internship.hotel.domain.Room;
+import eu.deltasource.internship.hotel.dto.RoomDTO;
+import eu.deltasource.internship.hotel.dto.RoomDeserializer;
+import eu.deltasource.internship.hotel.repository.RoomRepository;
+import eu.deltasource.internship.hotel.service.RoomService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the work behind POST /rooms/list for 100 000 rooms:
+ * binding the request body and saving the rooms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RoomListBenchmark {
+
+    private static final String[] COMMODITIES = {
+            "{\"@type\":\"Bed\",\"bedType\":\"SINGLE\"}",
+            "{\"@type\":\"Bed\",\"bedType\":\"DOUBLE\"}",
+            "{\"@type\":\"Bed\",\"bedType\":\"KING_SIZE\"}"};
+
+    @Param("100000")
+    private int rooms;
+
+    private byte[] body;
+    private ObjectMapper dtoMapper;
+    private ObjectMapper roomMapper;
+
+    @Setup
+    public void setUp() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 1; i <= rooms; i++) {
+            json.append(i == 1 ? "" : ",")
+                    .append("{\"roomId\":").append(i).append(",\"commodities\":[")
+                    .append(COMMODITIES[i % COMMODITIES.length])
+                    .append(",{\"@type\":\"Toilet\"},{\"@type\":\"Shower\"}]}");
+        }
+        body = json.append(']').toString().getBytes();
+        dtoMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new ParameterNamesModule()).build();
+        roomMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new ParameterNamesModule())
+                .deserializerByType(Room.class, new RoomDeserializer()).build();
+    }
+
+    @Benchmark
+    public List<Room> viaTransferObjects() throws Exception {
+        RoomService roomService = new RoomService(new RoomRepository());
+        List<RoomDTO> roomsDTO = dtoMapper.readValue(body, new TypeReference<List<RoomDTO>>() {
+        });
+        return roomService.saveAll(roomService.convertDTO(roomsDTO));
+    }
+
+    @Benchmark
+    public List<Room> direct() throws Exception {
+        RoomService roomService = new RoomService(new RoomRepository());
+        List<Room> roomList = roomMapper.readValue(body, new TypeReference<List<Room>>() {
+        });
+        return roomService.saveAll(roomList);
+    }
+}
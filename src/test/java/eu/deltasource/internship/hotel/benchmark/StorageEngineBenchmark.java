@@ -0,0 +1,68 @@
+package eu.deltasource.internship.hotel.benchmark;
+
+import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.repository.BookingRepository;
+import eu.deltasource.internship.hotel.utility.Today;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the storage engines behind a booking repository:
+ * lookups by id, a new booking followed by the cancellation of a random one,
+ * which keeps the size steady, and the copy of all bookings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageEngineBenchmark {
+
+    private static final int ROOMS = 1000;
+
+    @Param({"list", "indexed", "off-heap"})
+    private String engine;
+
+    @Param({"100000"})
+    private int bookings;
+
+    private BookingRepository repository;
+    private int firstDay;
+    private int nextDay;
+
+    @Setup
+    public void setUp() {
+        repository = new BookingRepository(engine);
+        firstDay = Today.epochDay() + 1;
+        for (int i = 0; i < bookings; i++) {
+            save(i);
+        }
+        nextDay = bookings;
+    }
+
+    private Booking save(int i) {
+        int day = firstDay + i / ROOMS;
+        return repository.save(new Booking(0, 1, 1 + i % ROOMS, 1, day, day + 1));
+    }
+
+    @Benchmark
+    public Booking findById() {
+        return repository.findById(1 + ThreadLocalRandom.current().nextInt(bookings));
+    }
+
+    @Benchmark
+    public boolean saveAndCancel() {
+        int lastId = save(nextDay++).getBookingId();
+        // cancels a booking other than the last one, so the ids keep growing
+        return repository.deleteById(lastId - 1 - ThreadLocalRandom.current().nextInt(bookings / 2));
+    }
+
+    @Benchmark
+    public List<Booking> findAll() {
+        return repository.findAll();
+    }
+}
@@ -0,0 +1,70 @@
+package eu.deltasource.internship.hotel.benchmark;
+
+import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.domain.Gender;
+import eu.deltasource.internship.hotel.domain.Guest;
+import eu.deltasource.internship.hotel.domain.Room;
+import eu.deltasource.internship.hotel.domain.commodity.AbstractCommodity;
+import eu.deltasource.internship.hotel.domain.commodity.Bed;
+import eu.deltasource.internship.hotel.domain.commodity.BedType;
+import eu.deltasource.internship.hotel.repository.BookingRepository;
+import eu.deltasource.internship.hotel.repository.GuestRepository;
+import eu.deltasource.internship.hotel.repository.RoomRepository;
+import eu.deltasource.internship.hotel.service.BookingService;
+import eu.deltasource.internship.hotel.service.GuestService;
+import eu.deltasource.internship.hotel.service.RoomService;
+import eu.deltasource.internship.hotel.tracing.Trace;
+import eu.deltasource.internship.hotel.tracing.Tracing;
+import eu.deltasource.internship.hotel.utility.Today;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of tracing on the booking of a room, followed by
+ * its cancellation, with the request traced and not traced.
+ * The cost per request is the difference times the sample rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TracingOverheadBenchmark {
+
+    private static final int ROOMS = 100;
+
+    @Param({"false", "true"})
+    private boolean traced;
+
+    private BookingService bookingService;
+    private int firstDay;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        RoomService roomService = new RoomService(new RoomRepository());
+        GuestService guestService = new GuestService(new GuestRepository());
+        bookingService = new BookingService(new BookingRepository(), roomService, guestService);
+        guestService.save(new Guest(1, "John", "Miller", Gender.MALE));
+        for (int roomId = 1; roomId <= ROOMS; roomId++) {
+            Set<AbstractCommodity> commodities = Set.of(new Bed(BedType.DOUBLE));
+            roomService.save(new Room(roomId, commodities));
+        }
+        firstDay = Today.epochDay() + 1;
+    }
+
+    @Benchmark
+    public boolean saveAndCancel() {
+        int i = next++;
+        int day = firstDay + i % 365;
+        if (traced) {
+            Tracing.begin("POST /bookings");
+        }
+        Booking booking = bookingService.save(new Booking(0, 1, 1 + i % ROOMS, 1, day, day + 1));
+        Trace trace = Tracing.end(200, null);
+        return bookingService.deleteById(booking.getBookingId()) && (trace == null) != traced;
+    }
+}
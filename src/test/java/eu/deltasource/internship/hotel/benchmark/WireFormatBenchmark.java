@@ -0,0 +1,121 @@
+package eu.deltasource.internship.hotel.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import eu.deltasource.internship.hotel.controller.WireFormatConfig;
+import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.domain.Gender;
+import eu.deltasource.internship.hotel.domain.Guest;
+import eu.deltasource.internship.hotel.domain.Room;
+import eu.deltasource.internship.hotel.domain.commodity.AbstractCommodity;
+import eu.deltasource.internship.hotel.domain.commodity.Bed;
+import eu.deltasource.internship.hotel.domain.commodity.BedType;
+import eu.deltasource.internship.hotel.domain.commodity.Shower;
+import eu.deltasource.internship.hotel.domain.commodity.Toilet;
+import eu.deltasource.internship.hotel.dto.RoomDeserializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares JSON with the binary encodings of the endpoints
+ * on lists of 1000 rooms, bookings and guests: the time to encode
+ * a list as a response and to decode it as a request.
+ * <p>
+ * The main method prints the payload sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final String[] FORMATS = {"json", "smile", "cbor"};
+    private static final String[] PAYLOADS = {"rooms", "bookings", "guests"};
+    private static final BedType[] BED_TYPES = BedType.values();
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"rooms", "bookings", "guests"})
+    private String payload;
+
+    @Param({"1000"})
+    private int items;
+
+    private ObjectMapper mapper;
+    private JavaType listType;
+    private List<?> values;
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws Exception {
+        mapper = mapper(format);
+        values = values(payload, items);
+        listType = mapper.getTypeFactory().constructCollectionType(List.class, values.get(0).getClass());
+        body = mapper.writeValueAsBytes(values);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return mapper.writeValueAsBytes(values);
+    }
+
+    @Benchmark
+    public List<?> decode() throws Exception {
+        return mapper.readValue(body, listType);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        System.out.printf("%-10s %10s %10s %10s%n", "payload", FORMATS[0], FORMATS[1], FORMATS[2]);
+        for (String payload : PAYLOADS) {
+            List<?> values = values(payload, items);
+            System.out.printf("%-10s", payload);
+            for (String format : FORMATS) {
+                System.out.printf(" %10d", mapper(format).writeValueAsBytes(values).length);
+            }
+            System.out.println();
+        }
+    }
+
+    private static ObjectMapper mapper(String format) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new ParameterNamesModule())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .deserializerByType(Room.class, new RoomDeserializer());
+        if ("smile".equals(format)) {
+            return WireFormatConfig.smileMapper(builder);
+        } else if ("cbor".equals(format)) {
+            return WireFormatConfig.cborMapper(builder);
+        }
+        return builder.build();
+    }
+
+    private static List<?> values(String payload, int items) {
+        LocalDate from = LocalDate.of(2030, 1, 1);
+        List<Object> values = new ArrayList<>(items);
+        for (int i = 1; i <= items; i++) {
+            if ("rooms".equals(payload)) {
+                Set<AbstractCommodity> commodities = Set.of(new Bed(BED_TYPES[i % BED_TYPES.length]),
+                        new Bed(BedType.SINGLE), new Toilet(), new Shower());
+                values.add(new Room(i, commodities));
+            } else if ("bookings".equals(payload)) {
+                LocalDate day = from.plusDays(i % 365);
+                values.add(new Booking(i, 1 + i % 100, 1 + i % 50, 1 + i % 3, day, day.plusDays(1 + i % 7)));
+            } else {
+                values.add(new Guest(i, "First" + i, "Last" + i, i % 2 == 0 ? Gender.MALE : Gender.FEMALE));
+            }
+        }
+        return values;
+    }
+}
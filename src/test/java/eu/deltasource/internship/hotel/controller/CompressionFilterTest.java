@@ -0,0 +1,169 @@
+package eu.deltasource.internship.hotel.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressionFilterTest {
+
+    private static final byte[] LARGE_BODY = "{\"bookingId\":1}".repeat(200).getBytes();
+    private static final byte[] SMALL_BODY = "{\"bookingId\":1}".getBytes();
+
+    private CompressionFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        filter = new CompressionFilter();
+        filter.setMinSize(1024);
+    }
+
+    @Test
+    public void largeResponseIsCompressedWithGzip() throws Exception {
+        //given
+        MockHttpServletRequest request = request("deflate, gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //when
+        filter.doFilter(request, response, writing("application/json", LARGE_BODY));
+
+        //then
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertArrayEquals(LARGE_BODY,
+                new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())).readAllBytes());
+    }
+
+    @Test
+    public void largeResponseIsCompressedWithDeflate() throws Exception {
+        //given
+        MockHttpServletRequest request = request("deflate, gzip;q=0");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //when
+        filter.doFilter(request, response, writing("application/cbor", LARGE_BODY));
+
+        //then
+        assertEquals("deflate", response.getHeader("Content-Encoding"));
+        assertArrayEquals(LARGE_BODY,
+                new InflaterInputStream(new ByteArrayInputStream(response.getContentAsByteArray())).readAllBytes());
+    }
+
+    @Test
+    public void smallOrUncompressibleResponseIsSentAsItIs() throws Exception {
+        //given
+        MockHttpServletResponse small = new MockHttpServletResponse();
+        MockHttpServletResponse image = new MockHttpServletResponse();
+
+        //when
+        filter.doFilter(request("gzip"), small, writing("application/json", SMALL_BODY));
+        filter.doFilter(request("gzip"), image, writing("image/png", LARGE_BODY));
+
+        //then
+        assertNull(small.getHeader("Content-Encoding"));
+        assertEquals(SMALL_BODY.length, small.getContentLength());
+        assertArrayEquals(SMALL_BODY, small.getContentAsByteArray());
+        assertNull(image.getHeader("Content-Encoding"));
+        assertArrayEquals(LARGE_BODY, image.getContentAsByteArray());
+    }
+
+    @Test
+    public void nonBlockingWriterUsesTheOutputOfTheResponse() throws Exception {
+        //given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        NonBlockingOutputStream target = new NonBlockingOutputStream(response.getOutputStream());
+        HttpServletResponse wrapped = new HttpServletResponseWrapper(response) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return target;
+            }
+        };
+        WriteListener listener = new WriteListener() {
+            @Override
+            public void onWritePossible() {
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+        };
+        AtomicBoolean ready = new AtomicBoolean(true);
+
+        //when
+        filter.doFilter(request("gzip"), wrapped, (req, res) -> {
+            res.setContentType("application/json");
+            res.getOutputStream().setWriteListener(listener);
+            ready.set(res.getOutputStream().isReady());
+            res.getOutputStream().write(LARGE_BODY);
+        });
+
+        //then
+        assertSame(listener, target.listener);
+        assertFalse(ready.get());
+        assertNull(response.getHeader("Content-Encoding"));
+        assertArrayEquals(LARGE_BODY, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void encodingFollowsAcceptEncoding() {
+        assertEquals("gzip", CompressionFilter.encoding("br, gzip;q=0.5"));
+        assertEquals("deflate", CompressionFilter.encoding("deflate"));
+        assertNull(CompressionFilter.encoding("gzip;q=0, identity"));
+        assertNull(CompressionFilter.encoding(null));
+    }
+
+    private static MockHttpServletRequest request(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bookings");
+        request.addHeader("Accept-Encoding", acceptEncoding);
+        return request;
+    }
+
+    private static FilterChain writing(String contentType, byte[] body) {
+        return (request, response) -> {
+            response.setContentType(contentType);
+            // written in small parts, as a serializer does
+            for (int i = 0; i < body.length; i += 100) {
+                response.getOutputStream().write(body, i, Math.min(100, body.length - i));
+                response.getOutputStream().flush();
+            }
+        };
+    }
+
+    private static final class NonBlockingOutputStream extends ServletOutputStream {
+
+        private final OutputStream out;
+        private WriteListener listener;
+
+        private NonBlockingOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+        }
+
+        @Override
+        public boolean isReady() {
+            return false;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            this.listener = listener;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package eu.deltasource.internship.hotel.controller;
+
+import eu.deltasource.internship.hotel.domain.ChangeEvent;
+import eu.deltasource.internship.hotel.service.ChangeEventLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+public class EventStreamCompressionTest {
+
+    private ChangeEventLog eventLog;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        eventLog = new ChangeEventLog();
+        EventController eventController = new EventController();
+        ReflectionTestUtils.setField(eventController, "eventLog", eventLog);
+        CompressionFilter compressionFilter = new CompressionFilter();
+        compressionFilter.setMinSize(1024);
+        mockMvc = MockMvcBuilders.standaloneSetup(eventController).addFilters(compressionFilter).build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        eventLog.stop();
+    }
+
+    @Test
+    public void eventStreamIsSentUncompressed() throws Exception {
+        //given
+        MvcResult result = mockMvc.perform(get("/events").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        //when
+        eventLog.publish(ChangeEvent.Entity.ROOM, ChangeEvent.Action.CREATED, 1);
+
+        //then
+        MockHttpServletResponse response = result.getResponse();
+        assertThat(awaitContent(response), containsString("event:change"));
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), nullValue());
+        assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH), nullValue());
+        assertThat(response.getContentType(), startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+    }
+
+    @Test
+    public void eventStreamRequestedByAnEventSourceIsNotWrapped() throws Exception {
+        //given
+        MvcResult result = mockMvc.perform(get("/events").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+            .accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        //when
+        eventLog.publish(ChangeEvent.Entity.ROOM, ChangeEvent.Action.CREATED, 1);
+
+        //then
+        MockHttpServletResponse response = result.getResponse();
+        assertThat(awaitContent(response), containsString("event:change"));
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), nullValue());
+        assertThat(response.getHeader(HttpHeaders.VARY), nullValue());
+    }
+
+    private static String awaitContent(MockHttpServletResponse response) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (response.getContentAsString().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return response.getContentAsString();
+    }
+}
@@ -0,0 +1,50 @@
+package eu.deltasource.internship.hotel.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.domain.Gender;
+import eu.deltasource.internship.hotel.domain.Guest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FieldProjectionModuleTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new FieldProjectionModule())
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+    private final Booking booking = new Booking(1, 2, 3, 2, LocalDate.of(2030, 5, 1), LocalDate.of(2030, 5, 4));
+
+    @Test
+    public void allFieldsAreWrittenWithoutProjection() throws Exception {
+        //when
+        String json = objectMapper.writeValueAsString(booking);
+
+        //then
+        assertEquals("{\"bookingId\":1,\"guestId\":2,\"roomId\":3,\"numberOfPeople\":2,"
+                + "\"from\":\"2030-05-01\",\"to\":\"2030-05-04\"}", json);
+    }
+
+    @Test
+    public void projectionKeepsOnlyRequestedFields() throws Exception {
+        //given
+        Guest guest = new Guest(4, "Anna", "Ivanova", Gender.FEMALE);
+
+        //when
+        String bookings = objectMapper.writer(FieldProjectionModule.projection(Set.of("bookingId", "from", "to")))
+                .writeValueAsString(List.of(booking));
+        String guests = objectMapper.writer(FieldProjectionModule.projection(Set.of("guestId", "unknown")))
+                .writeValueAsString(guest);
+
+        //then
+        assertEquals("[{\"bookingId\":1,\"from\":\"2030-05-01\",\"to\":\"2030-05-04\"}]", bookings);
+        assertEquals("{\"guestId\":4}", guests);
+    }
+}
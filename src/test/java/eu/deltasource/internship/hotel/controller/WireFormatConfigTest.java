@@ -0,0 +1,91 @@
+package eu.deltasource.internship.hotel.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.domain.Gender;
+import eu.deltasource.internship.hotel.domain.Guest;
+import eu.deltasource.internship.hotel.domain.Room;
+import eu.deltasource.internship.hotel.domain.commodity.AbstractCommodity;
+import eu.deltasource.internship.hotel.domain.commodity.Bed;
+import eu.deltasource.internship.hotel.domain.commodity.BedType;
+import eu.deltasource.internship.hotel.domain.commodity.Toilet;
+import eu.deltasource.internship.hotel.dto.RoomDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WireFormatConfigTest {
+
+    private final ObjectMapper jsonMapper = builder().build();
+    private final ObjectMapper cborMapper = WireFormatConfig.cborMapper(builder());
+    private final ObjectMapper smileMapper = WireFormatConfig.smileMapper(builder());
+
+    @Test
+    public void binaryFormatsKeepBookings() throws Exception {
+        //given
+        Booking booking = new Booking(1, 2, 3, 2, LocalDate.of(2030, 5, 1), LocalDate.of(2030, 5, 4));
+
+        //when
+        Booking fromCbor = cborMapper.readValue(cborMapper.writeValueAsBytes(booking), Booking.class);
+        Booking fromSmile = smileMapper.readValue(smileMapper.writeValueAsBytes(booking), Booking.class);
+
+        //then
+        for (Booking decoded : new Booking[]{fromCbor, fromSmile}) {
+            assertEquals(booking.getBookingId(), decoded.getBookingId());
+            assertEquals(booking.getGuestId(), decoded.getGuestId());
+            assertEquals(booking.getRoomId(), decoded.getRoomId());
+            assertEquals(booking.getNumberOfPeople(), decoded.getNumberOfPeople());
+            assertEquals(booking.getFrom(), decoded.getFrom());
+            assertEquals(booking.getTo(), decoded.getTo());
+        }
+    }
+
+    @Test
+    public void binaryFormatsKeepGuestsAndRooms() throws Exception {
+        //given
+        Guest guest = new Guest(4, "Anna", "Ivanova", Gender.FEMALE);
+        Set<AbstractCommodity> commodities = Set.of(new Bed(BedType.DOUBLE), new Toilet());
+        Room room = new Room(5, commodities);
+
+        //when
+        Guest decodedGuest = cborMapper.readValue(cborMapper.writeValueAsBytes(guest), Guest.class);
+        Room decodedRoom = smileMapper.readValue(smileMapper.writeValueAsBytes(room), Room.class);
+
+        //then
+        assertEquals("Anna", decodedGuest.getFirstName());
+        assertEquals(Gender.FEMALE, decodedGuest.getGender());
+        assertEquals(5, decodedRoom.getRoomId());
+        assertEquals(2, decodedRoom.getRoomCapacity());
+        assertThat(decodedRoom.getCommodities(), hasSize(2));
+    }
+
+    @Test
+    public void binaryFormatsAreSmallerThanJson() throws Exception {
+        //given
+        Room room = new Room(6, Set.of(new Bed(BedType.KING_SIZE), new Toilet()));
+
+        //when
+        int json = jsonMapper.writeValueAsBytes(room).length;
+        int cbor = cborMapper.writeValueAsBytes(room).length;
+        int smile = smileMapper.writeValueAsBytes(room).length;
+
+        //then
+        assertThat(cbor, lessThan(json));
+        assertThat(smile, lessThan(json));
+    }
+
+    private static Jackson2ObjectMapperBuilder builder() {
+        return Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new ParameterNamesModule())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .deserializerByType(Room.class, new RoomDeserializer());
+    }
+}
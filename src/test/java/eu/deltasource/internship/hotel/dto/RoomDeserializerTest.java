@@ -0,0 +1,60 @@
+package eu.deltasource.internship.hotel.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import eu.deltasource.internship.hotel.domain.Room;
+import eu.deltasource.internship.hotel.domain.commodity.BedType;
+import eu.deltasource.internship.hotel.exception.InvalidArgumentException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoomDeserializerTest {
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new SimpleModule().addDeserializer(Room.class, new RoomDeserializer()));
+    }
+
+    @Test
+    public void deserializeRoomsSuccessfully() throws Exception {
+        //given
+        String json = "[{\"roomId\":1,\"commodities\":[{\"@type\":\"Bed\",\"bedType\":\"DOUBLE\"},"
+                + "{\"@type\":\"Toilet\"},{\"inventoryId\":7,\"@type\":\"Shower\"}]},"
+                + "{\"commodities\":[{\"bedType\":\"SINGLE\",\"@type\":\"Bed\"}],\"roomId\":2}]";
+
+        //when
+        List<Room> rooms = objectMapper.readValue(json, new TypeReference<List<Room>>() {
+        });
+
+        //then
+        assertThat(rooms, hasSize(2));
+        assertEquals(3, rooms.get(0).getCommodities().size());
+        assertEquals(2, rooms.get(0).getRoomCapacity());
+        assertEquals(1, rooms.get(0).getSummary().getToilets());
+        assertEquals(1, rooms.get(0).getSummary().getShowers());
+        assertEquals(1, rooms.get(1).getSummary().getBedCount(BedType.SINGLE));
+    }
+
+    @Test
+    public void deserializeRoomThrowsExceptionWhenCommodityIsInvalid() {
+        //given
+        String nullCommodity = "{\"roomId\":1,\"commodities\":[null]}";
+        String unknownType = "{\"roomId\":1,\"commodities\":[{\"@type\":\"Sofa\"}]}";
+        String missingCommodities = "{\"roomId\":1}";
+
+        //when and then
+        assertThrows(InvalidArgumentException.class, () -> objectMapper.readValue(nullCommodity, Room.class));
+        assertThrows(InvalidArgumentException.class, () -> objectMapper.readValue(unknownType, Room.class));
+        assertThrows(InvalidArgumentException.class, () -> objectMapper.readValue(missingCommodities, Room.class));
+    }
+}
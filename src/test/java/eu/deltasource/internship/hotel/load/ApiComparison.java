@@ -0,0 +1,35 @@
+package eu.deltasource.internship.hotel.load;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Runs the same workload against the servlet endpoints and against
+ * their reactive variant, each in a freshly booted application.
+ * <p>
+ * Takes the options of {@link LoadGenerator}, but the defaults are set
+ * for high concurrency: more slow readers than the servlet container has
+ * request threads, and bookings enough to keep each of them busy for seconds.
+ */
+public class ApiComparison {
+
+    static final Map<String, String> COMPARISON_OPTIONS = Map.of(
+        "bookings", "20000",
+        "rate", "100",
+        "slow-readers", "400",
+        "mix", "get_room=40,get_booking=30,get_guest=20,save_booking=10");
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = LoadGenerator.parseOptions(args);
+        for (Map.Entry<String, String> option : COMPARISON_OPTIONS.entrySet()) {
+            if (options.get(option.getKey()).equals(LoadGenerator.DEFAULT_OPTIONS.get(option.getKey()))) {
+                options.put(option.getKey(), option.getValue());
+            }
+        }
+        for (String api : new String[]{LoadGenerator.MVC, LoadGenerator.REACTIVE}) {
+            options.put("api", api);
+            LoadGenerator.run(options, System.out);
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package eu.deltasource.internship.hotel.load;
+
+import java.util.Random;
+
+/**
+ * Ids known to the load generator, from which the requests pick at random
+ */
+class IdPool {
+
+    private int[] ids = new int[64];
+    private int size;
+
+    synchronized void add(int id) {
+        if (size == ids.length) {
+            int[] grown = new int[size * 2];
+            System.arraycopy(ids, 0, grown, 0, size);
+            ids = grown;
+        }
+        ids[size++] = id;
+    }
+
+    /**
+     * Picks an id, which stays in the pool
+     *
+     * @return the id or -1, when the pool is empty
+     */
+    synchronized int pick(Random random) {
+        return size == 0 ? -1 : ids[random.nextInt(size)];
+    }
+
+    /**
+     * Picks an id and removes it from the pool,
+     * so no other request uses it
+     *
+     * @return the id or -1, when the pool is empty
+     */
+    synchronized int take(Random random) {
+        if (size == 0) {
+            return -1;
+        }
+        int index = random.nextInt(size);
+        int id = ids[index];
+        ids[index] = ids[--size];
+        return id;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+}
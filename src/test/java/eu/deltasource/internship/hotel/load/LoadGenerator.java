@@ -0,0 +1,328 @@
+package eu.deltasource.internship.hotel.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import eu.deltasource.internship.hotel.HotelApplication;
+import eu.deltasource.internship.hotel.reactive.ReactiveServer;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator for the REST API.
+ * <p>
+ * Boots the application on a random port, seeds guests, rooms and bookings
+ * and sends a weighted mix of requests at a fixed rate. The requests are
+ * scheduled open loop: the latency of a request is measured from the time
+ * it should have been sent, so a slow server is not hidden by the generator
+ * sending less. After a warmup the latencies of every endpoint are reported
+ * as HdrHistogram percentiles.
+ * <p>
+ * Options are given as --name=value, see {@link #DEFAULT_OPTIONS}.
+ * The api option selects the servlet endpoints or their reactive variant,
+ * slow readers download the bookings slowly during the whole run.
+ */
+public class LoadGenerator {
+
+    static final String MVC = "mvc";
+    static final String REACTIVE = "reactive";
+    static final Map<String, String> DEFAULT_OPTIONS = Map.ofEntries(
+        Map.entry("api", MVC),
+        Map.entry("rate", "200"),
+        Map.entry("duration", "30"),
+        Map.entry("warmup", "10"),
+        Map.entry("guests", "1000"),
+        Map.entry("rooms", "200"),
+        Map.entry("bookings", "2000"),
+        Map.entry("mix", WorkloadMix.DEFAULT_MIX),
+        Map.entry("max-in-flight", "256"),
+        Map.entry("slow-readers", "0"),
+        Map.entry("seed", "42"),
+        Map.entry("hgrm-dir", ""));
+
+    private static final int SEED_BATCH = 500;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadState state;
+    private final WorkloadMix mix;
+    private final int rate;
+    private final int maxInFlight;
+    private final Random random;
+    private final HttpClient client;
+    private final Semaphore inFlight;
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final LongAdder skipped = new LongAdder();
+
+    /**
+     * This is a constructor
+     *
+     * @param baseUri     address of the server
+     * @param mix         the operations to send
+     * @param rate        requests per second
+     * @param maxInFlight maximum number of requests waiting for a response
+     * @param seed        seed of the random choices
+     */
+    LoadGenerator(URI baseUri, WorkloadMix mix, int rate, int maxInFlight, long seed) {
+        if (rate <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("The rate and the requests in flight must be positive");
+        }
+        this.state = new LoadState(baseUri, LocalDate.now().plusDays(1));
+        this.mix = mix;
+        this.rate = rate;
+        this.maxInFlight = maxInFlight;
+        this.random = new Random(seed);
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT).build();
+        this.inFlight = new Semaphore(maxInFlight);
+        for (Operation operation : mix.getWeights().keySet()) {
+            stats.put(operation, new EndpointStats());
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        run(parseOptions(args), System.out);
+    }
+
+    /**
+     * Boots the application, seeds it and measures it under the workload
+     *
+     * @param options the options, see {@link #DEFAULT_OPTIONS}
+     */
+    static void run(Map<String, String> options, PrintStream out) throws IOException, InterruptedException {
+        String api = options.get("api");
+        if (!MVC.equals(api) && !REACTIVE.equals(api)) {
+            throw new IllegalArgumentException("Unknown api " + api + ", the apis are " + MVC + " and " + REACTIVE);
+        }
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(HotelApplication.class)
+            .properties("server.port=0", "hotel.reactive.port=0", "logging.level.root=WARN").run();
+        try {
+            int port = MVC.equals(api) ? ((WebServerApplicationContext) context).getWebServer().getPort()
+                : context.getBean(ReactiveServer.class).getPort();
+            URI baseUri = URI.create("http://localhost:" + port);
+            LoadGenerator generator = new LoadGenerator(baseUri,
+                WorkloadMix.parse(options.get("mix")), Integer.parseInt(options.get("rate")),
+                Integer.parseInt(options.get("max-in-flight")), Long.parseLong(options.get("seed")));
+            generator.seed(Integer.parseInt(options.get("guests")), Integer.parseInt(options.get("rooms")),
+                Integer.parseInt(options.get("bookings")));
+            SlowReaders slowReaders = new SlowReaders(baseUri.resolve("/bookings"));
+            slowReaders.start(Integer.parseInt(options.get("slow-readers")));
+            try {
+                generator.run(Duration.ofSeconds(Long.parseLong(options.get("warmup"))));
+                generator.reset();
+                Duration elapsed = generator.run(Duration.ofSeconds(Long.parseLong(options.get("duration"))));
+                out.printf("%s api%n", api);
+                generator.report(out, elapsed);
+                out.printf("%d slow readers downloaded /bookings %d times, %d connections failed%n",
+                    Integer.parseInt(options.get("slow-readers")), slowReaders.getResponses(),
+                    slowReaders.getFailures());
+            } finally {
+                slowReaders.stop();
+            }
+            if (!options.get("hgrm-dir").isEmpty()) {
+                generator.writeHistograms(Paths.get(options.get("hgrm-dir"), api));
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    static Map<String, String> parseOptions(String... args) {
+        return parseOptions(DEFAULT_OPTIONS, args);
+    }
+
+    static Map<String, String> parseOptions(Map<String, String> defaults, String... args) {
+        Map<String, String> options = new HashMap<>(defaults);
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String name = arg.startsWith("--") && separator > 2 ? arg.substring(2, separator) : null;
+            if (name == null || !defaults.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown option " + arg + ", the options are "
+                    + defaults.keySet());
+            }
+            options.put(name, arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    /**
+     * Creates guests, rooms and bookings through the list endpoints
+     */
+    void seed(int guests, int rooms, int bookings) {
+        for (int saved = 0; saved < guests; saved += SEED_BATCH) {
+            List<Object> batch = new ArrayList<>();
+            for (int i = saved; i < Math.min(guests, saved + SEED_BATCH); i++) {
+                batch.add(state.guest(0, random));
+            }
+            for (JsonNode guest : post("/guests/list", batch)) {
+                state.getGuestIds().add(guest.get("guestId").asInt());
+            }
+        }
+        for (int saved = 0; saved < rooms; saved += SEED_BATCH) {
+            List<Object> batch = new ArrayList<>();
+            for (int i = saved; i < Math.min(rooms, saved + SEED_BATCH); i++) {
+                batch.add(state.room(random));
+            }
+            for (JsonNode room : post("/rooms/list", batch)) {
+                state.addRoom(room.get("roomId").asInt());
+            }
+        }
+        for (int saved = 0; saved < bookings; saved += SEED_BATCH) {
+            List<Object> batch = new ArrayList<>();
+            for (int i = saved; i < Math.min(bookings, saved + SEED_BATCH); i++) {
+                int roomId = state.getRoomIds().pick(random);
+                batch.add(state.booking(state.getGuestIds().pick(random), roomId,
+                    state.reserveDates(roomId, random)));
+            }
+            for (JsonNode booking : post("/bookings/list", batch)) {
+                state.addBooking(booking);
+            }
+        }
+    }
+
+    /**
+     * Sends requests at the configured rate and waits for their responses
+     *
+     * @return the time from the first request until the last response
+     */
+    Duration run(Duration duration) {
+        long period = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long intended = start; intended < end; intended += period) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = mix.next(random);
+            HttpRequest.Builder request = operation.request(state, random);
+            if (request == null) {
+                skipped.increment();
+                continue;
+            }
+            inFlight.acquireUninterruptibly();
+            long scheduled = intended;
+            client.sendAsync(request.timeout(REQUEST_TIMEOUT).build(), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    try {
+                        completed(operation, scheduled, response, error);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+        }
+        inFlight.acquireUninterruptibly(maxInFlight);
+        inFlight.release(maxInFlight);
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    /**
+     * Forgets the latencies recorded so far
+     */
+    void reset() {
+        stats.values().forEach(EndpointStats::reset);
+        skipped.reset();
+    }
+
+    /**
+     * Prints the throughput and latency percentiles of every endpoint
+     *
+     * @param elapsed duration of the measured run
+     */
+    void report(PrintStream out, Duration elapsed) {
+        double seconds = elapsed.toNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+        String format = "%-28s %8s %7s %8s %9s %9s %9s %9s %9s%n";
+        out.printf(format, "Endpoint", "Count", "Errors", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms",
+            "max ms");
+        Histogram total = new Histogram(3);
+        long errors = 0;
+        for (Map.Entry<Operation, EndpointStats> entry : stats.entrySet()) {
+            Histogram latencies = entry.getValue().getLatencies().copy();
+            total.add(latencies);
+            errors += entry.getValue().getErrors();
+            printRow(out, format, entry.getKey().getEndpoint(), latencies, entry.getValue().getErrors(), seconds);
+        }
+        printRow(out, format, "Total", total, errors, seconds);
+        out.printf("Target rate %d req/s, %d requests skipped for lack of ids%n", rate, skipped.sum());
+    }
+
+    /**
+     * Writes the percentile distribution of every endpoint to a .hgrm file
+     */
+    void writeHistograms(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Operation, EndpointStats> entry : stats.entrySet()) {
+            Path file = directory.resolve(entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                entry.getValue().getLatencies().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    Map<Operation, EndpointStats> getStats() {
+        return stats;
+    }
+
+    private void completed(Operation operation, long scheduled, HttpResponse<String> response, Throwable error) {
+        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled);
+        boolean failed = error != null || response.statusCode() >= 400;
+        if (!failed) {
+            try {
+                operation.completed(state, response.body());
+            } catch (RuntimeException e) {
+                failed = true;
+            }
+        }
+        stats.get(operation).record(latencyMicros, failed);
+    }
+
+    private JsonNode post(String path, Object body) {
+        try {
+            HttpResponse<String> response = client.send(state.json(path, "POST", body).build(),
+                HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException("Seeding " + path + " failed: " + response.body());
+            }
+            return state.read(response.body());
+        } catch (IOException e) {
+            throw new IllegalStateException("Seeding " + path + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Seeding " + path + " was interrupted", e);
+        }
+    }
+
+    private static void printRow(PrintStream out, String format, String endpoint, Histogram latencies,
+                                 long errors, double seconds) {
+        out.printf(format, endpoint, latencies.getTotalCount(), errors,
+            String.format("%.1f", latencies.getTotalCount() / seconds),
+            millis(latencies, 50), millis(latencies, 90), millis(latencies, 99), millis(latencies, 99.9),
+            String.format("%.2f", latencies.getMaxValue() / 1000.0));
+    }
+
+    private static String millis(Histogram latencies, double percentile) {
+        return String.format("%.2f", latencies.getValueAtPercentile(percentile) / 1000.0);
+    }
+}
@@ -0,0 +1,149 @@
+package eu.deltasource.internship.hotel.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * What the load generator knows about the data on the server.
+ * <p>
+ * New bookings of a room are placed after the last booking made by
+ * the generator, so booking requests never fail because of overlaps.
+ */
+class LoadState {
+
+    static final String[] FIRST_NAMES = {"John", "Maria", "Ivan", "Elena", "Georgi", "Anna", "Peter", "Sofia",
+        "Nikolay", "Olga", "Martin", "Irina", "David", "Chloe", "Lukas", "Yuki"};
+    static final String[] LAST_NAMES = {"Miller", "Petrova", "Ivanov", "Novak", "Schmidt", "Garcia", "Rossi",
+        "Dimitrov", "Nakamura", "Dubois", "Kowalski", "Smith", "Popescu", "Jensen", "Silva", "Brown"};
+    static final int MAX_NIGHTS = 7;
+
+    private final URI baseUri;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final LocalDate firstDay;
+    private final IdPool guestIds = new IdPool();
+    private final IdPool newGuestIds = new IdPool();
+    private final IdPool roomIds = new IdPool();
+    private final IdPool bookingIds = new IdPool();
+    private final Map<Integer, LocalDate[]> stays = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicInteger> nextFreeDays = new ConcurrentHashMap<>();
+
+    /**
+     * This is a constructor
+     *
+     * @param baseUri  address of the server
+     * @param firstDay first day, which can be booked
+     */
+    LoadState(URI baseUri, LocalDate firstDay) {
+        this.baseUri = baseUri;
+        this.firstDay = firstDay;
+    }
+
+    HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path));
+    }
+
+    HttpRequest.Builder json(String path, String method, Object body) {
+        return request(path).header("Content-Type", "application/json")
+            .method(method, HttpRequest.BodyPublishers.ofString(write(body)));
+    }
+
+    IdPool getGuestIds() {
+        return guestIds;
+    }
+
+    IdPool getNewGuestIds() {
+        return newGuestIds;
+    }
+
+    IdPool getRoomIds() {
+        return roomIds;
+    }
+
+    IdPool getBookingIds() {
+        return bookingIds;
+    }
+
+    void addRoom(int roomId) {
+        roomIds.add(roomId);
+        nextFreeDays.put(roomId, new AtomicInteger());
+    }
+
+    void addBooking(JsonNode booking) {
+        int bookingId = booking.get("bookingId").asInt();
+        stays.put(bookingId, new LocalDate[]{LocalDate.parse(booking.get("from").asText()),
+            LocalDate.parse(booking.get("to").asText())});
+        bookingIds.add(bookingId);
+    }
+
+    void removeBooking(int bookingId) {
+        stays.remove(bookingId);
+    }
+
+    /**
+     * Gets the first and the last date of a booking made by the generator
+     *
+     * @return the dates or null, when the booking is not known
+     */
+    LocalDate[] stayOf(int bookingId) {
+        return stays.get(bookingId);
+    }
+
+    /**
+     * Reserves free dates in the room for a new booking
+     *
+     * @return the first and the last date of the stay
+     */
+    LocalDate[] reserveDates(int roomId, Random random) {
+        int nights = 1 + random.nextInt(MAX_NIGHTS);
+        int gap = random.nextInt(3);
+        int from = nextFreeDays.get(roomId).getAndAdd(gap + nights) + gap;
+        return new LocalDate[]{firstDay.plusDays(from), firstDay.plusDays(from + nights)};
+    }
+
+    Map<String, Object> guest(int guestId, Random random) {
+        return Map.of("guestId", guestId,
+            "firstName", FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+            "lastName", LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+            "gender", random.nextBoolean() ? "MALE" : "FEMALE");
+    }
+
+    Map<String, Object> room(Random random) {
+        String bedType = new String[]{"SINGLE", "DOUBLE", "KING_SIZE"}[random.nextInt(3)];
+        Object bed = Map.of("@type", "Bed", "bedType", bedType);
+        Object[] commodities = random.nextBoolean()
+            ? new Object[]{bed, Map.of("@type", "Shower"), Map.of("@type", "Toilet")}
+            : new Object[]{bed, bed, Map.of("@type", "Shower")};
+        return Map.of("roomId", 0, "commodities", commodities);
+    }
+
+    Map<String, Object> booking(int guestId, int roomId, LocalDate[] dates) {
+        return Map.of("bookingId", 0, "guestId", guestId, "roomId", roomId, "numberOfPeople", 1,
+            "from", dates[0].toString(), "to", dates[1].toString());
+    }
+
+    String write(Object value) {
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    JsonNode read(String body) {
+        try {
+            return mapper.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package eu.deltasource.internship.hotel.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.http.HttpRequest;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Requests, which the load generator sends to the REST API.
+ * <p>
+ * An operation builds its request from the ids known to the generator
+ * and records the ids created or removed by the response. Operations,
+ * which need an id while none is known, are skipped.
+ */
+enum Operation {
+
+    GET_ROOMS("GET /rooms") {
+        @Override
+        HttpRequest.Builder request(LoadState state, Random random) {
+            return state.request("/rooms").GET();
+        }
+    },
+    GET_ROOM("GET /rooms/{id}") {
+        @Override
+        HttpRequest.Builder request(LoadState state, Random random) {
+            int roomId = state.getRoomIds().pick(random);
+            return roomId < 0 ? null : state.request("/rooms/" + roomId).GET();
+        }
+    },
+    FIND_AVAILABLE_ROOMS("GET /rooms/available") {
+        @Override
+        HttpRequest.Builder request(LoadState state, Random random) {
+            LocalDate from = LocalDate.now().plusDays(1 + random.nextInt(365));
+            return state.request("/rooms/available?from=" + from + "&to="
+                + from.plusDays(1 + random.nextInt(LoadState.MAX_NIGHTS)) + "&numberOfPeople="
+                + (1 + random.nextInt(2))).GET();
+        }
+    },
+    SAVE_ROOM("POST /rooms") {
+        @Override
+        HttpRequest.Builder request(LoadState state, Random random) {
+            return state.json("/rooms", "POST", state.room(random));
+        }
+
+        @Override
+        void completed(LoadState state, String body) {
+            JsonNode saved = state.read(body);
+            state.addRoom(saved.get("roomId").asInt());
+        }
+    },
+    GET_GUESTS("GET /guests") {
+        @Override
+        HttpRequest.Builder request(LoadState state, Random random) {
+            return state.request("/guests").GET();
+        }
+    },
+    GET_GUEST("GET /guests/{id}") {
+        @Override
+        HttpRequest.Builder request(LoadState state, Random random) {
+            int guestId = state.getGuestIds().pick(random);
+            return guestId < 0 ? null : state.request("/guests/" + guestId).GET();
+        }
+    },
+    SEARCH_GUESTS("GET /guests/search") {
+        @Override
+        HttpRequest.Builder request(LoadState state, Random random) {
+            String name = LoadState.LAST_NAMES[random.nextInt(LoadState.LAST_NAMES.length)];
+            return state.request("/guests/search?q=" + name.substring(0, 1 + random.nextInt(name.length())))
+                .GET();
+        }
+    },
+    SAVE_GUEST("POST /guests") {
+        @Override
+        HttpRequest.Builder request(LoadState state, Random random) {
+            return state.json("/guests", "POST", state.guest(0, random));
+        }
+
+        @Override
+        void completed(LoadState state, String body) {
+            JsonNode saved = state.read(body);
+            state.getNewGuestIds().add(saved.get("guestId").asInt());
+        }
+    },
+    UPDATE_GUEST("PUT /guests") {
+        @Override
+        HttpRequest.Builder request(LoadState state, Random random) {
+            int guestId = state.getNewGuestIds().pick(random);
+            return guestId < 0 ? null : state.json("/guests", "PUT", state.guest(guestId, random));
+        }
+    },
+    DELETE_GUEST("DELETE /guests/{id}") {
+        @Override
+        HttpRequest.Builder request(LoadState state, Random random) {
+            int guestId = state.getNewGuestIds().take(random);
+            return guestId < 0 ? null : state.request("/guests/" + guestId).DELETE();
+        }
+    },
+    GET_BOOKINGS("GET /bookings") {
+        @Override
+        HttpRequest.Builder request(LoadState state, Random random) {
+            return state.request("/bookings").GET();
+        }
+    },
+    GET_BOOKING("GET /bookings/{id}") {
+        @Override
+        HttpRequest.Builder request(LoadState state, Random random) {
+            int bookingId = state.getBookingIds().pick(random);
+            return bookingId < 0 ? null : state.request("/bookings/" + bookingId).GET();
+        }
+    },
+    SAVE_BOOKING("POST /bookings") {
+        @Override
+        HttpRequest.Builder request(LoadState state, Random random) {
+            int guestId = state.getGuestIds().pick(random);
+            int roomId = state.getRoomIds().pick(random);
+            if (guestId < 0 || roomId < 0) {
+                return null;
+            }
+            return state.json("/bookings", "POST",
+                state.booking(guestId, roomId, state.reserveDates(roomId, random)));
+        }
+
+        @Override
+        void completed(LoadState state, String body) {
+            state.addBooking(state.read(body));
+        }
+    },
+    UPDATE_BOOKING_DATES("PUT /bookings/dates/{id}") {
+        @Override
+        HttpRequest.Builder request(LoadState state, Random random) {
+            int bookingId = state.getBookingIds().pick(random);
+            LocalDate[] stay = bookingId < 0 ? null : state.stayOf(bookingId);
+            if (stay == null) {
+                return null;
+            }
+            // the service accepts only new dates within the booked ones, so the stay is shortened
+            LocalDate to = stay[1].minusDays(1).isAfter(stay[0]) ? stay[1].minusDays(1) : stay[1];
+            return state.json("/bookings/dates/" + bookingId, "PUT",
+                Map.of("from", stay[0].toString(), "to", to.toString()));
+        }
+    },
+    DELETE_BOOKING("DELETE /bookings/{id}") {
+        @Override
+        HttpRequest.Builder request(LoadState state, Random random) {
+            int bookingId = state.getBookingIds().take(random);
+            if (bookingId < 0) {
+                return null;
+            }
+            state.removeBooking(bookingId);
+            return state.request("/bookings/" + bookingId).DELETE();
+        }
+    };
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Builds the next request of the operation
+     *
+     * @return the request or null, when the operation can not be sent now
+     */
+    abstract HttpRequest.Builder request(LoadState state, Random random);
+
+    /**
+     * Records the result of a successful request
+     *
+     * @param body the response body
+     */
+    void completed(LoadState state, String body) {
+    }
+}
@@ -0,0 +1,101 @@
+package eu.deltasource.internship.hotel.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Clients, which download a list over and over while reading it slowly.
+ * <p>
+ * Every reader keeps a connection busy with a large response and takes
+ * only a small chunk of it at a time, like a client on a slow network.
+ * A server, which writes the response from a request thread, loses that
+ * thread for as long as the download takes.
+ */
+class SlowReaders {
+
+    private static final int RECEIVE_BUFFER = 4096;
+    private static final int CHUNK = 1024;
+    private static final long PAUSE_MILLIS = 100;
+
+    private final URI uri;
+    private final List<Thread> threads = new ArrayList<>();
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile boolean running;
+
+    /**
+     * This is a constructor
+     *
+     * @param uri address of the list to download
+     */
+    SlowReaders(URI uri) {
+        this.uri = uri;
+    }
+
+    /**
+     * Starts the given number of readers
+     */
+    void start(int readers) {
+        running = true;
+        for (int i = 0; i < readers; i++) {
+            Thread thread = new Thread(this::readRepeatedly, "slow-reader-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    /**
+     * Stops the readers, closing their connections
+     */
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        threads.clear();
+    }
+
+    long getResponses() {
+        return responses.sum();
+    }
+
+    long getFailures() {
+        return failures.sum();
+    }
+
+    private void readRepeatedly() {
+        byte[] chunk = new byte[CHUNK];
+        while (running) {
+            try (Socket socket = new Socket()) {
+                socket.setReceiveBufferSize(RECEIVE_BUFFER);
+                socket.connect(new InetSocketAddress(uri.getHost(), uri.getPort()));
+                OutputStream out = socket.getOutputStream();
+                out.write(("GET " + uri.getRawPath() + " HTTP/1.1\r\nHost: " + uri.getHost()
+                    + "\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                InputStream in = socket.getInputStream();
+                while (running && in.read(chunk) >= 0) {
+                    TimeUnit.MILLISECONDS.sleep(PAUSE_MILLIS);
+                }
+                if (running) {
+                    responses.increment();
+                }
+            } catch (IOException e) {
+                failures.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package eu.deltasource.internship.hotel.load;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time from starting the application to its first served request.
+ * <p>
+ * The packaged application is started in a new JVM, without and with lazy beans
+ * and, when the class data sharing archive of the startup profile exists, also
+ * with the archive. The time is taken from starting the process until a GET of
+ * the path returns 200, the median, the fastest and the slowest of the runs
+ * are printed.
+ * <p>
+ * Options are given as --name=value, see {@link #DEFAULT_OPTIONS}.
+ */
+public class StartupComparison {
+
+    static final Map<String, String> DEFAULT_OPTIONS = Map.of(
+        "jar", "target/hotel-1.0-SNAPSHOT.jar",
+        "archive", "target/hotel.jsa",
+        "runs", "5",
+        "path", "/rooms");
+
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+    private static final String LAZY = "--hotel.startup.lazy=true";
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = LoadGenerator.parseOptions(DEFAULT_OPTIONS, args);
+        Path jar = Paths.get(options.get("jar"));
+        Path archive = Paths.get(options.get("archive"));
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        variants.put("default", List.of());
+        variants.put("lazy", List.of(LAZY));
+        if (Files.exists(archive)) {
+            String sharedArchive = "-XX:SharedArchiveFile=" + archive;
+            variants.put("cds", List.of(sharedArchive));
+            variants.put("cds+lazy", List.of(sharedArchive, LAZY));
+        }
+        int runs = Integer.parseInt(options.get("runs"));
+        System.out.printf("%-10s %10s %10s %10s%n", "Variant", "median ms", "min ms", "max ms");
+        for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+            long[] millis = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                millis[i] = timeToFirstRequest(jar, variant.getValue(), options.get("path"));
+            }
+            Arrays.sort(millis);
+            System.out.printf("%-10s %10d %10d %10d%n", variant.getKey(), millis[runs / 2], millis[0],
+                millis[runs - 1]);
+        }
+    }
+
+    /**
+     * Starts the application and waits for its first successful response
+     *
+     * @param arguments the JVM options, before the jar, and the application arguments, after it
+     * @return the time since starting the process in milliseconds
+     */
+    static long timeToFirstRequest(Path jar, List<String> arguments, String path)
+        throws IOException, InterruptedException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        arguments.stream().filter(argument -> argument.startsWith("-X")).forEach(command::add);
+        command.addAll(List.of("-jar", jar.toString(), "--server.port=" + port));
+        arguments.stream().filter(argument -> argument.startsWith("--")).forEach(command::add);
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            while (System.nanoTime() - start < START_TIMEOUT.toNanos()) {
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (ConnectException e) {
+                    // the server is not listening yet
+                }
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("The application exited with " + process.exitValue());
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("The application did not answer in " + START_TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package eu.deltasource.internship.hotel.load;
+
+import eu.deltasource.internship.hotel.HotelApplication;
+import eu.deltasource.internship.hotel.service.WarmupService;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Measures how long the latencies take to settle after a start,
+ * without and with the warmup of {@link WarmupService}.
+ * <p>
+ * Every server is a fresh JVM, the client stays in this JVM and is warmed up
+ * against a throwaway server first, so only the server starts cold. A run
+ * waits for GET /ready, seeds the server and sends the workload at a fixed
+ * rate, reporting the latencies of every window of time. The time to steady
+ * state is the start of the first three windows in a row with a p99 no
+ * higher than 1.5 times the steady p99, the median p99 of the last third.
+ * <p>
+ * Options are given as --name=value, see {@link #DEFAULT_OPTIONS}.
+ * The warmup option is true, false or both, which runs without and with it.
+ */
+public class WarmupComparison {
+
+    static final Map<String, String> DEFAULT_OPTIONS = Map.ofEntries(
+        Map.entry("warmup", "both"),
+        Map.entry("iterations", "20000"),
+        Map.entry("client-warmup", "20"),
+        Map.entry("rate", "200"),
+        Map.entry("duration", "60"),
+        Map.entry("window", "1"),
+        Map.entry("guests", "1000"),
+        Map.entry("rooms", "200"),
+        Map.entry("bookings", "2000"),
+        Map.entry("mix", WorkloadMix.DEFAULT_MIX),
+        Map.entry("seed", "42"),
+        Map.entry("serve", "false"));
+
+    private static final String PORT_PREFIX = "port=";
+    private static final double STEADY_FACTOR = 1.5;
+    private static final int STEADY_WINDOWS = 3;
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadGenerator.parseOptions(DEFAULT_OPTIONS, args);
+        if (Boolean.parseBoolean(options.get("serve"))) {
+            serve(options);
+            return;
+        }
+        List<String> runs = "both".equals(options.get("warmup")) ? List.of("false", "true")
+            : List.of(options.get("warmup"));
+        try (Server server = Server.start(options, "false")) {
+            LoadGenerator generator = generator(server, options);
+            generator.run(Duration.ofSeconds(Long.parseLong(options.get("client-warmup"))));
+        }
+        for (String warmup : runs) {
+            try (Server server = Server.start(options, warmup)) {
+                measure(warmup, server, options, System.out);
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * Boots the application in this JVM, prints its port and serves until the input ends
+     */
+    private static void serve(Map<String, String> options) throws IOException {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(HotelApplication.class)
+            .properties("server.port=0", "logging.level.root=OFF", "spring.main.banner-mode=off",
+                "hotel.warmup.enabled=" + options.get("warmup"),
+                "hotel.warmup.iterations=" + options.get("iterations"))
+            .listeners((ApplicationListener<ServletWebServerInitializedEvent>) event -> {
+                System.out.println(PORT_PREFIX + event.getWebServer().getPort());
+                System.out.flush();
+            })
+            .run();
+        try {
+            while (System.in.read() >= 0) {
+                // the parent closes the input to stop the server
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static LoadGenerator generator(Server server, Map<String, String> options) {
+        LoadGenerator generator = new LoadGenerator(server.getBaseUri(), WorkloadMix.parse(options.get("mix")),
+            Integer.parseInt(options.get("rate")), 256, Long.parseLong(options.get("seed")));
+        generator.seed(Integer.parseInt(options.get("guests")), Integer.parseInt(options.get("rooms")),
+            Integer.parseInt(options.get("bookings")));
+        return generator;
+    }
+
+    private static void measure(String warmup, Server server, Map<String, String> options, PrintStream out) {
+        LoadGenerator generator = generator(server, options);
+        Duration window = Duration.ofSeconds(Long.parseLong(options.get("window")));
+        int windows = (int) (Long.parseLong(options.get("duration")) / window.getSeconds());
+        out.printf("warmup=%s, ready %d ms after the process started%n", warmup, server.getReadyMillis());
+        out.printf("%8s %8s %7s %9s %9s %9s%n", "Second", "Count", "Errors", "p50 ms", "p99 ms", "max ms");
+        long[] p99s = new long[windows];
+        Histogram all = new Histogram(3);
+        for (int i = 0; i < windows; i++) {
+            generator.run(window);
+            Histogram latencies = new Histogram(3);
+            long errors = 0;
+            for (EndpointStats stats : generator.getStats().values()) {
+                latencies.add(stats.getLatencies());
+                errors += stats.getErrors();
+            }
+            generator.reset();
+            all.add(latencies);
+            p99s[i] = latencies.getValueAtPercentile(99);
+            out.printf("%8d %8d %7d %9.2f %9.2f %9.2f%n", i * window.getSeconds(), latencies.getTotalCount(),
+                errors, latencies.getValueAtPercentile(50) / 1000.0, p99s[i] / 1000.0,
+                latencies.getMaxValue() / 1000.0);
+        }
+        long steady = steadyP99(p99s);
+        int settled = settledWindow(p99s, steady);
+        out.printf("Steady p99 %.2f ms, whole run p99 %.2f ms, steady state after %s%n", steady / 1000.0,
+            all.getValueAtPercentile(99) / 1000.0, settled < 0 ? "never" : settled * window.getSeconds() + " s");
+    }
+
+    /**
+     * Gets the median p99 of the last third of the windows
+     */
+    static long steadyP99(long[] p99s) {
+        long[] last = Arrays.copyOfRange(p99s, p99s.length - Math.max(1, p99s.length / 3), p99s.length);
+        Arrays.sort(last);
+        return last[last.length / 2];
+    }
+
+    /**
+     * Gets the first of three windows in a row close to the steady p99
+     *
+     * @return index of the window, -1 when the latencies never settle
+     */
+    static int settledWindow(long[] p99s, long steady) {
+        int inRow = 0;
+        for (int i = 0; i < p99s.length; i++) {
+            inRow = p99s[i] <= steady * STEADY_FACTOR ? inRow + 1 : 0;
+            if (inRow == STEADY_WINDOWS) {
+                return i - STEADY_WINDOWS + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Represents the application running in a child JVM
+     */
+    private static final class Server implements AutoCloseable {
+
+        private final Process process;
+        private final URI baseUri;
+        private final long readyMillis;
+
+        private Server(Process process, URI baseUri, long readyMillis) {
+            this.process = process;
+            this.baseUri = baseUri;
+            this.readyMillis = readyMillis;
+        }
+
+        /**
+         * Starts a server and waits until GET /ready answers 200
+         */
+        static Server start(Map<String, String> options, String warmup) throws Exception {
+            List<String> command = new ArrayList<>(Arrays.asList(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), WarmupComparison.class.getName(),
+                "--serve=true", "--warmup=" + warmup, "--iterations=" + options.get("iterations")));
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            CompletableFuture<Integer> port = new CompletableFuture<>();
+            Thread reader = new Thread(() -> readOutput(process, port), "server-output");
+            reader.setDaemon(true);
+            reader.start();
+            try {
+                URI baseUri = URI.create("http://localhost:"
+                    + port.get(START_TIMEOUT.toSeconds(), TimeUnit.SECONDS));
+                awaitReady(baseUri, start);
+                return new Server(process, baseUri, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (ExecutionException | TimeoutException | RuntimeException e) {
+                process.destroyForcibly();
+                throw e;
+            }
+        }
+
+        URI getBaseUri() {
+            return baseUri;
+        }
+
+        long getReadyMillis() {
+            return readyMillis;
+        }
+
+        @Override
+        public void close() throws InterruptedException, IOException {
+            process.getOutputStream().close();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+
+        private static void readOutput(Process process, CompletableFuture<Integer> port) {
+            try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                StandardCharsets.UTF_8))) {
+                for (String line = output.readLine(); line != null; line = output.readLine()) {
+                    if (line.startsWith(PORT_PREFIX)) {
+                        port.complete(Integer.parseInt(line.substring(PORT_PREFIX.length())));
+                    }
+                }
+                port.completeExceptionally(new IllegalStateException("The server exited before it started"));
+            } catch (IOException e) {
+                port.completeExceptionally(e);
+            }
+        }
+
+        private static void awaitReady(URI baseUri, long start) throws IOException, InterruptedException {
+            HttpClient client = HttpClient.newHttpClient();
+            HttpRequest ready = HttpRequest.newBuilder(baseUri.resolve("/ready")).build();
+            while (client.send(ready, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                if (System.nanoTime() - start > START_TIMEOUT.toNanos()) {
+                    throw new IllegalStateException("The server was not ready in " + START_TIMEOUT);
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package eu.deltasource.internship.hotel.load;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted mix of the operations, which the load generator sends.
+ * <p>
+ * A mix is written as a list of operation names with their weights,
+ * for example "get_room=60,save_booking=30,delete_booking=10".
+ * Each request picks an operation with a probability proportional to its weight.
+ */
+class WorkloadMix {
+
+    static final String DEFAULT_MIX = "get_rooms=5,get_room=15,find_available_rooms=15,save_room=1,"
+        + "get_guests=3,get_guest=15,search_guests=8,save_guest=5,update_guest=3,delete_guest=2,"
+        + "get_bookings=2,get_booking=12,save_booking=8,update_booking_dates=3,delete_booking=3";
+
+    private final Map<Operation, Integer> weights;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private WorkloadMix(Map<Operation, Integer> weights) {
+        this.weights = weights;
+        operations = weights.keySet().toArray(new Operation[0]);
+        cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Parses a mix
+     *
+     * @param mix comma separated pairs of an operation name and its weight
+     * @return the parsed mix
+     */
+    static WorkloadMix parse(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String pair : mix.split(",")) {
+            String[] parts = pair.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + pair);
+            }
+            Operation operation;
+            int weight;
+            try {
+                operation = Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+                weight = Integer.parseInt(parts[1].trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid mix entry: " + pair + ", operations are "
+                    + Arrays.toString(Operation.values()), e);
+            }
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight: " + pair);
+            }
+            if (weight > 0) {
+                weights.merge(operation, weight, Integer::sum);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix has no operations: " + mix);
+        }
+        return new WorkloadMix(weights);
+    }
+
+    /**
+     * Picks the next operation
+     */
+    Operation next(Random random) {
+        int point = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = Arrays.binarySearch(cumulativeWeights, point + 1);
+        return operations[index < 0 ? -index - 1 : index];
+    }
+
+    Map<Operation, Integer> getWeights() {
+        return weights;
+    }
+}
@@ -0,0 +1,49 @@
+package eu.deltasource.internship.hotel.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkloadMixTest {
+
+    @Test
+    public void operationsArePickedInProportionToTheirWeights() {
+        //given
+        WorkloadMix mix = WorkloadMix.parse("get_room=3, SAVE_BOOKING=1,delete_booking=0");
+        Random random = new Random(1);
+        Map<Operation, Integer> picks = new EnumMap<>(Operation.class);
+
+        //when
+        for (int i = 0; i < 40000; i++) {
+            picks.merge(mix.next(random), 1, Integer::sum);
+        }
+
+        //then
+        assertThat(picks.keySet(), contains(Operation.GET_ROOM, Operation.SAVE_BOOKING));
+        assertThat(picks.get(Operation.GET_ROOM), is(both(greaterThan(29500)).and(lessThan(30500))));
+    }
+
+    @Test
+    public void defaultMixCoversAllOperations() {
+        //when
+        WorkloadMix mix = WorkloadMix.parse(WorkloadMix.DEFAULT_MIX);
+
+        //then
+        assertThat(mix.getWeights().keySet(), containsInAnyOrder(Operation.values()));
+    }
+
+    @Test
+    public void invalidMixIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("get_everything=1"));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("get_room"));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("get_room=-1"));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("get_room=0"));
+        assertThrows(IllegalArgumentException.class, () -> LoadGenerator.parseOptions("--speed=10"));
+    }
+}
@@ -0,0 +1,75 @@
+package eu.deltasource.internship.hotel.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.deltasource.internship.hotel.domain.Gender;
+import eu.deltasource.internship.hotel.domain.Guest;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class StreamingJsonEncoderTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final StreamingJsonEncoder encoder = new StreamingJsonEncoder(objectMapper);
+
+    @Test
+    public void streamIsWrittenLikeTheWholeList() throws Exception {
+        //given
+        List<Guest> guests = List.of(new Guest(1, "John", "Miller", Gender.MALE),
+                new Guest(2, "Maria", "Smith", Gender.FEMALE), new Guest(3, "Ivan", "Petrov", Gender.MALE));
+
+        //when
+        String json = encode(Flux.fromIterable(guests), MediaType.APPLICATION_JSON);
+
+        //then
+        assertThat(json, is(objectMapper.writeValueAsString(guests)));
+        assertThat(encode(Flux.empty(), MediaType.APPLICATION_JSON), is("[]"));
+    }
+
+    @Test
+    public void itemsAreEncodedOnlyWhenRequested() {
+        //given
+        AtomicInteger emitted = new AtomicInteger();
+        Flux<Guest> guests = Flux.range(1, 1000)
+                .map(id -> new Guest(id, "John", "Miller", Gender.MALE))
+                .doOnNext(guest -> emitted.incrementAndGet());
+
+        //when
+        List<DataBuffer> buffers = encoder.encode(guests, new DefaultDataBufferFactory(),
+                ResolvableType.forClass(Guest.class), MediaType.APPLICATION_JSON, Collections.emptyMap())
+                .take(5).collectList().block();
+
+        //then
+        assertThat(buffers, hasSize(5));
+        assertThat(emitted.get(), lessThan(1000));
+    }
+
+    @Test
+    public void streamingMediaTypeIsLeftToTheDefaultEncoder() {
+        //when
+        String json = encode(Flux.just(new Guest(1, "John", "Miller", Gender.MALE)), MediaType.APPLICATION_STREAM_JSON);
+
+        //then
+        assertThat(json, startsWith("{\"guestId\":1"));
+        assertThat(json, endsWith("\n"));
+    }
+
+    private String encode(Flux<?> items, MediaType mediaType) {
+        return encoder.encode(items, new DefaultDataBufferFactory(), ResolvableType.forClass(Guest.class), mediaType,
+                Collections.emptyMap())
+                .map(buffer -> StandardCharsets.UTF_8.decode(buffer.asByteBuffer()).toString())
+                .collectList().map(parts -> String.join("", parts)).block();
+    }
+}
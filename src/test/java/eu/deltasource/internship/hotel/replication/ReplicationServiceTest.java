@@ -0,0 +1,212 @@
+package eu.deltasource.internship.hotel.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import eu.deltasource.internship.hotel.domain.*;
+import eu.deltasource.internship.hotel.domain.commodity.*;
+import eu.deltasource.internship.hotel.dto.RoomDeserializer;
+import eu.deltasource.internship.hotel.exception.InvalidArgumentException;
+import eu.deltasource.internship.hotel.repository.*;
+import eu.deltasource.internship.hotel.service.*;
+import eu.deltasource.internship.hotel.utility.Today;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicationServiceTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private final List<Node> nodes = new ArrayList<>();
+    private Node primary;
+
+    @BeforeEach
+    public void setUp() {
+        primary = node("primary", 0, 0);
+        primary.guestService.save(new Guest(1, "John", "Miller", Gender.MALE));
+        primary.roomService.save(new Room(1, new HashSet<>(Arrays.asList(new Bed(BedType.DOUBLE), new Toilet()))));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Today.useSystemClock();
+        for (Node node : nodes) {
+            node.replicationService.stop();
+            node.eventLog.stop();
+        }
+    }
+
+    @Test
+    public void followerReceivesSnapshotAndLiveChanges() {
+        //given
+        Node follower = node("follower", 0, primary.replicationService.getPort());
+        awaitUntil(() -> follower.guestService.findAll().size() == 1 && follower.roomService.findAll().size() == 1);
+
+        //when
+        LocalDate from = LocalDate.now().plusDays(5);
+        Booking booking = primary.bookingService.save(new Booking(1, 1, 1, 2, from, from.plusDays(2)));
+        Guest guest = primary.guestService.save(new Guest(2, "Maria", "Smith", Gender.FEMALE));
+        primary.guestService.deleteById(guest.getGuestId());
+        awaitUntil(() -> follower.bookingService.findAll().size() == 1
+                && follower.replicationService.status().getLastSequence() == primary.eventLog.lastSequence());
+
+        //then
+        Booking replicated = follower.bookingService.findById(booking.getBookingId());
+        assertThat(replicated.getFrom(), is(from));
+        assertThat(follower.guestService.findAll(), hasSize(1));
+        assertThat(follower.roomService.findById(1).getCommodities(), hasSize(2));
+        assertTrue(follower.replicationService.isReadOnly());
+        assertTrue(follower.replicationService.status().isConnected());
+        assertThat(follower.replicationService.status().getAppliedChanges(), is(3L));
+        assertThat(primary.replicationService.status().getFollowers(), is(1));
+    }
+
+    @Test
+    public void bookingsWhichHaveBegunAreReplicated() {
+        //given
+        LocalDate from = LocalDate.now().plusDays(1);
+        Booking booking = primary.bookingService.save(new Booking(1, 1, 1, 2, from, from.plusDays(5)));
+        Today.useClock(Clock.offset(Clock.systemDefaultZone(), Duration.ofDays(3)));
+
+        //when
+        Node follower = node("follower", 0, primary.replicationService.getPort());
+        awaitUntil(() -> follower.bookingService.findAll().size() == 1);
+        primary.eventLog.publish(ChangeEvent.Entity.BOOKING, ChangeEvent.Action.UPDATED, booking.getBookingId());
+        awaitUntil(() -> follower.replicationService.status().getLastSequence() == primary.eventLog.lastSequence());
+
+        //then
+        assertThat(follower.bookingService.findById(booking.getBookingId()).getFrom(), is(from));
+        assertTrue(follower.replicationService.status().isConnected());
+        assertThat(primary.replicationService.status().getFollowers(), is(1));
+    }
+
+    @Test
+    public void followerResyncsWhenAChangeCanNotBeSent() throws IOException {
+        //given
+        AtomicBoolean failing = new AtomicBoolean(true);
+        ReplicaStore store = new ReplicaStore(primary.guestRepository, primary.roomRepository,
+                primary.bookingRepository, primary.eventLog, primary.objectMapper) {
+            @Override
+            ReplicationRecord toRecord(ChangeEvent event) {
+                if (failing.getAndSet(false)) {
+                    throw new IllegalStateException("The change can not be read!");
+                }
+                return super.toRecord(event);
+            }
+        };
+        ReplicationPrimary shipping = new ReplicationPrimary(store, 0);
+        Node follower = node("follower", 0, shipping.start());
+        try {
+            awaitUntil(() -> follower.guestService.findAll().size() == 1);
+
+            //when
+            primary.guestService.save(new Guest(2, "Maria", "Smith", Gender.FEMALE));
+            awaitUntil(() -> follower.guestService.findAll().size() == 2);
+
+            //then
+            assertThat(follower.guestService.findById(2).getLastName(), is("Smith"));
+            assertFalse(failing.get());
+        } finally {
+            shipping.stop();
+        }
+    }
+
+    @Test
+    public void promotedFollowerAcceptsWritesAndFollowers() {
+        //given
+        Node follower = node("follower", 0, primary.replicationService.getPort());
+        awaitUntil(() -> follower.guestService.findAll().size() == 1);
+
+        //when
+        primary.replicationService.stop();
+        follower.replicationService.promote();
+        follower.guestService.save(new Guest(2, "Maria", "Smith", Gender.FEMALE));
+        Node next = node("follower", 0, follower.replicationService.getPort());
+        awaitUntil(() -> next.guestService.findAll().size() == 2);
+
+        //then
+        assertFalse(follower.replicationService.isReadOnly());
+        assertThat(follower.replicationService.status().getRole(), is("PRIMARY"));
+        assertThrows(InvalidArgumentException.class, () -> primary.replicationService.promote());
+    }
+
+    @Test
+    public void followerCatchesUpAfterThePrimaryRestarts() {
+        //given
+        int port = primary.replicationService.getPort();
+        Node follower = node("follower", 0, port);
+        awaitUntil(() -> follower.replicationService.status().isConnected());
+
+        //when
+        primary.replicationService.stop();
+        awaitUntil(() -> !follower.replicationService.status().isConnected());
+        primary.guestService.save(new Guest(2, "Maria", "Smith", Gender.FEMALE));
+        ReplicationService restarted = new ReplicationService(primary.guestRepository, primary.roomRepository,
+                primary.bookingRepository, primary.eventLog, primary.objectMapper, "primary", port, "localhost:0");
+        restarted.start();
+        try {
+            awaitUntil(() -> follower.guestService.findAll().size() == 2);
+
+            //then
+            assertThat(follower.guestService.findById(2).getLastName(), is("Smith"));
+        } finally {
+            restarted.stop();
+        }
+    }
+
+    private Node node(String role, int port, int primaryPort) {
+        Node node = new Node(role, port, primaryPort);
+        nodes.add(node);
+        return node;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Replication did not catch up in time");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                fail(e);
+            }
+        }
+    }
+
+    private static final class Node {
+
+        private final GuestRepository guestRepository = new GuestRepository();
+        private final RoomRepository roomRepository = new RoomRepository();
+        private final BookingRepository bookingRepository = new BookingRepository();
+        private final ChangeEventLog eventLog = new ChangeEventLog();
+        private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new ParameterNamesModule())
+                .deserializerByType(Room.class, new RoomDeserializer()).build();
+        private final GuestService guestService = new GuestService(guestRepository, eventLog);
+        private final RoomService roomService = new RoomService(roomRepository, eventLog);
+        private final BookingService bookingService = new BookingService(bookingRepository,
+                new BookingHoldRepository(), roomService, guestService, eventLog);
+        private final ReplicationService replicationService;
+
+        private Node(String role, int port, int primaryPort) {
+            replicationService = new ReplicationService(guestRepository, roomRepository, bookingRepository,
+                    eventLog, objectMapper, role, port, "localhost:" + primaryPort);
+            replicationService.start();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package eu.deltasource.internship.hotel.repository;
+
+import eu.deltasource.internship.hotel.domain.Booking;
+import eu.deltasource.internship.hotel.exception.FailedInitializationException;
+import eu.deltasource.internship.hotel.utility.Today;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingRepositoryEngineTest {
+
+    @Test
+    public void repositoriesBehaveAlikeOnEveryEngine() {
+        //given
+        BookingRepository list = new BookingRepository("list");
+        BookingRepository indexed = new BookingRepository("indexed");
+        BookingRepository offHeap = new BookingRepository("off-heap");
+
+        //when
+        for (BookingRepository repository : List.of(list, indexed, offHeap)) {
+            int firstDay = Today.epochDay() + 1;
+            for (int i = 0; i < 300; i++) {
+                repository.save(new Booking(0, 1 + i % 7, 1 + i % 20, 1, firstDay + i, firstDay + i + 2));
+            }
+            for (int id = 2; id <= 300; id += 3) {
+                repository.deleteById(id);
+            }
+            // the last two bookings are deleted, so the id after 298 is given again
+            repository.deleteById(300);
+            repository.save(new Booking(0, 3, 5, 2, firstDay + 400, firstDay + 401));
+            repository.updateDates(new Booking(1, 1, 1, 1, firstDay + 500, firstDay + 505));
+            repository.restore(new Booking(1000, 4, 4, 1, firstDay + 600, firstDay + 602));
+        }
+
+        //then
+        assertThat(indexed.findAll(), contains(list.findAll().toArray()));
+        assertThat(offHeap.findAll(), contains(list.findAll().toArray()));
+        assertEquals(list.count(), offHeap.count());
+        assertThat(offHeap.findById(299).getRoomId(), is(5));
+        assertThat(offHeap.findById(1).getToDay(), is(list.findById(1).getToDay()));
+        assertFalse(offHeap.existsById(2));
+        for (BookingRepository repository : List.of(list, indexed, offHeap)) {
+            assertThat(repository.save(new Booking(0, 1, 1, 1, Today.epochDay() + 700, Today.epochDay() + 701))
+                .getBookingId(), is(1001));
+        }
+    }
+
+    @Test
+    public void unknownEngineIsRejected() {
+        assertThrows(FailedInitializationException.class, () -> new BookingRepository("disk"));
+    }
+
+    @Test
+    public void guestsAndRoomsCanNotBeKeptOffTheHeap() {
+        assertThrows(FailedInitializationException.class, () -> new GuestRepository("off-heap"));
+        assertThrows(FailedInitializationException.class, () -> new RoomRepository("off-heap"));
+    }
+}
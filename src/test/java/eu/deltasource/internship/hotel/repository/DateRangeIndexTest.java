@@ -0,0 +1,44 @@
+package eu.deltasource.internship.hotel.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DateRangeIndexTest {
+
+    @Test
+    public void overlapsAreFoundAfterLongRangesAreRemovedOrReplaced() {
+        //given
+        DateRangeIndex index = new DateRangeIndex();
+        index.add(1, 1, 100, 400);
+        index.add(1, 2, 100, 300);
+        index.add(1, 3, 500, 502);
+        index.add(1, 4, 510, 512);
+
+        //when
+        index.remove(1, 1, 100);
+        index.add(1, 2, 100, 103);
+
+        //then
+        assertFalse(index.overlaps(1, 103, 500));
+        assertTrue(index.overlaps(1, 102, 104));
+        assertThat(index.findOverlapping(1, 90, 511), contains(2, 3, 4));
+        assertThat(index.findOverlapping(1, 350, 450), empty());
+    }
+
+    @Test
+    public void roomWithoutRangesIsDropped() {
+        //given
+        DateRangeIndex index = new DateRangeIndex();
+        index.add(1, 1, 100, 400);
+
+        //when
+        index.remove(1, 1, 100);
+
+        //then
+        assertThat(index.roomIds(), empty());
+        assertFalse(index.overlaps(1, 100, 400));
+    }
+}
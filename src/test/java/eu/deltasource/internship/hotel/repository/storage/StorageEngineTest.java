@@ -0,0 +1,206 @@
+package eu.deltasource.internship.hotel.repository.storage;
+
+import eu.deltasource.internship.hotel.exception.FailedInitializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StorageEngineTest {
+
+    private static final List<String> ENGINES = List.of(StorageEngines.LIST, StorageEngines.INDEXED,
+            StorageEngines.OFF_HEAP);
+
+    @Test
+    public void putReplacesTheItemWithTheSameId() {
+        for (StorageEngine<Item> engine : engines()) {
+            //given
+            engine.put(new Item(1, 10));
+            engine.put(new Item(2, 20));
+
+            //when
+            engine.put(new Item(1, 11));
+
+            //then
+            assertThat(engine.get(1), is(new Item(1, 11)));
+            assertThat(engine.size(), is(2));
+            assertTrue(engine.contains(2));
+            assertNull(engine.get(3));
+        }
+    }
+
+    @Test
+    public void updateReplacesOnlyExistingItems() {
+        for (StorageEngine<Item> engine : engines()) {
+            //given
+            engine.put(new Item(1, 10));
+
+            //when
+            Item updated = engine.update(1, item -> new Item(1, item.value + 1));
+            Item missing = engine.update(2, item -> new Item(2, 0));
+
+            //then
+            assertThat(updated, is(new Item(1, 11)));
+            assertThat(engine.get(1), is(new Item(1, 11)));
+            assertNull(missing);
+            assertFalse(engine.contains(2));
+        }
+    }
+
+    @Test
+    public void failedUpdateKeepsTheStoredItem() {
+        for (StorageEngine<Item> engine : engines()) {
+            //given
+            engine.put(new Item(1, 10));
+
+            //when
+            assertThrows(IllegalStateException.class, () -> engine.update(1, item -> {
+                throw new IllegalStateException();
+            }));
+
+            //then
+            assertThat(engine.get(1), is(new Item(1, 10)));
+        }
+    }
+
+    @Test
+    public void rangeAndForEachFollowTheIds() {
+        for (StorageEngine<Item> engine : engines()) {
+            //given
+            engine.putAll(List.of(new Item(5, 50), new Item(1, 10), new Item(3, 30), new Item(8, 80)));
+
+            //when
+            List<Item> visited = new ArrayList<>();
+            engine.forEach(visited::add);
+
+            //then
+            assertThat(visited, contains(new Item(1, 10), new Item(3, 30), new Item(5, 50), new Item(8, 80)));
+            assertThat(engine.findAll(), is(visited));
+            assertThat(engine.range(2, 8), contains(new Item(3, 30), new Item(5, 50)));
+            assertThat(engine.range(8, 2), is(empty()));
+            assertThat(engine.range(9, 20), is(empty()));
+        }
+    }
+
+    @Test
+    public void lastIdFollowsRemovals() {
+        for (StorageEngine<Item> engine : engines()) {
+            //given
+            engine.putAll(List.of(new Item(1, 10), new Item(2, 20), new Item(7, 70)));
+
+            //when
+            Item removed = engine.remove(7);
+
+            //then
+            assertThat(removed, is(new Item(7, 70)));
+            assertThat(engine.lastId(), is(2));
+            assertNull(engine.remove(7));
+            engine.clear();
+            assertThat(engine.lastId(), is(0));
+            assertThat(engine.size(), is(0));
+        }
+    }
+
+    @Test
+    public void enginesMatchUnderRandomChanges() {
+        for (StorageEngine<Item> engine : engines()) {
+            //given
+            TreeMap<Integer, Item> expected = new TreeMap<>();
+            Random random = new Random(11);
+
+            //when
+            for (int i = 0; i < 20000; i++) {
+                int id = 1 + random.nextInt(500);
+                int action = random.nextInt(4);
+                if (action == 0) {
+                    assertEquals(expected.remove(id), engine.remove(id));
+                } else if (action == 1) {
+                    int value = i;
+                    assertEquals(expected.computeIfPresent(id, (key, item) -> new Item(id, value)),
+                            engine.update(id, item -> new Item(id, value)));
+                } else {
+                    expected.put(id, new Item(id, i));
+                    engine.put(new Item(id, i));
+                }
+            }
+
+            //then
+            assertThat(engine.findAll(), is(new ArrayList<>(expected.values())));
+            assertThat(engine.range(100, 200), is(new ArrayList<>(expected.subMap(100, 200).values())));
+            assertThat(engine.lastId(), is(expected.lastKey()));
+        }
+    }
+
+    @Test
+    public void itemsWithoutCodecCanNotBeKeptOffTheHeap() {
+        assertThrows(FailedInitializationException.class,
+                () -> StorageEngines.create(StorageEngines.OFF_HEAP, Item::getId));
+        assertThrows(FailedInitializationException.class,
+                () -> StorageEngines.create("disk", Item::getId, new ItemCodec()));
+    }
+
+    private static List<StorageEngine<Item>> engines() {
+        List<StorageEngine<Item>> engines = new ArrayList<>();
+        for (String engine : ENGINES) {
+            engines.add(StorageEngines.create(engine, Item::getId, new ItemCodec()));
+        }
+        return engines;
+    }
+
+    private static class Item {
+
+        private final int id;
+        private final int value;
+
+        Item(int id, int value) {
+            this.id = id;
+            this.value = value;
+        }
+
+        int getId() {
+            return id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Item && ((Item) obj).id == id && ((Item) obj).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, value);
+        }
+
+        @Override
+        public String toString() {
+            return id + ":" + value;
+        }
+    }
+
+    private static class ItemCodec implements SlotCodec<Item> {
+
+        @Override
+        public int slotBytes() {
+            return 2 * Integer.BYTES;
+        }
+
+        @Override
+        public void write(Item item, ByteBuffer buffer, int offset) {
+            buffer.putInt(offset, item.id);
+            buffer.putInt(offset + Integer.BYTES, item.value);
+        }
+
+        @Override
+        public Item read(ByteBuffer buffer, int offset) {
+            return new Item(buffer.getInt(offset), buffer.getInt(offset + Integer.BYTES));
+        }
+    }
+}
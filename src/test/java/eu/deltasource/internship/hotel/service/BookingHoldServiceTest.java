@@ -0,0 +1,152 @@
+package eu.deltasource.internship.hotel.service;
+
+import eu.deltasource.internship.hotel.domain.*;
+import eu.deltasource.internship.hotel.domain.commodity.*;
+import eu.deltasource.internship.hotel.exception.*;
+import eu.deltasource.internship.hotel.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingHoldServiceTest {
+
+    private MutableClock clock;
+    private GuestService guestService;
+    private BookingService bookingService;
+    private BookingHoldService holdService;
+    private LocalDate from;
+    private LocalDate to;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new MutableClock(Instant.parse("2030-01-01T10:00:00Z"));
+        BookingHoldRepository holdRepository = new BookingHoldRepository();
+        RoomService roomService = new RoomService(new RoomRepository());
+        guestService = new GuestService(new GuestRepository());
+        bookingService = new BookingService(new BookingRepository(), holdRepository, roomService, guestService);
+        holdService = new BookingHoldService(bookingService, holdRepository, clock);
+
+        guestService.save(new Guest(1, "John", "Miller", Gender.MALE));
+        roomService.save(new Room(1, new HashSet<>(Arrays.asList(new Bed(BedType.DOUBLE), new Toilet()))));
+        from = LocalDate.now().plusDays(10);
+        to = from.plusDays(3);
+    }
+
+    @Test
+    public void holdBlocksOverlappingBookingsAndHolds() {
+        //given
+        holdService.hold(new Booking(1, 1, 1, 2, from, to), null);
+        Booking overlapping = new Booking(2, 1, 1, 1, from.plusDays(1), to.plusDays(1));
+
+        //when and then
+        assertThrows(BookingOverlappingException.class, () -> bookingService.save(overlapping));
+        assertThrows(BookingOverlappingException.class, () -> holdService.hold(overlapping, null));
+        assertEquals(1, holdService.count());
+    }
+
+    @Test
+    public void confirmHoldCreatesBooking() {
+        //given
+        BookingHold hold = holdService.hold(new Booking(1, 1, 1, 2, from, to), Duration.ofMinutes(5));
+
+        //when
+        Booking booking = holdService.confirm(hold.getHoldId());
+
+        //then
+        assertEquals(from, booking.getFrom());
+        assertEquals(to, booking.getTo());
+        assertEquals(1, bookingService.findAll().size());
+        assertEquals(0, holdService.count());
+        assertThrows(ItemNotFoundException.class, () -> holdService.confirm(hold.getHoldId()));
+    }
+
+    @Test
+    public void holdIsKeptWhenItCanNotBeConfirmed() {
+        //given
+        BookingHold hold = holdService.hold(new Booking(1, 1, 1, 2, from, to), Duration.ofMinutes(5));
+        guestService.deleteById(1);
+
+        //when
+        assertThrows(ItemNotFoundException.class, () -> holdService.confirm(hold.getHoldId()));
+
+        //then
+        assertEquals(1, holdService.count());
+        assertEquals(from, holdService.findById(hold.getHoldId()).getFrom());
+        assertEquals(0, bookingService.findAll().size());
+        int guestId = guestService.save(new Guest(2, "Maria", "Smith", Gender.FEMALE)).getGuestId();
+        assertThrows(BookingOverlappingException.class,
+                () -> holdService.hold(new Booking(2, guestId, 1, 1, from, to), null));
+        clock.advance(Duration.ofMinutes(6));
+        assertEquals(1, holdService.expireHolds());
+    }
+
+    @Test
+    public void holdExpiresAfterItsDuration() {
+        //given
+        BookingHold hold = holdService.hold(new Booking(1, 1, 1, 2, from, to), Duration.ofMinutes(5));
+
+        //when
+        clock.advance(Duration.ofMinutes(4));
+        int expiredEarly = holdService.expireHolds();
+        clock.advance(Duration.ofMinutes(2));
+        int expired = holdService.expireHolds();
+
+        //then
+        assertEquals(0, expiredEarly);
+        assertEquals(1, expired);
+        assertThrows(ItemNotFoundException.class, () -> holdService.findById(hold.getHoldId()));
+        bookingService.save(new Booking(2, 1, 1, 1, from, to));
+    }
+
+    @Test
+    public void releaseHoldAndInvalidDuration() {
+        //given
+        BookingHold hold = holdService.hold(new Booking(1, 1, 1, 2, from, to), null);
+
+        //when and then
+        assertTrue(holdService.release(hold.getHoldId()));
+        assertThrows(ItemNotFoundException.class, () -> holdService.release(hold.getHoldId()));
+        assertThrows(InvalidArgumentException.class,
+                () -> holdService.hold(new Booking(1, 1, 1, 2, from, to), Duration.ofHours(2)));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        holdService = null;
+        bookingService = null;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
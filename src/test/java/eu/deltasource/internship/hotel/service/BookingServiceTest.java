@@ -2,17 +2,28 @@ package eu.deltasource.internship.hotel.service;
 
 import eu.deltasource.internship.hotel.domain.*;
 import eu.deltasource.internship.hotel.domain.commodity.*;
+import eu.deltasource.internship.hotel.dto.CalendarDTO;
+import eu.deltasource.internship.hotel.dto.GroupBookingDTO;
+import eu.deltasource.internship.hotel.dto.RoomCalendarDTO;
 import eu.deltasource.internship.hotel.exception.*;
 import eu.deltasource.internship.hotel.repository.*;
+import eu.deltasource.internship.hotel.utility.Today;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.Month;
+import java.time.ZoneOffset;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static eu.deltasource.internship.hotel.domain.commodity.BedType.SINGLE;
 import static org.hamcrest.MatcherAssert.*;
@@ -32,6 +43,7 @@ public class BookingServiceTest {
 
     @BeforeEach
     public void setUp() {
+        Today.useClock(Clock.fixed(Instant.parse("2019-08-01T10:00:00Z"), ZoneOffset.UTC));
         bookingRepository = new BookingRepository();
         guestRepository = new GuestRepository();
         roomRepository = new RoomRepository();
@@ -306,12 +318,208 @@ public class BookingServiceTest {
                 () -> bookingService.updateBookingByDates(secondBooking.getBookingId(), updateFrom, updateTo));
     }
 
+    @Test
+    public void saveGroupSavesNothingWhenOneBookingIsOverlapped() {
+        //given
+        createGroupRooms();
+        LocalDate from = Today.date().plusDays(30);
+        LocalDate to = from.plusDays(4);
+        bookingService.save(new Booking(1, 1, 3, 1, from.plusDays(1), to));
+        Booking firstRoom = new Booking(2, 1, 1, 1, from, to);
+        Booking secondRoom = new Booking(3, 1, 2, 1, from, to);
+        Booking bookedRoom = new Booking(4, 1, 3, 1, from, to);
+
+        //when and then
+        assertThrows(BookingOverlappingException.class,
+                () -> bookingService.saveGroup(Arrays.asList(firstRoom, secondRoom, bookedRoom)));
+        assertThat(bookingService.findAll(), hasSize(1));
+        assertThat(bookingService.saveGroup(Arrays.asList(firstRoom, secondRoom)), hasSize(2));
+    }
+
+    @Test
+    public void saveGroupThrowsExceptionWhenGroupOverlapsItself() {
+        //given
+        createGroupRooms();
+        LocalDate from = Today.date().plusDays(30);
+        Booking first = new Booking(1, 1, 1, 1, from, from.plusDays(3));
+        Booking second = new Booking(2, 1, 1, 1, from.plusDays(2), from.plusDays(5));
+
+        //when and then
+        assertThrows(BookingOverlappingException.class,
+                () -> bookingService.saveGroup(Arrays.asList(first, second)));
+        assertTrue(bookingService.findAll().isEmpty());
+    }
+
+    @Test
+    public void autoAssignGroupBooksFreeRoomsWithEnoughCapacity() {
+        //given
+        createGroupRooms();
+        LocalDate from = Today.date().plusDays(30);
+        LocalDate to = from.plusDays(2);
+        bookingService.save(new Booking(1, 1, 1, 2, from, to));
+
+        //when
+        List<Booking> bookings = bookingService.saveGroup(new GroupBookingDTO(1, 2, 2, from, to));
+
+        //then
+        assertThat(bookings, hasSize(2));
+        assertThat(bookings.stream().map(Booking::getRoomId).collect(Collectors.toList()),
+                containsInAnyOrder(2, 3));
+        assertThrows(BookingOverlappingException.class,
+                () -> bookingService.saveGroup(new GroupBookingDTO(1, 1, 2, from, to)));
+    }
+
+    @Test
+    public void waitlistedRequestIsBookedWhenTheDatesAreFreed() {
+        //given
+        createGroupRooms();
+        guestService.save(new Guest(2, "Maria", "Tam", Gender.FEMALE));
+        LocalDate from = Today.date().plusDays(20);
+        Booking booked = bookingService.save(new Booking(1, 1, 4, 1, from, from.plusDays(3)));
+        WaitlistEntry entry = bookingService.waitlist(new Booking(0, 2, 4, 1, from.plusDays(1), from.plusDays(2)));
+
+        //when
+        bookingService.deleteById(booked.getBookingId());
+        WaitlistEntry promoted = bookingService.findWaitlistEntryById(entry.getWaitlistId());
+
+        //then
+        assertFalse(entry.isPromoted());
+        assertTrue(promoted.isPromoted());
+        Booking booking = bookingService.findById(promoted.getBookingId());
+        assertThat(booking.getGuestId(), is(2));
+        assertThat(booking.getRoomId(), is(4));
+        assertThat(booking.getFrom(), is(from.plusDays(1)));
+    }
+
+    @Test
+    public void failedUpdateKeepsTheBookingAndTheWaitlist() {
+        //given
+        createGroupRooms();
+        guestService.save(new Guest(2, "Maria", "Tam", Gender.FEMALE));
+        LocalDate from = Today.date().plusDays(20);
+        Booking booked = bookingService.save(new Booking(1, 1, 4, 1, from, from.plusDays(3)));
+        bookingService.save(new Booking(2, 2, 3, 1, from, from.plusDays(3)));
+        WaitlistEntry entry = bookingService.waitlist(new Booking(0, 2, 4, 1, from.plusDays(1), from.plusDays(2)));
+
+        //when
+        assertThrows(BookingOverlappingException.class, () -> bookingService.updateBooking(booked.getBookingId(),
+                new Booking(booked.getBookingId(), 1, 3, 1, from, from.plusDays(3))));
+
+        //then
+        Booking kept = bookingService.findById(booked.getBookingId());
+        assertThat(kept.getRoomId(), is(4));
+        assertThat(kept.getFrom(), is(from));
+        assertThat(bookingService.findAll(), hasSize(2));
+        assertFalse(bookingService.findWaitlistEntryById(entry.getWaitlistId()).isPromoted());
+    }
+
+    @Test
+    public void waitlistForAnyRoomIsServedInOrderByRoomsWithEnoughCapacity() {
+        //given
+        createGroupRooms();
+        LocalDate from = Today.date().plusDays(20);
+        LocalDate to = from.plusDays(2);
+        bookingService.saveGroup(new GroupBookingDTO(1, 4, 1, from, to));
+        WaitlistEntry couple = bookingService.waitlist(new Booking(0, 1, WaitlistEntry.ANY_ROOM, 2, from, to));
+        WaitlistEntry single = bookingService.waitlist(new Booking(0, 1, WaitlistEntry.ANY_ROOM, 1, from, to));
+        int singleRoomBooking = bookingService.findAll().stream()
+                .filter(booking -> booking.getRoomId() == 4).findFirst().get().getBookingId();
+        int doubleRoomBooking = bookingService.findAll().stream()
+                .filter(booking -> booking.getRoomId() == 1).findFirst().get().getBookingId();
+
+        //when
+        bookingService.deleteById(singleRoomBooking);
+        boolean coupleWaitsForSingleRoom = !bookingService.findWaitlistEntryById(couple.getWaitlistId()).isPromoted();
+        bookingService.deleteById(doubleRoomBooking);
+
+        //then
+        assertTrue(coupleWaitsForSingleRoom);
+        assertThat(bookingService.findWaitlistEntryById(single.getWaitlistId()).getRoomId(), is(4));
+        assertThat(bookingService.findWaitlistEntryById(couple.getWaitlistId()).getRoomId(), is(1));
+        assertThrows(InvalidArgumentException.class,
+                () -> bookingService.waitlist(new Booking(0, 1, WaitlistEntry.ANY_ROOM, 5, from, to)));
+    }
+
+    @Test
+    public void overbookingIsLimitedPerNight() {
+        //given
+        createGroupRooms();
+        bookingService.setOverbookingPerNight(1);
+        LocalDate from = Today.date().plusDays(20);
+        bookingService.save(new Booking(1, 1, 3, 1, from, from.plusDays(2)));
+        bookingService.save(new Booking(2, 1, 4, 1, from, from.plusDays(2)));
+
+        //when
+        bookingService.save(new Booking(3, 1, 3, 1, from.plusDays(1), from.plusDays(3)));
+        Map<LocalDate, Integer> overbooked = bookingService.findOverbookedNights(from, from.plusDays(3));
+
+        //then
+        assertThat(overbooked, is(Collections.singletonMap(from.plusDays(1), 1)));
+        assertThrows(BookingOverlappingException.class,
+                () -> bookingService.save(new Booking(4, 1, 4, 1, from.plusDays(1), from.plusDays(2))));
+        bookingService.save(new Booking(5, 1, 4, 1, from, from.plusDays(1)));
+        assertThat(bookingService.findOverbookedNights(from, from.plusDays(3)).keySet(),
+                contains(from, from.plusDays(1)));
+    }
+
+    @Test
+    public void calendarRunsAcrossMonths() {
+        //given
+        createGroupRooms();
+        LocalDate from = LocalDate.of(2019, Month.AUGUST, 25);
+        int first = bookingService.save(new Booking(1, 1, 1, 1, from.plusDays(3), from.plusDays(9))).getBookingId();
+        int second = bookingService.save(new Booking(2, 1, 3, 1, from, from.plusDays(2))).getBookingId();
+
+        //when
+        CalendarDTO calendar = bookingService.findCalendar(from, 14);
+
+        //then
+        assertThat(calendar.getRooms().stream().map(RoomCalendarDTO::getRoomId).collect(Collectors.toList()),
+                contains(1, 2, 3, 4));
+        assertArrayEquals(new int[]{0, 3, first, 6, 0, 5}, calendar.getRooms().get(0).getRuns());
+        assertArrayEquals(new int[]{0, 14}, calendar.getRooms().get(1).getRuns());
+        assertArrayEquals(new int[]{second, 2, 0, 12}, calendar.getRooms().get(2).getRuns());
+        assertThrows(InvalidArgumentException.class, () -> bookingService.findCalendar(from, 0));
+    }
+
+    @Test
+    public void datesBeyondTheEpochDayRangeAreInvalid() {
+        //given
+        createGroupRooms();
+        LocalDate from = LocalDate.MAX.minusDays(2);
+
+        //when
+        //then
+        assertThrows(InvalidArgumentException.class, () -> new Booking(1, 1, 1, 1, from, LocalDate.MAX));
+        assertThrows(InvalidArgumentException.class, () -> bookingService.findAvailableRooms(from, LocalDate.MAX, 1));
+        assertThrows(InvalidArgumentException.class, () -> bookingService.findCalendar(from, 1));
+    }
+
+    @Test
+    public void calendarFollowsBookingChanges() {
+        //given
+        createGroupRooms();
+        LocalDate from = LocalDate.of(2019, Month.SEPTEMBER, 1);
+        int first = bookingService.save(new Booking(1, 1, 2, 1, from, from.plusDays(2))).getBookingId();
+        bookingService.findCalendar(from, 30);
+
+        //when
+        bookingService.deleteById(first);
+        int second = bookingService.save(new Booking(2, 1, 2, 1, from.plusDays(29), from.plusDays(32)))
+                .getBookingId();
+        CalendarDTO calendar = bookingService.findCalendar(from, 30);
+
+        //then
+        assertArrayEquals(new int[]{0, 29, second, 1}, calendar.getRooms().get(1).getRuns());
+    }
+
     @AfterEach
     public void tearDown() {
         roomService = null;
         guestService = null;
         bookingRepository = null;
         bookingService = null;
+        Today.useSystemClock();
     }
 
     private void createBookings() {
@@ -345,4 +553,13 @@ public class BookingServiceTest {
         // adds the bookings dto the repository which then can be accessed from BookingService
         bookingService.saveAll(firstBooking, secondBooking);
     }
-}
\ No newline at end of file
+
+    private void createGroupRooms() {
+        guestService.save(new Guest(1, "John", "Miller", Gender.MALE));
+        roomService.saveAll(
+                new Room(1, new HashSet<>(Arrays.asList(new Bed(BedType.DOUBLE), new Toilet()))),
+                new Room(2, new HashSet<>(Arrays.asList(new Bed(BedType.KING_SIZE), new Shower()))),
+                new Room(3, new HashSet<>(Arrays.asList(new Bed(SINGLE), new Bed(SINGLE)))),
+                new Room(4, new HashSet<>(Arrays.asList(new Bed(SINGLE), new Toilet()))));
+    }
+}
@@ -0,0 +1,112 @@
+package eu.deltasource.internship.hotel.service;
+
+import eu.deltasource.internship.hotel.domain.ChangeEvent;
+import eu.deltasource.internship.hotel.domain.Gender;
+import eu.deltasource.internship.hotel.domain.Guest;
+import eu.deltasource.internship.hotel.repository.GuestRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeEventLogTest {
+
+    private ChangeEventLog eventLog;
+
+    @BeforeEach
+    public void setUp() {
+        eventLog = new ChangeEventLog(4);
+    }
+
+    @Test
+    public void serviceChangesArePublishedInOrder() {
+        //given
+        GuestService guestService = new GuestService(new GuestRepository(), eventLog);
+
+        //when
+        Guest guest = guestService.save(new Guest(1, "Maria", "Johnson", Gender.FEMALE));
+        guestService.update(new Guest(guest.getGuestId(), "Maria", "Smith", Gender.FEMALE));
+        guestService.deleteById(guest.getGuestId());
+        ChangeEventLog.Page page = eventLog.read(0, 10);
+
+        //then
+        assertFalse(page.isResync());
+        assertThat(page.getEvents(), hasSize(3));
+        assertThat(page.getEvents().get(0).getSequence(), is(1L));
+        assertThat(page.getEvents().get(1).getAction(), is(ChangeEvent.Action.UPDATED));
+        assertThat(page.getEvents().get(2).getAction(), is(ChangeEvent.Action.DELETED));
+        assertThat(page.getEvents().get(2).getEntityId(), is(guest.getGuestId()));
+        assertThat(eventLog.read(2, 10).getEvents(), hasSize(1));
+    }
+
+    @Test
+    public void readerBehindTheBufferIsToldToResync() {
+        //given
+        for (int i = 1; i <= 6; i++) {
+            eventLog.publish(ChangeEvent.Entity.ROOM, ChangeEvent.Action.CREATED, i);
+        }
+
+        //when
+        ChangeEventLog.Page behind = eventLog.read(1, 10);
+        ChangeEventLog.Page kept = eventLog.read(2, 10);
+
+        //then
+        assertTrue(behind.isResync());
+        assertThat(behind.getEvents(), empty());
+        assertThat(behind.getLastSequence(), is(6L));
+        assertFalse(kept.isResync());
+        assertThat(kept.getEvents(), hasSize(4));
+    }
+
+    @Test
+    public void slowSubscriberDoesNotBlockWriters() throws InterruptedException {
+        //given
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch resynced = new CountDownLatch(1);
+        List<Long> delivered = new CopyOnWriteArrayList<>();
+        eventLog.subscribe(0, page -> {
+            if (page.isResync()) {
+                resynced.countDown();
+            }
+            page.getEvents().forEach(event -> delivered.add(event.getSequence()));
+            entered.countDown();
+            awaitQuietly(release);
+        });
+        eventLog.publish(ChangeEvent.Entity.BOOKING, ChangeEvent.Action.CREATED, 1);
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        //when
+        for (int i = 2; i <= 10; i++) {
+            eventLog.publish(ChangeEvent.Entity.BOOKING, ChangeEvent.Action.CREATED, i);
+        }
+        release.countDown();
+
+        //then
+        assertTrue(resynced.await(5, TimeUnit.SECONDS));
+        assertThat(eventLog.lastSequence(), is(10L));
+        assertThat(delivered, contains(1L));
+        assertThat(eventLog.subscriberCount(), is(1));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        eventLog.stop();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -4,6 +4,7 @@ package eu.deltasource.internship.hotel.service;
 
 import eu.deltasource.internship.hotel.domain.Gender;
 import eu.deltasource.internship.hotel.domain.Guest;
+import eu.deltasource.internship.hotel.dto.GuestImportDTO;
 import eu.deltasource.internship.hotel.exception.*;
 import eu.deltasource.internship.hotel.repository.GuestRepository;
 import org.junit.jupiter.api.AfterEach;
@@ -229,6 +230,84 @@ public class GuestServiceTest {
         assertThat(allGuests, containsInAnyOrder(firstGuest, secondGuest, thirdGuest));
     }
 
+    @Test
+    public void searchGuestsIgnoresCaseAndDiacritics() {
+        //given
+        Guest zoe = new Guest(1, "Zoë", "Müller", Gender.FEMALE);
+        Guest michael = new Guest(2, "Michael", "Miller", Gender.MALE);
+        Guest george = new Guest(3, "George", "Port", Gender.MALE);
+        guestService.saveAll(zoe, michael, george);
+
+        //when
+        List<Guest> found = guestService.search("MU", 10, false);
+
+        //then
+        assertThat(found, contains(zoe));
+        assertThat(guestService.search("zoe mül", 10, false), contains(zoe));
+        assertThat(guestService.search("m", 10, false), containsInAnyOrder(zoe, michael));
+        assertThat(guestService.search("m", 1, false), hasSize(1));
+    }
+
+    @Test
+    public void fuzzySearchMatchesOneEdit() {
+        //given
+        Guest michael = new Guest(1, "Michael", "Miller", Gender.MALE);
+        Guest george = new Guest(2, "George", "Port", Gender.MALE);
+        guestService.saveAll(michael, george);
+
+        //when
+        List<Guest> exact = guestService.search("Mller", 10, false);
+        List<Guest> fuzzy = guestService.search("Mller", 10, true);
+
+        //then
+        assertThat(exact, empty());
+        assertThat(fuzzy, contains(michael));
+        assertThat(guestService.search("Gorge", 10, true), contains(george));
+        assertThat(guestService.search("Pprt", 10, true), contains(george));
+    }
+
+    @Test
+    public void searchFollowsUpdatesAndDeletes() {
+        //given
+        createGuest();
+        guestService.update(new Guest(firstGuest.getGuestId(), "Maria", "Smith", Gender.FEMALE));
+
+        //when
+        List<Guest> byOldName = guestService.search("Johnson", 10, false);
+        List<Guest> byNewName = guestService.search("Smith", 10, false);
+        guestService.deleteById(firstGuest.getGuestId());
+
+        //then
+        assertThat(byOldName, empty());
+        assertThat(byNewName, contains(firstGuest));
+        assertThat(guestService.search("Maria", 10, false), empty());
+        assertThrows(InvalidArgumentException.class, () -> guestService.search(" ", 10, false));
+        assertThrows(InvalidArgumentException.class, () -> guestService.search("Maria", 0, false));
+    }
+
+    @Test
+    public void mergeGuestsSkipsDuplicates() {
+        //given
+        guestService.saveAll(new Guest(1, "Maria", "Johnson", Gender.FEMALE),
+                new Guest(2, "Jose", "Garcia", Gender.MALE));
+        List<Guest> imported = new ArrayList<>();
+        imported.add(new Guest(0, "Maria", "Johnson", Gender.FEMALE));
+        imported.add(new Guest(0, "José", "GARCIA ", Gender.MALE));
+        imported.add(new Guest(0, "George", "Port", Gender.MALE));
+        imported.add(new Guest(0, "george", "port", Gender.MALE));
+
+        //when
+        GuestImportDTO result = guestService.merge(imported);
+
+        //then
+        assertThat(result.getInserted(), is(1));
+        assertThat(result.getUpdated(), is(2));
+        assertThat(result.getUnchanged(), is(1));
+        assertThat(guestService.findAll(), hasSize(3));
+        assertThat(guestService.findById(2).getFirstName(), is("José"));
+        assertThat(guestService.findById(3).getFirstName(), is("george"));
+    }
+
     @AfterEach
     public void tearDown() {
         guestService = null;
@@ -0,0 +1,101 @@
+package eu.deltasource.internship.hotel.service;
+
+import eu.deltasource.internship.hotel.domain.*;
+import eu.deltasource.internship.hotel.domain.commodity.*;
+import eu.deltasource.internship.hotel.dto.HotelAvailabilityDTO;
+import eu.deltasource.internship.hotel.exception.*;
+import eu.deltasource.internship.hotel.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HotelServiceTest {
+
+    private HotelService hotelService;
+
+    @BeforeEach
+    public void setUp() {
+        BookingHoldRepository holdRepository = new BookingHoldRepository();
+        ChangeEventLog eventLog = new ChangeEventLog();
+        RoomRepository roomRepository = new RoomRepository();
+        BookingRepository bookingRepository = new BookingRepository();
+        RoomService roomService = new RoomService(roomRepository, eventLog);
+        GuestService guestService = new GuestService(new GuestRepository(), eventLog);
+        BookingService bookingService = new BookingService(bookingRepository, holdRepository,
+                roomService, guestService, eventLog);
+        hotelService = new HotelService(bookingService, new BookingHoldService(bookingService, holdRepository),
+                guestService, roomService, eventLog,
+                new HousekeepingService(bookingService, roomService, (roomId, commodity, task) -> {
+                }), new PricingService(bookingRepository, roomRepository, eventLog));
+    }
+
+    @Test
+    public void hotelsHaveIndependentData() {
+        //given
+        Hotel first = hotelService.save("Seaside");
+        Hotel second = hotelService.save("Mountain");
+
+        //when
+        first.getRoomService().save(new Room(1, new HashSet<>(Arrays.asList(new Bed(BedType.DOUBLE)))));
+
+        //then
+        assertThat(first.getRoomService().findAll(), hasSize(1));
+        assertThat(second.getRoomService().findAll(), is(empty()));
+        assertThat(hotelService.findById(HotelService.DEFAULT_HOTEL_ID).getRoomService().findAll(), is(empty()));
+        assertThat(hotelService.findAll(), hasSize(3));
+    }
+
+    @Test
+    public void findAvailableRoomsSearchesAllHotels() {
+        //given
+        Hotel first = createHotelWithRoom("Seaside");
+        Hotel second = createHotelWithRoom("Mountain");
+        createHotelWithRoom("City");
+        LocalDate from = LocalDate.now().plusDays(5);
+        LocalDate to = from.plusDays(2);
+        first.getBookingService().save(new Booking(1, 1, 1, 2, from, to));
+
+        //when
+        List<HotelAvailabilityDTO> availability = hotelService.findAvailableRooms(from, to, 2);
+
+        //then
+        assertThat(availability, hasSize(2));
+        assertThat(availability.get(0).getHotelId(), is(second.getHotelId()));
+        assertThrows(InvalidArgumentException.class, () -> hotelService.findAvailableRooms(to, from, 2));
+    }
+
+    @Test
+    public void deleteHotel() {
+        //given
+        Hotel hotel = hotelService.save("Seaside");
+
+        //when
+        boolean result = hotelService.deleteById(hotel.getHotelId());
+
+        //then
+        assertTrue(result);
+        assertThrows(ItemNotFoundException.class, () -> hotelService.findById(hotel.getHotelId()));
+        assertThrows(InvalidArgumentException.class, () -> hotelService.deleteById(HotelService.DEFAULT_HOTEL_ID));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        hotelService.stop();
+    }
+
+    private Hotel createHotelWithRoom(String name) {
+        Hotel hotel = hotelService.save(name);
+        hotel.getGuestService().save(new Guest(1, "John", "Miller", Gender.MALE));
+        hotel.getRoomService().save(new Room(1, new HashSet<>(Arrays.asList(new Bed(BedType.DOUBLE)))));
+        return hotel;
+    }
+}
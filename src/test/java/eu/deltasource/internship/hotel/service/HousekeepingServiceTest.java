@@ -0,0 +1,106 @@
+package eu.deltasource.internship.hotel.service;
+
+import eu.deltasource.internship.hotel.domain.*;
+import eu.deltasource.internship.hotel.domain.commodity.*;
+import eu.deltasource.internship.hotel.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HousekeepingServiceTest {
+
+    private BookingService bookingService;
+    private RoomService roomService;
+    private HousekeepingService housekeepingService;
+    private Queue<String> preparedTasks;
+    private LocalDate checkout;
+
+    @BeforeEach
+    public void setUp() {
+        roomService = new RoomService(new RoomRepository());
+        GuestService guestService = new GuestService(new GuestRepository());
+        bookingService = new BookingService(new BookingRepository(), roomService, guestService);
+        preparedTasks = new ConcurrentLinkedQueue<>();
+        housekeepingService = new HousekeepingService(bookingService, roomService,
+                (roomId, commodity, task) -> preparedTasks.add(roomId + ": " + task));
+        housekeepingService.start();
+
+        guestService.save(new Guest(1, "John", "Miller", Gender.MALE));
+        for (int i = 1; i <= 3; i++) {
+            roomService.save(new Room(i, new HashSet<>(Arrays.asList(new Bed(BedType.SINGLE), new Toilet()))));
+        }
+        checkout = LocalDate.now().plusDays(10);
+    }
+
+    @Test
+    public void planPutsRoomsWithTheNearestArrivalFirst() {
+        //given
+        book(1, checkout.minusDays(2), checkout);
+        book(2, checkout.minusDays(2), checkout);
+        book(3, checkout.minusDays(2), checkout);
+        book(2, checkout, checkout.plusDays(1));
+        book(3, checkout.plusDays(3), checkout.plusDays(4));
+
+        //when
+        List<CleaningTask> plan = housekeepingService.plan(checkout);
+
+        //then
+        assertThat(plan, hasSize(3));
+        assertThat(plan.get(0).getRoomId(), is(2));
+        assertTrue(plan.get(0).isSameDayArrival());
+        assertThat(plan.get(1).getRoomId(), is(3));
+        assertThat(plan.get(1).getNextArrival(), is(checkout.plusDays(3)));
+        assertThat(plan.get(2).getRoomId(), is(1));
+        assertNull(plan.get(2).getNextArrival());
+        assertThat(housekeepingService.plan(checkout.plusDays(1)), hasSize(1));
+    }
+
+    @Test
+    public void runPreparesEveryCommodityOfTheLeftRooms() throws Exception {
+        //given
+        book(1, checkout.minusDays(2), checkout);
+        book(3, checkout.minusDays(1), checkout);
+        book(2, checkout.minusDays(1), checkout.plusDays(1));
+
+        //when
+        int cleaned = housekeepingService.run(checkout).get(5, TimeUnit.SECONDS);
+
+        //then
+        assertThat(cleaned, is(2));
+        assertThat(preparedTasks, containsInAnyOrder(
+                "1: The bed sheets are being replaced!", "1: The toilet is being cleaned!",
+                "3: The bed sheets are being replaced!", "3: The toilet is being cleaned!"));
+    }
+
+    @Test
+    public void changedBookingsMoveInThePlan() {
+        //given
+        Booking booking = book(1, checkout.minusDays(2), checkout);
+
+        //when
+        bookingService.deleteById(booking.getBookingId());
+        book(1, checkout.minusDays(2), checkout.plusDays(1));
+
+        //then
+        assertThat(housekeepingService.plan(checkout), empty());
+        assertThat(housekeepingService.plan(checkout.plusDays(1)), hasSize(1));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        housekeepingService.stop();
+    }
+
+    private Booking book(int roomId, LocalDate from, LocalDate to) {
+        return bookingService.save(new Booking(0, 1, roomId, 1, from, to));
+    }
+}
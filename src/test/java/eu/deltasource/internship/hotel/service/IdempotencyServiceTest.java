@@ -0,0 +1,176 @@
+package eu.deltasource.internship.hotel.service;
+
+import eu.deltasource.internship.hotel.domain.Gender;
+import eu.deltasource.internship.hotel.domain.Guest;
+import eu.deltasource.internship.hotel.dto.IdempotencyStatsDTO;
+import eu.deltasource.internship.hotel.exception.IdempotencyKeyReusedException;
+import eu.deltasource.internship.hotel.exception.InvalidArgumentException;
+import eu.deltasource.internship.hotel.repository.GuestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyServiceTest {
+
+    private MutableClock clock;
+    private IdempotencyService idempotencyService;
+    private GuestService guestService;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new MutableClock(Instant.parse("2030-01-01T10:00:00Z"));
+        idempotencyService = new IdempotencyService(2, Duration.ofMinutes(10), clock);
+        guestService = new GuestService(new GuestRepository());
+    }
+
+    @Test
+    public void retryIsAnsweredWithTheStoredResponse() {
+        //given
+        String operation = IdempotencyService.operation(null, "/guests");
+        Guest first = idempotencyService.execute("key-1", operation,
+                () -> guestService.save(new Guest(1, "John", "Miller", Gender.MALE)));
+
+        //when
+        Guest retried = idempotencyService.execute("key-1", operation,
+                () -> guestService.save(new Guest(1, "John", "Miller", Gender.MALE)));
+        idempotencyService.execute("key-1", IdempotencyService.operation(2, "/guests"),
+                () -> guestService.save(new Guest(1, "Maria", "Smith", Gender.FEMALE)));
+        IdempotencyStatsDTO stats = idempotencyService.stats();
+
+        //then
+        assertThat(retried, sameInstance(first));
+        assertThat(guestService.findAll(), hasSize(2));
+        assertThat(stats.getHits(), is(1L));
+        assertThat(stats.getMisses(), is(2L));
+        assertThat(stats.getHitRate(), closeTo(1.0 / 3, 1e-9));
+    }
+
+    @Test
+    public void failedRequestIsExecutedAgain() {
+        //given
+        AtomicInteger executions = new AtomicInteger();
+
+        //when
+        assertThrows(InvalidArgumentException.class, () -> idempotencyService.execute("key-1", "/guests", () -> {
+            executions.incrementAndGet();
+            throw new InvalidArgumentException("Invalid guest!");
+        }));
+        int response = idempotencyService.execute("key-1", "/guests", executions::incrementAndGet);
+
+        //then
+        assertThat(response, is(2));
+        assertThat(idempotencyService.stats().getSize(), is(1));
+        assertThrows(InvalidArgumentException.class, () -> idempotencyService.execute("", "/guests", () -> 1));
+    }
+
+    @Test
+    public void oldestResponsesAreEvictedAndExpired() {
+        //given
+        idempotencyService.execute("key-1", "/guests", () -> 1);
+        idempotencyService.execute("key-2", "/guests", () -> 2);
+
+        //when
+        idempotencyService.execute("key-3", "/guests", () -> 3);
+        int evicted = idempotencyService.execute("key-1", "/guests", () -> 10);
+        clock.advance(Duration.ofMinutes(11));
+        int expired = idempotencyService.execute("key-3", "/guests", () -> 30);
+        IdempotencyStatsDTO stats = idempotencyService.stats();
+
+        //then
+        assertThat(evicted, is(10));
+        assertThat(expired, is(30));
+        assertThat(stats.getSize(), is(1));
+        assertThat(stats.getCapacity(), is(2));
+        assertThat(stats.getEvictions(), is(2L));
+        assertThat(stats.getExpirations(), is(2L));
+        assertThat(stats.getHits(), is(0L));
+    }
+
+    @Test
+    public void keySentWithAnotherBodyIsRejected() {
+        //given
+        String operation = IdempotencyService.operation(null, "/guests");
+        Guest guest = new Guest(1, "John", "Miller", Gender.MALE);
+        idempotencyService.execute("key-1", operation, guest, () -> guestService.save(guest));
+
+        //when
+        Guest other = new Guest(1, "Maria", "Smith", Gender.FEMALE);
+        Guest retried = idempotencyService.execute("key-1", operation, new Guest(1, "John", "Miller", Gender.MALE),
+                () -> guestService.save(guest));
+
+        //then
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotencyService.execute("key-1", operation, other, () -> guestService.save(other)));
+        assertThat(retried.getLastName(), is("Miller"));
+        assertThat(guestService.findAll(), hasSize(1));
+    }
+
+    @Test
+    public void runningRequestIsNotEvicted() throws InterruptedException {
+        //given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread first = new Thread(() -> idempotencyService.execute("key-1", "/guests", () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 1;
+        }));
+        first.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        //when
+        idempotencyService.execute("key-2", "/guests", () -> 2);
+        idempotencyService.execute("key-3", "/guests", () -> 3);
+        release.countDown();
+        first.join();
+        int retried = idempotencyService.execute("key-1", "/guests", () -> 10);
+
+        //then
+        assertThat(retried, is(1));
+        assertThat(idempotencyService.stats().getEvictions(), is(1L));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package eu.deltasource.internship.hotel.service;
+
+import eu.deltasource.internship.hotel.domain.*;
+import eu.deltasource.internship.hotel.domain.commodity.*;
+import eu.deltasource.internship.hotel.dto.QuoteDTO;
+import eu.deltasource.internship.hotel.exception.InvalidArgumentException;
+import eu.deltasource.internship.hotel.exception.ItemNotFoundException;
+import eu.deltasource.internship.hotel.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PricingServiceTest {
+
+    private ChangeEventLog eventLog;
+    private RoomService roomService;
+    private BookingService bookingService;
+    private PricingService pricingService;
+    private LocalDate from;
+
+    @BeforeEach
+    public void setUp() {
+        eventLog = new ChangeEventLog();
+        RoomRepository roomRepository = new RoomRepository();
+        BookingRepository bookingRepository = new BookingRepository();
+        roomService = new RoomService(roomRepository, eventLog);
+        GuestService guestService = new GuestService(new GuestRepository(), eventLog);
+        bookingService = new BookingService(bookingRepository, new BookingHoldRepository(), roomService,
+                guestService, eventLog);
+        guestService.save(new Guest(1, "John", "Miller", Gender.MALE));
+        // 60.00 for the double bed, 10.00 for the shower and 5.00 for the toilet
+        roomService.save(new Room(1, new HashSet<>(Arrays.asList(new Bed(BedType.DOUBLE), new Shower(),
+                new Toilet()))));
+        // 2 x 40.00 for the single beds
+        roomService.save(new Room(2, new HashSet<>(Arrays.asList(new Bed(BedType.SINGLE), new Bed(BedType.SINGLE)))));
+        pricingService = new PricingService(bookingRepository, roomRepository, eventLog);
+        from = LocalDate.now().plusDays(10);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        eventLog.stop();
+    }
+
+    @Test
+    public void quoteOfFreeNightsIsTheBaseRate() {
+        //when
+        QuoteDTO quote = pricingService.quote(1, from, from.plusDays(3));
+
+        //then
+        assertThat(quote.getNightlyRates(), contains(new BigDecimal("75.00"), new BigDecimal("75.00"),
+                new BigDecimal("75.00")));
+        assertThat(quote.getTotal(), is(new BigDecimal("225.00")));
+        assertThrows(ItemNotFoundException.class, () -> pricingService.quote(3, from, from.plusDays(1)));
+        assertThrows(InvalidArgumentException.class, () -> pricingService.quote(1, from, from));
+    }
+
+    @Test
+    public void occupancyRaisesTheRatesOfTheBookedNightsOnly() {
+        //given
+        Booking booking = bookingService.save(new Booking(1, 1, 2, 1, from.plusDays(1), from.plusDays(2)));
+        pricingService.catchUp();
+
+        //when
+        QuoteDTO booked = pricingService.quote(1, from, from.plusDays(3));
+        bookingService.deleteById(booking.getBookingId());
+        pricingService.catchUp();
+        QuoteDTO freed = pricingService.quote(1, from, from.plusDays(3));
+
+        //then
+        assertThat(booked.getNightlyRates(), contains(new BigDecimal("75.00"), new BigDecimal("93.75"),
+                new BigDecimal("75.00")));
+        assertThat(booked.getTotal(), is(new BigDecimal("243.75")));
+        assertThat(freed.getTotal(), is(new BigDecimal("225.00")));
+    }
+
+    @Test
+    public void newRoomsLowerTheOccupancyOfBookedNights() {
+        //given
+        bookingService.save(new Booking(1, 1, 1, 2, from, from.plusDays(1)));
+        bookingService.save(new Booking(2, 1, 2, 2, from, from.plusDays(1)));
+        pricingService.catchUp();
+        BigDecimal fullyBooked = pricingService.quote(2, from, from.plusDays(1)).getTotal();
+
+        //when
+        roomService.save(new Room(3, new HashSet<>(Arrays.asList(new Bed(BedType.KING_SIZE), new Bed(BedType.SINGLE)))));
+        pricingService.catchUp();
+
+        //then
+        assertThat(fullyBooked, is(new BigDecimal("120.00")));
+        assertThat(pricingService.quote(2, from, from.plusDays(1)).getTotal(), is(new BigDecimal("106.66")));
+        assertThat(pricingService.quote(3, from, from.plusDays(1)).getTotal(), is(new BigDecimal("160.00")));
+    }
+}
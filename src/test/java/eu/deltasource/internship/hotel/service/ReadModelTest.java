@@ -0,0 +1,147 @@
+package eu.deltasource.internship.hotel.service;
+
+import eu.deltasource.internship.hotel.domain.ChangeEvent;
+import eu.deltasource.internship.hotel.domain.Gender;
+import eu.deltasource.internship.hotel.domain.Guest;
+import eu.deltasource.internship.hotel.exception.ItemNotFoundException;
+import eu.deltasource.internship.hotel.repository.GuestRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadModelTest {
+
+    private ChangeEventLog eventLog;
+    private GuestRepository guestRepository;
+    private GuestService guestService;
+
+    @BeforeEach
+    public void setUp() {
+        eventLog = new ChangeEventLog();
+        guestRepository = new GuestRepository();
+        guestService = new GuestService(guestRepository, eventLog);
+    }
+
+    @Test
+    public void writesAreVisibleToTheNextRead() {
+        //given
+        Guest guest = guestService.save(new Guest(1, "Maria", "Johnson", Gender.FEMALE));
+
+        //when
+        guestService.update(new Guest(guest.getGuestId(), "Maria", "Smith", Gender.FEMALE));
+        Guest updated = guestService.findById(guest.getGuestId());
+        guestService.save(new Guest(2, "George", "Port", Gender.MALE));
+
+        //then
+        assertThat(updated.getLastName(), is("Smith"));
+        assertThat(guestService.findAll(), hasSize(2));
+    }
+
+    @Test
+    public void readsDoNotWaitForTheRepositoryLock() throws InterruptedException {
+        //given
+        guestService.save(new Guest(1, "Maria", "Johnson", Gender.FEMALE));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread writer = new Thread(() -> {
+            synchronized (guestRepository) {
+                locked.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        writer.start();
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        //when
+        List<Guest> guests = assertTimeoutPreemptively(Duration.ofSeconds(1), () -> guestService.findAll());
+        Guest guest = assertTimeoutPreemptively(Duration.ofSeconds(1), () -> guestService.findById(1));
+        release.countDown();
+        writer.join();
+
+        //then
+        assertThat(guests, hasSize(1));
+        assertThat(guest.getFirstName(), is("Maria"));
+    }
+
+    @Test
+    public void foundItemsDoNotChangeTheView() {
+        //given
+        guestService.save(new Guest(1, "Maria", "Johnson", Gender.FEMALE));
+
+        //when
+        guestService.findById(1).changeFirstAndLastNames("Anna", "Lee");
+
+        //then
+        assertThat(guestService.findById(1).getFirstName(), is("Maria"));
+        assertThrows(UnsupportedOperationException.class, () -> guestService.findAll().clear());
+    }
+
+    @Test
+    public void viewFollowsChangesAcrossManyItems() {
+        //given
+        for (int i = 1; i <= 300; i++) {
+            guestService.save(new Guest(i, "Guest", "Number" + i, Gender.FEMALE));
+        }
+
+        //when
+        for (int id = 1; id <= 300; id += 7) {
+            guestService.deleteById(id);
+        }
+        guestService.update(new Guest(150, "Maria", "Smith", Gender.FEMALE));
+        guestService.save(new Guest(301, "George", "Port", Gender.MALE));
+
+        //then
+        List<Guest> guests = guestService.findAll();
+        assertThat(guests, hasSize(guestRepository.count()));
+        for (int i = 0; i < guests.size(); i++) {
+            assertThat(guests.get(i).getGuestId(), is(guestRepository.findAll().get(i).getGuestId()));
+        }
+        assertThat(guestService.findById(150).getLastName(), is("Smith"));
+        assertThat(guestService.findById(301).getFirstName(), is("George"));
+        assertThrows(ItemNotFoundException.class, () -> guestService.findById(8));
+    }
+
+    @Test
+    public void viewIsReloadedWhenAChangeCanNotBeApplied() {
+        //given
+        AtomicBoolean failing = new AtomicBoolean(true);
+        ReadModel<Guest> readModel = new ReadModel<>(ChangeEvent.Entity.GUEST, eventLog, id -> {
+            if (failing.get()) {
+                throw new IllegalStateException("The guest can not be read!");
+            }
+            return guestRepository.findById(id);
+        }, guestRepository::findAll, Guest::getGuestId, Guest::new);
+
+        //when
+        guestRepository.save(new Guest(1, "Maria", "Johnson", Gender.FEMALE));
+        eventLog.publish(ChangeEvent.Entity.GUEST, ChangeEvent.Action.CREATED, 1);
+        readModel.catchUp();
+        failing.set(false);
+        guestRepository.save(new Guest(2, "George", "Port", Gender.MALE));
+        eventLog.publish(ChangeEvent.Entity.GUEST, ChangeEvent.Action.CREATED, 2);
+        readModel.catchUp();
+
+        //then
+        assertThat(readModel.findAll(), hasSize(2));
+        assertThat(readModel.findById(1).getFirstName(), is("Maria"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        eventLog.stop();
+    }
+}
@@ -17,13 +17,14 @@ import static org.hamcrest.Matchers.*;
 
 public class RoomServiceTest {
 
+    private RoomRepository roomRepository;
     private RoomService roomService;
     private Room singleRoom;
     private Room kingSizeRoom;
 
     @BeforeEach
     public void setUp() {
-        RoomRepository roomRepository = new RoomRepository();
+        roomRepository = new RoomRepository();
         roomService = new RoomService(roomRepository);
     }
 
@@ -186,6 +187,24 @@ public class RoomServiceTest {
         assertThrows(InvalidArgumentException.class, () -> roomService.updateRoom(updatedRoomHasNullCommodity));
     }
 
+    @Test
+    public void failedUpdateKeepsTheStoredRoom() {
+        // given
+        createRooms();
+        int capacity = roomRepository.findCapacityById(2);
+        Room emptiedRoom = new Room(2, new HashSet<>(Arrays.asList(new Bed(KING_SIZE), new Toilet())));
+        assertThrows(FailedInitializationException.class,
+                () -> emptiedRoom.updateCommodities(Collections.singleton(new Toilet())));
+
+        // when
+        assertThrows(FailedInitializationException.class, () -> roomService.updateRoom(emptiedRoom));
+
+        //then
+        assertEquals(kingSizeRoom.getCommodities(), roomRepository.findById(2).getCommodities());
+        assertEquals(capacity, roomRepository.findCapacityById(2));
+        assertThat(roomRepository.findByBedType(KING_SIZE), contains(kingSizeRoom));
+    }
+
     @Test
     public void saveRoomsVarargsThrowsExceptionWhenContainsNullRoom() {
         //given
@@ -223,6 +242,53 @@ public class RoomServiceTest {
         assertThrows(InvalidArgumentException.class, () -> roomService.saveAll(rooms));
     }
 
+    @Test
+    public void findCapacityByExistingRoomId() {
+        //given
+        createRooms();
+        int expectedCapacity = 2;
+
+        //when
+        int capacity = roomService.findCapacityById(kingSizeRoom.getRoomId());
+
+        //then
+        assertEquals(expectedCapacity, capacity);
+        assertThrows(ItemNotFoundException.class, () -> roomService.findCapacityById(7));
+    }
+
+    @Test
+    public void searchRoomsByCapacityAndBedType() {
+        //given
+        createRooms();
+
+        //when
+        List<Room> byCapacity = roomService.search(2, null);
+        List<Room> byBedType = roomService.search(null, SINGLE);
+        List<Room> byBoth = roomService.search(2, SINGLE);
+
+        //then
+        assertThat(byCapacity, contains(kingSizeRoom));
+        assertThat(byBedType, contains(singleRoom));
+        assertThat(byBoth, is(empty()));
+    }
+
+    @Test
+    public void searchRoomsAfterUpdateAndDelete() {
+        //given
+        createRooms();
+        Room updatedRoom = new Room(singleRoom.getRoomId(),
+                new HashSet<>(Arrays.asList(new Bed(DOUBLE), new Bed(SINGLE))));
+
+        //when
+        roomService.updateRoom(updatedRoom);
+        roomService.deleteById(kingSizeRoom.getRoomId());
+
+        //then
+        assertThat(roomService.search(3, null), contains(singleRoom));
+        assertThat(roomService.search(null, KING_SIZE), is(empty()));
+        assertEquals(1, roomService.findById(singleRoom.getRoomId()).getSummary().getBedCount(DOUBLE));
+    }
+
     @AfterEach
     public void tearDown() {
         roomService = null;
@@ -0,0 +1,67 @@
+package eu.deltasource.internship.hotel.service;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import eu.deltasource.internship.hotel.domain.Room;
+import eu.deltasource.internship.hotel.dto.RoomDeserializer;
+import eu.deltasource.internship.hotel.tracing.TraceRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WarmupServiceTest {
+
+    private WarmupService warmupService;
+
+    @BeforeEach
+    public void setUp() {
+        warmupService = new WarmupService(Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new ParameterNamesModule())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .deserializerByType(Room.class, new RoomDeserializer()).build(), new TraceRecorder());
+    }
+
+    @Test
+    public void warmUpDoesAllIterationsBeforeTheDeadline() {
+        //given
+        long deadline = System.nanoTime() + 60_000_000_000L;
+
+        //when
+        int done = warmupService.warmUp(500, deadline);
+
+        //then
+        assertThat(done, is(500));
+    }
+
+    @Test
+    public void warmUpStopsAtTheDeadline() {
+        //given
+        long deadline = System.nanoTime();
+
+        //when
+        int done = warmupService.warmUp(500, deadline);
+
+        //then
+        assertThat(done, is(0));
+    }
+
+    @Test
+    public void applicationIsReadyAfterTheWarmup() {
+        //given
+        warmupService.setEnabled(true);
+        warmupService.setIterations(100);
+        assertFalse(warmupService.isReady());
+
+        //when
+        warmupService.run(new DefaultApplicationArguments(new String[0]));
+
+        //then
+        assertTrue(warmupService.isReady());
+    }
+}
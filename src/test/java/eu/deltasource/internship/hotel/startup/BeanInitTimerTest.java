@@ -0,0 +1,66 @@
+package eu.deltasource.internship.hotel.startup;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class BeanInitTimerTest {
+
+    private BeanInitTimer beanInitTimer;
+
+    @BeforeEach
+    public void setUp() {
+        beanInitTimer = new BeanInitTimer();
+    }
+
+    @Test
+    public void dependencyTimeIsNotCountedAsOwnTime() throws InterruptedException {
+        //given
+        beanInitTimer.postProcessBeforeInstantiation(Object.class, "service");
+        beanInitTimer.postProcessBeforeInstantiation(Object.class, "repository");
+        Thread.sleep(20);
+        beanInitTimer.postProcessAfterInitialization("repository", "repository");
+
+        //when
+        beanInitTimer.postProcessAfterInitialization("service", "service");
+
+        //then
+        List<BeanTiming> timings = beanInitTimer.findSlowest(10);
+        assertThat(timings.get(0).getBeanName(), is("repository"));
+        assertThat(timings.get(0).getOwnMicros(), greaterThanOrEqualTo(20_000L));
+        assertThat(timings.get(1).getBeanName(), is("service"));
+        assertThat(timings.get(1).getTotalMicros(), greaterThanOrEqualTo(20_000L));
+        assertThat(timings.get(1).getOwnMicros(), lessThan(20_000L));
+    }
+
+    @Test
+    public void objectsOfFactoryBeansAreNotTimed() {
+        //given
+        beanInitTimer.postProcessBeforeInstantiation(Object.class, "factory");
+        beanInitTimer.postProcessAfterInitialization("factory", "factory");
+
+        //when
+        beanInitTimer.postProcessAfterInitialization("product", "factory");
+
+        //then
+        assertThat(beanInitTimer.getCount(), is(1));
+        assertThat(beanInitTimer.findSlowest(10).get(0).getType(), is(String.class.getName()));
+    }
+
+    @Test
+    public void abandonedCreationsAreSkipped() {
+        //given
+        beanInitTimer.postProcessBeforeInstantiation(Object.class, "service");
+        beanInitTimer.postProcessBeforeInstantiation(Object.class, "failed");
+
+        //when
+        beanInitTimer.postProcessAfterInitialization("service", "service");
+
+        //then
+        assertThat(beanInitTimer.findSlowest(10), contains(hasProperty("beanName", is("service"))));
+    }
+}
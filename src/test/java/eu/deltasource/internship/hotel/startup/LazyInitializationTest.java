@@ -0,0 +1,81 @@
+package eu.deltasource.internship.hotel.startup;
+
+import eu.deltasource.internship.hotel.replication.ReplicationService;
+import eu.deltasource.internship.hotel.service.RoomService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.AnnotatedGenericBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.event.EventListenerMethodProcessor;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LazyInitializationTest {
+
+    private DefaultListableBeanFactory beanFactory;
+    private LazyInitialization lazyInitialization;
+
+    @BeforeEach
+    public void setUp() {
+        beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("roomService", new AnnotatedGenericBeanDefinition(RoomService.class));
+        beanFactory.registerBeanDefinition("replicationService",
+                new AnnotatedGenericBeanDefinition(ReplicationService.class));
+        beanFactory.registerBeanDefinition("infrastructure", new RootBeanDefinition(RoomService.class));
+        lazyInitialization = new LazyInitialization();
+    }
+
+    @Test
+    public void beansAreLazyWhenEnabled() {
+        //given
+        lazyInitialization.setEnvironment(new MockEnvironment().withProperty("hotel.startup.lazy", "true"));
+
+        //when
+        lazyInitialization.postProcessBeanFactory(beanFactory);
+
+        //then
+        assertTrue(beanFactory.getBeanDefinition("roomService").isLazyInit());
+    }
+
+    @Test
+    public void beansAreEagerByDefault() {
+        //given
+        lazyInitialization.setEnvironment(new MockEnvironment());
+
+        //when
+        lazyInitialization.postProcessBeanFactory(beanFactory);
+
+        //then
+        assertFalse(beanFactory.getBeanDefinition("roomService").isLazyInit());
+    }
+
+    @Test
+    public void beansMarkedEagerAndInfrastructureStayEager() {
+        //given
+        lazyInitialization.setEnvironment(new MockEnvironment().withProperty("hotel.startup.lazy", "true"));
+        beanFactory.getBeanDefinition("infrastructure").setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+
+        //when
+        lazyInitialization.postProcessBeanFactory(beanFactory);
+
+        //then
+        assertFalse(beanFactory.getBeanDefinition("replicationService").isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition("infrastructure").isLazyInit());
+    }
+
+    @Test
+    public void smartInitializingSingletonsStayEager() {
+        //given
+        RootBeanDefinition definition = new RootBeanDefinition(EventListenerMethodProcessor.class);
+
+        //when
+        boolean deferrable = LazyInitialization.isDeferrable(definition, getClass().getClassLoader());
+
+        //then
+        assertFalse(deferrable);
+    }
+}
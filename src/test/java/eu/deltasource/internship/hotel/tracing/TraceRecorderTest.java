@@ -0,0 +1,111 @@
+package eu.deltasource.internship.hotel.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TraceRecorderTest {
+
+    private TraceRecorder traceRecorder;
+
+    @BeforeEach
+    public void setUp() {
+        traceRecorder = new TraceRecorder();
+        traceRecorder.setRecent(3);
+    }
+
+    @Test
+    public void spansAreNestedInTheRequest() {
+        //given
+        Tracing.begin("POST /bookings");
+
+        //when
+        try (Span handler = Tracing.span("BookingController.save")) {
+            try (Span validate = Tracing.span("booking.validate")) {
+                Tracing.span("guestService.existsById").close();
+            }
+            // left open, ended with its parent
+            Tracing.span("bookingRepository.save");
+        }
+        Tracing.span("response.write");
+        Trace trace = Tracing.end(201, "POST /bookings");
+
+        //then
+        List<Span> spans = trace.getSpans();
+        assertThat(spans.stream().map(Span::getName).collect(Collectors.toList()), contains("POST /bookings",
+                "BookingController.save", "booking.validate", "guestService.existsById",
+                "bookingRepository.save", "response.write"));
+        assertThat(spans.stream().map(Span::getParentIndex).collect(Collectors.toList()),
+                contains(-1, 0, 1, 2, 1, 0));
+        assertTrue(spans.stream().noneMatch(Span::isOpen));
+        assertEquals(201, trace.getStatus());
+        assertSame(Span.NOOP, Tracing.span("after the request"));
+    }
+
+    @Test
+    public void requestsWithTheUntracedTokenAreNeverSampled() {
+        //given
+        traceRecorder.setSampleRate(1);
+
+        //when
+        boolean tagged = traceRecorder.sample(traceRecorder.getUntracedToken());
+        boolean forged = traceRecorder.sample("forged");
+        boolean untagged = traceRecorder.sample(null);
+
+        //then
+        assertFalse(tagged);
+        assertTrue(forged);
+        assertTrue(untagged);
+    }
+
+    @Test
+    public void slowestRecentTracesComeFirst() throws Exception {
+        //given
+        for (int sleep : new int[]{1, 30, 10, 20}) {
+            Tracing.begin("GET /rooms");
+            Thread.sleep(sleep);
+            traceRecorder.record(Tracing.end(200, null));
+        }
+
+        //when
+        List<Trace> slowest = traceRecorder.findSlowest(2);
+
+        //then
+        assertThat(slowest, hasSize(2));
+        assertThat(slowest.get(0).getDurationMicros(), greaterThanOrEqualTo(30_000L));
+        assertThat(slowest.get(1).getDurationMicros(), both(greaterThanOrEqualTo(20_000L)).and(lessThan(30_000L)));
+    }
+
+    @Test
+    public void traceIsWrittenAsOtlpJson() throws Exception {
+        //given
+        Tracing.begin("GET /bookings/1");
+        Tracing.span("BookingController.findById").close();
+        Trace trace = Tracing.end(200, "GET /bookings/{id}");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //when
+        traceRecorder.write(trace, out);
+
+        //then
+        String line = out.toString("UTF-8");
+        assertThat(line, endsWith("}\n"));
+        JsonNode spans = new ObjectMapper().readTree(line)
+                .at("/resourceSpans/0/scopeSpans/0/spans");
+        assertEquals(2, spans.size());
+        assertEquals("GET /bookings/{id}", spans.get(0).get("name").asText());
+        assertEquals(trace.getTraceId(), spans.get(1).get("traceId").asText());
+        assertEquals(spans.get(0).get("spanId").asText(), spans.get(1).get("parentSpanId").asText());
+        assertThat(spans.get(1).get("endTimeUnixNano").asLong(),
+                greaterThanOrEqualTo(spans.get(1).get("startTimeUnixNano").asLong()));
+    }
+}
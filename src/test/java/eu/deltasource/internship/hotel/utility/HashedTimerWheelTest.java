@@ -0,0 +1,75 @@
+package eu.deltasource.internship.hotel.utility;
+
+import eu.deltasource.internship.hotel.utility.HashedTimerWheel.Timeout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashedTimerWheelTest {
+
+    private HashedTimerWheel<String> wheel;
+    private List<String> expired;
+
+    @BeforeEach
+    public void setUp() {
+        wheel = new HashedTimerWheel<>(10, 4, 0);
+        expired = new ArrayList<>();
+    }
+
+    @Test
+    public void expiresItemsOnlyAfterTheirDeadline() {
+        //given
+        wheel.schedule("first", 25);
+        wheel.schedule("second", 95);
+        wheel.schedule("third", 500);
+
+        //when and then
+        wheel.advance(29, expired::add);
+        assertThat(expired, is(empty()));
+        wheel.advance(30, expired::add);
+        assertThat(expired, contains("first"));
+        wheel.advance(99, expired::add);
+        assertThat(expired, contains("first"));
+        wheel.advance(100, expired::add);
+        assertThat(expired, contains("first", "second"));
+        assertEquals(1, wheel.size());
+        wheel.advance(10_000, expired::add);
+        assertThat(expired, contains("first", "second", "third"));
+    }
+
+    @Test
+    public void cancelledItemsDoNotExpire() {
+        //given
+        Timeout<String> timeout = wheel.schedule("cancelled", 20);
+        wheel.schedule("kept", 20);
+
+        //when
+        boolean cancelled = wheel.cancel(timeout);
+        wheel.advance(100, expired::add);
+
+        //then
+        assertTrue(cancelled);
+        assertFalse(wheel.cancel(timeout));
+        assertThat(expired, contains("kept"));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void itemsScheduledInThePastExpireOnTheNextTick() {
+        //given
+        wheel.advance(100, expired::add);
+        wheel.schedule("late", 50);
+
+        //when
+        wheel.advance(110, expired::add);
+
+        //then
+        assertThat(expired, contains("late"));
+    }
+}